@@ -0,0 +1,37 @@
+#!/bin/sh
+# Inicia un microservicio construido con el perfil produccion (mvn -Pproduccion package)
+#
+# Usa el contexto procesado por Spring AOT y el archivo CDS (Class Data Sharing) de
+# target/produccion. Si el archivo CDS no existe (build con -Dcds.omitir=true), primero
+# hace el arranque de entrenamiento con los mismos argumentos, que termina apenas se
+# crea el contexto, y luego inicia el servicio usándolo.
+#
+# Uso: ./arrancar-produccion.sh <directorio-del-servicio> [argumentos de Spring...]
+#   ./arrancar-produccion.sh carritoservice
+#   JAVA_OPTS="-Xmx512m" ./arrancar-produccion.sh productservice/productservice --server.port=9082
+#
+# El servicio se ejecuta desde su directorio, igual que con mvnw spring-boot:run.
+set -e
+
+if [ $# -lt 1 ]; then
+    echo "Uso: $0 <directorio-del-servicio> [argumentos de Spring...]" >&2
+    exit 1
+fi
+cd "$1"
+shift
+
+jar=$(ls target/produccion/*-produccion.jar 2>/dev/null | head -n 1)
+if [ -z "$jar" ]; then
+    echo "No existe target/produccion en $(pwd): construir el servicio con mvn -Pproduccion package" >&2
+    exit 1
+fi
+java="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+archivo=target/produccion/aplicacion.jsa
+
+if [ ! -f "$archivo" ]; then
+    echo "Creando el archivo CDS $archivo (arranque de entrenamiento)..."
+    "$java" $JAVA_OPTS -XX:ArchiveClassesAtExit="$archivo" -Dspring.aot.enabled=true \
+        -Dspring.context.exit=onRefresh -jar "$jar" "$@"
+fi
+
+exec "$java" $JAVA_OPTS -XX:SharedArchiveFile="$archivo" -Dspring.aot.enabled=true -jar "$jar" "$@"
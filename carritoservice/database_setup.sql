@@ -10,5 +10,5 @@ USE perfulandia_carritos_01v;
 -- Verificar que la base de datos se creó correctamente
 SHOW DATABASES;
 
--- Mostrar las tablas (se crearán automáticamente con JPA)
+-- Mostrar las tablas (las crean las migraciones de Flyway al iniciar la aplicación)
 SHOW TABLES; 
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.perfulandia.carritoservice.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el total del carrito y la serialización JSON del carrito y de sus
+ * items, con carritos del tamaño indicado. El ObjectMapper se configura
+ * como el de Spring Boot.
+ *
+ * Se ejecuta con el perfil benchmark: mvn -Pbenchmark verify -DskipTests
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CarritoBenchmark {
+
+    @Param({"5", "50"})
+    private int items;
+
+    private ObjectMapper objectMapper;
+    private Carrito carrito;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        carrito = Carrito.builder()
+                .id(1L)
+                .usuarioId(1L)
+                .estado(EstadoCarrito.ACTIVO)
+                .fechaCreacion(LocalDateTime.of(2025, 6, 30, 12, 0))
+                .ultimaActividad(LocalDateTime.of(2025, 6, 30, 12, 30))
+                .items(new ArrayList<>())
+                .build();
+        for (int i = 0; i < items; i++) {
+            ItemCarrito item = ItemCarrito.builder()
+                    .id((long) i)
+                    .carrito(carrito)
+                    .productoId(100L + i)
+                    .cantidad(1 + i % 3)
+                    .precioUnitario(19.99 + i)
+                    .build();
+            carrito.getItems().add(item);
+            carrito.setTotalCentavos(carrito.getTotalCentavos() + item.getSubtotalCentavos());
+            carrito.setCantidadItems(carrito.getCantidadItems() + item.getCantidad());
+        }
+    }
+
+    @Benchmark
+    public Double total() {
+        return carrito.getTotal();
+    }
+
+    @Benchmark
+    public String serializarCarrito() throws Exception {
+        return objectMapper.writeValueAsString(carrito);
+    }
+
+    @Benchmark
+    public byte[] serializarItems() throws Exception {
+        return objectMapper.writeValueAsBytes(carrito.getItems());
+    }
+}
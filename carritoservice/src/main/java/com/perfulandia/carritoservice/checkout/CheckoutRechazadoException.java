@@ -0,0 +1,35 @@
+package com.perfulandia.carritoservice.checkout;
+
+import java.util.List;
+
+/**
+ * Excepción lanzada cuando el checkout no se puede completar por el
+ * estado del carrito o del stock (se responde HTTP 409)
+ * 
+ * Casos: falta de stock, carrito vacío o no activo, carrito modificado
+ * durante el checkout u otro checkout del mismo carrito en curso.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class CheckoutRechazadoException extends RuntimeException {
+    
+    private final List<Long> sinStock;
+    
+    public CheckoutRechazadoException(String mensaje) {
+        this(mensaje, List.of());
+    }
+    
+    public CheckoutRechazadoException(String mensaje, List<Long> sinStock) {
+        super(mensaje);
+        this.sinStock = sinStock;
+    }
+    
+    /**
+     * IDs de los productos sin stock (vacía si el rechazo es por otro motivo)
+     */
+    public List<Long> getSinStock() {
+        return sinStock;
+    }
+}
@@ -0,0 +1,39 @@
+package com.perfulandia.carritoservice.checkout;
+
+import com.perfulandia.carritoservice.model.LineaPedido;
+
+import java.util.List;
+
+/**
+ * Acceso al stock del microservicio de productos
+ * 
+ * Ambas operaciones son idempotentes por ID de reserva, así que se
+ * pueden repetir después de un error sin descontar ni devolver dos veces.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public interface ClienteInventario {
+    
+    /**
+     * Reserva en una sola llamada el stock de todas las líneas (todas o ninguna)
+     * 
+     * @param reservaId ID de la reserva
+     * @param lineas Productos y unidades a reservar
+     * @throws StockInsuficienteException si algún producto no tiene stock suficiente
+     * @throws RuntimeException si el microservicio no responde o responde con error
+     */
+    void reservar(String reservaId, List<LineaPedido> lineas);
+    
+    /**
+     * Libera una reserva devolviendo su stock
+     * 
+     * Liberar una reserva que no llegó a hacerse la anula, de modo que
+     * una petición de reserva atrasada ya no descuente stock.
+     * 
+     * @param reservaId ID de la reserva
+     * @throws RuntimeException si el microservicio no responde o responde con error
+     */
+    void liberar(String reservaId);
+}
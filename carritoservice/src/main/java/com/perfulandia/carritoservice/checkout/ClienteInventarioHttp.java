@@ -0,0 +1,72 @@
+package com.perfulandia.carritoservice.checkout;
+
+import com.perfulandia.carritoservice.model.LineaPedido;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cliente HTTP del stock del microservicio de productos
+ * 
+ * Usa los endpoints de reservas de /api/productos/stock/reservas: una
+ * llamada para reservar todas las líneas del pedido y otra para liberar.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Component // Marca esta clase como un componente de Spring para inyectarla en el checkout
+public class ClienteInventarioHttp implements ClienteInventario {
+    
+    private final RestClient clienteProductos;
+    
+    public ClienteInventarioHttp(@Qualifier("clienteProductos") RestClient clienteProductos) {
+        this.clienteProductos = clienteProductos;
+    }
+    
+    @Override
+    public void reservar(String reservaId, List<LineaPedido> lineas) {
+        List<Map<String, Object>> cuerpoLineas = new ArrayList<>(lineas.size());
+        for (LineaPedido linea : lineas) {
+            cuerpoLineas.add(Map.of("productoId", linea.getProductoId(), "cantidad", linea.getCantidad()));
+        }
+        try {
+            clienteProductos.post()
+                    .uri("/api/productos/stock/reservas")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("reservaId", reservaId, "lineas", cuerpoLineas))
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (HttpClientErrorException e) {
+            // 409 con "sinStock": rechazo definitivo; cualquier otro error se trata como falla remota
+            if (e.getStatusCode() == HttpStatus.CONFLICT) {
+                RespuestaConflicto conflicto = e.getResponseBodyAs(RespuestaConflicto.class);
+                if (conflicto != null && conflicto.sinStock() != null && !conflicto.sinStock().isEmpty()) {
+                    throw new StockInsuficienteException(conflicto.sinStock());
+                }
+            }
+            throw e;
+        }
+    }
+    
+    @Override
+    public void liberar(String reservaId) {
+        clienteProductos.post()
+                .uri("/api/productos/stock/reservas/{reservaId}/liberar", reservaId)
+                .retrieve()
+                .toBodilessEntity();
+    }
+    
+    /**
+     * Cuerpo de la respuesta 409 de la reserva
+     */
+    record RespuestaConflicto(String error, List<Long> sinStock) {
+    }
+}
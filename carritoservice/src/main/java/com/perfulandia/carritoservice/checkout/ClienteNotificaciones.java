@@ -0,0 +1,21 @@
+package com.perfulandia.carritoservice.checkout;
+
+import com.perfulandia.carritoservice.model.PedidoConfirmado;
+
+/**
+ * Envío de la confirmación de un pedido al microservicio de emails
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public interface ClienteNotificaciones {
+    
+    /**
+     * Pide el envío del email de confirmación de un pedido
+     * 
+     * @param pedido Datos del pedido confirmado
+     * @throws RuntimeException si el microservicio no acepta el email
+     */
+    void notificarPedido(PedidoConfirmado pedido);
+}
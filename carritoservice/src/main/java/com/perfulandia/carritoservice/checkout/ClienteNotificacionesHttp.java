@@ -0,0 +1,34 @@
+package com.perfulandia.carritoservice.checkout;
+
+import com.perfulandia.carritoservice.model.PedidoConfirmado;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Cliente HTTP del microservicio de emails
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Component // Marca esta clase como un componente de Spring para inyectarla en el checkout
+public class ClienteNotificacionesHttp implements ClienteNotificaciones {
+    
+    private final RestClient clienteEmail;
+    
+    public ClienteNotificacionesHttp(@Qualifier("clienteEmail") RestClient clienteEmail) {
+        this.clienteEmail = clienteEmail;
+    }
+    
+    @Override
+    public void notificarPedido(PedidoConfirmado pedido) {
+        clienteEmail.post()
+                .uri("/api/email/compra/pedido")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(pedido)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
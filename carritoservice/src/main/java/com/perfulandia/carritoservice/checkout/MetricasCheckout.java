@@ -0,0 +1,153 @@
+package com.perfulandia.carritoservice.checkout;
+
+import com.perfulandia.carritoservice.model.EstadisticasCheckout;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas del checkout de carritos
+ * 
+ * Lleva contadores acumulados desde el inicio del servicio: resultados
+ * de los checkouts, compensaciones, notificaciones y, por cada paso, la
+ * cantidad de ejecuciones y su latencia promedio y máxima.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Component // Marca esta clase como un componente de Spring (singleton compartido)
+public class MetricasCheckout {
+    
+    /**
+     * Pasos del checkout con latencia medida
+     */
+    public enum Paso {
+        /** Reclamar el checkout y leer el carrito */
+        PREPARAR,
+        /** Consultar los precios vigentes de los productos del carrito */
+        VALIDAR_PRECIOS,
+        /** Reservar el stock en el microservicio de productos */
+        RESERVAR,
+        /** Completar el carrito y confirmar el checkout */
+        COMPLETAR,
+        /** Liberar la reserva de un intento fallido */
+        COMPENSAR,
+        /** Enviar la confirmación al microservicio de emails (en segundo plano) */
+        NOTIFICAR,
+        /** Checkout completo, desde la petición hasta la respuesta */
+        TOTAL
+    }
+    
+    private final Map<Paso, Latencia> latencias = new EnumMap<>(Paso.class);
+    private final LongAdder completados = new LongAdder();
+    private final LongAdder reintentos = new LongAdder();
+    private final LongAdder sinStock = new LongAdder();
+    private final LongAdder preciosCambiados = new LongAdder();
+    private final LongAdder conflictos = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+    private final LongAdder compensaciones = new LongAdder();
+    private final LongAdder compensacionesFallidas = new LongAdder();
+    private final LongAdder notificacionesEnviadas = new LongAdder();
+    private final LongAdder notificacionesFallidas = new LongAdder();
+    
+    public MetricasCheckout() {
+        for (Paso paso : Paso.values()) {
+            latencias.put(paso, new Latencia());
+        }
+    }
+    
+    /**
+     * Registra la duración de una ejecución de un paso
+     * 
+     * @param paso Paso ejecutado
+     * @param inicioNanos Valor de System.nanoTime() al empezar el paso
+     */
+    public void registrarPaso(Paso paso, long inicioNanos) {
+        latencias.get(paso).registrar(System.nanoTime() - inicioNanos);
+    }
+    
+    public void registrarCompletado() {
+        completados.increment();
+    }
+    
+    public void registrarReintento() {
+        reintentos.increment();
+    }
+    
+    public void registrarSinStock() {
+        sinStock.increment();
+    }
+    
+    public void registrarPreciosCambiados() {
+        preciosCambiados.increment();
+    }
+    
+    public void registrarConflicto() {
+        conflictos.increment();
+    }
+    
+    public void registrarError() {
+        errores.increment();
+    }
+    
+    public void registrarCompensacion(boolean exitosa) {
+        (exitosa ? compensaciones : compensacionesFallidas).increment();
+    }
+    
+    public void registrarNotificacion(boolean exitosa) {
+        (exitosa ? notificacionesEnviadas : notificacionesFallidas).increment();
+    }
+    
+    /**
+     * Genera una foto de las métricas actuales
+     * 
+     * @return Estadísticas listas para exponer por HTTP
+     */
+    public EstadisticasCheckout instantanea() {
+        Map<String, EstadisticasCheckout.LatenciaPaso> pasos = new LinkedHashMap<>();
+        latencias.forEach((paso, latencia) -> pasos.put(paso.name(), latencia.instantanea()));
+        return EstadisticasCheckout.builder()
+                .completados(completados.sum())
+                .reintentos(reintentos.sum())
+                .sinStock(sinStock.sum())
+                .preciosCambiados(preciosCambiados.sum())
+                .conflictos(conflictos.sum())
+                .errores(errores.sum())
+                .compensaciones(compensaciones.sum())
+                .compensacionesFallidas(compensacionesFallidas.sum())
+                .notificacionesEnviadas(notificacionesEnviadas.sum())
+                .notificacionesFallidas(notificacionesFallidas.sum())
+                .pasos(pasos)
+                .build();
+    }
+    
+    /**
+     * Latencia acumulada de un paso
+     */
+    private static final class Latencia {
+        
+        private final LongAdder ejecuciones = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maximoNanos = new AtomicLong();
+        
+        void registrar(long nanos) {
+            ejecuciones.increment();
+            totalNanos.add(nanos);
+            maximoNanos.accumulateAndGet(nanos, Math::max);
+        }
+        
+        EstadisticasCheckout.LatenciaPaso instantanea() {
+            long cantidad = ejecuciones.sum();
+            return EstadisticasCheckout.LatenciaPaso.builder()
+                    .ejecuciones(cantidad)
+                    .promedioMs(cantidad == 0 ? 0.0 : totalNanos.sum() / (cantidad * 1_000_000.0))
+                    .maximoMs(maximoNanos.get() / 1_000_000.0)
+                    .build();
+        }
+    }
+}
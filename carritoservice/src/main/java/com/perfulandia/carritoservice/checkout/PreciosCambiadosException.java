@@ -0,0 +1,31 @@
+package com.perfulandia.carritoservice.checkout;
+
+import java.util.List;
+
+/**
+ * Excepción lanzada cuando el checkout encuentra items con un precio
+ * distinto del vigente (se responde HTTP 409)
+ * 
+ * Antes de lanzarla el checkout actualiza esos items al precio vigente,
+ * así que el usuario ve el total nuevo y puede volver a confirmar.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class PreciosCambiadosException extends CheckoutRechazadoException {
+    
+    private final List<Long> productos;
+    
+    public PreciosCambiadosException(List<Long> productos) {
+        super("Cambió el precio de algunos productos; revisa el carrito e inténtalo de nuevo");
+        this.productos = productos;
+    }
+    
+    /**
+     * IDs de los productos cuyo precio se actualizó
+     */
+    public List<Long> getProductos() {
+        return productos;
+    }
+}
@@ -0,0 +1,18 @@
+package com.perfulandia.carritoservice.checkout;
+
+/**
+ * Excepción lanzada cuando el checkout se interrumpe porque otro
+ * microservicio no respondió (se responde HTTP 503)
+ * 
+ * El intento ya se compensó: el cliente puede reintentar el checkout.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class ServicioNoDisponibleException extends RuntimeException {
+    
+    public ServicioNoDisponibleException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
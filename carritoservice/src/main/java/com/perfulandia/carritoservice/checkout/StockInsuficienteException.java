@@ -0,0 +1,28 @@
+package com.perfulandia.carritoservice.checkout;
+
+import java.util.List;
+
+/**
+ * Excepción lanzada cuando el microservicio de productos rechaza una
+ * reserva porque algún producto no tiene stock suficiente
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class StockInsuficienteException extends RuntimeException {
+    
+    private final List<Long> productos;
+    
+    public StockInsuficienteException(List<Long> productos) {
+        super("Stock insuficiente para los productos: " + productos);
+        this.productos = productos;
+    }
+    
+    /**
+     * IDs de los productos sin stock suficiente
+     */
+    public List<Long> getProductos() {
+        return productos;
+    }
+}
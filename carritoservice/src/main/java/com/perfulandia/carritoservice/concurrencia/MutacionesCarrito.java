@@ -0,0 +1,146 @@
+package com.perfulandia.carritoservice.concurrencia;
+
+import com.perfulandia.carritoservice.model.EstadisticasConcurrencia;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta los cambios de un carrito de a uno por nodo y los reintenta si chocan con otro nodo
+ * 
+ * Dos pestañas del navegador pueden cambiar el mismo carrito al mismo
+ * tiempo. Cada cambio ya es atómico en la base de datos (el item se suma
+ * o inserta en una sola sentencia, el total se ajusta con un UPDATE que
+ * exige que el carrito siga activo y la entidad Carrito se guarda con
+ * bloqueo optimista por su revisión), pero dos cambios concurrentes
+ * pueden terminar en un conflicto optimista o en un deadlock entre las
+ * filas del item y del carrito.
+ * 
+ * Para evitarlo dentro de un nodo, cada cambio toma uno de N bloqueos
+ * (franjas) elegido por el ID del carrito: los cambios de un mismo
+ * carrito se ejecutan uno tras otro sin bloquear a los demás carritos,
+ * salvo los pocos que caen en la misma franja. Los conflictos con otros
+ * nodos (ConcurrencyFailureException) se reintentan, fuera del bloqueo y
+ * con una espera aleatoria que se duplica en cada intento, hasta el
+ * máximo de intentos configurado.
+ * 
+ * Cada intento debe ejecutar su propia transacción completa (el bloqueo
+ * se suelta después del commit), por eso se usa desde el controlador
+ * alrededor de las llamadas al servicio.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Component // Marca esta clase como un componente de Spring (un juego de bloqueos por nodo)
+public class MutacionesCarrito {
+    
+    private final ReentrantLock[] franjas;
+    private final int mascara;
+    private final int intentos;
+    private final long esperaMs;
+    
+    private final LongAdder mutaciones = new LongAdder();
+    private final LongAdder esperasBloqueo = new LongAdder();
+    private final LongAdder conflictos = new LongAdder();
+    private final LongAdder agotadas = new LongAdder();
+    
+    @Autowired // Indica a Spring cuál constructor usar para la inyección
+    public MutacionesCarrito(@Value("${carrito.concurrencia.franjas:256}") int franjas,
+                             @Value("${carrito.concurrencia.intentos:4}") int intentos,
+                             @Value("${carrito.concurrencia.espera-ms:5}") long esperaMs) {
+        // Potencia de 2 para elegir la franja con una máscara
+        int cantidad = franjas <= 1 ? 1 : Integer.highestOneBit(franjas - 1) << 1;
+        this.franjas = new ReentrantLock[cantidad];
+        for (int i = 0; i < this.franjas.length; i++) {
+            this.franjas[i] = new ReentrantLock();
+        }
+        this.mascara = this.franjas.length - 1;
+        this.intentos = Math.max(1, intentos);
+        this.esperaMs = Math.max(1, esperaMs);
+    }
+    
+    /**
+     * Ejecuta un cambio del carrito con su bloqueo y lo reintenta si hay un conflicto de concurrencia
+     * 
+     * @param carritoId ID del carrito que se modifica
+     * @param mutacion Cambio a ejecutar (con su propia transacción)
+     * @return Resultado del cambio
+     * @throws ConcurrencyFailureException si el conflicto persiste después de todos los intentos
+     */
+    public <T> T ejecutar(Long carritoId, Supplier<T> mutacion) {
+        mutaciones.increment();
+        ReentrantLock bloqueo = franja(carritoId);
+        for (int intento = 1; ; intento++) {
+            if (!bloqueo.tryLock()) {
+                esperasBloqueo.increment();
+                bloqueo.lock();
+            }
+            try {
+                return mutacion.get();
+            } catch (ConcurrencyFailureException e) {
+                conflictos.increment();
+                if (intento >= intentos) {
+                    agotadas.increment();
+                    throw e;
+                }
+            } finally {
+                bloqueo.unlock();
+            }
+            esperar(intento);
+        }
+    }
+    
+    /**
+     * Ejecuta un cambio sin resultado (ver ejecutar con Supplier)
+     */
+    public void ejecutar(Long carritoId, Runnable mutacion) {
+        ejecutar(carritoId, () -> {
+            mutacion.run();
+            return null;
+        });
+    }
+    
+    /**
+     * Genera una foto de los contadores
+     * 
+     * @return Estadísticas listas para exponer por HTTP
+     */
+    public EstadisticasConcurrencia instantanea() {
+        return EstadisticasConcurrencia.builder()
+                .franjas(franjas.length)
+                .mutaciones(mutaciones.sum())
+                .esperasBloqueo(esperasBloqueo.sum())
+                .conflictos(conflictos.sum())
+                .agotadas(agotadas.sum())
+                .build();
+    }
+    
+    /**
+     * Elige la franja del carrito (mezcla los bits del ID para repartir IDs consecutivos)
+     */
+    private ReentrantLock franja(Long carritoId) {
+        int mezcla = Long.hashCode(carritoId * 0x9E3779B97F4A7C15L);
+        return franjas[(mezcla ^ (mezcla >>> 16)) & mascara];
+    }
+    
+    /**
+     * Espera un tiempo aleatorio antes del próximo intento (hasta esperaMs, 2 x esperaMs, 4 x esperaMs...)
+     */
+    private void esperar(int intento) {
+        long maximo = esperaMs << Math.min(intento - 1, 10);
+        try {
+            TimeUnit.MILLISECONDS.sleep(1 + ThreadLocalRandom.current().nextLong(maximo));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrencyFailureException("Reintento interrumpido", e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.perfulandia.carritoservice.config;
+
+import com.perfulandia.clientes.TransporteHttp;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+
+/**
+ * Configuración de los clientes HTTP hacia los otros microservicios
+ * 
+ * Todos los clientes comparten un único java.net.http.HttpClient, que
+ * mantiene un pool de conexiones persistentes (keep-alive) por servidor.
+ * Así cada checkout reutiliza las conexiones abiertas en lugar de abrir
+ * una conexión TCP nueva por cada reserva o confirmación. El transporte
+ * es el del módulo compartido clientes (ver TransporteHttp).
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Configuration // Indica que esta clase declara beans de Spring
+public class ClientesHttpConfig {
+    
+    /**
+     * Cliente HTTP compartido con pool de conexiones
+     * 
+     * @param timeoutConexionMs Tiempo máximo para establecer una conexión
+     * @param http2 true para usar HTTP/2 en lugar de HTTP/1.1
+     * @return HttpClient del JDK reutilizable entre hilos
+     */
+    @Bean // Registra el HttpClient como bean compartido
+    public HttpClient httpClient(@Value("${carrito.clientes.timeout-conexion-ms:2000}") long timeoutConexionMs,
+                                 @Value("${carrito.clientes.http2:false}") boolean http2) {
+        return TransporteHttp.crearHttpClient(timeoutConexionMs, http2);
+    }
+    
+    /**
+     * Cliente REST para el microservicio de productos
+     */
+    @Bean // Registra el cliente como bean inyectable por nombre
+    public RestClient clienteProductos(RestClient.Builder builder, HttpClient httpClient,
+                                       @Value("${carrito.clientes.productos.url:http://localhost:8082}") String url,
+                                       @Value("${carrito.clientes.timeout-lectura-ms:3000}") long timeoutLecturaMs) {
+        return TransporteHttp.crearRestClient(builder, httpClient, url, timeoutLecturaMs);
+    }
+    
+    /**
+     * Cliente REST para el microservicio de emails
+     */
+    @Bean // Registra el cliente como bean inyectable por nombre
+    public RestClient clienteEmail(RestClient.Builder builder, HttpClient httpClient,
+                                   @Value("${carrito.clientes.email.url:http://localhost:8083}") String url,
+                                   @Value("${carrito.clientes.timeout-lectura-ms:3000}") long timeoutLecturaMs) {
+        return TransporteHttp.crearRestClient(builder, httpClient, url, timeoutLecturaMs);
+    }
+}
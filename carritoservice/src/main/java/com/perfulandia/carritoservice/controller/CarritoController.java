@@ -1,12 +1,25 @@
 package com.perfulandia.carritoservice.controller;
 
+import com.perfulandia.carritoservice.concurrencia.MutacionesCarrito;
 import com.perfulandia.carritoservice.model.Carrito;
 import com.perfulandia.carritoservice.model.ItemCarrito;
+import com.perfulandia.carritoservice.model.LineaLote;
+import com.perfulandia.carritoservice.model.ResumenCarrito;
+import com.perfulandia.carritoservice.model.VistaCarrito;
+import com.perfulandia.carritoservice.precios.PrecioInvalidoException;
 import com.perfulandia.carritoservice.service.CarritoService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 
 /**
  * Controlador REST para el manejo de carritos de compras
@@ -18,9 +31,24 @@ import java.util.List;
  * Endpoints disponibles:
  * - POST /api/carrito/usuario/{usuarioId} - Crear un nuevo carrito
  * - GET /api/carrito/usuario/{usuarioId}/activo - Obtener carrito activo
+ * - GET /api/carrito/usuario/{usuarioId}/activo/resumen - Resumen del carrito activo (mini-carrito)
+ * - GET /api/carrito/usuario/{usuarioId}/activo/vista - Carrito activo con sus items (admite ETag)
+ * - GET /api/carrito/{carritoId}/resumen - Resumen del carrito (unidades y total)
  * - POST /api/carrito/{carritoId}/items - Agregar item al carrito
+ * - POST /api/carrito/{carritoId}/items/lote - Agregar varios items (lista JSON) en una sola transacción
+ * - PUT /api/carrito/{carritoId}/items/{itemId} - Modificar la cantidad de un item
+ * - DELETE /api/carrito/{carritoId}/items/{itemId} - Eliminar un item del carrito
  * - GET /api/carrito/{carritoId}/items - Obtener items del carrito
  * - POST /api/carrito/{carritoId}/completar - Completar carrito
+ * - POST /api/carrito/{carritoId}/checkout - Checkout con reserva de stock (ver CheckoutController)
+ * 
+ * El precio unitario que envía el cliente se compara con la copia local
+ * de precios (ver ReplicaPrecios): se reemplaza por el vigente o, en modo
+ * VALIDAR, el item se rechaza con 409.
+ * 
+ * Los cambios sobre un mismo carrito se ejecutan de a uno dentro del nodo
+ * y se reintentan si chocan con otro nodo (ver MutacionesCarrito); si
+ * los reintentos se agotan se responde 409.
  * 
  * @author Equipo Perfulandia
  * @version 1.0
@@ -31,12 +59,22 @@ import java.util.List;
 @RequiredArgsConstructor // Genera un constructor con los campos final (inyección de dependencias)
 public class CarritoController {
     
+    /**
+     * Cantidad máxima de líneas aceptadas en un lote
+     */
+    static final int MAXIMO_LINEAS_LOTE = 100;
+    
     /**
      * Servicio que contiene la lógica de negocio para carritos
      * Se inyecta automáticamente por Spring usando el constructor
      */
     private final CarritoService carritoService;
     
+    /**
+     * Serializa por carrito los cambios y reintenta los conflictos de versión
+     */
+    private final MutacionesCarrito mutaciones;
+    
     /**
      * Crea un nuevo carrito de compras para un usuario específico
      * 
@@ -70,6 +108,78 @@ public class CarritoController {
         return ResponseEntity.ok(carrito);
     }
     
+    /**
+     * Obtiene el resumen del carrito activo de un usuario
+     * 
+     * Pensado para el indicador del mini-carrito: devuelve solo la cantidad
+     * de unidades y el total, leídos en una sola consulta.
+     * 
+     * @param usuarioId ID del usuario
+     * @return ResponseEntity<ResumenCarrito> con el resumen o 404 si no tiene carrito activo
+     */
+    @GetMapping("/usuario/{usuarioId}/activo/resumen") // Mapea este método a peticiones GET en la ruta especificada
+    public ResponseEntity<ResumenCarrito> obtenerResumenActivo(@PathVariable Long usuarioId) { // Extrae el valor de la URL y lo convierte a Long
+        try {
+            return ResponseEntity.ok(carritoService.obtenerResumenActivo(usuarioId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Obtiene el carrito activo de un usuario junto con sus items
+     * 
+     * Reemplaza la combinación de /usuario/{usuarioId}/activo y
+     * /{carritoId}/items por una sola llamada y una sola consulta SQL.
+     * La respuesta incluye un ETag con la revisión del carrito: si el
+     * cliente lo envía en If-None-Match y el carrito no cambió, se
+     * responde 304 sin cuerpo tras leer solo el encabezado del carrito.
+     * 
+     * @param usuarioId ID del usuario
+     * @param ifNoneMatch Cabecera If-None-Match enviada por el cliente (opcional)
+     * @param request Petición actual, usada para evaluar el ETag
+     * @return ResponseEntity<VistaCarrito> con la vista, 304 si no cambió o 404 si no tiene carrito activo
+     */
+    @GetMapping("/usuario/{usuarioId}/activo/vista") // Mapea este método a peticiones GET en la ruta especificada
+    public ResponseEntity<VistaCarrito> obtenerVistaActiva(
+            @PathVariable Long usuarioId, // Extrae el valor de la URL y lo convierte a Long
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch, // Extrae la cabecera si existe
+            WebRequest request) {
+        
+        // Revalidación barata: solo se lee la revisión del carrito
+        if (ifNoneMatch != null) {
+            Optional<String> etag = carritoService.obtenerEtagActivo(usuarioId);
+            if (etag.isPresent() && request.checkNotModified(etag.get())) {
+                return null; // Spring responde 304 con el ETag y sin cuerpo
+            }
+        }
+        
+        try {
+            VistaCarrito vista = carritoService.obtenerVistaActiva(usuarioId);
+            return ResponseEntity.ok()
+                    .eTag(CarritoService.etag(vista.getId(), vista.getRevision()))
+                    .cacheControl(CacheControl.noCache()) // El cliente puede guardar la respuesta pero debe revalidarla
+                    .body(vista);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Obtiene el resumen (encabezado) de un carrito específico
+     * 
+     * @param carritoId ID del carrito
+     * @return ResponseEntity<ResumenCarrito> con el resumen o 404 si no existe
+     */
+    @GetMapping("/{carritoId}/resumen") // Mapea este método a peticiones GET en la ruta especificada
+    public ResponseEntity<ResumenCarrito> obtenerResumen(@PathVariable Long carritoId) { // Extrae el valor de la URL y lo convierte a Long
+        try {
+            return ResponseEntity.ok(carritoService.obtenerResumen(carritoId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     /**
      * Agrega un item (producto) a un carrito específico
      * 
@@ -81,7 +191,8 @@ public class CarritoController {
      * @param productoId ID del producto que se agregará
      * @param cantidad Cantidad del producto (debe ser mayor que 0)
      * @param precioUnitario Precio unitario del producto (debe ser mayor que 0)
-     * @return ResponseEntity<ItemCarrito> con el item creado o error 400 si los datos son inválidos
+     * @return ResponseEntity<ItemCarrito> con el item creado, error 400 si los datos son inválidos
+     *         o 409 si el precio no es el vigente (modo VALIDAR)
      */
     @PostMapping("/{carritoId}/items") // Mapea este método a peticiones POST en la ruta especificada
     public ResponseEntity<ItemCarrito> agregarItem(
@@ -97,10 +208,83 @@ public class CarritoController {
         }
         
         // Delega la lógica de agregar item al servicio
-        ItemCarrito item = carritoService.agregarItem(carritoId, productoId, cantidad, precioUnitario);
+        ItemCarrito item = mutaciones.ejecutar(carritoId,
+                () -> carritoService.agregarItem(carritoId, productoId, cantidad, precioUnitario));
         return ResponseEntity.ok(item);
     }
     
+    /**
+     * Agrega varios productos a un carrito en una sola petición
+     * 
+     * Recibe una lista JSON de líneas {productoId, cantidad, precioUnitario}.
+     * Los productos que ya están en el carrito suman la cantidad y conservan
+     * su precio. Se guardan todas las líneas o ninguna.
+     * 
+     * @param carritoId ID del carrito
+     * @param lineas Líneas a agregar (entre 1 y 100, todas válidas)
+     * @return ResponseEntity<List<ItemCarrito>> con los items resultantes, error 400 si el lote es inválido
+     *         o 409 si algún precio no es el vigente (modo VALIDAR)
+     */
+    @PostMapping("/{carritoId}/items/lote") // Mapea este método a peticiones POST en la ruta especificada
+    public ResponseEntity<List<ItemCarrito>> agregarItems(
+            @PathVariable Long carritoId, // Extrae el valor de la URL y lo convierte a Long
+            @RequestBody List<LineaLote> lineas) { // Convierte el cuerpo JSON en la lista de líneas
+        
+        // Validaciones básicas del lote
+        if (lineas == null || lineas.isEmpty() || lineas.size() > MAXIMO_LINEAS_LOTE
+                || !lineas.stream().allMatch(linea -> linea != null && linea.esValida())) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        return ResponseEntity.ok(mutaciones.ejecutar(carritoId, () -> carritoService.agregarItems(carritoId, lineas)));
+    }
+    
+    /**
+     * Modifica la cantidad de un item del carrito
+     * 
+     * @param carritoId ID del carrito
+     * @param itemId ID del item
+     * @param cantidad Nueva cantidad (debe ser mayor que 0)
+     * @return ResponseEntity<ItemCarrito> con el item actualizado, 400 si la cantidad es inválida o 404 si no existe
+     */
+    @PutMapping("/{carritoId}/items/{itemId}") // Mapea este método a peticiones PUT en la ruta especificada
+    public ResponseEntity<ItemCarrito> actualizarCantidad(
+            @PathVariable Long carritoId, // Extrae el valor de la URL y lo convierte a Long
+            @PathVariable Long itemId, // Extrae el valor de la URL y lo convierte a Long
+            @RequestParam Integer cantidad) { // Extrae el parámetro de la query string
+        
+        // Validación básica de la cantidad
+        if (cantidad == null || cantidad <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            return ResponseEntity.ok(mutaciones.ejecutar(carritoId,
+                    () -> carritoService.actualizarCantidad(carritoId, itemId, cantidad)));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Elimina un item del carrito
+     * 
+     * @param carritoId ID del carrito
+     * @param itemId ID del item
+     * @return ResponseEntity<Void> 204 si se eliminó o 404 si no existe
+     */
+    @DeleteMapping("/{carritoId}/items/{itemId}") // Mapea este método a peticiones DELETE en la ruta especificada
+    public ResponseEntity<Void> eliminarItem(
+            @PathVariable Long carritoId, // Extrae el valor de la URL y lo convierte a Long
+            @PathVariable Long itemId) { // Extrae el valor de la URL y lo convierte a Long
+        try {
+            mutaciones.ejecutar(carritoId, () -> carritoService.eliminarItem(carritoId, itemId));
+            return ResponseEntity.noContent().build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     /**
      * Obtiene todos los items de un carrito específico
      * 
@@ -130,7 +314,27 @@ public class CarritoController {
     @PostMapping("/{carritoId}/completar") // Mapea este método a peticiones POST en la ruta especificada
     public ResponseEntity<Void> completarCarrito(@PathVariable Long carritoId) { // Extrae el valor de la URL y lo convierte a Long
         // Delega la lógica de completar carrito al servicio
-        carritoService.completarCarrito(carritoId);
+        mutaciones.ejecutar(carritoId, () -> carritoService.completarCarrito(carritoId));
         return ResponseEntity.ok().build();
     }
+    
+    /**
+     * Responde 409 con el producto y su precio vigente cuando se rechaza un item por su precio
+     */
+    @ExceptionHandler(PrecioInvalidoException.class) // Define qué tipo de excepción maneja este método
+    public ResponseEntity<Map<String, Object>> manejarPrecioInvalido(PrecioInvalidoException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "error", e.getMessage(),
+                "productoId", e.getProductoId(),
+                "precioVigente", e.getPrecioVigente()));
+    }
+    
+    /**
+     * Responde 409 cuando un cambio siguió chocando con otro después de los reintentos
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class) // Define qué tipo de excepción maneja este método
+    public ResponseEntity<Map<String, Object>> manejarConflicto(ConcurrencyFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "error", "El carrito cambió al mismo tiempo; vuelva a intentarlo"));
+    }
 } 
\ No newline at end of file
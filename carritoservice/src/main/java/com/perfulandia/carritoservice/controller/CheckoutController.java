@@ -0,0 +1,105 @@
+package com.perfulandia.carritoservice.controller;
+
+import com.perfulandia.carritoservice.checkout.CheckoutRechazadoException;
+import com.perfulandia.carritoservice.checkout.MetricasCheckout;
+import com.perfulandia.carritoservice.checkout.PreciosCambiadosException;
+import com.perfulandia.carritoservice.checkout.ServicioNoDisponibleException;
+import com.perfulandia.carritoservice.model.EstadisticasCheckout;
+import com.perfulandia.carritoservice.model.ResultadoCheckout;
+import com.perfulandia.carritoservice.service.CheckoutService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Controlador REST del checkout de carritos
+ * 
+ * Endpoints disponibles:
+ * - POST /api/carrito/{carritoId}/checkout - Reservar el stock, completar el carrito y confirmar el pedido
+ * - GET /api/carrito/admin/checkout - Estadísticas y latencia por paso del checkout
+ * 
+ * El checkout se puede reintentar sin riesgo: si el carrito ya se
+ * completó, responde el mismo pedido con "reintento": true.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@RestController // Marca esta clase como un controlador REST que devuelve respuestas en formato JSON automáticamente
+@RequestMapping("/api/carrito") // Define la ruta base para todos los endpoints
+@RequiredArgsConstructor // Genera un constructor con los campos final (inyección de dependencias)
+public class CheckoutController {
+    
+    /**
+     * Servicio que coordina el checkout
+     * Se inyecta automáticamente por Spring usando el constructor
+     */
+    private final CheckoutService checkoutService;
+    
+    /**
+     * Métricas acumuladas del checkout
+     */
+    private final MetricasCheckout metricas;
+    
+    /**
+     * Ejecuta el checkout de un carrito
+     * 
+     * @param carritoId ID del carrito
+     * @return ResponseEntity<ResultadoCheckout> con el pedido, 404 si el carrito no existe,
+     *         409 si no se puede completar o 503 si el microservicio de productos no respondió
+     */
+    @PostMapping("/{carritoId}/checkout") // Mapea este método a peticiones POST en la ruta especificada
+    public ResponseEntity<ResultadoCheckout> checkout(@PathVariable Long carritoId) { // Extrae el valor de la URL y lo convierte a Long
+        return ResponseEntity.ok(checkoutService.checkout(carritoId));
+    }
+    
+    /**
+     * Obtiene las estadísticas del checkout desde el inicio del servicio
+     * 
+     * @return ResponseEntity<EstadisticasCheckout> con los contadores y la latencia de cada paso
+     */
+    @GetMapping("/admin/checkout") // Mapea este método a peticiones GET en la ruta especificada
+    public ResponseEntity<EstadisticasCheckout> obtenerEstadisticas() {
+        return ResponseEntity.ok(metricas.instantanea());
+    }
+    
+    /**
+     * Responde 404 si el carrito no existe
+     */
+    @ExceptionHandler(NoSuchElementException.class) // Define qué tipo de excepción maneja este método
+    public ResponseEntity<Map<String, Object>> manejarNoEncontrado(NoSuchElementException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+    }
+    
+    /**
+     * Responde 409 con el motivo y, si falta stock o cambiaron precios, los productos afectados
+     */
+    @ExceptionHandler(CheckoutRechazadoException.class) // Define qué tipo de excepción maneja este método
+    public ResponseEntity<Map<String, Object>> manejarRechazo(CheckoutRechazadoException e) {
+        Map<String, Object> cuerpo = new LinkedHashMap<>();
+        cuerpo.put("error", e.getMessage());
+        if (!e.getSinStock().isEmpty()) {
+            cuerpo.put("sinStock", e.getSinStock());
+        }
+        if (e instanceof PreciosCambiadosException cambiados) {
+            cuerpo.put("preciosActualizados", cambiados.getProductos());
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(cuerpo);
+    }
+    
+    /**
+     * Responde 503 con Retry-After: el intento ya se compensó y se puede reintentar
+     */
+    @ExceptionHandler(ServicioNoDisponibleException.class) // Define qué tipo de excepción maneja este método
+    public ResponseEntity<Map<String, Object>> manejarNoDisponible(ServicioNoDisponibleException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("error", e.getMessage()));
+    }
+}
@@ -0,0 +1,39 @@
+package com.perfulandia.carritoservice.controller;
+
+import com.perfulandia.carritoservice.concurrencia.MutacionesCarrito;
+import com.perfulandia.carritoservice.model.EstadisticasConcurrencia;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST de administración de los cambios concurrentes de carritos
+ * 
+ * Endpoints disponibles:
+ * - GET /api/carrito/admin/concurrencia - Esperas de bloqueo, conflictos y reintentos agotados
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@RestController // Marca esta clase como un controlador REST que devuelve respuestas en formato JSON automáticamente
+@RequestMapping("/api/carrito/admin/concurrencia") // Define la ruta base para todos los endpoints
+@RequiredArgsConstructor // Genera un constructor con los campos final (inyección de dependencias)
+public class ConcurrenciaController {
+    
+    /**
+     * Bloqueos por carrito y reintentos de los cambios
+     * Se inyecta automáticamente por Spring usando el constructor
+     */
+    private final MutacionesCarrito mutaciones;
+    
+    /**
+     * Obtiene los contadores de los cambios desde el inicio del servicio
+     * 
+     * @return ResponseEntity<EstadisticasConcurrencia> con las franjas y los contadores
+     */
+    @GetMapping // Mapea este método a peticiones GET en la ruta base
+    public ResponseEntity<EstadisticasConcurrencia> obtenerEstadisticas() {
+        return ResponseEntity.ok(mutaciones.instantanea());
+    }
+}
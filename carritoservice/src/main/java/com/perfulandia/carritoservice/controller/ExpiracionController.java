@@ -0,0 +1,57 @@
+package com.perfulandia.carritoservice.controller;
+
+import com.perfulandia.carritoservice.expiracion.ExpiradorCarritos;
+import com.perfulandia.carritoservice.expiracion.MetricasExpiracion;
+import com.perfulandia.carritoservice.model.EstadisticasExpiracion;
+import com.perfulandia.carritoservice.model.ResultadoBarrido;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST de administración del barrido de expiración de carritos
+ * 
+ * Endpoints disponibles:
+ * - GET /api/carrito/admin/expiracion - Estadísticas de los barridos
+ * - POST /api/carrito/admin/expiracion/barrer - Ejecutar un barrido ahora
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@RestController // Marca esta clase como un controlador REST que devuelve respuestas en formato JSON automáticamente
+@RequestMapping("/api/carrito/admin/expiracion") // Define la ruta base para todos los endpoints
+@RequiredArgsConstructor // Genera un constructor con los campos final (inyección de dependencias)
+public class ExpiracionController {
+    
+    /**
+     * Barrido de expiración y archivo de carritos
+     * Se inyecta automáticamente por Spring usando el constructor
+     */
+    private final ExpiradorCarritos expirador;
+    
+    /**
+     * Métricas acumuladas de los barridos
+     */
+    private final MetricasExpiracion metricas;
+    
+    /**
+     * Obtiene las estadísticas de los barridos desde el inicio del servicio
+     * 
+     * @return ResponseEntity<EstadisticasExpiracion> con los contadores y duraciones
+     */
+    @GetMapping // Mapea este método a peticiones GET en la ruta base
+    public ResponseEntity<EstadisticasExpiracion> obtenerEstadisticas() {
+        return ResponseEntity.ok(metricas.instantanea());
+    }
+    
+    /**
+     * Ejecuta un barrido sin esperar al próximo ciclo
+     * 
+     * @return ResponseEntity<ResultadoBarrido> con los carritos expirados y archivados
+     */
+    @PostMapping("/barrer") // Mapea este método a peticiones POST en la ruta especificada
+    public ResponseEntity<ResultadoBarrido> barrer() {
+        return ResponseEntity.ok(expirador.barrer());
+    }
+}
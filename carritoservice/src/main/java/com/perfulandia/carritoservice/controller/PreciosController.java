@@ -0,0 +1,58 @@
+package com.perfulandia.carritoservice.controller;
+
+import com.perfulandia.carritoservice.model.EstadisticasPrecios;
+import com.perfulandia.carritoservice.precios.ReplicaPrecios;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Controlador REST de administración de la copia local de precios
+ * 
+ * Endpoints disponibles:
+ * - GET /api/carrito/admin/precios - Versión, tamaño y contadores de la copia de precios
+ * - POST /api/carrito/admin/precios/refrescar - Descargar la lista de precios ahora
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@RestController // Marca esta clase como un controlador REST que devuelve respuestas en formato JSON automáticamente
+@RequestMapping("/api/carrito/admin/precios") // Define la ruta base para todos los endpoints
+@RequiredArgsConstructor // Genera un constructor con los campos final (inyección de dependencias)
+public class PreciosController {
+    
+    /**
+     * Copia local de los precios del microservicio de productos
+     * Se inyecta automáticamente por Spring usando el constructor
+     */
+    private final ReplicaPrecios precios;
+    
+    /**
+     * Obtiene el estado de la copia de precios
+     * 
+     * @return ResponseEntity<EstadisticasPrecios> con la versión cargada y los contadores
+     */
+    @GetMapping // Mapea este método a peticiones GET en la ruta base
+    public ResponseEntity<EstadisticasPrecios> obtenerEstadisticas() {
+        return ResponseEntity.ok(precios.instantanea());
+    }
+    
+    /**
+     * Descarga la lista de precios sin esperar al próximo ciclo
+     * 
+     * @return ResponseEntity<EstadisticasPrecios> con el estado después de la descarga,
+     *         o 503 si el microservicio de productos no respondió
+     */
+    @PostMapping("/refrescar") // Mapea este método a peticiones POST en la ruta especificada
+    public ResponseEntity<EstadisticasPrecios> refrescar() {
+        try {
+            precios.refrescar();
+        } catch (RestClientException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(precios.instantanea());
+        }
+        return ResponseEntity.ok(precios.instantanea());
+    }
+}
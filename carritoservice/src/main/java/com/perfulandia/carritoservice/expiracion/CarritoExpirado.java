@@ -0,0 +1,32 @@
+package com.perfulandia.carritoservice.expiracion;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * Evento publicado por cada carrito que el barrido pasa a EXPIRADO
+ * 
+ * Se publica después de confirmar la transacción del lote. Incluye las
+ * unidades de cada producto que tenía el carrito, para que los oyentes
+ * liberen el stock que estuviera retenido para él.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Getter // Genera getters para todos los campos
+@ToString // Genera toString para los registros de log
+@AllArgsConstructor // Genera constructor con todos los parámetros
+public class CarritoExpirado {
+    
+    private final long carritoId;
+    private final long usuarioId;
+    
+    /**
+     * Unidades de cada producto que tenía el carrito (ID de producto → cantidad)
+     */
+    private final Map<Long, Integer> unidadesPorProducto;
+}
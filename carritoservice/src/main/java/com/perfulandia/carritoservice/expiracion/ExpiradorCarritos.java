@@ -0,0 +1,316 @@
+package com.perfulandia.carritoservice.expiracion;
+
+import com.perfulandia.carritoservice.memoria.AlmacenCarritosMemoria;
+import com.perfulandia.carritoservice.model.EstadoCarrito;
+import com.perfulandia.carritoservice.model.ResultadoBarrido;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Barrido de expiración y archivo de carritos
+ * 
+ * Cada cierto intervalo:
+ * 1. Pasa a EXPIRADO los carritos activos sin actividad durante el tiempo
+ *    configurado y publica un evento CarritoExpirado por cada uno, para
+ *    liberar el stock que tuvieran retenido.
+ * 2. Mueve a las tablas de archivo (carritos_archivo, item_carrito_archivo)
+ *    los carritos terminados (completados, cancelados o expirados) cuya
+ *    última actividad es más antigua que el plazo de archivo, para que la
+ *    tabla carritos conserve solo los carritos recientes.
+ * 
+ * Ambos pasos recorren el índice (estado, ultima_actividad) en orden y
+ * por lotes de tamaño fijo, cada lote en su propia transacción: nunca se
+ * recorre la tabla completa ni se bloquean muchas filas a la vez.
+ * 
+ * Con el modo en memoria activado, los carritos que están en memoria no
+ * se expiran (se están usando); el lote se ejecuta con el almacén
+ * bloqueado para que ningún carrito se cargue mientras se expira.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Slf4j // Genera un logger para registrar los barridos
+@Component // Marca esta clase como un componente de Spring para inyectarla en el controlador de administración
+public class ExpiradorCarritos {
+    
+    static final String BUSCAR_INACTIVOS =
+            "SELECT id, ultima_actividad FROM carritos WHERE estado = ? AND ultima_actividad < ? "
+            + "AND (ultima_actividad > ? OR (ultima_actividad = ? AND id > ?)) "
+            + "ORDER BY ultima_actividad, id LIMIT ?";
+    
+    static final String BUSCAR_TERMINADOS =
+            "SELECT id FROM carritos WHERE estado = ? AND ultima_actividad < ? ORDER BY ultima_actividad, id LIMIT ?";
+    
+    /**
+     * Estados de los carritos que ya no cambian y se pueden archivar
+     */
+    private static final List<EstadoCarrito> TERMINADOS =
+            List.of(EstadoCarrito.COMPLETADO, EstadoCarrito.CANCELADO, EstadoCarrito.EXPIRADO);
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transaccion;
+    private final ApplicationEventPublisher eventos;
+    private final ObjectProvider<AlmacenCarritosMemoria> almacenMemoria;
+    private final MetricasExpiracion metricas;
+    private final long inactividadHoras;
+    private final long archivoDias;
+    private final int tamanoLote;
+    private final long intervaloSeg;
+    
+    private ScheduledExecutorService planificador;
+    
+    @Autowired // Indica a Spring cuál constructor usar para la inyección
+    public ExpiradorCarritos(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transaccion,
+                             ApplicationEventPublisher eventos,
+                             ObjectProvider<AlmacenCarritosMemoria> almacenMemoria,
+                             MetricasExpiracion metricas,
+                             @Value("${carrito.expiracion.inactividad-horas:72}") long inactividadHoras,
+                             @Value("${carrito.expiracion.archivo-dias:30}") long archivoDias,
+                             @Value("${carrito.expiracion.tamano-lote:500}") int tamanoLote,
+                             @Value("${carrito.expiracion.intervalo-seg:300}") long intervaloSeg) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transaccion = transaccion;
+        this.eventos = eventos;
+        this.almacenMemoria = almacenMemoria;
+        this.metricas = metricas;
+        this.inactividadHoras = inactividadHoras;
+        this.archivoDias = archivoDias;
+        this.tamanoLote = Math.max(1, tamanoLote);
+        this.intervaloSeg = intervaloSeg;
+    }
+    
+    /**
+     * Inicia el barrido periódico (un intervalo de 0 lo desactiva)
+     */
+    @PostConstruct // Se ejecuta una vez construido el componente
+    public void iniciar() {
+        if (intervaloSeg <= 0) {
+            return;
+        }
+        planificador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "carrito-expiracion");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        planificador.scheduleWithFixedDelay(() -> {
+            try {
+                barrer();
+            } catch (RuntimeException e) {
+                log.error("Error en el barrido de expiración de carritos; se reintentará en el próximo ciclo", e);
+            }
+        }, intervaloSeg, intervaloSeg, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Detiene el barrido periódico
+     */
+    @PreDestroy // Se ejecuta al cerrar el contexto de Spring
+    public void detener() throws InterruptedException {
+        if (planificador != null) {
+            planificador.shutdown();
+            planificador.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+    
+    /**
+     * Ejecuta un barrido completo: expira los carritos inactivos y archiva los terminados antiguos
+     * 
+     * @return Carritos expirados y archivados, y la duración del barrido
+     * @throws org.springframework.dao.DataAccessException si falla un lote (los anteriores quedan confirmados)
+     */
+    public synchronized ResultadoBarrido barrer() {
+        long inicio = System.nanoTime();
+        LocalDateTime ahora = LocalDateTime.now();
+        int[] expirados = {0};
+        int archivados = 0;
+        try {
+            expirarInactivos(Timestamp.valueOf(ahora.minusHours(inactividadHoras)), expirados);
+            for (EstadoCarrito estado : TERMINADOS) {
+                archivados += archivarTerminados(estado, Timestamp.valueOf(ahora.minusDays(archivoDias)));
+            }
+        } catch (RuntimeException e) {
+            metricas.registrarFallo(expirados[0], archivados);
+            throw e;
+        }
+        long duracion = System.nanoTime() - inicio;
+        metricas.registrarBarrido(expirados[0], archivados, duracion);
+        if (expirados[0] > 0 || archivados > 0) {
+            log.info("Barrido de carritos: {} expirados, {} archivados en {} ms",
+                    expirados[0], archivados, TimeUnit.NANOSECONDS.toMillis(duracion));
+        }
+        return new ResultadoBarrido(expirados[0], archivados, TimeUnit.NANOSECONDS.toMillis(duracion));
+    }
+    
+    /**
+     * Recorre los carritos activos inactivos por lotes, en orden de última actividad
+     * 
+     * Avanza con un cursor (ultima_actividad, id) en lugar de volver a
+     * consultar desde el principio, porque los carritos que están en
+     * memoria se saltan y seguirían apareciendo en cada lote.
+     * 
+     * @param limite Los carritos sin actividad desde antes de este instante se expiran
+     * @param expirados Contador de carritos expirados (se actualiza lote a lote)
+     */
+    private void expirarInactivos(Timestamp limite, int[] expirados) {
+        Timestamp cursorActividad = new Timestamp(0);
+        long cursorId = 0;
+        while (true) {
+            List<Long> candidatos = new ArrayList<>(tamanoLote);
+            Timestamp[] ultimaActividad = {cursorActividad};
+            long[] ultimoId = {cursorId};
+            jdbcTemplate.query(BUSCAR_INACTIVOS, rs -> {
+                candidatos.add(rs.getLong("id"));
+                ultimoId[0] = rs.getLong("id");
+                ultimaActividad[0] = rs.getTimestamp("ultima_actividad");
+            }, EstadoCarrito.ACTIVO.getCodigo(), limite, cursorActividad, cursorActividad, cursorId, tamanoLote);
+            if (candidatos.isEmpty()) {
+                return;
+            }
+    
+            List<CarritoExpirado> lote = expirarLote(candidatos, limite);
+            expirados[0] += lote.size();
+            // Los eventos se publican con la transacción del lote ya confirmada
+            lote.forEach(eventos::publishEvent);
+    
+            if (candidatos.size() < tamanoLote) {
+                return;
+            }
+            cursorActividad = ultimaActividad[0];
+            cursorId = ultimoId[0];
+        }
+    }
+    
+    /**
+     * Expira un lote de carritos candidatos, saltando los que están en memoria
+     */
+    private List<CarritoExpirado> expirarLote(List<Long> candidatos, Timestamp limite) {
+        AlmacenCarritosMemoria almacen = almacenMemoria.getIfAvailable();
+        if (almacen == null) {
+            return expirarEnTransaccion(candidatos, limite);
+        }
+        return almacen.ejecutarFueraDeMemoria(candidatos, ids -> expirarEnTransaccion(ids, limite));
+    }
+    
+    /**
+     * Pasa a EXPIRADO los carritos que siguen activos e inactivos y obtiene sus unidades
+     * 
+     * Los carritos se bloquean y se vuelven a verificar: pudieron recibir
+     * cambios o completarse desde la consulta del lote.
+     */
+    private List<CarritoExpirado> expirarEnTransaccion(List<Long> ids, Timestamp limite) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<CarritoExpirado> resultado = transaccion.execute(estado -> {
+            Map<Long, Long> usuarioPorCarrito = new LinkedHashMap<>();
+            namedJdbcTemplate.query(
+                    "SELECT id, usuario_id FROM carritos WHERE id IN (:ids) AND estado = :activo "
+                    + "AND ultima_actividad < :limite FOR UPDATE",
+                    new MapSqlParameterSource("ids", ids)
+                            .addValue("activo", EstadoCarrito.ACTIVO.getCodigo())
+                            .addValue("limite", limite),
+                    rs -> {
+                        usuarioPorCarrito.put(rs.getLong("id"), rs.getLong("usuario_id"));
+                    });
+            if (usuarioPorCarrito.isEmpty()) {
+                return List.<CarritoExpirado>of();
+            }
+    
+            // La antigüedad para archivarlo se cuenta desde la expiración; la
+            // revisión aumenta para que falle quien guarde el carrito leído antes
+            // (p. ej. completarCarrito), ya que el evento liberará su stock
+            MapSqlParameterSource expirados = new MapSqlParameterSource("ids", usuarioPorCarrito.keySet())
+                    .addValue("expirado", EstadoCarrito.EXPIRADO.getCodigo())
+                    .addValue("ahora", Timestamp.valueOf(LocalDateTime.now()));
+            namedJdbcTemplate.update(
+                    "UPDATE carritos SET estado = :expirado, revision = revision + 1, ultima_actividad = :ahora "
+                    + "WHERE id IN (:ids)", expirados);
+    
+            Map<Long, Map<Long, Integer>> unidades = new HashMap<>();
+            namedJdbcTemplate.query(
+                    "SELECT carrito_id, producto_id, cantidad FROM item_carrito WHERE carrito_id IN (:ids)",
+                    expirados,
+                    rs -> {
+                        unidades.computeIfAbsent(rs.getLong("carrito_id"), c -> new LinkedHashMap<>())
+                                .put(rs.getLong("producto_id"), rs.getInt("cantidad"));
+                    });
+    
+            List<CarritoExpirado> eventosLote = new ArrayList<>(usuarioPorCarrito.size());
+            usuarioPorCarrito.forEach((carritoId, usuarioId) -> eventosLote.add(
+                    new CarritoExpirado(carritoId, usuarioId, unidades.getOrDefault(carritoId, Map.of()))));
+            return eventosLote;
+        });
+        return resultado == null ? List.of() : resultado;
+    }
+    
+    /**
+     * Archiva por lotes los carritos de un estado terminado cuya última actividad es anterior al límite
+     * 
+     * Cada lote se elimina de la tabla carritos, así que la consulta del
+     * siguiente lote vuelve a empezar desde el principio del rango.
+     * 
+     * @return Cantidad de carritos archivados
+     */
+    private int archivarTerminados(EstadoCarrito estadoCarrito, Timestamp limite) {
+        int archivados = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(BUSCAR_TERMINADOS, Long.class,
+                    estadoCarrito.getCodigo(), limite, tamanoLote);
+            if (ids.isEmpty()) {
+                return archivados;
+            }
+            transaccion.executeWithoutResult(estado -> archivarLote(ids));
+            archivados += ids.size();
+            if (ids.size() < tamanoLote) {
+                return archivados;
+            }
+        }
+    }
+    
+    /**
+     * Copia un lote de carritos y sus items a las tablas de archivo y los elimina de las tablas activas
+     */
+    private void archivarLote(List<Long> ids) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource("ids", ids)
+                .addValue("ahora", Timestamp.valueOf(LocalDateTime.now()));
+        namedJdbcTemplate.update(
+                "INSERT INTO carritos_archivo (id, usuario_id, estado, fecha_creacion, ultima_actividad, "
+                + "total_centavos, cantidad_items, revision, fecha_archivo) "
+                + "SELECT id, usuario_id, estado, fecha_creacion, ultima_actividad, "
+                + "total_centavos, cantidad_items, revision, :ahora FROM carritos WHERE id IN (:ids)",
+                parametros);
+        namedJdbcTemplate.update(
+                "INSERT INTO item_carrito_archivo (id, carrito_id, producto_id, cantidad, precio_unitario) "
+                + "SELECT id, carrito_id, producto_id, cantidad, precio_unitario FROM item_carrito "
+                + "WHERE carrito_id IN (:ids)",
+                parametros);
+        namedJdbcTemplate.update("DELETE FROM checkouts WHERE carrito_id IN (:ids)", parametros);
+        namedJdbcTemplate.update("DELETE FROM item_carrito WHERE carrito_id IN (:ids)", parametros);
+        namedJdbcTemplate.update("DELETE FROM carritos WHERE id IN (:ids)", parametros);
+    }
+}
@@ -0,0 +1,76 @@
+package com.perfulandia.carritoservice.expiracion;
+
+import com.perfulandia.carritoservice.model.EstadisticasExpiracion;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas del barrido de expiración de carritos
+ * 
+ * Lleva contadores acumulados desde el inicio del servicio: barridos
+ * ejecutados, carritos expirados y archivados, y la duración de los
+ * barridos (última, máxima y promedio).
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Component // Marca esta clase como un componente de Spring (singleton compartido)
+public class MetricasExpiracion {
+    
+    private final LongAdder barridos = new LongAdder();
+    private final LongAdder barridosFallidos = new LongAdder();
+    private final LongAdder expirados = new LongAdder();
+    private final LongAdder archivados = new LongAdder();
+    private final LongAdder duracionTotalNanos = new LongAdder();
+    private final AtomicLong ultimaDuracionNanos = new AtomicLong();
+    private final AtomicLong maximaDuracionNanos = new AtomicLong();
+    
+    /**
+     * Registra un barrido terminado
+     * 
+     * @param expirados Carritos expirados en el barrido
+     * @param archivados Carritos archivados en el barrido
+     * @param duracionNanos Duración del barrido
+     */
+    public void registrarBarrido(int expirados, int archivados, long duracionNanos) {
+        barridos.increment();
+        this.expirados.add(expirados);
+        this.archivados.add(archivados);
+        duracionTotalNanos.add(duracionNanos);
+        ultimaDuracionNanos.set(duracionNanos);
+        maximaDuracionNanos.accumulateAndGet(duracionNanos, Math::max);
+    }
+    
+    /**
+     * Registra un barrido interrumpido por un error
+     * 
+     * Los lotes confirmados antes del error sí se cuentan.
+     */
+    public void registrarFallo(int expirados, int archivados) {
+        barridosFallidos.increment();
+        this.expirados.add(expirados);
+        this.archivados.add(archivados);
+    }
+    
+    /**
+     * Genera una foto de las métricas actuales
+     * 
+     * @return Estadísticas listas para exponer por HTTP
+     */
+    public EstadisticasExpiracion instantanea() {
+        long cantidad = barridos.sum();
+        return EstadisticasExpiracion.builder()
+                .barridos(cantidad)
+                .barridosFallidos(barridosFallidos.sum())
+                .carritosExpirados(expirados.sum())
+                .carritosArchivados(archivados.sum())
+                .ultimaDuracionMs(TimeUnit.NANOSECONDS.toMillis(ultimaDuracionNanos.get()))
+                .maximaDuracionMs(TimeUnit.NANOSECONDS.toMillis(maximaDuracionNanos.get()))
+                .promedioDuracionMs(cantidad == 0 ? 0.0 : duracionTotalNanos.sum() / (cantidad * 1_000_000.0))
+                .build();
+    }
+}
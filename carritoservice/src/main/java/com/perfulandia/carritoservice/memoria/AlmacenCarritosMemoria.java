@@ -0,0 +1,492 @@
+package com.perfulandia.carritoservice.memoria;
+
+import com.perfulandia.carritoservice.model.Carrito;
+import com.perfulandia.carritoservice.model.FilaVistaCarrito;
+import com.perfulandia.carritoservice.model.LineaLote;
+import com.perfulandia.carritoservice.model.ResumenCarrito;
+import com.perfulandia.carritoservice.repository.CarritoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Almacén en memoria de los carritos activos, con persistencia diferida
+ * 
+ * Mantiene el carrito activo de cada usuario en memoria,
+ * repartido en shards según el ID del usuario. Cada shard tiene su propio
+ * cerrojo, de modo que los cambios de usuarios distintos casi nunca
+ * compiten entre sí.
+ * 
+ * Funcionamiento:
+ * - El primer acceso a un usuario carga su carrito activo con una consulta
+ * - Cada cambio se anota en el WAL y luego se aplica en memoria, sin
+ *   tocar la base de datos
+ * - Un hilo persistidor escribe cada cierto intervalo, en un lote, los
+ *   carritos con cambios pendientes y luego elimina los segmentos del WAL
+ *   que ya no hacen falta
+ * - Al iniciar, se aplican en la base de datos las entradas del WAL que
+ *   quedaron de una ejecución anterior (por ejemplo, tras una caída)
+ * - Los carritos sin cambios pendientes e inactivos se desalojan
+ * 
+ * Las operaciones que siguen pasando por JPA (modificar o eliminar un
+ * item, completar el carrito) usan ejecutarEnBaseDeDatos: con el cerrojo
+ * del shard tomado, se persiste el carrito, se desaloja de memoria y
+ * se ejecuta la operación. El siguiente acceso lo vuelve a cargar.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Slf4j // Genera un logger para registrar la persistencia y la recuperación
+@Component // Marca esta clase como un componente de Spring para inyectarla en el servicio de carritos
+@ConditionalOnProperty(name = "carrito.memoria.habilitada", havingValue = "true") // Solo existe con el modo en memoria activado
+public class AlmacenCarritosMemoria {
+    
+    private final CarritoRepository carritoRepository;
+    private final PersistidorCarritos persistidor;
+    private final Shard[] shards;
+    private final int mascara;
+    
+    /**
+     * Usuario dueño de cada carrito en memoria, para resolver operaciones por ID de carrito
+     */
+    private final Map<Long, Long> usuarioPorCarrito = new ConcurrentHashMap<>();
+    
+    private final Path directorioWal;
+    private final boolean sincronizarWal;
+    private final long intervaloMs;
+    private final long inactividadNanos;
+    
+    private RegistroEscritura wal;
+    private ScheduledExecutorService planificador;
+    
+    @Autowired // Indica a Spring cuál constructor usar para la inyección
+    public AlmacenCarritosMemoria(CarritoRepository carritoRepository,
+                                  PersistidorCarritos persistidor,
+                                  @Value("${carrito.memoria.shards:64}") int shards,
+                                  @Value("${carrito.memoria.wal.directorio:./data/wal-carritos}") String directorioWal,
+                                  @Value("${carrito.memoria.wal.sincronizar:false}") boolean sincronizarWal,
+                                  @Value("${carrito.memoria.intervalo-persistencia-ms:200}") long intervaloMs,
+                                  @Value("${carrito.memoria.inactividad-seg:1800}") long inactividadSeg) {
+        this.carritoRepository = carritoRepository;
+        this.persistidor = persistidor;
+        // Se redondea a potencia de dos para elegir el shard con una máscara
+        int cantidad = Integer.highestOneBit(Math.max(1, shards - 1)) << 1;
+        this.shards = new Shard[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            this.shards[i] = new Shard();
+        }
+        this.mascara = cantidad - 1;
+        this.directorioWal = Path.of(directorioWal);
+        this.sincronizarWal = sincronizarWal;
+        this.intervaloMs = intervaloMs;
+        this.inactividadNanos = TimeUnit.SECONDS.toNanos(inactividadSeg);
+    }
+    
+    /**
+     * Recupera el WAL de una ejecución anterior e inicia el hilo persistidor
+     */
+    @PostConstruct // Se ejecuta una vez construido el componente, antes de recibir peticiones
+    public void iniciar() {
+        wal = new RegistroEscritura(directorioWal, sincronizarWal);
+        List<Path> anteriores = wal.pendientes();
+        if (!anteriores.isEmpty()) {
+            List<EntradaWal> entradas = RegistroEscritura.leer(anteriores);
+            int recuperados = persistidor.recuperar(entradas);
+            log.info("WAL de carritos recuperado: {} entradas, {} carritos actualizados", entradas.size(), recuperados);
+            wal.eliminar(anteriores);
+        }
+        
+        planificador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "carrito-persistidor");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        planificador.scheduleWithFixedDelay(() -> {
+            try {
+                persistirPendientes();
+            } catch (RuntimeException e) {
+                log.error("Error inesperado en el persistidor de carritos", e);
+            }
+        }, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Detiene el persistidor y escribe los cambios pendientes
+     */
+    @PreDestroy // Se ejecuta al cerrar el contexto de Spring
+    public void detener() throws InterruptedException, IOException {
+        planificador.shutdown();
+        planificador.awaitTermination(30, TimeUnit.SECONDS);
+        persistirPendientes();
+        wal.close();
+    }
+    
+    /**
+     * Ejecuta una función sobre el carrito activo de un usuario, cargándolo si hace falta
+     * 
+     * @param usuarioId ID del usuario
+     * @param funcion Función a aplicar (se ejecuta con el cerrojo del shard tomado)
+     * @return Resultado de la función, o vacío si el usuario no tiene carrito activo
+     */
+    public <T> Optional<T> leerActivo(Long usuarioId, Function<CarritoEnMemoria, T> funcion) {
+        Shard shard = shardDe(usuarioId);
+        shard.cerrojo.lock();
+        try {
+            CarritoEnMemoria carrito = obtenerOCargar(shard, usuarioId);
+            return carrito == null ? Optional.empty() : Optional.ofNullable(funcion.apply(carrito));
+        } finally {
+            shard.cerrojo.unlock();
+        }
+    }
+    
+    /**
+     * Ejecuta una función sobre un carrito solo si ya está en memoria (no lo carga)
+     * 
+     * @param carritoId ID del carrito
+     * @param funcion Función a aplicar (se ejecuta con el cerrojo del shard tomado)
+     * @return Resultado de la función, o vacío si el carrito no está en memoria
+     */
+    public <T> Optional<T> leerSiEnMemoria(Long carritoId, Function<CarritoEnMemoria, T> funcion) {
+        Long usuarioId = usuarioPorCarrito.get(carritoId);
+        if (usuarioId == null) {
+            return Optional.empty();
+        }
+        Shard shard = shardDe(usuarioId);
+        shard.cerrojo.lock();
+        try {
+            CarritoEnMemoria carrito = shard.porUsuario.get(usuarioId);
+            if (carrito == null || !carrito.getId().equals(carritoId)) {
+                return Optional.empty();
+            }
+            carrito.tocar(System.nanoTime());
+            return Optional.ofNullable(funcion.apply(carrito));
+        } finally {
+            shard.cerrojo.unlock();
+        }
+    }
+    
+    /**
+     * Agrega unidades de un producto a un carrito en memoria
+     * 
+     * @return La línea resultante, o vacío si el carrito no es el activo de
+     *         su usuario (el llamador debe usar la ruta JPA)
+     * @throws RuntimeException si el carrito no existe o no está activo
+     */
+    public Optional<LineaCarrito> agregarItem(Long carritoId, Long productoId, int cantidad, Double precioUnitario) {
+        return agregarItems(carritoId, List.of(new LineaLote(productoId, cantidad, precioUnitario)))
+                .map(lineas -> lineas.get(0));
+    }
+    
+    /**
+     * Agrega varios productos a un carrito en memoria
+     * 
+     * Las entradas de todas las líneas se anotan en el WAL con una sola
+     * escritura antes de aplicar cualquiera de ellas.
+     * 
+     * @param lineas Líneas a agregar, una por producto (ver LineaLote.combinar)
+     * @return Las líneas resultantes, o vacío si el carrito no es el activo
+     *         de su usuario (el llamador debe usar la ruta JPA)
+     * @throws RuntimeException si el carrito no existe o no está activo
+     */
+    public Optional<List<LineaCarrito>> agregarItems(Long carritoId, List<LineaLote> lineas) {
+        Long usuarioId = resolverUsuario(carritoId)
+                .orElseThrow(() -> new RuntimeException("Carrito no encontrado"));
+        Shard shard = shardDe(usuarioId);
+        shard.cerrojo.lock();
+        try {
+            CarritoEnMemoria carrito = obtenerOCargar(shard, usuarioId);
+            if (carrito == null || !carrito.getId().equals(carritoId)) {
+                return Optional.empty();
+            }
+            if (!carrito.isActivo()) {
+                throw new RuntimeException("No se puede agregar items a un carrito no activo");
+            }
+            
+            // Primero el WAL: si no se puede anotar, el cambio no se aplica
+            List<EntradaWal> entradas = carrito.prepararAgregar(lineas);
+            wal.anotar(entradas);
+            List<LineaCarrito> resultado = new ArrayList<>(entradas.size());
+            for (EntradaWal entrada : entradas) {
+                resultado.add(carrito.aplicar(entrada));
+            }
+            shard.sucios.add(usuarioId);
+            return Optional.of(resultado);
+        } finally {
+            shard.cerrojo.unlock();
+        }
+    }
+    
+    /**
+     * Registra un carrito recién creado como el carrito activo de su usuario
+     * 
+     * Si el usuario tenía otro carrito en memoria, se persisten sus cambios
+     * pendientes y se reemplaza. Si el carrito ya tiene items (lo creó otra
+     * petición concurrente), se carga completo desde la base de datos.
+     */
+    public void registrarNuevo(Carrito nuevo) {
+        Shard shard = shardDe(nuevo.getUsuarioId());
+        shard.cerrojo.lock();
+        try {
+            CarritoEnMemoria actual = shard.porUsuario.get(nuevo.getUsuarioId());
+            if (actual != null && actual.getId().equals(nuevo.getId())) {
+                return;
+            }
+            desalojar(shard, nuevo.getUsuarioId());
+            if (nuevo.getCantidadItems() > 0) {
+                obtenerOCargar(shard, nuevo.getUsuarioId());
+                return;
+            }
+            shard.porUsuario.put(nuevo.getUsuarioId(), CarritoEnMemoria.desdeCarrito(nuevo));
+            usuarioPorCarrito.put(nuevo.getId(), nuevo.getUsuarioId());
+        } finally {
+            shard.cerrojo.unlock();
+        }
+    }
+    
+    /**
+     * Ejecuta una operación sobre la base de datos con el carrito fuera de memoria
+     * 
+     * Con el cerrojo del shard tomado: si el carrito está en memoria, se
+     * persisten sus cambios pendientes y se desaloja; luego se ejecuta la
+     * operación. Mientras tanto ningún otro hilo puede cargar ni modificar
+     * el carrito en memoria, así que la operación debe confirmar su
+     * transacción antes de retornar.
+     * 
+     * @param carritoId ID del carrito
+     * @param operacion Operación a ejecutar
+     * @return Resultado de la operación
+     */
+    public <T> T ejecutarEnBaseDeDatos(Long carritoId, Supplier<T> operacion) {
+        Optional<Long> usuarioId = resolverUsuario(carritoId);
+        if (usuarioId.isEmpty()) {
+            return operacion.get(); // El carrito no existe: la operación informa el error
+        }
+        Shard shard = shardDe(usuarioId.get());
+        shard.cerrojo.lock();
+        try {
+            CarritoEnMemoria carrito = shard.porUsuario.get(usuarioId.get());
+            if (carrito != null && carrito.getId().equals(carritoId)) {
+                desalojar(shard, usuarioId.get());
+            }
+            return operacion.get();
+        } finally {
+            shard.cerrojo.unlock();
+        }
+    }
+    
+    /**
+     * Ejecuta una operación sobre carritos que no están en memoria
+     * 
+     * Toma los cerrojos de todos los shards (siempre en el mismo orden),
+     * descarta los carritos que están en memoria y ejecuta la operación
+     * con los restantes. Mientras dura ningún carrito se puede cargar, así
+     * que los carritos recibidos no cambian hasta que la operación retorna;
+     * debe ser breve y confirmar su transacción antes de retornar.
+     * 
+     * @param carritoIds IDs de los carritos candidatos
+     * @param operacion Operación que recibe los IDs de los carritos fuera de memoria
+     * @return Resultado de la operación
+     */
+    public <T> T ejecutarFueraDeMemoria(Collection<Long> carritoIds, Function<List<Long>, T> operacion) {
+        int tomados = 0;
+        try {
+            for (Shard shard : shards) {
+                shard.cerrojo.lock();
+                tomados++;
+            }
+            List<Long> fueraDeMemoria = new ArrayList<>(carritoIds.size());
+            for (Long carritoId : carritoIds) {
+                if (!usuarioPorCarrito.containsKey(carritoId)) {
+                    fueraDeMemoria.add(carritoId);
+                }
+            }
+            return operacion.apply(fueraDeMemoria);
+        } finally {
+            for (int i = tomados - 1; i >= 0; i--) {
+                shards[i].cerrojo.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Persiste en un lote los carritos con cambios pendientes
+     * 
+     * Lo ejecuta periódicamente el hilo persistidor. Si la escritura
+     * falla, los carritos vuelven a quedar pendientes y los segmentos del
+     * WAL se conservan hasta el próximo ciclo exitoso.
+     */
+    public void persistirPendientes() {
+        // Los cambios anotados en los segmentos cerrados quedan incluidos en las fotos siguientes
+        List<Path> segmentos = wal.rotar();
+        long ahora = System.nanoTime();
+        List<FotoCarrito> fotos = new ArrayList<>();
+        for (Shard shard : shards) {
+            shard.cerrojo.lock();
+            try {
+                for (Long usuarioId : shard.sucios) {
+                    CarritoEnMemoria carrito = shard.porUsuario.get(usuarioId);
+                    if (carrito != null && carrito.estaSucio()) {
+                        fotos.add(carrito.foto());
+                    }
+                }
+                shard.sucios.clear();
+                desalojarInactivos(shard, ahora);
+            } finally {
+                shard.cerrojo.unlock();
+            }
+        }
+        if (fotos.isEmpty()) {
+            wal.eliminar(segmentos);
+            return;
+        }
+        
+        try {
+            persistidor.persistir(fotos);
+            List<Long> conLineasNuevas = fotos.stream()
+                    .filter(FotoCarrito::isLineasNuevas)
+                    .map(FotoCarrito::getCarritoId)
+                    .toList();
+            Map<Long, Map<Long, Long>> itemIds = persistidor.idsDeItems(conLineasNuevas);
+            for (FotoCarrito foto : fotos) {
+                Shard shard = shardDe(foto.getUsuarioId());
+                shard.cerrojo.lock();
+                try {
+                    CarritoEnMemoria carrito = shard.porUsuario.get(foto.getUsuarioId());
+                    if (carrito != null && carrito.getId() == foto.getCarritoId()) {
+                        carrito.marcarPersistido(foto.getRevision(),
+                                itemIds.getOrDefault(foto.getCarritoId(), Map.of()));
+                    }
+                } finally {
+                    shard.cerrojo.unlock();
+                }
+            }
+            wal.eliminar(segmentos);
+            log.debug("Persistidos {} carritos en memoria", fotos.size());
+        } catch (RuntimeException e) {
+            log.error("No se pudieron persistir {} carritos; se reintentará en el próximo ciclo", fotos.size(), e);
+            for (FotoCarrito foto : fotos) {
+                Shard shard = shardDe(foto.getUsuarioId());
+                shard.cerrojo.lock();
+                try {
+                    shard.sucios.add(foto.getUsuarioId());
+                } finally {
+                    shard.cerrojo.unlock();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Cantidad de carritos en memoria
+     */
+    public int tamano() {
+        int total = 0;
+        for (Shard shard : shards) {
+            shard.cerrojo.lock();
+            try {
+                total += shard.porUsuario.size();
+            } finally {
+                shard.cerrojo.unlock();
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Busca el carrito del usuario en el shard o lo carga de la base de datos
+     * 
+     * La carga se hace con el cerrojo tomado para que nunca convivan dos
+     * copias del mismo carrito ni se cargue durante una operación JPA.
+     */
+    private CarritoEnMemoria obtenerOCargar(Shard shard, Long usuarioId) {
+        CarritoEnMemoria carrito = shard.porUsuario.get(usuarioId);
+        if (carrito == null) {
+            List<FilaVistaCarrito> filas = carritoRepository.buscarVistaActiva(usuarioId);
+            if (filas.isEmpty()) {
+                return null;
+            }
+            carrito = CarritoEnMemoria.desdeFilas(filas);
+            shard.porUsuario.put(usuarioId, carrito);
+            usuarioPorCarrito.put(carrito.getId(), usuarioId);
+        }
+        carrito.tocar(System.nanoTime());
+        return carrito;
+    }
+    
+    /**
+     * Persiste los cambios pendientes del carrito del usuario (si los hay) y lo quita de memoria
+     */
+    private void desalojar(Shard shard, Long usuarioId) {
+        CarritoEnMemoria carrito = shard.porUsuario.get(usuarioId);
+        if (carrito == null) {
+            return;
+        }
+        if (carrito.estaSucio()) {
+            persistidor.persistir(List.of(carrito.foto()));
+        }
+        shard.porUsuario.remove(usuarioId);
+        shard.sucios.remove(usuarioId);
+        usuarioPorCarrito.remove(carrito.getId());
+    }
+    
+    private void desalojarInactivos(Shard shard, long ahora) {
+        Iterator<CarritoEnMemoria> carritos = shard.porUsuario.values().iterator();
+        while (carritos.hasNext()) {
+            CarritoEnMemoria carrito = carritos.next();
+            if (!carrito.estaSucio() && ahora - carrito.getUltimoAcceso() > inactividadNanos) {
+                carritos.remove();
+                usuarioPorCarrito.remove(carrito.getId());
+            }
+        }
+    }
+    
+    /**
+     * Resuelve el usuario dueño de un carrito (el dato no cambia, no necesita cerrojo)
+     */
+    private Optional<Long> resolverUsuario(Long carritoId) {
+        Long usuarioId = usuarioPorCarrito.get(carritoId);
+        if (usuarioId != null) {
+            return Optional.of(usuarioId);
+        }
+        return carritoRepository.buscarResumen(carritoId).map(ResumenCarrito::getUsuarioId);
+    }
+    
+    private Shard shardDe(Long usuarioId) {
+        // Mezcla de bits para repartir bien IDs consecutivos
+        long h = usuarioId * 0x9E3779B97F4A7C15L;
+        return shards[(int) (h ^ (h >>> 32)) & mascara];
+    }
+    
+    /**
+     * Porción del almacén protegida por un mismo cerrojo
+     */
+    private static final class Shard {
+        private final ReentrantLock cerrojo = new ReentrantLock();
+        private final Map<Long, CarritoEnMemoria> porUsuario = new HashMap<>();
+        private final Set<Long> sucios = new LinkedHashSet<>();
+    }
+}
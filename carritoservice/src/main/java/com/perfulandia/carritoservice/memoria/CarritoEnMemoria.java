@@ -0,0 +1,245 @@
+package com.perfulandia.carritoservice.memoria;
+
+import com.perfulandia.carritoservice.model.Carrito;
+import com.perfulandia.carritoservice.model.EstadoCarrito;
+import com.perfulandia.carritoservice.model.FilaVistaCarrito;
+import com.perfulandia.carritoservice.model.ItemCarrito;
+import com.perfulandia.carritoservice.model.LineaLote;
+import com.perfulandia.carritoservice.model.ResumenCarrito;
+import com.perfulandia.carritoservice.model.VistaCarrito;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carrito activo que vive en memoria
+ * 
+ * Mantiene el encabezado del carrito (totales y revisión) y sus líneas
+ * indexadas por producto, que es único dentro de un carrito. La revisión
+ * continúa la de la base de datos: cada cambio la aumenta en uno, igual
+ * que los cambios hechos por JPA.
+ * 
+ * No es segura para hilos: se accede siempre con el cerrojo del shard
+ * del carrito tomado.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Getter // Genera getters para todos los campos
+public class CarritoEnMemoria {
+    
+    private final Long id;
+    private final Long usuarioId;
+    private final EstadoCarrito estado;
+    private final LocalDateTime fechaCreacion;
+    private final Map<Long, LineaCarrito> lineas = new LinkedHashMap<>();
+    private long totalCentavos;
+    private int cantidadItems;
+    private long revision;
+    
+    /**
+     * Última revisión que ya está escrita en la base de datos
+     */
+    private long revisionPersistida;
+    
+    /**
+     * Instante (System.nanoTime) del último acceso, para desalojar carritos inactivos
+     */
+    private long ultimoAcceso;
+    
+    private CarritoEnMemoria(Long id, Long usuarioId, EstadoCarrito estado, LocalDateTime fechaCreacion,
+                             long totalCentavos, int cantidadItems, long revision) {
+        this.id = id;
+        this.usuarioId = usuarioId;
+        this.estado = estado;
+        this.fechaCreacion = fechaCreacion;
+        this.totalCentavos = totalCentavos;
+        this.cantidadItems = cantidadItems;
+        this.revision = revision;
+        this.revisionPersistida = revision;
+        this.ultimoAcceso = System.nanoTime();
+    }
+    
+    /**
+     * Construye el carrito a partir de las filas de la vista (una por item)
+     * 
+     * @param filas Filas devueltas por CarritoRepository.buscarVistaActiva (no vacía)
+     */
+    public static CarritoEnMemoria desdeFilas(List<FilaVistaCarrito> filas) {
+        FilaVistaCarrito primera = filas.get(0);
+        CarritoEnMemoria carrito = new CarritoEnMemoria(primera.getCarritoId(), primera.getUsuarioId(),
+                primera.getEstado(), primera.getFechaCreacion(), primera.getTotalCentavos(),
+                primera.getCantidadItems(), primera.getRevision());
+        for (FilaVistaCarrito fila : filas) {
+            if (fila.getItemId() != null) {
+                carrito.lineas.put(fila.getProductoId(), new LineaCarrito(fila.getItemId(), fila.getProductoId(),
+                        fila.getCantidad(), fila.getPrecioUnitario(), primera.getRevision()));
+            }
+        }
+        return carrito;
+    }
+    
+    /**
+     * Construye el carrito a partir de uno recién creado (sin items)
+     */
+    public static CarritoEnMemoria desdeCarrito(Carrito carrito) {
+        return new CarritoEnMemoria(carrito.getId(), carrito.getUsuarioId(), carrito.getEstado(),
+                carrito.getFechaCreacion(), carrito.getTotalCentavos(), carrito.getCantidadItems(),
+                carrito.getRevision());
+    }
+    
+    public boolean isActivo() {
+        return estado == EstadoCarrito.ACTIVO;
+    }
+    
+    /**
+     * Indica si hay cambios que todavía no están en la base de datos
+     */
+    public boolean estaSucio() {
+        return revision > revisionPersistida;
+    }
+    
+    /**
+     * Calcula, sin aplicarlo, el resultado de agregar unidades de varios productos
+     * 
+     * Si un producto ya está en el carrito se suma la cantidad y se
+     * conserva el precio de la línea existente. Cada línea avanza una
+     * revisión y acumula los totales de las anteriores.
+     * 
+     * @param pedido Líneas a agregar, una por producto
+     * @return Entradas con los valores absolutos resultantes, listas para anotar en el WAL
+     */
+    public List<EntradaWal> prepararAgregar(List<LineaLote> pedido) {
+        List<EntradaWal> entradas = new ArrayList<>(pedido.size());
+        long revisionSiguiente = revision;
+        long total = totalCentavos;
+        int unidades = cantidadItems;
+        for (LineaLote linea : pedido) {
+            LineaCarrito existente = lineas.get(linea.getProductoId());
+            double precio = existente != null ? existente.getPrecioUnitario() : linea.getPrecioUnitario();
+            int cantidadFinal = existente != null ? existente.getCantidad() + linea.getCantidad() : linea.getCantidad();
+            revisionSiguiente++;
+            total += ItemCarrito.aCentavos(precio) * linea.getCantidad();
+            unidades += linea.getCantidad();
+            entradas.add(new EntradaWal(id, revisionSiguiente, linea.getProductoId(), cantidadFinal, precio,
+                    total, unidades));
+        }
+        return entradas;
+    }
+    
+    /**
+     * Aplica una entrada preparada con prepararAgregar (ya anotada en el WAL)
+     * 
+     * @return La línea modificada
+     */
+    public LineaCarrito aplicar(EntradaWal entrada) {
+        LineaCarrito linea = lineas.get(entrada.getProductoId());
+        if (linea == null) {
+            linea = new LineaCarrito(null, entrada.getProductoId(), entrada.getCantidad(),
+                    entrada.getPrecioUnitario(), entrada.getRevision());
+            lineas.put(entrada.getProductoId(), linea);
+        } else {
+            linea.actualizar(entrada.getCantidad(), entrada.getRevision());
+        }
+        totalCentavos = entrada.getTotalCentavos();
+        cantidadItems = entrada.getCantidadItems();
+        revision = entrada.getRevision();
+        return linea;
+    }
+    
+    /**
+     * Toma una copia de los cambios pendientes de persistir
+     */
+    public FotoCarrito foto() {
+        List<FotoCarrito.Linea> modificadas = new ArrayList<>();
+        boolean lineasNuevas = false;
+        for (LineaCarrito linea : lineas.values()) {
+            if (linea.getRevisionModificada() > revisionPersistida) {
+                modificadas.add(new FotoCarrito.Linea(linea.getProductoId(), linea.getCantidad(),
+                        linea.getPrecioUnitario()));
+            }
+            lineasNuevas |= linea.getItemId() == null;
+        }
+        return new FotoCarrito(id, usuarioId, revision, totalCentavos, cantidadItems, modificadas, lineasNuevas);
+    }
+    
+    /**
+     * Registra que los cambios hasta la revisión indicada ya están en la base de datos
+     * 
+     * @param revision Revisión de la foto persistida
+     * @param itemIds IDs de item por producto (puede ser vacío); se asignan a las líneas que no tienen
+     */
+    public void marcarPersistido(long revision, Map<Long, Long> itemIds) {
+        revisionPersistida = Math.max(revisionPersistida, revision);
+        for (LineaCarrito linea : lineas.values()) {
+            if (linea.getItemId() == null) {
+                linea.asignarItemId(itemIds.get(linea.getProductoId()));
+            }
+        }
+    }
+    
+    void tocar(long ahora) {
+        ultimoAcceso = ahora;
+    }
+    
+    public static ItemCarrito aItem(LineaCarrito linea) {
+        return ItemCarrito.builder()
+                .id(linea.getItemId())
+                .productoId(linea.getProductoId())
+                .cantidad(linea.getCantidad())
+                .precioUnitario(linea.getPrecioUnitario())
+                .build();
+    }
+    
+    public List<ItemCarrito> aItems() {
+        List<ItemCarrito> items = new ArrayList<>(lineas.size());
+        for (LineaCarrito linea : lineas.values()) {
+            items.add(aItem(linea));
+        }
+        return items;
+    }
+    
+    public Carrito aCarrito() {
+        return Carrito.builder()
+                .id(id)
+                .usuarioId(usuarioId)
+                .estado(estado)
+                .fechaCreacion(fechaCreacion)
+                .totalCentavos(totalCentavos)
+                .cantidadItems(cantidadItems)
+                .revision(revision)
+                .build();
+    }
+    
+    public ResumenCarrito aResumen() {
+        return new ResumenCarrito(id, usuarioId, estado, cantidadItems, totalCentavos, revision);
+    }
+    
+    public VistaCarrito aVista() {
+        List<VistaCarrito.ItemVista> items = new ArrayList<>(lineas.size());
+        for (LineaCarrito linea : lineas.values()) {
+            items.add(VistaCarrito.ItemVista.builder()
+                    .id(linea.getItemId())
+                    .productoId(linea.getProductoId())
+                    .cantidad(linea.getCantidad())
+                    .precioUnitario(linea.getPrecioUnitario())
+                    .subtotalCentavos(linea.getSubtotalCentavos())
+                    .build());
+        }
+        return VistaCarrito.builder()
+                .id(id)
+                .usuarioId(usuarioId)
+                .estado(estado)
+                .fechaCreacion(fechaCreacion)
+                .cantidadItems(cantidadItems)
+                .totalCentavos(totalCentavos)
+                .revision(revision)
+                .items(items)
+                .build();
+    }
+}
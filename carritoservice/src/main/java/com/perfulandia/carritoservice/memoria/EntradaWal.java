@@ -0,0 +1,62 @@
+package com.perfulandia.carritoservice.memoria;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Entrada del registro de escritura anticipada (WAL) de carritos
+ * 
+ * Describe el resultado de un cambio en memoria con valores absolutos
+ * (cantidad final de la línea y totales finales del carrito) junto con
+ * la revisión alcanzada. Así, volver a aplicar una entrada ya persistida
+ * no tiene efecto: se descarta si la revisión en la base de datos es
+ * igual o mayor.
+ * 
+ * Formato en disco (una línea por entrada):
+ * carritoId;revision;productoId;cantidad;precioUnitario;totalCentavos;cantidadItems
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Getter // Genera getters para todos los campos
+@AllArgsConstructor // Genera constructor con todos los parámetros
+public class EntradaWal {
+    
+    private final long carritoId;
+    private final long revision;
+    private final long productoId;
+    private final int cantidad;
+    private final double precioUnitario;
+    private final long totalCentavos;
+    private final int cantidadItems;
+    
+    /**
+     * Convierte la entrada a su línea de texto (sin salto de línea)
+     */
+    public String aLinea() {
+        return carritoId + ";" + revision + ";" + productoId + ";" + cantidad + ";" + precioUnitario
+                + ";" + totalCentavos + ";" + cantidadItems;
+    }
+    
+    /**
+     * Lee una entrada desde su línea de texto
+     * 
+     * @param linea Línea sin salto de línea
+     * @return La entrada
+     * @throws IllegalArgumentException si la línea está incompleta o mal formada
+     */
+    public static EntradaWal desdeLinea(String linea) {
+        String[] campos = linea.split(";");
+        if (campos.length != 7) {
+            throw new IllegalArgumentException("Entrada de WAL incompleta: " + linea);
+        }
+        try {
+            return new EntradaWal(Long.parseLong(campos[0]), Long.parseLong(campos[1]), Long.parseLong(campos[2]),
+                    Integer.parseInt(campos[3]), Double.parseDouble(campos[4]), Long.parseLong(campos[5]),
+                    Integer.parseInt(campos[6]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Entrada de WAL mal formada: " + linea, e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.perfulandia.carritoservice.memoria;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Copia inmutable de los cambios pendientes de un carrito en memoria
+ * 
+ * La toma el persistidor con el cerrojo del shard tomado y la escribe en
+ * la base de datos después de soltarlo. Contiene los totales del carrito
+ * y solo las líneas modificadas desde la última persistencia.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Getter // Genera getters para todos los campos
+@AllArgsConstructor // Genera constructor con todos los parámetros
+public class FotoCarrito {
+    
+    private final long carritoId;
+    private final long usuarioId;
+    private final long revision;
+    private final long totalCentavos;
+    private final int cantidadItems;
+    private final List<Linea> lineas;
+    
+    /**
+     * Indica si alguna línea todavía no tiene ID de item (nunca se persistió)
+     */
+    private final boolean lineasNuevas;
+    
+    @Getter // Genera getters para todos los campos
+    @AllArgsConstructor // Genera constructor con todos los parámetros
+    public static class Linea {
+        private final long productoId;
+        private final int cantidad;
+        private final double precioUnitario;
+    }
+}
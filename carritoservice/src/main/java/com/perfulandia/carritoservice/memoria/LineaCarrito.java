@@ -0,0 +1,52 @@
+package com.perfulandia.carritoservice.memoria;
+
+import com.perfulandia.carritoservice.model.ItemCarrito;
+import lombok.Getter;
+
+/**
+ * Línea (producto) de un carrito que vive en memoria
+ * 
+ * Equivale a una fila de item_carrito. El ID del item es null mientras
+ * la línea no se haya persistido por primera vez.
+ * 
+ * No es segura para hilos: se accede siempre con el cerrojo del shard
+ * del carrito tomado.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Getter // Genera getters para todos los campos
+public class LineaCarrito {
+    
+    private Long itemId;
+    private final Long productoId;
+    private int cantidad;
+    private final Double precioUnitario;
+    
+    /**
+     * Revisión del carrito en que se modificó la línea por última vez
+     */
+    private long revisionModificada;
+    
+    LineaCarrito(Long itemId, Long productoId, int cantidad, Double precioUnitario, long revisionModificada) {
+        this.itemId = itemId;
+        this.productoId = productoId;
+        this.cantidad = cantidad;
+        this.precioUnitario = precioUnitario;
+        this.revisionModificada = revisionModificada;
+    }
+    
+    public long getSubtotalCentavos() {
+        return ItemCarrito.aCentavos(precioUnitario) * cantidad;
+    }
+    
+    void actualizar(int cantidad, long revision) {
+        this.cantidad = cantidad;
+        this.revisionModificada = revision;
+    }
+    
+    void asignarItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+}
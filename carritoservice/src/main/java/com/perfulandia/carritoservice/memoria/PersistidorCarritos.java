@@ -0,0 +1,171 @@
+package com.perfulandia.carritoservice.memoria;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escribe en la base de datos los cambios de los carritos en memoria
+ * 
+ * Usa JDBC en lotes (sin pasar por entidades JPA) y valores absolutos:
+ * cada carrito se actualiza solo si su revisión en la base de datos es
+ * menor que la de la foto, y sus líneas solo si el carrito se actualizó.
+ * Así es seguro volver a escribir una foto ya persistida o una foto
+ * vieja que llega después de un cambio hecho por JPA: se descarta.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Component // Marca esta clase como un componente de Spring para inyectarla en el almacén en memoria
+@ConditionalOnProperty(name = "carrito.memoria.habilitada", havingValue = "true") // Solo existe con el modo en memoria activado
+public class PersistidorCarritos {
+    
+    static final String ACTUALIZAR_CARRITO =
+            "UPDATE carritos SET total_centavos = ?, cantidad_items = ?, revision = ?, ultima_actividad = ? "
+            + "WHERE id = ? AND revision < ?";
+    
+    static final String GUARDAR_LINEA =
+            "INSERT INTO item_carrito (carrito_id, producto_id, cantidad, precio_unitario) VALUES (?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE cantidad = VALUES(cantidad)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transaccion;
+    
+    @Autowired // Indica a Spring cuál constructor usar para la inyección
+    public PersistidorCarritos(JdbcTemplate jdbcTemplate, TransactionTemplate transaccion) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transaccion = transaccion;
+    }
+    
+    /**
+     * Escribe un lote de fotos en una sola transacción
+     * 
+     * @param fotos Fotos a escribir
+     * @throws org.springframework.dao.DataAccessException si falla (no se escribe ninguna)
+     */
+    public void persistir(List<FotoCarrito> fotos) {
+        // La actividad se registra al persistir: a lo sumo un intervalo después del cambio
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        transaccion.executeWithoutResult(estado -> {
+            int[] actualizados = jdbcTemplate.batchUpdate(ACTUALIZAR_CARRITO, fotos, fotos.size(), (ps, foto) -> {
+                ps.setLong(1, foto.getTotalCentavos());
+                ps.setInt(2, foto.getCantidadItems());
+                ps.setLong(3, foto.getRevision());
+                ps.setTimestamp(4, ahora);
+                ps.setLong(5, foto.getCarritoId());
+                ps.setLong(6, foto.getRevision());
+            })[0];
+            
+            List<Object[]> lineas = new ArrayList<>();
+            for (int i = 0; i < fotos.size(); i++) {
+                // 0 filas: la base de datos ya tiene esta revisión o una posterior
+                if (actualizados[i] == 0) {
+                    continue;
+                }
+                FotoCarrito foto = fotos.get(i);
+                for (FotoCarrito.Linea linea : foto.getLineas()) {
+                    lineas.add(new Object[] {foto.getCarritoId(), linea.getProductoId(), linea.getCantidad(),
+                            linea.getPrecioUnitario()});
+                }
+            }
+            if (!lineas.isEmpty()) {
+                jdbcTemplate.batchUpdate(GUARDAR_LINEA, lineas);
+            }
+        });
+    }
+    
+    /**
+     * Obtiene los IDs de item de los carritos indicados
+     * 
+     * @param carritoIds IDs de los carritos
+     * @return Para cada carrito, el ID de item de cada producto
+     */
+    public Map<Long, Map<Long, Long>> idsDeItems(Collection<Long> carritoIds) {
+        Map<Long, Map<Long, Long>> ids = new HashMap<>();
+        if (carritoIds.isEmpty()) {
+            return ids;
+        }
+        namedJdbcTemplate.query(
+                "SELECT id, carrito_id, producto_id FROM item_carrito WHERE carrito_id IN (:carritos)",
+                new MapSqlParameterSource("carritos", carritoIds),
+                rs -> {
+                    ids.computeIfAbsent(rs.getLong("carrito_id"), c -> new HashMap<>())
+                            .put(rs.getLong("producto_id"), rs.getLong("id"));
+                });
+        return ids;
+    }
+    
+    /**
+     * Aplica en la base de datos las entradas de WAL que no alcanzaron a persistirse
+     * 
+     * Para cada carrito se toma la revisión actual de la base de datos y
+     * se aplican solo las entradas posteriores: los totales de la última
+     * y, por producto, la cantidad de la última entrada de ese producto.
+     * 
+     * @param entradas Entradas en el orden en que se anotaron
+     * @return Cantidad de carritos actualizados
+     */
+    public int recuperar(List<EntradaWal> entradas) {
+        Map<Long, List<EntradaWal>> porCarrito = new LinkedHashMap<>();
+        for (EntradaWal entrada : entradas) {
+            porCarrito.computeIfAbsent(entrada.getCarritoId(), c -> new ArrayList<>()).add(entrada);
+        }
+        
+        Integer recuperados = transaccion.execute(estado -> {
+            int actualizados = 0;
+            for (Map.Entry<Long, List<EntradaWal>> carrito : porCarrito.entrySet()) {
+                List<Long> revisiones = jdbcTemplate.queryForList(
+                        "SELECT revision FROM carritos WHERE id = ?", Long.class, carrito.getKey());
+                if (revisiones.isEmpty()) {
+                    continue; // El carrito ya no existe
+                }
+                long revisionBase = revisiones.get(0);
+                
+                EntradaWal ultima = null;
+                Map<Long, EntradaWal> ultimaPorProducto = new LinkedHashMap<>();
+                for (EntradaWal entrada : carrito.getValue()) {
+                    if (entrada.getRevision() <= revisionBase) {
+                        continue;
+                    }
+                    if (ultima == null || entrada.getRevision() > ultima.getRevision()) {
+                        ultima = entrada;
+                    }
+                    ultimaPorProducto.merge(entrada.getProductoId(), entrada,
+                            (actual, nueva) -> nueva.getRevision() > actual.getRevision() ? nueva : actual);
+                }
+                if (ultima == null) {
+                    continue; // Todo lo anotado ya estaba persistido
+                }
+                
+                jdbcTemplate.update(ACTUALIZAR_CARRITO, ultima.getTotalCentavos(), ultima.getCantidadItems(),
+                        ultima.getRevision(), Timestamp.valueOf(LocalDateTime.now()), carrito.getKey(),
+                        ultima.getRevision());
+                List<Object[]> lineas = new ArrayList<>();
+                for (EntradaWal entrada : ultimaPorProducto.values()) {
+                    lineas.add(new Object[] {entrada.getCarritoId(), entrada.getProductoId(), entrada.getCantidad(),
+                            entrada.getPrecioUnitario()});
+                }
+                jdbcTemplate.batchUpdate(GUARDAR_LINEA, lineas);
+                actualizados++;
+            }
+            return actualizados;
+        });
+        return recuperados == null ? 0 : recuperados;
+    }
+}
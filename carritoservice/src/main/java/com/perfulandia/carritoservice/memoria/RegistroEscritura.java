@@ -0,0 +1,217 @@
+package com.perfulandia.carritoservice.memoria;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Registro de escritura anticipada (WAL) de los carritos en memoria
+ * 
+ * Cada cambio se anota aquí antes de aplicarse en memoria, de modo que
+ * si el proceso se cae antes de que el persistidor lo escriba en la base
+ * de datos, se recupera al iniciar. El registro se divide en segmentos:
+ * en cada ciclo de persistencia se cierra el segmento actual y, cuando
+ * los cambios que contiene ya están en la base de datos, se elimina.
+ * 
+ * Durabilidad:
+ * - Con sincronizar=false cada entrada se entrega al sistema operativo
+ *   (sobrevive a una caída del proceso) y se fuerza a disco en cada
+ *   ciclo de persistencia.
+ * - Con sincronizar=true cada entrada se fuerza a disco antes de
+ *   confirmar el cambio (sobrevive a una caída del sistema, más lento).
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Slf4j // Genera un logger para registrar entradas descartadas
+public class RegistroEscritura implements Closeable {
+    
+    private static final String PREFIJO = "wal-";
+    private static final String EXTENSION = ".log";
+    
+    private final Path directorio;
+    private final boolean sincronizar;
+    
+    /**
+     * Segmentos cerrados cuyos cambios todavía no se confirmaron en la base de datos
+     */
+    private final List<Path> cerrados = new ArrayList<>();
+    
+    private FileChannel actual;
+    private long secuencia;
+    
+    /**
+     * Abre el registro en el directorio indicado
+     * 
+     * Los segmentos que ya existían (de una ejecución anterior) quedan
+     * como cerrados: deben recuperarse con leer() y eliminarse con
+     * eliminar() una vez aplicados.
+     * 
+     * @param directorio Directorio de los segmentos (se crea si no existe)
+     * @param sincronizar Si se fuerza a disco cada entrada
+     */
+    public RegistroEscritura(Path directorio, boolean sincronizar) {
+        this.directorio = directorio;
+        this.sincronizar = sincronizar;
+        try {
+            Files.createDirectories(directorio);
+            List<Path> existentes = segmentos(directorio);
+            cerrados.addAll(existentes);
+            secuencia = existentes.isEmpty() ? 0 : numeroDe(existentes.get(existentes.size() - 1));
+            abrirSiguiente();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el registro de escritura en " + directorio, e);
+        }
+    }
+    
+    /**
+     * Anota una entrada en el segmento actual
+     * 
+     * @param entrada Entrada a anotar
+     * @throws UncheckedIOException si no se pudo escribir (el cambio no debe aplicarse)
+     */
+    public void anotar(EntradaWal entrada) {
+        anotar(List.of(entrada));
+    }
+    
+    /**
+     * Anota varias entradas con una sola escritura en el segmento actual
+     * 
+     * @param entradas Entradas a anotar, en orden
+     * @throws UncheckedIOException si no se pudo escribir (los cambios no deben aplicarse)
+     */
+    public synchronized void anotar(List<EntradaWal> entradas) {
+        StringBuilder texto = new StringBuilder(entradas.size() * 48);
+        for (EntradaWal entrada : entradas) {
+            texto.append(entrada.aLinea()).append('\n');
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(texto.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            while (bytes.hasRemaining()) {
+                actual.write(bytes);
+            }
+            if (sincronizar) {
+                actual.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en el registro de escritura", e);
+        }
+    }
+    
+    /**
+     * Cierra el segmento actual (forzándolo a disco) y abre uno nuevo
+     * 
+     * @return Todos los segmentos cerrados pendientes de confirmar, del más antiguo al más reciente
+     */
+    public synchronized List<Path> rotar() {
+        try {
+            actual.force(false);
+            actual.close();
+            cerrados.add(rutaDe(secuencia));
+            abrirSiguiente();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo rotar el registro de escritura", e);
+        }
+        return new ArrayList<>(cerrados);
+    }
+    
+    /**
+     * Elimina segmentos cerrados cuyos cambios ya están en la base de datos
+     * 
+     * @param segmentos Segmentos devueltos por rotar()
+     */
+    public synchronized void eliminar(List<Path> segmentos) {
+        for (Path segmento : segmentos) {
+            try {
+                Files.deleteIfExists(segmento);
+                cerrados.remove(segmento);
+            } catch (IOException e) {
+                log.warn("No se pudo eliminar el segmento {} del registro de escritura", segmento, e);
+            }
+        }
+    }
+    
+    /**
+     * Segmentos cerrados pendientes de confirmar (por ejemplo, los de una ejecución anterior)
+     */
+    public synchronized List<Path> pendientes() {
+        return new ArrayList<>(cerrados);
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        actual.force(false);
+        actual.close();
+    }
+    
+    /**
+     * Lee las entradas de los segmentos indicados, en orden
+     * 
+     * Una línea incompleta al final de un segmento (escritura interrumpida
+     * por una caída) se descarta.
+     * 
+     * @param segmentos Segmentos a leer, del más antiguo al más reciente
+     * @return Entradas en el orden en que se anotaron
+     */
+    public static List<EntradaWal> leer(List<Path> segmentos) {
+        List<EntradaWal> entradas = new ArrayList<>();
+        for (Path segmento : segmentos) {
+            try (BufferedReader lector = Files.newBufferedReader(segmento, StandardCharsets.UTF_8)) {
+                String linea;
+                while ((linea = lector.readLine()) != null) {
+                    if (linea.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        entradas.add(EntradaWal.desdeLinea(linea));
+                    } catch (IllegalArgumentException e) {
+                        log.warn("Se descarta una entrada incompleta del segmento {}: {}", segmento, e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo leer el segmento " + segmento, e);
+            }
+        }
+        return entradas;
+    }
+    
+    private void abrirSiguiente() throws IOException {
+        secuencia++;
+        actual = FileChannel.open(rutaDe(secuencia),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+    
+    private Path rutaDe(long numero) {
+        return directorio.resolve(String.format("%s%020d%s", PREFIJO, numero, EXTENSION));
+    }
+    
+    private static long numeroDe(Path segmento) {
+        String nombre = segmento.getFileName().toString();
+        return Long.parseLong(nombre.substring(PREFIJO.length(), nombre.length() - EXTENSION.length()));
+    }
+    
+    private static List<Path> segmentos(Path directorio) throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos
+                    .filter(ruta -> {
+                        String nombre = ruta.getFileName().toString();
+                        return nombre.startsWith(PREFIJO) && nombre.endsWith(EXTENSION);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.perfulandia.carritoservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -13,12 +15,18 @@ import java.util.List;
  * múltiples items (productos) y tiene un estado que indica si está activo
  * o completado.
  * 
+ * El total y la cantidad de unidades se mantienen en columnas propias
+ * (actualizadas en la misma transacción que cada cambio de items), de
+ * modo que el encabezado del carrito se lee en una sola fila sin cargar
+ * la colección de items.
+ * 
  * @author Equipo Perfulandia
  * @version 1.0
  * @since 2025-06-30
  */
 @Entity // Marca esta clase como una entidad JPA que se mapea a una tabla
 @Table(name = "carritos") // Especifica el nombre de la tabla en la base de datos
+@DynamicUpdate // Actualiza solo las columnas modificadas: guardar el carrito no pisa los totales ajustados en la base de datos
 @Data // Genera automáticamente getters, setters, toString, equals y hashCode
 @AllArgsConstructor // Genera constructor con todos los parámetros
 @NoArgsConstructor // Genera constructor sin parámetros (requerido por JPA)
@@ -42,11 +50,11 @@ public class Carrito {
     
     /**
      * Estado actual del carrito
-     * Valores posibles: "ACTIVO", "COMPLETADO", "CANCELADO"
-     * Por defecto se establece como "ACTIVO" cuando se crea un nuevo carrito
+     * Valores posibles: ACTIVO, COMPLETADO, CANCELADO, EXPIRADO (se guarda como SMALLINT)
+     * Por defecto se establece como ACTIVO cuando se crea un nuevo carrito
      */
     @Column(nullable = false) // Especifica que la columna no puede ser null
-    private String estado;
+    private EstadoCarrito estado;
     
     /**
      * Fecha y hora de creación del carrito
@@ -55,25 +63,59 @@ public class Carrito {
     @Column(name = "fecha_creacion", nullable = false) // Especifica detalles de la columna en la base de datos
     private LocalDateTime fechaCreacion;
     
+    /**
+     * Fecha y hora del último cambio del carrito (items o estado)
+     * La usa el barrido de expiración para encontrar carritos abandonados
+     * y carritos terminados para archivar
+     */
+    @Column(name = "ultima_actividad", nullable = false) // Especifica detalles de la columna en la base de datos
+    @JsonIgnore // Dato interno del barrido de expiración
+    private LocalDateTime ultimaActividad;
+    
+    /**
+     * Total del carrito en centavos (unidad monetaria mínima, sin errores de redondeo)
+     * Se actualiza de forma atómica al agregar, modificar o eliminar items
+     */
+    @Column(name = "total_centavos", nullable = false) // Especifica detalles de la columna en la base de datos
+    private long totalCentavos;
+    
+    /**
+     * Cantidad total de unidades en el carrito (suma de las cantidades de los items)
+     * Se actualiza junto con el total
+     */
+    @Column(name = "cantidad_items", nullable = false) // Especifica detalles de la columna en la base de datos
+    private int cantidadItems;
+    
+    /**
+     * Revisión del carrito: aumenta con cada cambio de items o de estado
+     * Se usa como ETag de la vista del carrito y como versión del bloqueo
+     * optimista: guardar la entidad falla si otra transacción la cambió
+     * desde que se leyó (los UPDATE de los repositorios la aumentan a mano)
+     */
+    @Version // Bloqueo optimista: el UPDATE de la entidad incluye WHERE revision = ? y la aumenta
+    @Column(nullable = false) // Especifica que la columna no puede ser null
+    private long revision;
+    
     /**
      * Lista de items (productos) en el carrito
      * Relación uno-a-muchos: un carrito puede tener múltiples items
+     * No se serializa: los items se consultan en GET /api/carrito/{id}/items
      */
     @OneToMany(mappedBy = "carrito", cascade = CascadeType.ALL, fetch = FetchType.LAZY) // Define la relación uno-a-muchos
+    @JsonIgnore // Evita cargar la colección perezosa al serializar el carrito
+    @ToString.Exclude // Evita ciclos y cargas perezosas en toString
+    @EqualsAndHashCode.Exclude // Evita ciclos y cargas perezosas en equals y hashCode
     private List<ItemCarrito> items;
     
     /**
-     * Método que calcula el total del carrito sumando todos los items
+     * Método que obtiene el total del carrito a partir del total mantenido en centavos
+     * 
+     * No recorre los items, por lo que no provoca consultas adicionales.
      * 
      * @return El precio total del carrito, o 0.0 si no hay items
      */
     public Double getTotal() {
-        if (items == null || items.isEmpty()) {
-            return 0.0;
-        }
-        return items.stream()
-                .mapToDouble(item -> item.getPrecioUnitario() * item.getCantidad())
-                .sum();
+        return totalCentavos / 100.0;
     }
     
     /**
@@ -82,7 +124,7 @@ public class Carrito {
      * @return true si el carrito está activo, false en caso contrario
      */
     public boolean isActivo() {
-        return "ACTIVO".equals(estado);
+        return estado == EstadoCarrito.ACTIVO;
     }
     
     /**
@@ -91,6 +133,6 @@ public class Carrito {
      * @return true si el carrito está completado, false en caso contrario
      */
     public boolean isCompletado() {
-        return "COMPLETADO".equals(estado);
+        return estado == EstadoCarrito.COMPLETADO;
     }
-} 
\ No newline at end of file
+} 
@@ -0,0 +1,94 @@
+package com.perfulandia.carritoservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que registra el checkout de un carrito
+ * 
+ * Hay una fila por carrito. El campo intentos identifica al intento que
+ * tiene el checkout en este momento: cada paso que cambia el checkout lo
+ * hace solo si el intento sigue siendo el suyo.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Entity // Marca esta clase como una entidad JPA que se mapea a una tabla
+@Table(name = "checkouts") // Especifica el nombre de la tabla en la base de datos
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido por JPA)
+@Builder // Implementa el patrón Builder para crear instancias
+public class Checkout {
+    
+    /**
+     * ID del carrito (un checkout por carrito)
+     */
+    @Id // Marca el campo como clave primaria
+    @Column(name = "carrito_id") // Especifica detalles de la columna en la base de datos
+    private Long carritoId;
+    
+    /**
+     * Estado del checkout
+     */
+    @Enumerated(EnumType.STRING) // Guarda el nombre del estado
+    @Column(nullable = false, length = 20) // Especifica detalles de la columna en la base de datos
+    private EstadoCheckout estado;
+    
+    /**
+     * Número del intento actual (empieza en 1)
+     */
+    @Column(nullable = false) // Especifica que la columna no puede ser null
+    private int intentos;
+    
+    /**
+     * ID de la reserva de stock del intento actual
+     */
+    @Column(name = "reserva_id", length = 64) // Especifica detalles de la columna en la base de datos
+    private String reservaId;
+    
+    /**
+     * Revisión del carrito que se reservó y se completó
+     */
+    @Column(name = "revision_carrito") // Especifica detalles de la columna en la base de datos
+    private Long revisionCarrito;
+    
+    /**
+     * Número del pedido (solo cuando está completado)
+     */
+    @Column(name = "numero_pedido", length = 40) // Especifica detalles de la columna en la base de datos
+    private String numeroPedido;
+    
+    /**
+     * Total cobrado en centavos (solo cuando está completado)
+     */
+    @Column(name = "total_centavos") // Especifica detalles de la columna en la base de datos
+    private Long totalCentavos;
+    
+    /**
+     * Unidades compradas (solo cuando está completado)
+     */
+    @Column(name = "cantidad_items") // Especifica detalles de la columna en la base de datos
+    private Integer cantidadItems;
+    
+    /**
+     * Motivo del último fallo
+     */
+    @Column(length = 255) // Especifica detalles de la columna en la base de datos
+    private String motivo;
+    
+    /**
+     * Fecha y hora del primer intento
+     */
+    @Column(name = "fecha_inicio", nullable = false) // Especifica detalles de la columna en la base de datos
+    private LocalDateTime fechaInicio;
+    
+    /**
+     * Fecha y hora del último cambio (para detectar intentos colgados)
+     */
+    @Column(name = "fecha_actualizacion", nullable = false) // Especifica detalles de la columna en la base de datos
+    private LocalDateTime fechaActualizacion;
+}
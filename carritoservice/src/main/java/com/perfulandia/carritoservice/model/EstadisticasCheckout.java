@@ -0,0 +1,90 @@
+package com.perfulandia.carritoservice.model;
+
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * Modelo de datos con las estadísticas del checkout de carritos
+ * 
+ * Se expone en el endpoint /api/carrito/admin/checkout. Además de los
+ * resultados, incluye la latencia de cada paso (preparar, validar precios,
+ * reservar, completar, compensar, notificar y el total) para ver cuál domina.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class EstadisticasCheckout {
+    
+    /**
+     * Checkouts completados
+     */
+    private long completados;
+    
+    /**
+     * Reintentos de checkouts ya completados (respondidos sin reservar otra vez)
+     */
+    private long reintentos;
+    
+    /**
+     * Checkouts rechazados por falta de stock
+     */
+    private long sinStock;
+    
+    /**
+     * Checkouts rechazados porque cambió el precio de algún producto (el carrito se actualizó)
+     */
+    private long preciosCambiados;
+    
+    /**
+     * Checkouts rechazados porque el carrito cambió, no estaba activo o
+     * tenía otro checkout en curso
+     */
+    private long conflictos;
+    
+    /**
+     * Checkouts interrumpidos por un error de otro microservicio
+     */
+    private long errores;
+    
+    /**
+     * Reservas liberadas para compensar un intento fallido
+     */
+    private long compensaciones;
+    
+    /**
+     * Compensaciones que fallaron (se reintentan en el próximo intento del checkout)
+     */
+    private long compensacionesFallidas;
+    
+    /**
+     * Emails de confirmación aceptados por el microservicio de emails
+     */
+    private long notificacionesEnviadas;
+    
+    /**
+     * Emails de confirmación que no se pudieron entregar tras todos los reintentos
+     */
+    private long notificacionesFallidas;
+    
+    /**
+     * Latencia de cada paso, por nombre del paso
+     */
+    private Map<String, LatenciaPaso> pasos;
+    
+    @Data // Genera automáticamente getters, setters, toString, equals y hashCode
+    @AllArgsConstructor // Genera constructor con todos los parámetros
+    @NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+    @Builder // Implementa el patrón Builder para crear instancias de forma fluida
+    public static class LatenciaPaso {
+        
+        private long ejecuciones;
+        private double promedioMs;
+        private double maximoMs;
+    }
+}
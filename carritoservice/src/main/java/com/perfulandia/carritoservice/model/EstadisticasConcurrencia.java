@@ -0,0 +1,46 @@
+package com.perfulandia.carritoservice.model;
+
+import lombok.*;
+
+/**
+ * Modelo de datos con los contadores de los cambios concurrentes de carritos
+ * 
+ * Se expone en el endpoint /api/carrito/admin/concurrencia y permite ver
+ * cuántos cambios esperaron el bloqueo de su carrito y cuántos chocaron
+ * con otro nodo y se reintentaron.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class EstadisticasConcurrencia {
+    
+    /**
+     * Cantidad de bloqueos (franjas) entre los que se reparten los carritos
+     */
+    private int franjas;
+    
+    /**
+     * Cambios de carritos ejecutados desde el inicio del servicio
+     */
+    private long mutaciones;
+    
+    /**
+     * Intentos que encontraron el bloqueo de su carrito tomado y esperaron
+     */
+    private long esperasBloqueo;
+    
+    /**
+     * Intentos que terminaron en un conflicto de concurrencia de la base de datos
+     */
+    private long conflictos;
+    
+    /**
+     * Cambios que agotaron los reintentos (se respondió 409)
+     */
+    private long agotadas;
+}
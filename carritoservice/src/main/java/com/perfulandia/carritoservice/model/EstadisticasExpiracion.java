@@ -0,0 +1,55 @@
+package com.perfulandia.carritoservice.model;
+
+import lombok.*;
+
+/**
+ * Modelo de datos con las estadísticas del barrido de expiración de carritos
+ * 
+ * Se expone en el endpoint /api/carrito/admin/expiracion y permite ver
+ * cuántos carritos se expiran y archivan y cuánto tarda cada barrido.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class EstadisticasExpiracion {
+    
+    /**
+     * Barridos ejecutados desde el inicio del servicio
+     */
+    private long barridos;
+    
+    /**
+     * Barridos que terminaron con error
+     */
+    private long barridosFallidos;
+    
+    /**
+     * Total de carritos expirados desde el inicio del servicio
+     */
+    private long carritosExpirados;
+    
+    /**
+     * Total de carritos archivados desde el inicio del servicio
+     */
+    private long carritosArchivados;
+    
+    /**
+     * Duración del último barrido en milisegundos
+     */
+    private long ultimaDuracionMs;
+    
+    /**
+     * Duración del barrido más lento en milisegundos
+     */
+    private long maximaDuracionMs;
+    
+    /**
+     * Duración promedio de los barridos en milisegundos
+     */
+    private double promedioDuracionMs;
+}
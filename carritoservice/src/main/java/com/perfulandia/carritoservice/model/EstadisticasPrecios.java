@@ -0,0 +1,70 @@
+package com.perfulandia.carritoservice.model;
+
+import com.perfulandia.carritoservice.precios.ModoPrecios;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Modelo de datos con el estado de la copia local de precios
+ * 
+ * Se expone en el endpoint /api/carrito/admin/precios y permite ver qué
+ * versión de la lista de precios se está usando, qué tan reciente es y
+ * cuántos precios enviados por los clientes se corrigieron o rechazaron.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class EstadisticasPrecios {
+    
+    /**
+     * Qué se hace con un precio que no coincide con la copia local
+     */
+    private ModoPrecios modo;
+    
+    /**
+     * Versión de la lista de precios cargada (null si aún no se descarga
+     * o si se actualizó con precios consultados en un checkout)
+     */
+    private String version;
+    
+    /**
+     * Productos con precio en la copia local
+     */
+    private int productos;
+    
+    /**
+     * Última vez que se confirmó la copia con el microservicio de productos
+     */
+    private LocalDateTime ultimaDescarga;
+    
+    /**
+     * Descargas con una lista de precios nueva
+     */
+    private long descargas;
+    
+    /**
+     * Descargas respondidas con 304 (la copia ya estaba al día)
+     */
+    private long descargasSinCambios;
+    
+    /**
+     * Descargas que fallaron (se sigue usando la copia anterior)
+     */
+    private long descargasFallidas;
+    
+    /**
+     * Precios enviados por el cliente que se reemplazaron por el vigente
+     */
+    private long preciosSobrescritos;
+    
+    /**
+     * Items rechazados por traer un precio distinto del vigente
+     */
+    private long preciosRechazados;
+}
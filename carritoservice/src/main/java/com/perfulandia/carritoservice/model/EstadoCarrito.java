@@ -0,0 +1,65 @@
+package com.perfulandia.carritoservice.model;
+
+/**
+ * Estados posibles de un carrito de compras
+ * 
+ * En la base de datos se guarda el código numérico (columna SMALLINT)
+ * mediante EstadoCarritoConverter; en JSON se expone el nombre
+ * ("ACTIVO", "COMPLETADO", "CANCELADO", "EXPIRADO").
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public enum EstadoCarrito {
+    
+    /**
+     * Carrito en uso: se le pueden agregar y quitar items (a lo sumo uno por usuario)
+     */
+    ACTIVO((short) 1),
+    
+    /**
+     * Compra finalizada: el carrito ya no se puede modificar
+     */
+    COMPLETADO((short) 2),
+    
+    /**
+     * Carrito descartado sin completar la compra
+     */
+    CANCELADO((short) 3),
+    
+    /**
+     * Carrito activo abandonado: pasó el tiempo de inactividad sin cambios
+     * y el barrido de expiración lo cerró
+     */
+    EXPIRADO((short) 4);
+    
+    private final short codigo;
+    
+    EstadoCarrito(short codigo) {
+        this.codigo = codigo;
+    }
+    
+    /**
+     * Código con el que se guarda el estado en la base de datos
+     */
+    public short getCodigo() {
+        return codigo;
+    }
+    
+    /**
+     * Obtiene el estado correspondiente a un código de la base de datos
+     * 
+     * @param codigo Código guardado
+     * @return El estado
+     * @throws IllegalArgumentException si el código no corresponde a ningún estado
+     */
+    public static EstadoCarrito desdeCodigo(short codigo) {
+        for (EstadoCarrito estado : values()) {
+            if (estado.codigo == codigo) {
+                return estado;
+            }
+        }
+        throw new IllegalArgumentException("Código de estado de carrito desconocido: " + codigo);
+    }
+}
@@ -0,0 +1,29 @@
+package com.perfulandia.carritoservice.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Convierte EstadoCarrito a su código SMALLINT y viceversa
+ * 
+ * Se aplica automáticamente a todos los atributos de tipo EstadoCarrito.
+ * Se usa un código fijo en lugar del ordinal para poder agregar estados
+ * sin cambiar los valores ya guardados.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Converter(autoApply = true) // Se aplica a todos los atributos EstadoCarrito sin anotarlos
+public class EstadoCarritoConverter implements AttributeConverter<EstadoCarrito, Short> {
+    
+    @Override
+    public Short convertToDatabaseColumn(EstadoCarrito estado) {
+        return estado == null ? null : estado.getCodigo();
+    }
+    
+    @Override
+    public EstadoCarrito convertToEntityAttribute(Short codigo) {
+        return codigo == null ? null : EstadoCarrito.desdeCodigo(codigo);
+    }
+}
@@ -0,0 +1,26 @@
+package com.perfulandia.carritoservice.model;
+
+/**
+ * Estados del checkout de un carrito
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public enum EstadoCheckout {
+    
+    /**
+     * Hay un intento en curso (reservando stock o completando el carrito)
+     */
+    EN_CURSO,
+    
+    /**
+     * El carrito se completó y el pedido quedó confirmado
+     */
+    COMPLETADO,
+    
+    /**
+     * El último intento falló y se compensó; se puede reintentar
+     */
+    FALLIDO
+}
@@ -0,0 +1,37 @@
+package com.perfulandia.carritoservice.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila plana de la consulta de la vista del carrito
+ * 
+ * Cada fila trae los datos del carrito repetidos junto con un item. La
+ * construye Hibernate directamente desde la consulta JPQL (sin entidades
+ * administradas) y el servicio agrupa las filas en un VistaCarrito.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Getter // Genera getters para todos los campos
+@AllArgsConstructor // Genera el constructor usado por la consulta JPQL
+public class FilaVistaCarrito {
+    
+    private final Long carritoId;
+    private final Long usuarioId;
+    private final EstadoCarrito estado;
+    private final LocalDateTime fechaCreacion;
+    private final int cantidadItems;
+    private final long totalCentavos;
+    private final long revision;
+    
+    /**
+     * Datos del item (null si el carrito no tiene items)
+     */
+    private final Long itemId;
+    private final Long productoId;
+    private final Integer cantidad;
+    private final Double precioUnitario;
+}
@@ -11,11 +11,16 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
  * un producto específico que ha sido agregado al carrito de un usuario.
  * Cada item contiene información sobre el producto, cantidad y precio.
  * 
+ * Un carrito tiene como máximo un item por producto: agregar de nuevo un
+ * producto suma la cantidad en el item existente.
+ * 
  * @author Equipo Perfulandia
  * @version 1.0
  * @since 2025-06-30
  */
 @Entity // Marca esta clase como una entidad JPA que se mapea a una tabla
+@Table(name = "item_carrito", uniqueConstraints = @UniqueConstraint( // Un solo item por producto en cada carrito
+        name = "uk_item_carrito_carrito_producto", columnNames = {"carrito_id", "producto_id"}))
 @Data // Genera automáticamente getters, setters, toString, equals y hashCode
 @AllArgsConstructor // Genera constructor con todos los parámetros
 @NoArgsConstructor // Genera constructor sin parámetros (requerido por JPA)
@@ -73,6 +78,26 @@ public class ItemCarrito {
         return cantidad * precioUnitario;
     }
     
+    /**
+     * Método que calcula el subtotal de este item en centavos
+     * El precio unitario se redondea al centavo antes de multiplicar por la cantidad
+     * 
+     * @return El subtotal del item en centavos
+     */
+    public long getSubtotalCentavos() {
+        return aCentavos(precioUnitario) * (cantidad == null ? 0 : cantidad);
+    }
+    
+    /**
+     * Convierte un precio a centavos redondeando al centavo más cercano
+     * 
+     * @param precio Precio en la unidad monetaria
+     * @return Precio en centavos, o 0 si el precio es null
+     */
+    public static long aCentavos(Double precio) {
+        return precio == null ? 0 : Math.round(precio * 100);
+    }
+    
     /**
      * Método que verifica si el item tiene una cantidad válida
      * 
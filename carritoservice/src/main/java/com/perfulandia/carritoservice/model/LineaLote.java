@@ -0,0 +1,73 @@
+package com.perfulandia.carritoservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Línea de un pedido para agregar varios productos al carrito de una vez
+ * 
+ * Se recibe como JSON en POST /api/carrito/{carritoId}/items/lote, por
+ * ejemplo para repetir una compra anterior o restaurar un carrito
+ * guardado. Si el producto ya está en el carrito, se suma la cantidad y
+ * se conserva el precio del item existente.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class LineaLote {
+    
+    /**
+     * ID del producto a agregar
+     */
+    private Long productoId;
+    
+    /**
+     * Unidades a agregar (mayor que cero)
+     */
+    private Integer cantidad;
+    
+    /**
+     * Precio unitario (mayor que cero); solo se usa si el producto no estaba en el carrito
+     */
+    private Double precioUnitario;
+    
+    /**
+     * Verifica que la línea tenga producto, cantidad y precio válidos
+     */
+    public boolean esValida() {
+        return productoId != null && cantidad != null && cantidad > 0
+                && precioUnitario != null && precioUnitario > 0;
+    }
+    
+    /**
+     * Junta las líneas que repiten producto en una sola
+     * 
+     * Suma las cantidades y conserva el precio de la primera aparición,
+     * igual que al agregar el mismo producto dos veces al carrito.
+     * 
+     * @param lineas Líneas recibidas
+     * @return Una línea por producto, en el orden de su primera aparición
+     */
+    public static List<LineaLote> combinar(List<LineaLote> lineas) {
+        Map<Long, LineaLote> porProducto = new LinkedHashMap<>();
+        for (LineaLote linea : lineas) {
+            porProducto.merge(linea.getProductoId(),
+                    new LineaLote(linea.getProductoId(), linea.getCantidad(), linea.getPrecioUnitario()),
+                    (actual, nueva) -> new LineaLote(actual.getProductoId(),
+                            actual.getCantidad() + nueva.getCantidad(), actual.getPrecioUnitario()));
+        }
+        return new ArrayList<>(porProducto.values());
+    }
+}
@@ -0,0 +1,36 @@
+package com.perfulandia.carritoservice.model;
+
+import lombok.*;
+
+/**
+ * Línea de un pedido en el checkout: producto, unidades y precio cobrado
+ * 
+ * Se toma de los items del carrito al preparar el checkout y se envía
+ * al microservicio de productos (para reservar el stock) y al de emails
+ * (para la confirmación).
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class LineaPedido {
+    
+    /**
+     * ID del producto
+     */
+    private Long productoId;
+    
+    /**
+     * Unidades compradas
+     */
+    private Integer cantidad;
+    
+    /**
+     * Precio unitario del item en el carrito
+     */
+    private Double precioUnitario;
+}
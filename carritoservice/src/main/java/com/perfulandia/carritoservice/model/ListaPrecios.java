@@ -0,0 +1,36 @@
+package com.perfulandia.carritoservice.model;
+
+import lombok.*;
+
+/**
+ * Lista de precios recibida del microservicio de productos
+ * 
+ * Llega en columnas: un arreglo de IDs en orden ascendente y otro con el
+ * precio en centavos de cada uno en la misma posición. Así se carga
+ * directamente en la tabla de precios local, sin un objeto por producto.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class ListaPrecios {
+    
+    /**
+     * Versión del contenido según el microservicio de productos (su ETag)
+     */
+    private String version;
+    
+    /**
+     * IDs de los productos, en orden ascendente
+     */
+    private long[] ids;
+    
+    /**
+     * Precio unitario en centavos de cada producto (misma posición que en ids)
+     */
+    private long[] centavos;
+}
@@ -0,0 +1,49 @@
+package com.perfulandia.carritoservice.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Datos de un pedido confirmado que se envían al microservicio de emails
+ * 
+ * Coincide con el cuerpo que espera POST /api/email/compra/pedido: solo
+ * IDs, cantidades y precios; el servicio de emails resuelve el usuario y
+ * los nombres de los productos.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class PedidoConfirmado {
+    
+    /**
+     * ID del usuario que compró
+     */
+    private Long usuarioId;
+    
+    /**
+     * Número del pedido
+     */
+    private String numeroPedido;
+    
+    /**
+     * Fecha y hora en que se completó el checkout
+     */
+    private LocalDateTime fechaCompra;
+    
+    /**
+     * Productos comprados
+     */
+    private List<LineaPedido> lineas;
+    
+    /**
+     * Total cobrado
+     */
+    private Double total;
+}
@@ -0,0 +1,32 @@
+package com.perfulandia.carritoservice.model;
+
+import lombok.*;
+
+/**
+ * Resultado de una ejecución del barrido de expiración de carritos
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class ResultadoBarrido {
+    
+    /**
+     * Carritos activos inactivos que pasaron a EXPIRADO
+     */
+    private int expirados;
+    
+    /**
+     * Carritos terminados antiguos movidos a las tablas de archivo
+     */
+    private int archivados;
+    
+    /**
+     * Duración del barrido en milisegundos
+     */
+    private long duracionMs;
+}
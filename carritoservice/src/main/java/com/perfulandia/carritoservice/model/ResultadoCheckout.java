@@ -0,0 +1,51 @@
+package com.perfulandia.carritoservice.model;
+
+import lombok.*;
+
+/**
+ * Modelo de datos con el resultado del checkout de un carrito
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class ResultadoCheckout {
+    
+    /**
+     * ID del carrito completado
+     */
+    private Long carritoId;
+    
+    /**
+     * Número del pedido
+     */
+    private String numeroPedido;
+    
+    /**
+     * Unidades compradas
+     */
+    private int cantidadItems;
+    
+    /**
+     * Total cobrado en centavos
+     */
+    private long totalCentavos;
+    
+    /**
+     * true si el checkout ya estaba completado y esta petición fue un reintento
+     */
+    private boolean reintento;
+    
+    /**
+     * Obtiene el total en la unidad monetaria
+     * 
+     * @return Total del pedido
+     */
+    public Double getTotal() {
+        return totalCentavos / 100.0;
+    }
+}
@@ -0,0 +1,63 @@
+package com.perfulandia.carritoservice.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+/**
+ * Modelo de datos con el resumen de un carrito de compras
+ * 
+ * Contiene solo los datos del encabezado del carrito (estado, cantidad de
+ * unidades y total) y se obtiene con una única consulta sobre la tabla
+ * 'carritos', sin leer los items. Está pensado para el encabezado del
+ * carrito y el indicador del mini-carrito, que se consultan con frecuencia.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros (usado por la consulta JPQL)
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class ResumenCarrito {
+    
+    /**
+     * ID del carrito
+     */
+    private Long id;
+    
+    /**
+     * ID del usuario propietario del carrito
+     */
+    private Long usuarioId;
+    
+    /**
+     * Estado actual del carrito
+     */
+    private EstadoCarrito estado;
+    
+    /**
+     * Cantidad total de unidades en el carrito
+     */
+    private int cantidadItems;
+    
+    /**
+     * Total del carrito en centavos
+     */
+    private long totalCentavos;
+    
+    /**
+     * Revisión del carrito (no se expone: se envía como ETag)
+     */
+    @JsonIgnore // Se usa solo para calcular el ETag
+    private long revision;
+    
+    /**
+     * Método que obtiene el total del carrito en la unidad monetaria
+     * 
+     * @return El total del carrito
+     */
+    public Double getTotal() {
+        return totalCentavos / 100.0;
+    }
+}
@@ -0,0 +1,96 @@
+package com.perfulandia.carritoservice.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Modelo de datos con la vista completa del carrito activo de un usuario
+ * 
+ * Reúne en una sola respuesta el encabezado del carrito y sus items, de
+ * modo que mostrar el carrito requiere una sola llamada HTTP y una sola
+ * consulta SQL. La respuesta se acompaña de un ETag basado en la
+ * revisión del carrito.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class VistaCarrito {
+    
+    /**
+     * ID del carrito
+     */
+    private Long id;
+    
+    /**
+     * ID del usuario propietario del carrito
+     */
+    private Long usuarioId;
+    
+    /**
+     * Estado actual del carrito
+     */
+    private EstadoCarrito estado;
+    
+    /**
+     * Fecha y hora de creación del carrito
+     */
+    private LocalDateTime fechaCreacion;
+    
+    /**
+     * Cantidad total de unidades en el carrito
+     */
+    private int cantidadItems;
+    
+    /**
+     * Total del carrito en centavos
+     */
+    private long totalCentavos;
+    
+    /**
+     * Revisión del carrito (no se expone: se envía como ETag)
+     */
+    @JsonIgnore // Se usa solo para calcular el ETag
+    private long revision;
+    
+    /**
+     * Items del carrito ordenados por ID
+     */
+    private List<ItemVista> items;
+    
+    /**
+     * Método que obtiene el total del carrito en la unidad monetaria
+     * 
+     * @return El total del carrito
+     */
+    public Double getTotal() {
+        return totalCentavos / 100.0;
+    }
+    
+    /**
+     * Item dentro de la vista del carrito
+     */
+    @Data // Genera automáticamente getters, setters, toString, equals y hashCode
+    @AllArgsConstructor // Genera constructor con todos los parámetros
+    @NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+    @Builder // Implementa el patrón Builder para crear instancias de forma fluida
+    public static class ItemVista {
+        
+        private Long id;
+        private Long productoId;
+        private Integer cantidad;
+        private Double precioUnitario;
+        
+        /**
+         * Subtotal del item en centavos
+         */
+        private long subtotalCentavos;
+    }
+}
@@ -0,0 +1,32 @@
+package com.perfulandia.carritoservice.precios;
+
+import com.perfulandia.carritoservice.model.ListaPrecios;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Acceso a la lista de precios del microservicio de productos
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public interface ClientePrecios {
+    
+    /**
+     * Descarga la lista de precios completa si cambió
+     * 
+     * @param versionActual Versión de la copia local (null si no hay copia)
+     * @return La lista nueva, o vacío si la versión sigue siendo la misma
+     */
+    Optional<ListaPrecios> descargar(String versionActual);
+    
+    /**
+     * Consulta los precios vigentes de algunos productos
+     * 
+     * @param productoIds IDs de los productos
+     * @return Precios de los productos que existen y tienen precio
+     */
+    ListaPrecios consultar(Collection<Long> productoIds);
+}
@@ -0,0 +1,94 @@
+package com.perfulandia.carritoservice.precios;
+
+import com.perfulandia.carritoservice.model.ListaPrecios;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Cliente HTTP de la lista de precios del microservicio de productos
+ * 
+ * Usa GET /api/productos/precios: la descarga completa envía la versión
+ * local en If-None-Match (si no cambió, la respuesta es un 304 sin
+ * cuerpo) y la consulta de algunos productos los pide en el parámetro
+ * ids, en orden y de a 500 por llamada (el máximo que acepta el endpoint).
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Component // Marca esta clase como un componente de Spring para inyectarla en la copia local de precios
+public class ClientePreciosHttp implements ClientePrecios {
+    
+    /**
+     * Máximo de IDs por consulta que acepta el microservicio de productos
+     */
+    private static final int MAXIMO_IDS = 500;
+    
+    private final RestClient clienteProductos;
+    
+    public ClientePreciosHttp(@Qualifier("clienteProductos") RestClient clienteProductos) {
+        this.clienteProductos = clienteProductos;
+    }
+    
+    @Override
+    public Optional<ListaPrecios> descargar(String versionActual) {
+        ResponseEntity<ListaPrecios> respuesta = clienteProductos.get()
+                .uri("/api/productos/precios")
+                .headers(cabeceras -> {
+                    if (versionActual != null) {
+                        cabeceras.setIfNoneMatch("\"" + versionActual + "\"");
+                    }
+                })
+                .retrieve()
+                .toEntity(ListaPrecios.class);
+        if (respuesta.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(respuesta.getBody());
+    }
+    
+    @Override
+    public ListaPrecios consultar(Collection<Long> productoIds) {
+        // Ordenados, las respuestas de cada parte quedan en rangos de IDs consecutivos
+        List<Long> pendientes = productoIds.stream().distinct().sorted().toList();
+        List<ListaPrecios> partes = new ArrayList<>();
+        for (int desde = 0; desde < pendientes.size(); desde += MAXIMO_IDS) {
+            String ids = pendientes.subList(desde, Math.min(desde + MAXIMO_IDS, pendientes.size())).stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(","));
+            partes.add(clienteProductos.get()
+                    .uri(uri -> uri.path("/api/productos/precios").queryParam("ids", ids).build())
+                    .retrieve()
+                    .body(ListaPrecios.class));
+        }
+        return partes.size() == 1 ? partes.get(0) : unir(partes);
+    }
+    
+    /**
+     * Une las respuestas de varias consultas (cada una con IDs mayores que la anterior)
+     */
+    private static ListaPrecios unir(List<ListaPrecios> partes) {
+        int total = 0;
+        for (ListaPrecios parte : partes) {
+            total += parte.getIds().length;
+        }
+        long[] ids = new long[total];
+        long[] centavos = new long[total];
+        int posicion = 0;
+        for (ListaPrecios parte : partes) {
+            System.arraycopy(parte.getIds(), 0, ids, posicion, parte.getIds().length);
+            System.arraycopy(parte.getCentavos(), 0, centavos, posicion, parte.getCentavos().length);
+            posicion += parte.getIds().length;
+        }
+        return new ListaPrecios(null, ids, centavos);
+    }
+}
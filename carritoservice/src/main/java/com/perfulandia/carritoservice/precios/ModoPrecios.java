@@ -0,0 +1,21 @@
+package com.perfulandia.carritoservice.precios;
+
+/**
+ * Qué hacer con un item cuyo precio no coincide con la copia local de precios
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public enum ModoPrecios {
+    
+    /**
+     * Se agrega con el precio vigente en lugar del enviado por el cliente
+     */
+    SOBRESCRIBIR,
+    
+    /**
+     * Se rechaza el item (HTTP 409 con el precio vigente)
+     */
+    VALIDAR
+}
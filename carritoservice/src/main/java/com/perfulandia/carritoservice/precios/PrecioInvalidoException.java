@@ -0,0 +1,30 @@
+package com.perfulandia.carritoservice.precios;
+
+/**
+ * Excepción lanzada cuando se agrega un item con un precio distinto del
+ * vigente y el modo de precios es VALIDAR (se responde HTTP 409)
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class PrecioInvalidoException extends RuntimeException {
+    
+    private final Long productoId;
+    
+    private final double precioVigente;
+    
+    public PrecioInvalidoException(Long productoId, double precioVigente) {
+        super("El precio del producto " + productoId + " no coincide con el vigente");
+        this.productoId = productoId;
+        this.precioVigente = precioVigente;
+    }
+    
+    public Long getProductoId() {
+        return productoId;
+    }
+    
+    public double getPrecioVigente() {
+        return precioVigente;
+    }
+}
@@ -0,0 +1,210 @@
+package com.perfulandia.carritoservice.precios;
+
+import com.perfulandia.carritoservice.model.EstadisticasPrecios;
+import com.perfulandia.carritoservice.model.ItemCarrito;
+import com.perfulandia.carritoservice.model.LineaLote;
+import com.perfulandia.carritoservice.model.ListaPrecios;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copia local de los precios del microservicio de productos
+ * 
+ * El precio unitario de un item lo envía el cliente al agregarlo. Para no
+ * confiar en él sin hacer una llamada HTTP por cada item, este componente
+ * mantiene una tabla de precios en memoria (ver TablaPrecios) que se
+ * descarga completa cada cierto intervalo; si no cambió, la descarga es
+ * un 304 sin cuerpo.
+ * 
+ * Al agregar un item se compara su precio con la tabla, sin salir del
+ * proceso. Según el modo configurado, un precio distinto se reemplaza por
+ * el vigente (SOBRESCRIBIR) o se rechaza (VALIDAR). Un producto que aún no
+ * está en la tabla (la copia no se descargó todavía o el producto es
+ * nuevo) se acepta con el precio enviado: el checkout vuelve a validar
+ * todos los precios del carrito contra el microservicio de productos en
+ * una sola llamada antes de reservar el stock.
+ * 
+ * Si una descarga falla se sigue usando la tabla anterior.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Slf4j // Genera un logger para registrar las descargas fallidas
+@Component // Marca esta clase como un componente de Spring (una sola copia de precios por instancia)
+public class ReplicaPrecios {
+    
+    private final ClientePrecios cliente;
+    private final ModoPrecios modo;
+    private final long intervaloSeg;
+    
+    /**
+     * Tabla vigente; se reemplaza completa, nunca se modifica
+     */
+    private final AtomicReference<TablaPrecios> tabla = new AtomicReference<>(TablaPrecios.VACIA);
+    
+    private volatile LocalDateTime ultimaDescarga;
+    
+    private final LongAdder descargas = new LongAdder();
+    private final LongAdder descargasSinCambios = new LongAdder();
+    private final LongAdder descargasFallidas = new LongAdder();
+    private final LongAdder preciosSobrescritos = new LongAdder();
+    private final LongAdder preciosRechazados = new LongAdder();
+    
+    private ScheduledExecutorService planificador;
+    
+    @Autowired // Indica a Spring cuál constructor usar para la inyección
+    public ReplicaPrecios(ClientePrecios cliente,
+                          @Value("${carrito.precios.modo:SOBRESCRIBIR}") ModoPrecios modo,
+                          @Value("${carrito.precios.intervalo-seg:30}") long intervaloSeg) {
+        this.cliente = cliente;
+        this.modo = modo;
+        this.intervaloSeg = intervaloSeg;
+    }
+    
+    /**
+     * Inicia la descarga periódica de la lista de precios (un intervalo de 0 la desactiva)
+     */
+    @PostConstruct // Se ejecuta una vez construido el componente
+    public void iniciar() {
+        if (intervaloSeg <= 0) {
+            return;
+        }
+        planificador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "carrito-precios");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        planificador.scheduleWithFixedDelay(() -> {
+            try {
+                refrescar();
+            } catch (RuntimeException e) {
+                log.warn("No se pudo descargar la lista de precios; se sigue usando la copia anterior: {}",
+                        e.getMessage());
+            }
+        }, 0, intervaloSeg, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Detiene la descarga periódica
+     */
+    @PreDestroy // Se ejecuta al cerrar el contexto de Spring
+    public void detener() throws InterruptedException {
+        if (planificador != null) {
+            planificador.shutdown();
+            planificador.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+    
+    /**
+     * Descarga la lista de precios si cambió desde la versión local
+     * 
+     * @return true si se cargó una lista nueva, false si la copia ya estaba al día
+     * @throws RuntimeException si el microservicio de productos no respondió o la lista no es válida
+     */
+    public boolean refrescar() {
+        try {
+            Optional<ListaPrecios> lista = cliente.descargar(tabla.get().getVersion());
+            if (lista.isPresent()) {
+                tabla.set(TablaPrecios.desde(lista.get()));
+                descargas.increment();
+            } else {
+                descargasSinCambios.increment();
+            }
+            ultimaDescarga = LocalDateTime.now();
+            return lista.isPresent();
+        } catch (RuntimeException e) {
+            descargasFallidas.increment();
+            throw e;
+        }
+    }
+    
+    /**
+     * Resuelve el precio con que se agrega un item
+     * 
+     * @param productoId ID del producto
+     * @param precioCliente Precio unitario enviado por el cliente
+     * @return El precio enviado si coincide con el vigente o el producto no está en la copia;
+     *         el vigente si no coincide y el modo es SOBRESCRIBIR
+     * @throws PrecioInvalidoException si no coincide y el modo es VALIDAR
+     */
+    public Double precioParaAgregar(Long productoId, Double precioCliente) {
+        long vigente = tabla.get().centavos(productoId);
+        if (vigente == TablaPrecios.SIN_PRECIO || vigente == ItemCarrito.aCentavos(precioCliente)) {
+            return precioCliente;
+        }
+        if (modo == ModoPrecios.VALIDAR) {
+            preciosRechazados.increment();
+            throw new PrecioInvalidoException(productoId, vigente / 100.0);
+        }
+        preciosSobrescritos.increment();
+        return vigente / 100.0;
+    }
+    
+    /**
+     * Resuelve el precio de cada línea de un lote (ver precioParaAgregar)
+     * 
+     * @param lineas Líneas recibidas
+     * @return Líneas nuevas con el precio resuelto (las recibidas no se modifican)
+     * @throws PrecioInvalidoException si alguna no coincide y el modo es VALIDAR
+     */
+    public List<LineaLote> preciosParaAgregar(List<LineaLote> lineas) {
+        List<LineaLote> resueltas = new ArrayList<>(lineas.size());
+        for (LineaLote linea : lineas) {
+            resueltas.add(new LineaLote(linea.getProductoId(), linea.getCantidad(),
+                    precioParaAgregar(linea.getProductoId(), linea.getPrecioUnitario())));
+        }
+        return resueltas;
+    }
+    
+    /**
+     * Consulta al microservicio de productos los precios vigentes de algunos productos
+     * 
+     * Se usa en el checkout para validar todo el carrito en una sola
+     * llamada. Los precios obtenidos también actualizan la copia local.
+     * 
+     * @param productoIds IDs de los productos
+     * @return Tabla con los precios de los productos que existen y tienen precio
+     * @throws RuntimeException si el microservicio de productos no respondió
+     */
+    public TablaPrecios preciosVigentes(Collection<Long> productoIds) {
+        TablaPrecios vigentes = TablaPrecios.desde(cliente.consultar(productoIds));
+        tabla.updateAndGet(actual -> actual.combinar(vigentes));
+        return vigentes;
+    }
+    
+    /**
+     * Genera una foto del estado de la copia de precios
+     * 
+     * @return Estadísticas listas para exponer por HTTP
+     */
+    public EstadisticasPrecios instantanea() {
+        TablaPrecios actual = tabla.get();
+        return EstadisticasPrecios.builder()
+                .modo(modo)
+                .version(actual.getVersion())
+                .productos(actual.tamano())
+                .ultimaDescarga(ultimaDescarga)
+                .descargas(descargas.sum())
+                .descargasSinCambios(descargasSinCambios.sum())
+                .descargasFallidas(descargasFallidas.sum())
+                .preciosSobrescritos(preciosSobrescritos.sum())
+                .preciosRechazados(preciosRechazados.sum())
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.perfulandia.carritoservice.precios;
+
+import com.perfulandia.carritoservice.model.ListaPrecios;
+
+import java.util.Arrays;
+
+/**
+ * Tabla inmutable de precios en centavos por ID de producto
+ * 
+ * Guarda los IDs ordenados en un arreglo de long y los precios en otro
+ * paralelo: una búsqueda binaria encuentra el precio sin crear objetos ni
+ * convertir a Long, y la tabla completa ocupa 16 bytes por producto.
+ * 
+ * Nunca se modifica: una lista nueva genera otra tabla, que reemplaza a
+ * la anterior de una sola vez, así que se puede leer desde cualquier
+ * hilo sin bloqueos.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public final class TablaPrecios {
+    
+    /**
+     * Valor retornado para un producto que no está en la tabla
+     */
+    public static final long SIN_PRECIO = -1;
+    
+    /**
+     * Tabla sin productos (antes de la primera descarga)
+     */
+    public static final TablaPrecios VACIA = new TablaPrecios(null, new long[0], new long[0]);
+    
+    private final String version;
+    
+    private final long[] ids;
+    
+    private final long[] centavos;
+    
+    private TablaPrecios(String version, long[] ids, long[] centavos) {
+        this.version = version;
+        this.ids = ids;
+        this.centavos = centavos;
+    }
+    
+    /**
+     * Crea la tabla a partir de una lista de precios del microservicio de productos
+     * 
+     * @param lista Lista con los IDs en orden ascendente y sin repetir
+     * @return Tabla con los precios de la lista
+     * @throws IllegalArgumentException si los arreglos no tienen el mismo largo o los IDs no están ordenados
+     */
+    public static TablaPrecios desde(ListaPrecios lista) {
+        long[] ids = lista.getIds() == null ? new long[0] : lista.getIds();
+        long[] centavos = lista.getCentavos() == null ? new long[0] : lista.getCentavos();
+        if (ids.length != centavos.length) {
+            throw new IllegalArgumentException("La lista de precios tiene " + ids.length + " IDs y "
+                    + centavos.length + " precios");
+        }
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i] <= ids[i - 1]) {
+                throw new IllegalArgumentException("La lista de precios no está ordenada por ID");
+            }
+        }
+        return new TablaPrecios(lista.getVersion(), ids.clone(), centavos.clone());
+    }
+    
+    /**
+     * Busca el precio de un producto
+     * 
+     * @param productoId ID del producto
+     * @return Precio en centavos, o SIN_PRECIO si el producto no está en la tabla
+     */
+    public long centavos(long productoId) {
+        int posicion = Arrays.binarySearch(ids, productoId);
+        return posicion >= 0 ? centavos[posicion] : SIN_PRECIO;
+    }
+    
+    /**
+     * Crea una tabla con los precios de esta más los de otra (los de la otra tienen prioridad)
+     * 
+     * Si la otra no trae ningún cambio se retorna esta misma tabla. Si no,
+     * se juntan los dos arreglos ordenados en una pasada y la tabla
+     * resultante no tiene versión, porque ya no coincide con ninguna lista
+     * completa del microservicio de productos: la próxima descarga la
+     * reemplaza.
+     * 
+     * @param nuevos Precios más recientes de algunos productos
+     * @return Tabla con los precios combinados
+     */
+    public TablaPrecios combinar(TablaPrecios nuevos) {
+        if (contiene(nuevos)) {
+            return this;
+        }
+        long[] idsCombinados = new long[ids.length + nuevos.ids.length];
+        long[] centavosCombinados = new long[idsCombinados.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < ids.length || j < nuevos.ids.length) {
+            if (j == nuevos.ids.length || (i < ids.length && ids[i] < nuevos.ids[j])) {
+                idsCombinados[k] = ids[i];
+                centavosCombinados[k++] = centavos[i++];
+            } else {
+                if (i < ids.length && ids[i] == nuevos.ids[j]) {
+                    i++;
+                }
+                idsCombinados[k] = nuevos.ids[j];
+                centavosCombinados[k++] = nuevos.centavos[j++];
+            }
+        }
+        return new TablaPrecios(null, Arrays.copyOf(idsCombinados, k), Arrays.copyOf(centavosCombinados, k));
+    }
+    
+    /**
+     * Verifica si todos los precios de otra tabla ya están en esta con el mismo valor
+     */
+    private boolean contiene(TablaPrecios otra) {
+        for (int j = 0; j < otra.ids.length; j++) {
+            if (centavos(otra.ids[j]) != otra.centavos[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Versión de la lista de precios con que se creó (null si se combinó con otra)
+     */
+    public String getVersion() {
+        return version;
+    }
+    
+    /**
+     * Cantidad de productos con precio
+     */
+    public int tamano() {
+        return ids.length;
+    }
+}
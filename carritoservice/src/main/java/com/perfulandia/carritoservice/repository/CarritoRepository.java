@@ -1,9 +1,16 @@
 package com.perfulandia.carritoservice.repository;
 
 import com.perfulandia.carritoservice.model.Carrito;
+import com.perfulandia.carritoservice.model.EstadoCarrito;
+import com.perfulandia.carritoservice.model.FilaVistaCarrito;
+import com.perfulandia.carritoservice.model.ResumenCarrito;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio para operaciones de base de datos con la entidad Carrito
@@ -21,6 +28,11 @@ import java.util.List;
  * 
  * Métodos personalizados:
  * - findByUsuarioIdAndEstado: Busca carritos por usuario y estado
+ * - ajustarTotales: Actualiza de forma atómica el total y la cantidad de unidades
+ * - ajustarTotalesSiRevision: Ajusta el total solo si el carrito no cambió desde que se leyó (checkout)
+ * - completarSiRevision: Completa el carrito solo si no cambió desde que se leyó (checkout)
+ * - buscarResumen / buscarResumenesActivos: Leen el encabezado del carrito en una sola consulta
+ * - buscarVistaActiva: Lee el carrito activo y sus items en una sola consulta
  * 
  * Convenciones de nomenclatura:
  * - findBy + Campo: Busca por un campo específico
@@ -43,11 +55,14 @@ public interface CarritoRepository extends JpaRepository<Carrito, Long> {
      * La consulta generada será equivalente a:
      * SELECT * FROM carritos WHERE usuario_id = ? AND estado = ?
      * 
+     * Se resuelve con una búsqueda en el índice idx_carritos_usuario_estado.
+     * Para ACTIVO hay a lo sumo un resultado (índice único uk_carritos_usuario_activo).
+     * 
      * @param usuarioId ID del usuario del cual se quiere obtener el carrito
-     * @param estado Estado del carrito (ej: "ACTIVO", "COMPLETADO")
+     * @param estado Estado del carrito (ej: ACTIVO, COMPLETADO)
      * @return Carrito que coincida con los criterios o null si no existe
      */
-    Carrito findByUsuarioIdAndEstado(Long usuarioId, String estado);
+    Carrito findByUsuarioIdAndEstado(Long usuarioId, EstadoCarrito estado);
     
     /**
      * Busca todos los carritos de un usuario específico
@@ -69,16 +84,130 @@ public interface CarritoRepository extends JpaRepository<Carrito, Long> {
      * @param estado Estado de los carritos a buscar
      * @return Lista de carritos con el estado especificado
      */
-    List<Carrito> findByEstado(String estado);
+    List<Carrito> findByEstado(EstadoCarrito estado);
     
     /**
      * Cuenta el número de carritos activos de un usuario
      * 
-     * Este método es útil para validar que un usuario no tenga
-     * múltiples carritos activos simultáneamente.
+     * Para ACTIVO el resultado es 0 o 1: la base de datos no admite
+     * más de un carrito activo por usuario.
      * 
      * @param usuarioId ID del usuario
      * @return Número de carritos activos del usuario
      */
-    long countByUsuarioIdAndEstado(Long usuarioId, String estado);
-} 
\ No newline at end of file
+    long countByUsuarioIdAndEstado(Long usuarioId, EstadoCarrito estado);
+    
+    /**
+     * Suma al total y a la cantidad de unidades de un carrito activo los valores
+     * indicados, aumenta su revisión y registra la actividad
+     * 
+     * La suma se hace en la propia sentencia UPDATE, por lo que dos cambios
+     * concurrentes sobre el mismo carrito nunca se pisan. Los valores pueden
+     * ser negativos (al eliminar o disminuir items). La condición de estado
+     * también va en la sentencia: si el carrito se completó después de
+     * leerlo, no se actualiza nada y el cambio de items se deshace.
+     * 
+     * La consulta generada será equivalente a:
+     * UPDATE carritos SET total_centavos = total_centavos + ?, cantidad_items = cantidad_items + ?,
+     *        revision = revision + 1, ultima_actividad = ? WHERE id = ? AND estado = ACTIVO
+     * 
+     * @param carritoId ID del carrito
+     * @param deltaCentavos Variación del total en centavos
+     * @param deltaCantidad Variación de la cantidad de unidades
+     * @return Número de filas actualizadas (0 si el carrito no existe o no está activo)
+     */
+    @Modifying // Indica que la consulta modifica datos
+    @Query("UPDATE Carrito c SET c.totalCentavos = c.totalCentavos + :deltaCentavos, "
+            + "c.cantidadItems = c.cantidadItems + :deltaCantidad, c.revision = c.revision + 1, "
+            + "c.ultimaActividad = LOCAL DATETIME WHERE c.id = :carritoId "
+            + "AND c.estado = com.perfulandia.carritoservice.model.EstadoCarrito.ACTIVO")
+    int ajustarTotales(@Param("carritoId") Long carritoId,
+                       @Param("deltaCentavos") long deltaCentavos,
+                       @Param("deltaCantidad") int deltaCantidad);
+    
+    /**
+     * Suma al total de un carrito activo la variación indicada solo si su revisión es la indicada
+     * 
+     * La usa el checkout al actualizar los precios de los items: la
+     * variación se calculó con los items leídos en esa revisión, así que
+     * si el carrito cambió después no actualiza nada.
+     * 
+     * La consulta generada será equivalente a:
+     * UPDATE carritos SET total_centavos = total_centavos + ?, revision = revision + 1, ultima_actividad = ?
+     *        WHERE id = ? AND estado = ACTIVO AND revision = ?
+     * 
+     * @param carritoId ID del carrito
+     * @param revision Revisión leída al preparar el checkout
+     * @param deltaCentavos Variación del total en centavos
+     * @return 1 si se actualizó, 0 si el carrito cambió, no está activo o no existe
+     */
+    @Modifying // Indica que la consulta modifica datos
+    @Query("UPDATE Carrito c SET c.totalCentavos = c.totalCentavos + :deltaCentavos, "
+            + "c.revision = c.revision + 1, c.ultimaActividad = LOCAL DATETIME WHERE c.id = :carritoId "
+            + "AND c.estado = com.perfulandia.carritoservice.model.EstadoCarrito.ACTIVO AND c.revision = :revision")
+    int ajustarTotalesSiRevision(@Param("carritoId") Long carritoId,
+                                 @Param("revision") long revision,
+                                 @Param("deltaCentavos") long deltaCentavos);
+    
+    /**
+     * Completa un carrito activo solo si su revisión es la indicada
+     * 
+     * Es el bloqueo optimista del checkout: si el carrito cambió (se
+     * agregó o quitó un item) o ya no está activo desde que se leyó, no
+     * actualiza nada y el checkout se compensa.
+     * 
+     * La consulta generada será equivalente a:
+     * UPDATE carritos SET estado = COMPLETADO, revision = revision + 1, ultima_actividad = ?
+     *        WHERE id = ? AND estado = ACTIVO AND revision = ?
+     * 
+     * @param carritoId ID del carrito
+     * @param revision Revisión leída al preparar el checkout
+     * @return 1 si se completó, 0 si el carrito cambió, no está activo o no existe
+     */
+    @Modifying // Indica que la consulta modifica datos
+    @Query("UPDATE Carrito c SET c.estado = com.perfulandia.carritoservice.model.EstadoCarrito.COMPLETADO, "
+            + "c.revision = c.revision + 1, c.ultimaActividad = LOCAL DATETIME WHERE c.id = :carritoId "
+            + "AND c.estado = com.perfulandia.carritoservice.model.EstadoCarrito.ACTIVO AND c.revision = :revision")
+    int completarSiRevision(@Param("carritoId") Long carritoId, @Param("revision") long revision);
+    
+    /**
+     * Obtiene el resumen (encabezado) de un carrito sin cargar sus items
+     * 
+     * @param carritoId ID del carrito
+     * @return Resumen del carrito, o vacío si no existe
+     */
+    @Query("SELECT new com.perfulandia.carritoservice.model.ResumenCarrito("
+            + "c.id, c.usuarioId, c.estado, c.cantidadItems, c.totalCentavos, c.revision) "
+            + "FROM Carrito c WHERE c.id = :carritoId")
+    Optional<ResumenCarrito> buscarResumen(@Param("carritoId") Long carritoId);
+    
+    /**
+     * Obtiene el resumen de los carritos activos de un usuario, el más reciente primero
+     * 
+     * @param usuarioId ID del usuario
+     * @return Lista de resúmenes (vacía o con un solo elemento)
+     */
+    @Query("SELECT new com.perfulandia.carritoservice.model.ResumenCarrito("
+            + "c.id, c.usuarioId, c.estado, c.cantidadItems, c.totalCentavos, c.revision) "
+            + "FROM Carrito c WHERE c.usuarioId = :usuarioId "
+            + "AND c.estado = com.perfulandia.carritoservice.model.EstadoCarrito.ACTIVO ORDER BY c.id DESC")
+    List<ResumenCarrito> buscarResumenesActivos(@Param("usuarioId") Long usuarioId);
+    
+    /**
+     * Obtiene el carrito activo de un usuario junto con sus items
+     * 
+     * Devuelve una fila por item (o una sola fila con los datos del item en
+     * null si el carrito está vacío) en una única consulta con LEFT JOIN,
+     * sin cargar entidades ni colecciones perezosas.
+     * 
+     * @param usuarioId ID del usuario
+     * @return Filas de la vista ordenadas por ID de item (vacía si no hay carrito activo)
+     */
+    @Query("SELECT new com.perfulandia.carritoservice.model.FilaVistaCarrito("
+            + "c.id, c.usuarioId, c.estado, c.fechaCreacion, c.cantidadItems, c.totalCentavos, c.revision, "
+            + "i.id, i.productoId, i.cantidad, i.precioUnitario) "
+            + "FROM Carrito c LEFT JOIN c.items i "
+            + "WHERE c.usuarioId = :usuarioId AND c.estado = com.perfulandia.carritoservice.model.EstadoCarrito.ACTIVO "
+            + "ORDER BY i.id")
+    List<FilaVistaCarrito> buscarVistaActiva(@Param("usuarioId") Long usuarioId);
+}
@@ -0,0 +1,88 @@
+package com.perfulandia.carritoservice.repository;
+
+import com.perfulandia.carritoservice.model.Checkout;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repositorio para el registro de checkouts de carritos
+ * 
+ * Las actualizaciones de estado son condicionales al número de intento:
+ * si otro intento tomó el checkout, no actualizan nada (0 filas).
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Repository // Marca esta interfaz como un repositorio de Spring, permitiendo la inyección de dependencias y el manejo de excepciones específicas de persistencia
+public interface CheckoutRepository extends JpaRepository<Checkout, Long> {
+    
+    /**
+     * Busca el checkout de un carrito y bloquea su fila hasta el fin de la transacción
+     * 
+     * @param carritoId ID del carrito
+     * @return El checkout, o vacío si el carrito nunca pasó por el checkout
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE) // SELECT ... FOR UPDATE
+    @Query("SELECT c FROM Checkout c WHERE c.carritoId = :carritoId")
+    Optional<Checkout> buscarParaModificar(@Param("carritoId") Long carritoId);
+    
+    /**
+     * Registra la reserva que va a hacer el intento (antes de pedirla)
+     * 
+     * @return 1 si el intento sigue en curso, 0 si otro intento lo reemplazó
+     */
+    @Modifying // Indica que la consulta modifica datos
+    @Query("UPDATE Checkout c SET c.reservaId = :reservaId, c.revisionCarrito = :revision, "
+            + "c.fechaActualizacion = LOCAL DATETIME WHERE c.carritoId = :carritoId AND c.intentos = :intento "
+            + "AND c.estado = com.perfulandia.carritoservice.model.EstadoCheckout.EN_CURSO")
+    int registrarReserva(@Param("carritoId") Long carritoId, @Param("intento") int intento,
+                         @Param("reservaId") String reservaId, @Param("revision") long revision);
+    
+    /**
+     * Borra la reserva de un intento anterior, una vez liberada
+     * 
+     * @return 1 si el intento sigue en curso y la reserva anotada es esa, 0 si no
+     */
+    @Modifying // Indica que la consulta modifica datos
+    @Query("UPDATE Checkout c SET c.reservaId = NULL, c.fechaActualizacion = LOCAL DATETIME "
+            + "WHERE c.carritoId = :carritoId AND c.intentos = :intento AND c.reservaId = :reservaId "
+            + "AND c.estado = com.perfulandia.carritoservice.model.EstadoCheckout.EN_CURSO")
+    int olvidarReserva(@Param("carritoId") Long carritoId, @Param("intento") int intento,
+                       @Param("reservaId") String reservaId);
+    
+    /**
+     * Marca el checkout como completado
+     * 
+     * @return 1 si el intento sigue en curso, 0 si otro intento lo reemplazó
+     */
+    @Modifying // Indica que la consulta modifica datos
+    @Query("UPDATE Checkout c SET c.estado = com.perfulandia.carritoservice.model.EstadoCheckout.COMPLETADO, "
+            + "c.numeroPedido = :numeroPedido, c.totalCentavos = :totalCentavos, c.cantidadItems = :cantidadItems, "
+            + "c.motivo = NULL, c.fechaActualizacion = LOCAL DATETIME "
+            + "WHERE c.carritoId = :carritoId AND c.intentos = :intento "
+            + "AND c.estado = com.perfulandia.carritoservice.model.EstadoCheckout.EN_CURSO")
+    int confirmar(@Param("carritoId") Long carritoId, @Param("intento") int intento,
+                  @Param("numeroPedido") String numeroPedido, @Param("totalCentavos") long totalCentavos,
+                  @Param("cantidadItems") int cantidadItems);
+    
+    /**
+     * Marca el checkout como fallido
+     * 
+     * @return 1 si el intento sigue en curso, 0 si otro intento lo reemplazó
+     */
+    @Modifying // Indica que la consulta modifica datos
+    @Query("UPDATE Checkout c SET c.estado = com.perfulandia.carritoservice.model.EstadoCheckout.FALLIDO, "
+            + "c.motivo = :motivo, c.fechaActualizacion = LOCAL DATETIME "
+            + "WHERE c.carritoId = :carritoId AND c.intentos = :intento "
+            + "AND c.estado = com.perfulandia.carritoservice.model.EstadoCheckout.EN_CURSO")
+    int marcarFallido(@Param("carritoId") Long carritoId, @Param("intento") int intento,
+                      @Param("motivo") String motivo);
+}
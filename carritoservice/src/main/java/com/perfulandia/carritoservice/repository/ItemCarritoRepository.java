@@ -1,9 +1,17 @@
 package com.perfulandia.carritoservice.repository;
 
 import com.perfulandia.carritoservice.model.ItemCarrito;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio para operaciones de base de datos con la entidad ItemCarrito
@@ -23,27 +31,34 @@ import java.util.List;
  * - findByCarritoId: Busca items por ID del carrito
  * - findByProductoId: Busca items por ID del producto
  * - deleteByCarritoId: Elimina todos los items de un carrito
+ * - buscarParaModificar: Busca un item de un carrito bloqueando su fila
+ * - sumarOInsertar: Agrega un producto al carrito o suma su cantidad en una sola sentencia
+ * - actualizarPrecio: Cambia el precio unitario de un producto del carrito (checkout)
+ * 
+ * Las búsquedas por carrito usan la columna carrito_id de item_carrito
+ * (i.carrito.id en JPQL). Las consultas derivadas del nombre del método
+ * (findByCarritoId...) agregaban un LEFT JOIN a carritos solo para
+ * comparar su ID, y la base de datos partía de carritos en lugar de usar
+ * el índice (carrito_id, producto_id) de item_carrito.
  * 
  * @author Equipo Perfulandia
  * @version 1.0
  * @since 2025-06-30
  */
 @Repository // Marca esta interfaz como un repositorio de Spring, permitiendo la inyección de dependencias y el manejo de excepciones específicas de persistencia
-public interface ItemCarritoRepository extends JpaRepository<ItemCarrito, Long> {
+public interface ItemCarritoRepository extends JpaRepository<ItemCarrito, Long>, ItemCarritoRepositoryCustom {
     
     /**
      * Busca todos los items de un carrito específico
      * 
-     * Este método utiliza la convención de nomenclatura de Spring Data JPA
-     * para generar automáticamente una consulta SQL basada en el nombre del método.
-     * 
      * La consulta generada será equivalente a:
-     * SELECT * FROM items_carrito WHERE carrito_id = ?
+     * SELECT * FROM item_carrito WHERE carrito_id = ?
      * 
      * @param carritoId ID del carrito del cual se quieren obtener los items
      * @return Lista de items del carrito (puede estar vacía si el carrito no tiene items)
      */
-    List<ItemCarrito> findByCarritoId(Long carritoId);
+    @Query("SELECT i FROM ItemCarrito i WHERE i.carrito.id = :carritoId")
+    List<ItemCarrito> findByCarritoId(@Param("carritoId") Long carritoId);
     
     /**
      * Busca todos los items que contienen un producto específico
@@ -67,7 +82,8 @@ public interface ItemCarritoRepository extends JpaRepository<ItemCarrito, Long>
      * @param productoId ID del producto
      * @return Item del carrito que coincida con los criterios o null si no existe
      */
-    ItemCarrito findByCarritoIdAndProductoId(Long carritoId, Long productoId);
+    @Query("SELECT i FROM ItemCarrito i WHERE i.carrito.id = :carritoId AND i.productoId = :productoId")
+    ItemCarrito findByCarritoIdAndProductoId(@Param("carritoId") Long carritoId, @Param("productoId") Long productoId);
     
     /**
      * Cuenta el número de items en un carrito específico
@@ -78,7 +94,8 @@ public interface ItemCarritoRepository extends JpaRepository<ItemCarrito, Long>
      * @param carritoId ID del carrito
      * @return Número de items en el carrito
      */
-    long countByCarritoId(Long carritoId);
+    @Query("SELECT COUNT(i) FROM ItemCarrito i WHERE i.carrito.id = :carritoId")
+    long countByCarritoId(@Param("carritoId") Long carritoId);
     
     /**
      * Elimina todos los items de un carrito específico
@@ -86,9 +103,15 @@ public interface ItemCarritoRepository extends JpaRepository<ItemCarrito, Long>
      * Este método es útil cuando se quiere vaciar completamente un carrito
      * o cuando se completa una compra y se quiere limpiar el carrito.
      * 
+     * Lee los items con findByCarritoId y los elimina uno por uno, igual
+     * que la consulta derivada del nombre del método.
+     * 
      * @param carritoId ID del carrito del cual se eliminarán todos los items
      */
-    void deleteByCarritoId(Long carritoId);
+    @Transactional // Lectura y eliminación en la misma transacción
+    default void deleteByCarritoId(Long carritoId) {
+        deleteAll(findByCarritoId(carritoId));
+    }
     
     /**
      * Busca items por carrito y ordena por ID
@@ -99,5 +122,84 @@ public interface ItemCarritoRepository extends JpaRepository<ItemCarrito, Long>
      * @param carritoId ID del carrito
      * @return Lista de items del carrito ordenados por ID
      */
-    List<ItemCarrito> findByCarritoIdOrderById(Long carritoId);
-} 
\ No newline at end of file
+    @Query("SELECT i FROM ItemCarrito i WHERE i.carrito.id = :carritoId ORDER BY i.id")
+    List<ItemCarrito> findByCarritoIdOrderById(@Param("carritoId") Long carritoId);
+    
+    /**
+     * Busca los items de un carrito que corresponden a varios productos
+     * 
+     * La consulta generada será equivalente a:
+     * SELECT * FROM item_carrito WHERE carrito_id = ? AND producto_id IN (...)
+     * 
+     * @param carritoId ID del carrito
+     * @param productoIds IDs de los productos
+     * @return Items encontrados (uno por producto como máximo)
+     */
+    @Query("SELECT i FROM ItemCarrito i WHERE i.carrito.id = :carritoId AND i.productoId IN :productoIds")
+    List<ItemCarrito> findByCarritoIdAndProductoIdIn(@Param("carritoId") Long carritoId,
+                                                     @Param("productoIds") Collection<Long> productoIds);
+    
+    /**
+     * Busca un item de un carrito bloqueando su fila hasta el fin de la transacción
+     * 
+     * Se usa antes de modificar o eliminar un item: así dos cambios
+     * concurrentes sobre el mismo item se aplican uno después del otro y
+     * cada uno ajusta el total del carrito a partir del valor correcto.
+     * 
+     * La consulta generada será equivalente a:
+     * SELECT * FROM item_carrito WHERE id = ? AND carrito_id = ? FOR UPDATE
+     * 
+     * @param carritoId ID del carrito
+     * @param itemId ID del item
+     * @return Item del carrito, o vacío si no existe en ese carrito
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE) // Bloquea la fila (SELECT ... FOR UPDATE)
+    @Query("SELECT i FROM ItemCarrito i JOIN FETCH i.carrito c WHERE i.id = :itemId AND c.id = :carritoId")
+    Optional<ItemCarrito> buscarParaModificar(@Param("carritoId") Long carritoId, @Param("itemId") Long itemId);
+    
+    /**
+     * Agrega un producto al carrito o, si ya está, suma la cantidad a su item
+     * 
+     * Se resuelve en una sola sentencia atómica apoyada en la restricción
+     * única (carrito_id, producto_id): dos solicitudes simultáneas para el
+     * mismo producto terminan en un único item con la suma de ambas
+     * cantidades. Si el item ya existía conserva su precio unitario.
+     * 
+     * La consulta es nativa de MySQL (los tests usan H2 en modo MySQL).
+     * 
+     * @param carritoId ID del carrito
+     * @param productoId ID del producto
+     * @param cantidad Cantidad a agregar
+     * @param precioUnitario Precio unitario si el item es nuevo
+     * @return Número de filas afectadas según MySQL (1 si se insertó, 2 si se sumó)
+     */
+    @Modifying // Indica que la consulta modifica datos
+    @Query(nativeQuery = true, value = "INSERT INTO item_carrito (carrito_id, producto_id, cantidad, precio_unitario) "
+            + "VALUES (:carritoId, :productoId, :cantidad, :precioUnitario) "
+            + "ON DUPLICATE KEY UPDATE cantidad = cantidad + VALUES(cantidad)")
+    int sumarOInsertar(@Param("carritoId") Long carritoId,
+                       @Param("productoId") Long productoId,
+                       @Param("cantidad") Integer cantidad,
+                       @Param("precioUnitario") Double precioUnitario);
+    
+    /**
+     * Cambia el precio unitario del item de un producto en un carrito
+     * 
+     * La usa el checkout cuando el precio vigente del producto ya no es el
+     * que tenía el item. El total del carrito se ajusta aparte.
+     * 
+     * La consulta generada será equivalente a:
+     * UPDATE item_carrito SET precio_unitario = ? WHERE carrito_id = ? AND producto_id = ?
+     * 
+     * @param carritoId ID del carrito
+     * @param productoId ID del producto
+     * @param precioUnitario Precio unitario vigente
+     * @return Número de filas actualizadas (0 si el producto ya no está en el carrito)
+     */
+    @Modifying // Indica que la consulta modifica datos
+    @Query("UPDATE ItemCarrito i SET i.precioUnitario = :precioUnitario "
+            + "WHERE i.carrito.id = :carritoId AND i.productoId = :productoId")
+    int actualizarPrecio(@Param("carritoId") Long carritoId,
+                         @Param("productoId") Long productoId,
+                         @Param("precioUnitario") Double precioUnitario);
+}
@@ -0,0 +1,31 @@
+package com.perfulandia.carritoservice.repository;
+
+import com.perfulandia.carritoservice.model.LineaLote;
+
+import java.util.List;
+
+/**
+ * Operaciones de items de carrito implementadas con JDBC
+ * 
+ * Spring Data combina esta interfaz con ItemCarritoRepository y usa
+ * ItemCarritoRepositoryImpl como implementación.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public interface ItemCarritoRepositoryCustom {
+    
+    /**
+     * Inserta o suma a los items existentes varias líneas en un solo lote JDBC
+     * 
+     * Cada línea es equivalente a ItemCarritoRepository.sumarOInsertar:
+     * INSERT ... ON DUPLICATE KEY UPDATE cantidad = cantidad + VALUES(cantidad).
+     * Con rewriteBatchedStatements=true en la URL de MySQL, el driver
+     * envía el lote como una sola sentencia de varias filas.
+     * 
+     * @param carritoId ID del carrito
+     * @param lineas Líneas a agregar (una por producto)
+     */
+    void sumarOInsertarLote(Long carritoId, List<LineaLote> lineas);
+}
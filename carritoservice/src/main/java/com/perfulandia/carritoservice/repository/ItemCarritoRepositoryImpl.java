@@ -0,0 +1,37 @@
+package com.perfulandia.carritoservice.repository;
+
+import com.perfulandia.carritoservice.model.LineaLote;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Implementación JDBC de ItemCarritoRepositoryCustom
+ * 
+ * Participa en la transacción JPA en curso: el JpaTransactionManager
+ * expone su conexión a JdbcTemplate.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@RequiredArgsConstructor // Genera un constructor con los campos final para la inyección de dependencias
+public class ItemCarritoRepositoryImpl implements ItemCarritoRepositoryCustom {
+    
+    private static final String SUMAR_O_INSERTAR =
+            "INSERT INTO item_carrito (carrito_id, producto_id, cantidad, precio_unitario) VALUES (?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE cantidad = cantidad + VALUES(cantidad)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void sumarOInsertarLote(Long carritoId, List<LineaLote> lineas) {
+        jdbcTemplate.batchUpdate(SUMAR_O_INSERTAR, lineas, lineas.size(), (ps, linea) -> {
+            ps.setLong(1, carritoId);
+            ps.setLong(2, linea.getProductoId());
+            ps.setInt(3, linea.getCantidad());
+            ps.setDouble(4, linea.getPrecioUnitario());
+        });
+    }
+}
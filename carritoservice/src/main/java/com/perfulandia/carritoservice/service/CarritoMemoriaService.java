@@ -0,0 +1,169 @@
+package com.perfulandia.carritoservice.service;
+
+import com.perfulandia.carritoservice.memoria.AlmacenCarritosMemoria;
+import com.perfulandia.carritoservice.memoria.CarritoEnMemoria;
+import com.perfulandia.carritoservice.model.Carrito;
+import com.perfulandia.carritoservice.model.ItemCarrito;
+import com.perfulandia.carritoservice.model.LineaLote;
+import com.perfulandia.carritoservice.model.ResumenCarrito;
+import com.perfulandia.carritoservice.model.VistaCarrito;
+import com.perfulandia.carritoservice.precios.ReplicaPrecios;
+import com.perfulandia.carritoservice.repository.CarritoRepository;
+import com.perfulandia.carritoservice.repository.ItemCarritoRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Servicio de carritos con los carritos activos en memoria
+ * 
+ * Reemplaza a CarritoService cuando carrito.memoria.habilitada=true.
+ * Agregar items y las consultas del carrito activo (carrito, resumen,
+ * vista y ETag) se resuelven en el AlmacenCarritosMemoria sin consultar
+ * la base de datos; los cambios se persisten en segundo plano. El precio
+ * de los items agregados se resuelve con la copia local de precios antes
+ * de llegar al almacén, igual que en CarritoService.
+ * 
+ * Modificar o eliminar un item y completar el carrito siguen usando la
+ * lógica JPA de CarritoService: antes de ejecutarla se persisten los
+ * cambios pendientes del carrito y se quita de memoria.
+ * 
+ * Nota: los items agregados en memoria no tienen ID hasta que se
+ * persisten por primera vez (en general, menos de un intervalo de
+ * persistencia).
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Service // Marca esta clase como un servicio de Spring, permitiendo la inyección de dependencias y el escaneo automático de componentes
+@Primary // Se inyecta en lugar de CarritoService cuando el modo en memoria está activado
+@ConditionalOnProperty(name = "carrito.memoria.habilitada", havingValue = "true") // Solo existe con el modo en memoria activado
+public class CarritoMemoriaService extends CarritoService {
+    
+    /**
+     * Almacén de los carritos activos en memoria
+     */
+    private final AlmacenCarritosMemoria almacen;
+    
+    /**
+     * Transacción para las operaciones JPA, que debe confirmarse antes de soltar el carrito
+     */
+    private final TransactionTemplate transaccion;
+    
+    /**
+     * Copia local de precios: el precio se resuelve antes de llegar al almacén
+     */
+    private final ReplicaPrecios precios;
+    
+    public CarritoMemoriaService(CarritoRepository carritoRepository,
+                                 ItemCarritoRepository itemCarritoRepository,
+                                 ReplicaPrecios precios,
+                                 AlmacenCarritosMemoria almacen,
+                                 TransactionTemplate transaccion) {
+        super(carritoRepository, itemCarritoRepository, precios);
+        this.precios = precios;
+        this.almacen = almacen;
+        this.transaccion = transaccion;
+    }
+    
+    @Override
+    public Carrito crearCarrito(Long usuarioId) {
+        // Si ya tiene un carrito activo se retorna con los cambios que solo están en memoria
+        Optional<Carrito> activo = almacen.leerActivo(usuarioId, CarritoEnMemoria::aCarrito);
+        if (activo.isPresent()) {
+            return activo.get();
+        }
+        Carrito carrito = super.crearCarrito(usuarioId);
+        almacen.registrarNuevo(carrito);
+        return carrito;
+    }
+    
+    @Override
+    public Carrito obtenerCarritoActivo(Long usuarioId) {
+        return almacen.leerActivo(usuarioId, CarritoEnMemoria::aCarrito).orElse(null);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // El cambio se aplica en memoria, sin transacción de base de datos
+    public ItemCarrito agregarItem(Long carritoId, Long productoId, Integer cantidad, Double precioUnitario) {
+        Double precio = precios.precioParaAgregar(productoId, precioUnitario);
+        return almacen.agregarItem(carritoId, productoId, cantidad, precio)
+                .map(CarritoEnMemoria::aItem)
+                // No es el carrito activo del usuario: la ruta JPA informa el error
+                .orElseGet(() -> almacen.ejecutarEnBaseDeDatos(carritoId, () -> transaccion.execute(
+                        estado -> super.agregarItem(carritoId, productoId, cantidad, precio))));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Los cambios se aplican en memoria, sin transacción de base de datos
+    public List<ItemCarrito> agregarItems(Long carritoId, List<LineaLote> lineas) {
+        List<LineaLote> combinadas = precios.preciosParaAgregar(LineaLote.combinar(lineas));
+        return almacen.agregarItems(carritoId, combinadas)
+                .map(resultado -> resultado.stream().map(CarritoEnMemoria::aItem).toList())
+                // No es el carrito activo del usuario: la ruta JPA informa el error
+                .orElseGet(() -> almacen.ejecutarEnBaseDeDatos(carritoId, () -> transaccion.execute(
+                        estado -> super.agregarItems(carritoId, combinadas))));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // La transacción se abre después de sacar el carrito de memoria
+    public ItemCarrito actualizarCantidad(Long carritoId, Long itemId, Integer cantidad) {
+        return almacen.ejecutarEnBaseDeDatos(carritoId, () -> transaccion.execute(
+                estado -> super.actualizarCantidad(carritoId, itemId, cantidad)));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // La transacción se abre después de sacar el carrito de memoria
+    public void eliminarItem(Long carritoId, Long itemId) {
+        almacen.ejecutarEnBaseDeDatos(carritoId, () -> {
+            transaccion.executeWithoutResult(estado -> super.eliminarItem(carritoId, itemId));
+            return null;
+        });
+    }
+    
+    @Override
+    public void completarCarrito(Long carritoId) {
+        almacen.ejecutarEnBaseDeDatos(carritoId, () -> {
+            transaccion.executeWithoutResult(estado -> super.completarCarrito(carritoId));
+            return null;
+        });
+    }
+    
+    @Override
+    public ResumenCarrito obtenerResumen(Long carritoId) {
+        return almacen.leerSiEnMemoria(carritoId, CarritoEnMemoria::aResumen)
+                .orElseGet(() -> super.obtenerResumen(carritoId));
+    }
+    
+    @Override
+    public ResumenCarrito obtenerResumenActivo(Long usuarioId) {
+        return almacen.leerActivo(usuarioId, CarritoEnMemoria::aResumen)
+                .orElseThrow(() -> new NoSuchElementException("El usuario no tiene un carrito activo"));
+    }
+    
+    @Override
+    public List<ItemCarrito> obtenerItemsCarrito(Long carritoId) {
+        return almacen.leerSiEnMemoria(carritoId, CarritoEnMemoria::aItems)
+                .orElseGet(() -> super.obtenerItemsCarrito(carritoId));
+    }
+    
+    @Override
+    public VistaCarrito obtenerVistaActiva(Long usuarioId) {
+        return almacen.leerActivo(usuarioId, CarritoEnMemoria::aVista)
+                .orElseThrow(() -> new NoSuchElementException("El usuario no tiene un carrito activo"));
+    }
+    
+    @Override
+    public Optional<String> obtenerEtagActivo(Long usuarioId) {
+        return almacen.leerActivo(usuarioId, carrito -> etag(carrito.getId(), carrito.getRevision()));
+    }
+
+}
@@ -1,13 +1,26 @@
 package com.perfulandia.carritoservice.service;
 
 import com.perfulandia.carritoservice.model.Carrito;
+import com.perfulandia.carritoservice.model.EstadoCarrito;
+import com.perfulandia.carritoservice.model.FilaVistaCarrito;
 import com.perfulandia.carritoservice.model.ItemCarrito;
+import com.perfulandia.carritoservice.model.LineaLote;
+import com.perfulandia.carritoservice.model.ResumenCarrito;
+import com.perfulandia.carritoservice.model.VistaCarrito;
+import com.perfulandia.carritoservice.precios.ReplicaPrecios;
 import com.perfulandia.carritoservice.repository.CarritoRepository;
 import com.perfulandia.carritoservice.repository.ItemCarritoRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 
 /**
  * Servicio que contiene la lógica de negocio para el manejo de carritos de compras
@@ -20,8 +33,10 @@ import java.util.List;
  * Responsabilidades principales:
  * - Crear nuevos carritos para usuarios
  * - Buscar carritos activos de usuarios
- * - Agregar productos a carritos existentes
- * - Consultar items de carritos
+ * - Agregar, modificar y eliminar productos de carritos existentes
+ * - Validar el precio de los productos agregados contra la copia local de precios
+ * - Mantener el total y la cantidad de unidades de cada carrito
+ * - Consultar items, el resumen y la vista completa de carritos
  * - Completar carritos (finalizar compra)
  * - Aplicar reglas de negocio y validaciones
  * 
@@ -45,26 +60,49 @@ public class CarritoService {
      */
     private final ItemCarritoRepository itemCarritoRepository;
     
+    /**
+     * Copia local de los precios del microservicio de productos
+     * Valida (o reemplaza) el precio enviado por el cliente sin una llamada HTTP por item
+     */
+    private final ReplicaPrecios precios;
+    
     /**
      * Crea un nuevo carrito de compras para un usuario específico
      * 
-     * Este método crea un nuevo carrito con estado "ACTIVO" y la fecha
+     * Este método crea un nuevo carrito con estado ACTIVO y la fecha
      * de creación actual. Un usuario puede tener solo un carrito activo
-     * a la vez.
+     * a la vez (la base de datos lo garantiza con un índice único): si ya
+     * tiene uno, se retorna ese carrito en lugar de crear otro.
      * 
      * @param usuarioId ID del usuario para el cual se creará el carrito
-     * @return Carrito creado con ID generado automáticamente
+     * @return Carrito creado con ID generado automáticamente, o el carrito activo existente
      */
     public Carrito crearCarrito(Long usuarioId) {
+        Carrito existente = carritoRepository.findByUsuarioIdAndEstado(usuarioId, EstadoCarrito.ACTIVO);
+        if (existente != null) {
+            return existente;
+        }
+        
         // Crear un nuevo carrito con los datos básicos
+        LocalDateTime ahora = LocalDateTime.now();
         Carrito carrito = Carrito.builder()
                 .usuarioId(usuarioId)
-                .estado("ACTIVO") // Estado inicial del carrito
-                .fechaCreacion(LocalDateTime.now()) // Fecha y hora actual
+                .estado(EstadoCarrito.ACTIVO) // Estado inicial del carrito
+                .fechaCreacion(ahora) // Fecha y hora actual
+                .ultimaActividad(ahora)
                 .build();
         
         // Guardar el carrito en la base de datos y retornarlo
-        return carritoRepository.save(carrito);
+        try {
+            return carritoRepository.save(carrito);
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición creó el carrito activo al mismo tiempo: se usa ese
+            Carrito concurrente = carritoRepository.findByUsuarioIdAndEstado(usuarioId, EstadoCarrito.ACTIVO);
+            if (concurrente == null) {
+                throw e;
+            }
+            return concurrente;
+        }
     }
     
     /**
@@ -78,43 +116,160 @@ public class CarritoService {
      */
     public Carrito obtenerCarritoActivo(Long usuarioId) {
         // Buscar carrito activo del usuario usando el repositorio
-        return carritoRepository.findByUsuarioIdAndEstado(usuarioId, "ACTIVO");
+        return carritoRepository.findByUsuarioIdAndEstado(usuarioId, EstadoCarrito.ACTIVO);
     }
     
     /**
      * Agrega un item (producto) a un carrito específico
      * 
-     * Este método crea un nuevo item en el carrito con el producto,
-     * cantidad y precio especificados. Incluye validaciones para
-     * asegurar que el carrito existe y está activo.
+     * Si el producto ya está en el carrito, suma la cantidad al item
+     * existente (que conserva su precio unitario) en lugar de crear otro.
+     * Incluye validaciones para asegurar que el carrito existe y está activo.
+     * El precio enviado se compara con la copia local de precios, que
+     * según su modo lo reemplaza por el vigente o rechaza el item.
      * 
      * @param carritoId ID del carrito al cual se agregará el item
      * @param productoId ID del producto que se agregará
      * @param cantidad Cantidad del producto
-     * @param precioUnitario Precio unitario del producto
-     * @return ItemCarrito creado con ID generado automáticamente
+     * @param precioUnitario Precio unitario enviado por el cliente
+     * @return ItemCarrito del producto con la cantidad acumulada
      * @throws RuntimeException si el carrito no existe o no está activo
+     * @throws com.perfulandia.carritoservice.precios.PrecioInvalidoException si el precio no es el vigente (modo VALIDAR)
      */
+    @Transactional // El item y el ajuste del total se guardan juntos o no se guarda ninguno
     public ItemCarrito agregarItem(Long carritoId, Long productoId, Integer cantidad, Double precioUnitario) {
         // Buscar el carrito en la base de datos
         Carrito carrito = carritoRepository.findById(carritoId)
                 .orElseThrow(() -> new RuntimeException("Carrito no encontrado"));
         
         // Verificar que el carrito esté activo
-        if (!"ACTIVO".equals(carrito.getEstado())) {
+        if (!carrito.isActivo()) {
             throw new RuntimeException("No se puede agregar items a un carrito no activo");
         }
         
-        // Crear el nuevo item del carrito
-        ItemCarrito item = ItemCarrito.builder()
-                .carrito(carrito)
-                .productoId(productoId)
-                .cantidad(cantidad)
-                .precioUnitario(precioUnitario)
-                .build();
+        // Insertar el item o sumar la cantidad al existente en una sola sentencia
+        itemCarritoRepository.sumarOInsertar(carritoId, productoId, cantidad,
+                precios.precioParaAgregar(productoId, precioUnitario));
+        
+        // Leer el item resultante (queda bloqueado por la sentencia anterior hasta el fin de la transacción)
+        ItemCarrito item = itemCarritoRepository.findByCarritoIdAndProductoId(carritoId, productoId);
         
-        // Guardar el item en la base de datos y retornarlo
-        return itemCarritoRepository.save(item);
+        // Sumar al total las unidades agregadas al precio del item
+        ajustarTotales(carritoId, ItemCarrito.aCentavos(item.getPrecioUnitario()) * cantidad, cantidad);
+        return item;
+    }
+    
+    /**
+     * Agrega varios productos a un carrito en una sola transacción
+     * 
+     * Verifica el estado del carrito una sola vez, junta las líneas que
+     * repiten producto y escribe todas las líneas en un lote JDBC (cada
+     * una se suma al item existente o crea uno nuevo). Luego ajusta el
+     * total con una sola sentencia. Los precios se validan contra la copia
+     * local de precios igual que en agregarItem.
+     * 
+     * @param carritoId ID del carrito
+     * @param lineas Líneas a agregar (validadas por el controlador)
+     * @return Items resultantes de los productos agregados, con la cantidad acumulada
+     * @throws RuntimeException si el carrito no existe o no está activo
+     * @throws com.perfulandia.carritoservice.precios.PrecioInvalidoException si algún precio no es el vigente (modo VALIDAR)
+     */
+    @Transactional // Todas las líneas y el ajuste del total se guardan juntos o no se guarda ninguno
+    public List<ItemCarrito> agregarItems(Long carritoId, List<LineaLote> lineas) {
+        Carrito carrito = carritoRepository.findById(carritoId)
+                .orElseThrow(() -> new RuntimeException("Carrito no encontrado"));
+        if (!carrito.isActivo()) {
+            throw new RuntimeException("No se puede agregar items a un carrito no activo");
+        }
+        
+        List<LineaLote> combinadas = precios.preciosParaAgregar(LineaLote.combinar(lineas));
+        itemCarritoRepository.sumarOInsertarLote(carritoId, combinadas);
+        
+        // El total se ajusta con el precio de cada item (el existente conserva el suyo)
+        Map<Long, Integer> agregadas = new HashMap<>();
+        for (LineaLote linea : combinadas) {
+            agregadas.put(linea.getProductoId(), linea.getCantidad());
+        }
+        List<ItemCarrito> items = itemCarritoRepository.findByCarritoIdAndProductoIdIn(carritoId, agregadas.keySet());
+        long deltaCentavos = 0;
+        int deltaCantidad = 0;
+        for (ItemCarrito item : items) {
+            int cantidad = agregadas.get(item.getProductoId());
+            deltaCentavos += ItemCarrito.aCentavos(item.getPrecioUnitario()) * cantidad;
+            deltaCantidad += cantidad;
+        }
+        ajustarTotales(carritoId, deltaCentavos, deltaCantidad);
+        return items;
+    }
+    
+    /**
+     * Modifica la cantidad de un item del carrito
+     * 
+     * Bloquea la fila del item mientras dura la transacción y ajusta el
+     * total del carrito con la diferencia entre el subtotal nuevo y el
+     * anterior.
+     * 
+     * @param carritoId ID del carrito
+     * @param itemId ID del item
+     * @param cantidad Nueva cantidad (mayor que cero)
+     * @return ItemCarrito con la cantidad actualizada
+     * @throws NoSuchElementException si el item no existe en el carrito
+     * @throws RuntimeException si el carrito no está activo
+     */
+    @Transactional // El item y el ajuste del total se guardan juntos o no se guarda ninguno
+    public ItemCarrito actualizarCantidad(Long carritoId, Long itemId, Integer cantidad) {
+        ItemCarrito item = buscarItemParaModificar(carritoId, itemId);
+        
+        long subtotalAnterior = item.getSubtotalCentavos();
+        int cantidadAnterior = item.getCantidad();
+        item.setCantidad(cantidad);
+        
+        // Ajustar el total con la diferencia; el item se actualiza al confirmar la transacción
+        ajustarTotales(carritoId, item.getSubtotalCentavos() - subtotalAnterior, cantidad - cantidadAnterior);
+        return item;
+    }
+    
+    /**
+     * Elimina un item del carrito y resta su subtotal del total
+     * 
+     * @param carritoId ID del carrito
+     * @param itemId ID del item
+     * @throws NoSuchElementException si el item no existe en el carrito
+     * @throws RuntimeException si el carrito no está activo
+     */
+    @Transactional // El item y el ajuste del total se guardan juntos o no se guarda ninguno
+    public void eliminarItem(Long carritoId, Long itemId) {
+        ItemCarrito item = buscarItemParaModificar(carritoId, itemId);
+        
+        itemCarritoRepository.delete(item);
+        ajustarTotales(carritoId, -item.getSubtotalCentavos(), -item.getCantidad());
+    }
+    
+    /**
+     * Obtiene el resumen de un carrito (estado, unidades y total) sin leer sus items
+     * 
+     * @param carritoId ID del carrito
+     * @return Resumen del carrito
+     * @throws NoSuchElementException si el carrito no existe
+     */
+    public ResumenCarrito obtenerResumen(Long carritoId) {
+        return carritoRepository.buscarResumen(carritoId)
+                .orElseThrow(() -> new NoSuchElementException("Carrito no encontrado"));
+    }
+    
+    /**
+     * Obtiene el resumen del carrito activo de un usuario (indicador del mini-carrito)
+     * 
+     * @param usuarioId ID del usuario
+     * @return Resumen del carrito activo
+     * @throws NoSuchElementException si el usuario no tiene un carrito activo
+     */
+    public ResumenCarrito obtenerResumenActivo(Long usuarioId) {
+        List<ResumenCarrito> activos = carritoRepository.buscarResumenesActivos(usuarioId);
+        if (activos.isEmpty()) {
+            throw new NoSuchElementException("El usuario no tiene un carrito activo");
+        }
+        return activos.get(0);
     }
     
     /**
@@ -138,18 +293,130 @@ public class CarritoService {
      * que el usuario ha finalizado su compra. Un carrito completado
      * no puede ser modificado posteriormente.
      * 
+     * No reserva stock ni envía la confirmación: para eso está el
+     * checkout (CheckoutService).
+     * 
+     * El carrito se guarda con bloqueo optimista: si otra transacción lo
+     * cambió desde que se leyó, falla con un conflicto que se reintenta
+     * (ver MutacionesCarrito).
+     * 
      * @param carritoId ID del carrito que se completará
-     * @throws RuntimeException si el carrito no existe
+     * @throws RuntimeException si el carrito no existe o no está activo
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException si el carrito cambió al mismo tiempo
      */
+    @Transactional // La lectura y el guardado con la revisión leída van en la misma transacción
     public void completarCarrito(Long carritoId) {
         // Buscar el carrito en la base de datos
         Carrito carrito = carritoRepository.findById(carritoId)
                 .orElseThrow(() -> new RuntimeException("Carrito no encontrado"));
         
-        // Cambiar el estado del carrito a "COMPLETADO"
-        carrito.setEstado("COMPLETADO");
+        // Verificar que el carrito esté activo
+        if (!carrito.isActivo()) {
+            throw new RuntimeException("No se puede completar un carrito no activo");
+        }
+        
+        // Cambiar el estado del carrito a COMPLETADO
+        // (la antigüedad para archivarlo se cuenta desde este momento)
+        carrito.setEstado(EstadoCarrito.COMPLETADO);
+        carrito.setUltimaActividad(LocalDateTime.now());
         
         // Guardar los cambios en la base de datos
         carritoRepository.save(carrito);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Ajusta los totales del carrito y falla si dejó de estar activo
+     * 
+     * El estado ya se verificó al leer el carrito, pero pudo completarse
+     * desde entonces: la excepción deshace el cambio de items de la
+     * misma transacción.
+     */
+    private void ajustarTotales(Long carritoId, long deltaCentavos, int deltaCantidad) {
+        if (carritoRepository.ajustarTotales(carritoId, deltaCentavos, deltaCantidad) == 0) {
+            throw new RuntimeException("El carrito dejó de estar activo mientras se modificaba");
+        }
+    }
+    
+    /**
+     * Obtiene la vista completa del carrito activo de un usuario (encabezado e items)
+     * 
+     * Se resuelve con una sola consulta que trae una fila por item; las
+     * filas se agrupan aquí sin cargar entidades ni colecciones perezosas.
+     * 
+     * @param usuarioId ID del usuario
+     * @return Vista del carrito activo
+     * @throws NoSuchElementException si el usuario no tiene un carrito activo
+     */
+    public VistaCarrito obtenerVistaActiva(Long usuarioId) {
+        List<FilaVistaCarrito> filas = carritoRepository.buscarVistaActiva(usuarioId);
+        if (filas.isEmpty()) {
+            throw new NoSuchElementException("El usuario no tiene un carrito activo");
+        }
+        
+        // Los datos del carrito vienen repetidos en cada fila: se toman de la primera
+        FilaVistaCarrito primera = filas.get(0);
+        List<VistaCarrito.ItemVista> items = new ArrayList<>(filas.size());
+        for (FilaVistaCarrito fila : filas) {
+            if (fila.getItemId() == null) {
+                continue; // Carrito sin items: la única fila no trae item
+            }
+            items.add(VistaCarrito.ItemVista.builder()
+                    .id(fila.getItemId())
+                    .productoId(fila.getProductoId())
+                    .cantidad(fila.getCantidad())
+                    .precioUnitario(fila.getPrecioUnitario())
+                    .subtotalCentavos(ItemCarrito.aCentavos(fila.getPrecioUnitario()) * fila.getCantidad())
+                    .build());
+        }
+        
+        return VistaCarrito.builder()
+                .id(primera.getCarritoId())
+                .usuarioId(primera.getUsuarioId())
+                .estado(primera.getEstado())
+                .fechaCreacion(primera.getFechaCreacion())
+                .cantidadItems(primera.getCantidadItems())
+                .totalCentavos(primera.getTotalCentavos())
+                .revision(primera.getRevision())
+                .items(items)
+                .build();
+    }
+    
+    /**
+     * Obtiene el ETag actual del carrito activo de un usuario sin leer sus items
+     * 
+     * Permite responder 304 (sin cambios) con una consulta de una sola fila.
+     * 
+     * @param usuarioId ID del usuario
+     * @return ETag del carrito activo, o vacío si no tiene carrito activo
+     */
+    public Optional<String> obtenerEtagActivo(Long usuarioId) {
+        return carritoRepository.buscarResumenesActivos(usuarioId).stream()
+                .findFirst()
+                .map(resumen -> etag(resumen.getId(), resumen.getRevision()));
+    }
+    
+    /**
+     * Construye el ETag de un carrito a partir de su ID y su revisión
+     * 
+     * @param carritoId ID del carrito
+     * @param revision Revisión del carrito
+     * @return Valor del ETag (sin comillas)
+     */
+    public static String etag(Long carritoId, long revision) {
+        return carritoId + "-" + revision;
+    }
+    
+    /**
+     * Busca un item del carrito bloqueado para modificarlo y verifica que el carrito esté activo
+     */
+    private ItemCarrito buscarItemParaModificar(Long carritoId, Long itemId) {
+        ItemCarrito item = itemCarritoRepository.buscarParaModificar(carritoId, itemId)
+                .orElseThrow(() -> new NoSuchElementException("Item no encontrado en el carrito"));
+        
+        // Verificar que el carrito esté activo
+        if (!item.getCarrito().isActivo()) {
+            throw new RuntimeException("No se puede modificar items de un carrito no activo");
+        }
+        return item;
+    }
+}
@@ -0,0 +1,465 @@
+package com.perfulandia.carritoservice.service;
+
+import com.perfulandia.carritoservice.checkout.CheckoutRechazadoException;
+import com.perfulandia.carritoservice.checkout.ClienteInventario;
+import com.perfulandia.carritoservice.checkout.ClienteNotificaciones;
+import com.perfulandia.carritoservice.checkout.MetricasCheckout;
+import com.perfulandia.carritoservice.checkout.MetricasCheckout.Paso;
+import com.perfulandia.carritoservice.checkout.PreciosCambiadosException;
+import com.perfulandia.carritoservice.checkout.ServicioNoDisponibleException;
+import com.perfulandia.carritoservice.checkout.StockInsuficienteException;
+import com.perfulandia.carritoservice.memoria.AlmacenCarritosMemoria;
+import com.perfulandia.carritoservice.model.Carrito;
+import com.perfulandia.carritoservice.model.Checkout;
+import com.perfulandia.carritoservice.model.EstadoCheckout;
+import com.perfulandia.carritoservice.model.ItemCarrito;
+import com.perfulandia.carritoservice.model.LineaPedido;
+import com.perfulandia.carritoservice.model.PedidoConfirmado;
+import com.perfulandia.carritoservice.model.ResultadoCheckout;
+import com.perfulandia.carritoservice.precios.ReplicaPrecios;
+import com.perfulandia.carritoservice.precios.TablaPrecios;
+import com.perfulandia.carritoservice.repository.CarritoRepository;
+import com.perfulandia.carritoservice.repository.CheckoutRepository;
+import com.perfulandia.carritoservice.repository.ItemCarritoRepository;
+import io.micrometer.context.ContextScheduledExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Checkout de carritos: convierte un carrito activo en un pedido confirmado
+ * 
+ * Coordina a los microservicios de productos y de emails como una saga:
+ * 1. Preparar: toma el checkout del carrito (un intento a la vez) y lee
+ *    el carrito con sus items y su revisión.
+ * 2. Validar precios: consulta en una sola llamada el precio vigente de
+ *    todos los productos del carrito. Si alguno cambió, actualiza esos
+ *    items (y el total) y rechaza el checkout para que el usuario vea el
+ *    total nuevo antes de confirmar.
+ * 3. Reservar: reserva en una sola llamada el stock de todas las líneas.
+ * 4. Completar: en una transacción, completa el carrito solo si su
+ *    revisión no cambió (bloqueo optimista) y confirma el checkout.
+ * 5. Notificar: pide el email de confirmación en segundo plano, con
+ *    reintentos; un fallo aquí no deshace el pedido.
+ * 
+ * Si el paso 4 no puede completar el carrito, o la reserva falla por un
+ * error remoto, se compensa liberando la reserva. Cada intento usa su
+ * propio ID de reserva y el checkout recuerda la reserva del último
+ * intento, así que una compensación que falló se repite al reintentar.
+ * 
+ * Reintentar el checkout de un carrito ya completado devuelve el mismo
+ * pedido sin reservar otra vez. Un intento que quedó colgado más del
+ * plazo configurado se puede reemplazar: su número de intento deja de
+ * ser el vigente y ya no puede completar el carrito.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Slf4j // Genera un logger para registrar compensaciones y notificaciones fallidas
+@Service // Marca esta clase como un servicio de Spring, permitiendo la inyección de dependencias y el escaneo automático de componentes
+public class CheckoutService {
+    
+    private final CarritoRepository carritoRepository;
+    private final ItemCarritoRepository itemCarritoRepository;
+    private final CheckoutRepository checkoutRepository;
+    private final ClienteInventario inventario;
+    private final ClienteNotificaciones notificaciones;
+    private final ReplicaPrecios precios;
+    private final ObjectProvider<AlmacenCarritosMemoria> almacenMemoria;
+    private final TransactionTemplate transaccion;
+    private final MetricasCheckout metricas;
+    private final long plazoEnCursoSeg;
+    private final int intentosNotificacion;
+    private final long esperaNotificacionMs;
+    
+    /**
+     * Hilo que envía las notificaciones y programa sus reintentos
+     */
+    private final ScheduledExecutorService notificador;
+    
+    @Autowired // Indica a Spring cuál constructor usar para la inyección
+    public CheckoutService(CarritoRepository carritoRepository,
+                           ItemCarritoRepository itemCarritoRepository,
+                           CheckoutRepository checkoutRepository,
+                           ClienteInventario inventario,
+                           ClienteNotificaciones notificaciones,
+                           ReplicaPrecios precios,
+                           ObjectProvider<AlmacenCarritosMemoria> almacenMemoria,
+                           TransactionTemplate transaccion,
+                           MetricasCheckout metricas,
+                           @Value("${carrito.checkout.plazo-en-curso-seg:60}") long plazoEnCursoSeg,
+                           @Value("${carrito.checkout.notificacion.intentos:3}") int intentosNotificacion,
+                           @Value("${carrito.checkout.notificacion.espera-ms:500}") long esperaNotificacionMs) {
+        this.carritoRepository = carritoRepository;
+        this.itemCarritoRepository = itemCarritoRepository;
+        this.checkoutRepository = checkoutRepository;
+        this.inventario = inventario;
+        this.notificaciones = notificaciones;
+        this.precios = precios;
+        this.almacenMemoria = almacenMemoria;
+        this.transaccion = transaccion;
+        this.metricas = metricas;
+        this.plazoEnCursoSeg = plazoEnCursoSeg;
+        this.intentosNotificacion = Math.max(1, intentosNotificacion);
+        this.esperaNotificacionMs = esperaNotificacionMs;
+        // Las notificaciones corren en otro hilo: cada tarea lleva el contexto de quien la programó
+        // (la traza del checkout), así la llamada a emailservice queda en la misma traza
+        ContextSnapshotFactory contexto = ContextSnapshotFactory.builder().build();
+        this.notificador = ContextScheduledExecutorService.wrap(Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "carrito-checkout-notificaciones");
+            hilo.setDaemon(true);
+            return hilo;
+        }), contexto::captureAll);
+    }
+    
+    /**
+     * Detiene el envío de notificaciones, esperando las que están en curso
+     */
+    @PreDestroy // Se ejecuta al cerrar el contexto de Spring
+    public void detener() throws InterruptedException {
+        notificador.shutdown();
+        notificador.awaitTermination(10, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Ejecuta el checkout de un carrito
+     * 
+     * @param carritoId ID del carrito
+     * @return Resultado con el número de pedido (reintento=true si ya estaba completado)
+     * @throws NoSuchElementException si el carrito no existe
+     * @throws CheckoutRechazadoException si falta stock, cambió algún precio, el carrito no está
+     *         activo, está vacío, cambió durante el checkout o tiene otro checkout en curso
+     * @throws ServicioNoDisponibleException si el microservicio de productos no respondió
+     */
+    public ResultadoCheckout checkout(Long carritoId) {
+        long inicio = System.nanoTime();
+        try {
+            return ejecutar(carritoId);
+        } finally {
+            metricas.registrarPaso(Paso.TOTAL, inicio);
+        }
+    }
+    
+    private ResultadoCheckout ejecutar(Long carritoId) {
+        // 1. Preparar: tomar el checkout y leer el carrito
+        long inicioPreparar = System.nanoTime();
+        Reclamo reclamo;
+        try {
+            reclamo = transaccion.execute(estado -> reclamar(carritoId));
+        } catch (CheckoutRechazadoException | DataIntegrityViolationException e) {
+            // Otra petición tiene el checkout (o lo creó al mismo tiempo)
+            metricas.registrarConflicto();
+            throw new CheckoutRechazadoException("Hay otro checkout del carrito en curso");
+        }
+        if (reclamo.completado() != null) {
+            metricas.registrarPaso(Paso.PREPARAR, inicioPreparar);
+            metricas.registrarReintento();
+            return resultado(reclamo.completado(), true);
+        }
+        int intento = reclamo.intento();
+        
+        // Un intento anterior pudo dejar stock reservado: se libera antes de seguir.
+        // Su ID sigue anotado hasta que la liberación funcione, así otro intento la reintenta
+        String reservaAnterior = reclamo.reservaAnterior();
+        if (reservaAnterior != null) {
+            if (!compensar(reservaAnterior)) {
+                fallar(carritoId, intento, "No se pudo liberar la reserva " + reservaAnterior);
+                metricas.registrarError();
+                throw new ServicioNoDisponibleException("No se pudo liberar la reserva del intento anterior", null);
+            }
+            transaccion.executeWithoutResult(estado ->
+                    checkoutRepository.olvidarReserva(carritoId, intento, reservaAnterior));
+        }
+        
+        FotoCarrito foto;
+        try {
+            foto = enBaseDeDatos(carritoId, () -> transaccion.execute(estado -> leerCarrito(carritoId)));
+        } catch (NoSuchElementException e) {
+            fallar(carritoId, intento, e.getMessage());
+            throw e;
+        }
+        if (!foto.activo() || foto.lineas().isEmpty()) {
+            String motivo = foto.activo() ? "El carrito está vacío" : "El carrito no está activo";
+            fallar(carritoId, intento, motivo);
+            metricas.registrarConflicto();
+            throw new CheckoutRechazadoException(motivo);
+        }
+        metricas.registrarPaso(Paso.PREPARAR, inicioPreparar);
+        
+        // 2. Validar precios: una sola consulta con todos los productos del carrito
+        long inicioValidar = System.nanoTime();
+        TablaPrecios vigentes;
+        try {
+            vigentes = precios.preciosVigentes(foto.lineas().stream().map(LineaPedido::getProductoId).toList());
+        } catch (RuntimeException e) {
+            metricas.registrarPaso(Paso.VALIDAR_PRECIOS, inicioValidar);
+            fallar(carritoId, intento, "Error al consultar precios: " + e.getMessage());
+            metricas.registrarError();
+            throw new ServicioNoDisponibleException("El microservicio de productos no respondió", e);
+        }
+        Map<Long, Double> cambiados = new LinkedHashMap<>();
+        long deltaCentavos = 0;
+        for (LineaPedido linea : foto.lineas()) {
+            // Un producto sin precio vigente no se puede reservar: lo informa el paso 3
+            long vigente = vigentes.centavos(linea.getProductoId());
+            long actual = ItemCarrito.aCentavos(linea.getPrecioUnitario());
+            if (vigente != TablaPrecios.SIN_PRECIO && vigente != actual) {
+                cambiados.put(linea.getProductoId(), vigente / 100.0);
+                deltaCentavos += (vigente - actual) * linea.getCantidad();
+            }
+        }
+        metricas.registrarPaso(Paso.VALIDAR_PRECIOS, inicioValidar);
+        if (!cambiados.isEmpty()) {
+            long delta = deltaCentavos;
+            enBaseDeDatos(carritoId, () -> transaccion.execute(
+                    estado -> actualizarPrecios(carritoId, foto.revision(), cambiados, delta, estado)));
+            fallar(carritoId, intento, "Cambió el precio de los productos " + cambiados.keySet());
+            metricas.registrarPreciosCambiados();
+            throw new PreciosCambiadosException(new ArrayList<>(cambiados.keySet()));
+        }
+        
+        // 3. Reservar: el ID se anota antes de pedir la reserva para poder liberarla siempre
+        String reservaId = "carrito-" + carritoId + "-" + intento;
+        Integer anotada = transaccion.execute(estado ->
+                checkoutRepository.registrarReserva(carritoId, intento, reservaId, foto.revision()));
+        if (anotada == null || anotada == 0) {
+            metricas.registrarConflicto();
+            throw new CheckoutRechazadoException("Hay otro checkout del carrito en curso");
+        }
+        long inicioReservar = System.nanoTime();
+        try {
+            inventario.reservar(reservaId, foto.lineas());
+        } catch (StockInsuficienteException e) {
+            // Rechazo definitivo: no se descontó nada
+            metricas.registrarPaso(Paso.RESERVAR, inicioReservar);
+            fallar(carritoId, intento, e.getMessage());
+            metricas.registrarSinStock();
+            throw new CheckoutRechazadoException(e.getMessage(), e.getProductos());
+        } catch (RuntimeException e) {
+            // La reserva pudo hacerse aunque la respuesta no llegó: se libera
+            metricas.registrarPaso(Paso.RESERVAR, inicioReservar);
+            compensar(reservaId);
+            fallar(carritoId, intento, "Error al reservar stock: " + e.getMessage());
+            metricas.registrarError();
+            throw new ServicioNoDisponibleException("El microservicio de productos no respondió", e);
+        }
+        metricas.registrarPaso(Paso.RESERVAR, inicioReservar);
+        
+        // 4. Completar: carrito y checkout en la misma transacción, solo si nada cambió
+        long inicioCompletar = System.nanoTime();
+        String numeroPedido = "PED-" + carritoId;
+        Boolean completado = enBaseDeDatos(carritoId, () -> transaccion.execute(estado -> {
+            if (checkoutRepository.confirmar(carritoId, intento, numeroPedido,
+                    foto.totalCentavos(), foto.cantidadItems()) == 0
+                    || carritoRepository.completarSiRevision(carritoId, foto.revision()) == 0) {
+                estado.setRollbackOnly();
+                return false;
+            }
+            return true;
+        }));
+        metricas.registrarPaso(Paso.COMPLETAR, inicioCompletar);
+        if (!Boolean.TRUE.equals(completado)) {
+            compensar(reservaId);
+            fallar(carritoId, intento, "El carrito cambió durante el checkout");
+            metricas.registrarConflicto();
+            throw new CheckoutRechazadoException(
+                    "El carrito cambió durante el checkout; revisa el carrito e inténtalo de nuevo");
+        }
+        metricas.registrarCompletado();
+        
+        // 5. Notificar en segundo plano: el pedido ya está confirmado
+        PedidoConfirmado pedido = PedidoConfirmado.builder()
+                .usuarioId(foto.usuarioId())
+                .numeroPedido(numeroPedido)
+                .fechaCompra(LocalDateTime.now())
+                .lineas(foto.lineas())
+                .total(foto.totalCentavos() / 100.0)
+                .build();
+        notificador.execute(() -> notificar(pedido, 1));
+        
+        return ResultadoCheckout.builder()
+                .carritoId(carritoId)
+                .numeroPedido(numeroPedido)
+                .cantidadItems(foto.cantidadItems())
+                .totalCentavos(foto.totalCentavos())
+                .reintento(false)
+                .build();
+    }
+    
+    /**
+     * Toma el checkout del carrito para un intento nuevo (dentro de una transacción)
+     * 
+     * @return El intento tomado y la reserva del intento anterior, o el checkout ya completado
+     */
+    private Reclamo reclamar(Long carritoId) {
+        if (!carritoRepository.existsById(carritoId)) {
+            throw new NoSuchElementException("Carrito no encontrado");
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        Optional<Checkout> existente = checkoutRepository.buscarParaModificar(carritoId);
+        if (existente.isEmpty()) {
+            checkoutRepository.saveAndFlush(Checkout.builder()
+                    .carritoId(carritoId)
+                    .estado(EstadoCheckout.EN_CURSO)
+                    .intentos(1)
+                    .fechaInicio(ahora)
+                    .fechaActualizacion(ahora)
+                    .build());
+            return new Reclamo(1, null, null);
+        }
+        
+        Checkout checkout = existente.get();
+        if (checkout.getEstado() == EstadoCheckout.COMPLETADO) {
+            return new Reclamo(checkout.getIntentos(), null, checkout);
+        }
+        if (checkout.getEstado() == EstadoCheckout.EN_CURSO
+                && checkout.getFechaActualizacion().isAfter(ahora.minusSeconds(plazoEnCursoSeg))) {
+            throw new CheckoutRechazadoException("Hay otro checkout del carrito en curso");
+        }
+        
+        // Fallido, o en curso pero colgado: el intento nuevo lo reemplaza
+        String reservaAnterior = checkout.getReservaId();
+        checkout.setEstado(EstadoCheckout.EN_CURSO);
+        checkout.setIntentos(checkout.getIntentos() + 1);
+        checkout.setMotivo(null);
+        checkout.setFechaActualizacion(ahora);
+        return new Reclamo(checkout.getIntentos(), reservaAnterior, null);
+    }
+    
+    /**
+     * Lee el carrito y sus items (primero el carrito: si los items cambian
+     * después, la revisión leída ya no coincide y el paso 4 lo detecta)
+     */
+    private FotoCarrito leerCarrito(Long carritoId) {
+        Carrito carrito = carritoRepository.findById(carritoId)
+                .orElseThrow(() -> new NoSuchElementException("Carrito no encontrado"));
+        List<LineaPedido> lineas = new ArrayList<>();
+        for (ItemCarrito item : itemCarritoRepository.findByCarritoId(carritoId)) {
+            lineas.add(new LineaPedido(item.getProductoId(), item.getCantidad(), item.getPrecioUnitario()));
+        }
+        return new FotoCarrito(carrito.getUsuarioId(), carrito.getRevision(), carrito.isActivo(),
+                carrito.getTotalCentavos(), carrito.getCantidadItems(), lineas);
+    }
+    
+    /**
+     * Actualiza los items con precio desactualizado y ajusta el total (dentro de una transacción)
+     * 
+     * Los items se actualizan primero, en el mismo orden que al agregar
+     * (item y luego carrito). Si el carrito cambió desde que se leyó, la
+     * variación calculada ya no es válida y no se guarda nada: el próximo
+     * checkout vuelve a validar los precios.
+     */
+    private Void actualizarPrecios(Long carritoId, long revision, Map<Long, Double> cambiados,
+                                   long deltaCentavos, TransactionStatus estado) {
+        cambiados.forEach((productoId, precio) -> itemCarritoRepository.actualizarPrecio(carritoId, productoId, precio));
+        if (carritoRepository.ajustarTotalesSiRevision(carritoId, revision, deltaCentavos) == 0) {
+            estado.setRollbackOnly();
+        }
+        return null;
+    }
+    
+    /**
+     * Libera una reserva de stock
+     * 
+     * @return true si se liberó (o no había nada que liberar), false si el microservicio no respondió
+     */
+    private boolean compensar(String reservaId) {
+        long inicio = System.nanoTime();
+        try {
+            inventario.liberar(reservaId);
+            metricas.registrarCompensacion(true);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("No se pudo liberar la reserva {}; se liberará en el próximo intento del checkout", reservaId, e);
+            metricas.registrarCompensacion(false);
+            return false;
+        } finally {
+            metricas.registrarPaso(Paso.COMPENSAR, inicio);
+        }
+    }
+    
+    /**
+     * Marca el intento como fallido (si sigue siendo el vigente)
+     */
+    private void fallar(Long carritoId, int intento, String motivo) {
+        String recortado = motivo == null || motivo.length() <= 255 ? motivo : motivo.substring(0, 255);
+        transaccion.executeWithoutResult(estado -> checkoutRepository.marcarFallido(carritoId, intento, recortado));
+    }
+    
+    /**
+     * Envía la confirmación del pedido y programa un reintento si falla
+     * 
+     * Los rechazos 4xx del microservicio de emails no se reintentan.
+     */
+    private void notificar(PedidoConfirmado pedido, int intento) {
+        long inicio = System.nanoTime();
+        try {
+            notificaciones.notificarPedido(pedido);
+            metricas.registrarPaso(Paso.NOTIFICAR, inicio);
+            metricas.registrarNotificacion(true);
+        } catch (RuntimeException e) {
+            metricas.registrarPaso(Paso.NOTIFICAR, inicio);
+            if (intento < intentosNotificacion && !(e instanceof HttpClientErrorException)
+                    && !notificador.isShutdown()) {
+                notificador.schedule(() -> notificar(pedido, intento + 1),
+                        esperaNotificacionMs << (intento - 1), TimeUnit.MILLISECONDS);
+                return;
+            }
+            log.warn("No se pudo enviar la confirmación del pedido {} tras {} intentos",
+                    pedido.getNumeroPedido(), intento, e);
+            metricas.registrarNotificacion(false);
+        }
+    }
+    
+    /**
+     * Ejecuta la operación con el carrito fuera de memoria (si el modo en memoria está activado)
+     */
+    private <T> T enBaseDeDatos(Long carritoId, Supplier<T> operacion) {
+        AlmacenCarritosMemoria almacen = almacenMemoria.getIfAvailable();
+        return almacen == null ? operacion.get() : almacen.ejecutarEnBaseDeDatos(carritoId, operacion);
+    }
+    
+    private static ResultadoCheckout resultado(Checkout checkout, boolean reintento) {
+        return ResultadoCheckout.builder()
+                .carritoId(checkout.getCarritoId())
+                .numeroPedido(checkout.getNumeroPedido())
+                .cantidadItems(checkout.getCantidadItems() == null ? 0 : checkout.getCantidadItems())
+                .totalCentavos(checkout.getTotalCentavos() == null ? 0 : checkout.getTotalCentavos())
+                .reintento(reintento)
+                .build();
+    }
+    
+    /**
+     * Resultado de tomar el checkout: el intento nuevo, o el checkout ya completado
+     */
+    private record Reclamo(int intento, String reservaAnterior, Checkout completado) {
+    }
+    
+    /**
+     * Datos del carrito leídos al preparar el checkout
+     */
+    private record FotoCarrito(Long usuarioId, long revision, boolean activo, long totalCentavos,
+                               int cantidadItems, List<LineaPedido> lineas) {
+    }
+}
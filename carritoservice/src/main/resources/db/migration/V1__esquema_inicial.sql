@@ -0,0 +1,24 @@
+-- ========================================
+-- ESQUEMA INICIAL DEL MICROSERVICIO CARRITO
+-- ========================================
+-- Tablas tal como las generaba Hibernate antes de usar Flyway.
+-- IF NOT EXISTS permite aplicar la migración sobre una base de datos
+-- donde Hibernate ya creó las tablas.
+
+CREATE TABLE IF NOT EXISTS carritos (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    usuario_id BIGINT NOT NULL,
+    estado VARCHAR(255) NOT NULL,
+    fecha_creacion DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS item_carrito (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    carrito_id BIGINT,
+    producto_id BIGINT,
+    cantidad INT,
+    precio_unitario DOUBLE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_item_carrito_carrito FOREIGN KEY (carrito_id) REFERENCES carritos (id)
+);
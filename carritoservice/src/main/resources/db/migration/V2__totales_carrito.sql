@@ -0,0 +1,14 @@
+-- ========================================
+-- TOTAL Y CANTIDAD DE UNIDADES MANTENIDOS EN EL CARRITO
+-- ========================================
+-- El total se guarda en centavos para evitar errores de redondeo.
+-- Los carritos existentes se inicializan a partir de sus items.
+
+ALTER TABLE carritos ADD COLUMN total_centavos BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE carritos ADD COLUMN cantidad_items INT NOT NULL DEFAULT 0;
+
+UPDATE carritos
+SET total_centavos = (SELECT COALESCE(SUM(ROUND(i.precio_unitario * 100) * i.cantidad), 0)
+                      FROM item_carrito i WHERE i.carrito_id = carritos.id),
+    cantidad_items = (SELECT COALESCE(SUM(i.cantidad), 0)
+                      FROM item_carrito i WHERE i.carrito_id = carritos.id);
@@ -0,0 +1,43 @@
+-- ========================================
+-- UN SOLO ITEM POR PRODUCTO EN CADA CARRITO
+-- ========================================
+-- Antes, agregar un producto que ya estaba en el carrito insertaba otra
+-- fila. Esta migración junta las filas repetidas en la más antigua
+-- (sumando las cantidades y conservando su precio unitario) y agrega la
+-- restricción única que permite sumar cantidades con un solo INSERT ...
+-- ON DUPLICATE KEY UPDATE.
+
+-- 1. Grupos de filas repetidas: fila que se conserva y cantidad total
+CREATE TABLE item_carrito_duplicados AS
+SELECT carrito_id, producto_id, MIN(id) AS id_conservado, SUM(cantidad) AS cantidad_total
+FROM item_carrito
+WHERE carrito_id IS NOT NULL AND producto_id IS NOT NULL
+GROUP BY carrito_id, producto_id
+HAVING COUNT(*) > 1;
+
+-- 2. La fila conservada recibe la cantidad total del grupo
+UPDATE item_carrito
+SET cantidad = (SELECT d.cantidad_total FROM item_carrito_duplicados d
+                WHERE d.id_conservado = item_carrito.id)
+WHERE id IN (SELECT id_conservado FROM item_carrito_duplicados);
+
+-- 3. Se eliminan las demás filas del grupo
+DELETE FROM item_carrito
+WHERE id NOT IN (SELECT id_conservado FROM item_carrito_duplicados)
+  AND EXISTS (SELECT 1 FROM item_carrito_duplicados d
+              WHERE d.carrito_id = item_carrito.carrito_id
+                AND d.producto_id = item_carrito.producto_id);
+
+-- 4. Los carritos afectados recalculan su total (las filas juntadas usan un solo precio)
+UPDATE carritos
+SET total_centavos = (SELECT COALESCE(SUM(ROUND(i.precio_unitario * 100) * i.cantidad), 0)
+                      FROM item_carrito i WHERE i.carrito_id = carritos.id),
+    cantidad_items = (SELECT COALESCE(SUM(i.cantidad), 0)
+                      FROM item_carrito i WHERE i.carrito_id = carritos.id)
+WHERE id IN (SELECT carrito_id FROM item_carrito_duplicados);
+
+DROP TABLE item_carrito_duplicados;
+
+-- 5. Restricción única que impide volver a duplicar productos
+ALTER TABLE item_carrito
+    ADD CONSTRAINT uk_item_carrito_carrito_producto UNIQUE (carrito_id, producto_id);
@@ -0,0 +1,7 @@
+-- ========================================
+-- REVISIÓN DEL CARRITO (ETAG)
+-- ========================================
+-- Contador que aumenta con cada cambio de items del carrito. La vista
+-- del carrito lo usa como ETag para responder 304 cuando no hubo cambios.
+
+ALTER TABLE carritos ADD COLUMN revision BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,37 @@
+-- ========================================
+-- ESTADO COMPACTO E ÍNDICE DEL CARRITO ACTIVO
+-- ========================================
+-- 1. El estado pasa de texto libre a un código SMALLINT
+--    (1 = ACTIVO, 2 = COMPLETADO, 3 = CANCELADO; otro texto pasa a CANCELADO).
+-- 2. Si un usuario tiene varios carritos ACTIVO, se conserva el más reciente
+--    (el que ya mostraba la vista) y los demás pasan a CANCELADO.
+-- 3. Índice (usuario_id, estado): buscar el carrito activo es una sola búsqueda en el índice.
+-- 4. A lo sumo un carrito ACTIVO por usuario: MySQL no tiene índices parciales,
+--    así que se usa una columna generada que solo tiene valor en los carritos
+--    activos, con un índice único (los NULL no se consideran duplicados).
+
+ALTER TABLE carritos ADD COLUMN estado_codigo SMALLINT NOT NULL DEFAULT 1;
+
+UPDATE carritos SET estado_codigo = CASE estado
+    WHEN 'ACTIVO' THEN 1
+    WHEN 'COMPLETADO' THEN 2
+    ELSE 3
+END;
+
+UPDATE carritos SET estado_codigo = 3
+WHERE estado_codigo = 1
+  AND id NOT IN (
+      SELECT ultimo FROM (
+          SELECT MAX(id) AS ultimo FROM carritos WHERE estado_codigo = 1 GROUP BY usuario_id
+      ) activos
+  );
+
+ALTER TABLE carritos DROP COLUMN estado;
+ALTER TABLE carritos RENAME COLUMN estado_codigo TO estado;
+ALTER TABLE carritos ALTER COLUMN estado DROP DEFAULT;
+
+CREATE INDEX idx_carritos_usuario_estado ON carritos (usuario_id, estado);
+
+ALTER TABLE carritos ADD COLUMN usuario_activo BIGINT
+    GENERATED ALWAYS AS (CASE WHEN estado = 1 THEN usuario_id END);
+CREATE UNIQUE INDEX uk_carritos_usuario_activo ON carritos (usuario_activo);
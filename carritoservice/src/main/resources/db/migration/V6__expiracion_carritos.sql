@@ -0,0 +1,40 @@
+-- ========================================
+-- EXPIRACIÓN DE CARRITOS Y ARCHIVO
+-- ========================================
+-- 1. ultima_actividad: fecha del último cambio del carrito (items o estado).
+--    Los carritos existentes parten de su fecha de creación; las filas
+--    insertadas sin el dato toman la fecha actual.
+-- 2. Índice (estado, ultima_actividad): el barrido de carritos activos
+--    inactivos y el de carritos terminados antiguos leen un rango del
+--    índice en orden, por lotes, sin recorrer la tabla.
+-- 3. Tablas de archivo: los carritos terminados antiguos y sus items se
+--    mueven ahí para que la tabla carritos conserve solo los recientes.
+
+ALTER TABLE carritos ADD COLUMN ultima_actividad DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+UPDATE carritos SET ultima_actividad = fecha_creacion;
+
+CREATE INDEX idx_carritos_estado_actividad ON carritos (estado, ultima_actividad);
+
+CREATE TABLE carritos_archivo (
+    id BIGINT NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    estado SMALLINT NOT NULL,
+    fecha_creacion DATETIME(6) NOT NULL,
+    ultima_actividad DATETIME(6) NOT NULL,
+    total_centavos BIGINT NOT NULL,
+    cantidad_items INT NOT NULL,
+    revision BIGINT NOT NULL,
+    fecha_archivo DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_carritos_archivo_usuario ON carritos_archivo (usuario_id);
+
+CREATE TABLE item_carrito_archivo (
+    id BIGINT NOT NULL,
+    carrito_id BIGINT NOT NULL,
+    producto_id BIGINT,
+    cantidad INT,
+    precio_unitario DOUBLE,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_item_carrito_archivo_carrito ON item_carrito_archivo (carrito_id);
@@ -0,0 +1,28 @@
+-- ========================================
+-- CHECKOUT DE CARRITOS
+-- ========================================
+-- Una fila por carrito que pasó por el checkout. Guarda el intento en
+-- curso (o el último), la reserva de stock hecha en el microservicio de
+-- productos y el número de pedido una vez completado:
+-- 1. Un reintento de un checkout completado responde con el mismo pedido
+--    sin reservar otra vez.
+-- 2. El número de intento hace de testigo: un intento que quedó colgado
+--    y fue reemplazado no puede completar el carrito.
+-- 3. La reserva del último intento fallido se libera antes de reintentar.
+-- No tiene clave foránea a carritos: el archivo de carritos antiguos borra
+-- las filas de ambas tablas juntas.
+
+CREATE TABLE checkouts (
+    carrito_id BIGINT NOT NULL,
+    estado VARCHAR(20) NOT NULL,
+    intentos INT NOT NULL,
+    reserva_id VARCHAR(64),
+    revision_carrito BIGINT,
+    numero_pedido VARCHAR(40),
+    total_centavos BIGINT,
+    cantidad_items INT,
+    motivo VARCHAR(255),
+    fecha_inicio DATETIME(6) NOT NULL,
+    fecha_actualizacion DATETIME(6) NOT NULL,
+    PRIMARY KEY (carrito_id)
+);
@@ -0,0 +1,8 @@
+-- ========================================
+-- ÍNDICE DE ITEMS POR PRODUCTO
+-- ========================================
+-- Buscar los items de un producto en todos los carritos (findByProductoId)
+-- lee solo esas filas. Las búsquedas por carrito ya usan la restricción
+-- única (carrito_id, producto_id), que no sirve para buscar solo por producto.
+
+CREATE INDEX idx_item_carrito_producto ON item_carrito (producto_id);
@@ -0,0 +1,422 @@
+package com.perfulandia.carritoservice.checkout;
+
+import com.perfulandia.carritoservice.model.Carrito;
+import com.perfulandia.carritoservice.model.EstadoCarrito;
+import com.perfulandia.carritoservice.model.LineaPedido;
+import com.perfulandia.carritoservice.model.ListaPrecios;
+import com.perfulandia.carritoservice.model.PedidoConfirmado;
+import com.perfulandia.carritoservice.precios.ClientePrecios;
+import com.perfulandia.carritoservice.service.CarritoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Prueba el checkout completo contra la base de datos H2, con versiones
+ * locales de los microservicios de productos (stock y precios) y de emails.
+ */
+@SpringBootTest(properties = "carrito.checkout.notificacion.espera-ms=10")
+@AutoConfigureMockMvc
+class CheckoutTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CarritoService carritoService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private InventarioLocal inventario;
+
+    @Autowired
+    private NotificacionesRegistradas notificaciones;
+
+    @Autowired
+    private PreciosLocales precios;
+
+    @BeforeEach
+    void setUp() {
+        inventario.reiniciar();
+        notificaciones.reiniciar();
+        precios.centavos.clear();
+        precios.consultas.set(0);
+    }
+
+    /**
+     * Crea un carrito con 2 unidades del producto 901 a 10,00 y 1 del 902 a 5,50
+     */
+    private Carrito carritoConItems(long usuarioId) {
+        Carrito carrito = carritoService.crearCarrito(usuarioId);
+        carritoService.agregarItem(carrito.getId(), 901L, 2, 10.00);
+        carritoService.agregarItem(carrito.getId(), 902L, 1, 5.50);
+        return carrito;
+    }
+
+    private String estadoCheckout(Long carritoId) {
+        return jdbc.queryForObject("SELECT estado FROM checkouts WHERE carrito_id = ?", String.class, carritoId);
+    }
+
+    private void esperarNotificaciones(int cantidad) throws InterruptedException {
+        for (int i = 0; i < 200 && notificaciones.enviados.size() < cantidad; i++) {
+            Thread.sleep(25);
+        }
+        assertEquals(cantidad, notificaciones.enviados.size());
+    }
+
+    @Test
+    @DisplayName("Testing Checkout 1 - Reserva el stock, completa el carrito, notifica y responde igual al reintentar")
+    void testCheckoutCompleto() throws Exception {
+        // Arrange
+        Carrito carrito = carritoConItems(800L);
+        inventario.stock.put(901L, 5);
+        inventario.stock.put(902L, 1);
+
+        // Act
+        mockMvc.perform(post("/api/carrito/{id}/checkout", carrito.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.numeroPedido").value("PED-" + carrito.getId()))
+                .andExpect(jsonPath("$.cantidadItems").value(3))
+                .andExpect(jsonPath("$.total").value(25.5))
+                .andExpect(jsonPath("$.reintento").value(false));
+
+        // Assert: stock descontado una vez, carrito completado y email enviado en segundo plano
+        assertEquals(3, inventario.stock.get(901L));
+        assertEquals(0, inventario.stock.get(902L));
+        assertEquals(EstadoCarrito.COMPLETADO, carritoService.obtenerResumen(carrito.getId()).getEstado());
+        assertEquals("COMPLETADO", estadoCheckout(carrito.getId()));
+        esperarNotificaciones(1);
+        PedidoConfirmado pedido = notificaciones.enviados.get(0);
+        assertEquals(800L, pedido.getUsuarioId());
+        assertEquals(2, pedido.getLineas().size());
+        assertEquals(25.5, pedido.getTotal());
+
+        // El reintento devuelve el mismo pedido sin reservar ni notificar otra vez
+        mockMvc.perform(post("/api/carrito/{id}/checkout", carrito.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.numeroPedido").value("PED-" + carrito.getId()))
+                .andExpect(jsonPath("$.reintento").value(true));
+        assertEquals(3, inventario.stock.get(901L));
+        assertEquals(1, inventario.reservas.size());
+        Thread.sleep(100);
+        assertEquals(1, notificaciones.enviados.size());
+
+        mockMvc.perform(get("/api/carrito/admin/checkout"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reintentos").isNumber())
+                .andExpect(jsonPath("$.pasos.RESERVAR.ejecuciones").isNumber())
+                .andExpect(jsonPath("$.pasos.TOTAL.maximoMs").isNumber());
+    }
+
+    @Test
+    @DisplayName("Testing Checkout 2 - Sin stock responde 409 con los productos y deja el carrito activo")
+    void testSinStock() throws Exception {
+        // Arrange
+        Carrito carrito = carritoConItems(801L);
+        inventario.stock.put(901L, 1);
+        inventario.stock.put(902L, 1);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/carrito/{id}/checkout", carrito.getId()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.sinStock[0]").value(901));
+        assertEquals(1, inventario.stock.get(901L));
+        assertEquals(EstadoCarrito.ACTIVO, carritoService.obtenerResumen(carrito.getId()).getEstado());
+        assertEquals("FALLIDO", estadoCheckout(carrito.getId()));
+
+        // Con stock repuesto el mismo carrito se puede comprar
+        inventario.stock.put(901L, 2);
+        mockMvc.perform(post("/api/carrito/{id}/checkout", carrito.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reintento").value(false));
+        assertEquals(0, inventario.stock.get(901L));
+
+        // Un carrito vacío o inexistente no llega a reservar
+        Carrito vacio = carritoService.crearCarrito(802L);
+        mockMvc.perform(post("/api/carrito/{id}/checkout", vacio.getId()))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/carrito/{id}/checkout", 999_999L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Testing Checkout 3 - Si el carrito cambia durante la reserva se libera el stock y se rechaza")
+    void testCarritoModificadoDuranteCheckout() throws Exception {
+        // Arrange: mientras se reserva, el usuario agrega otra unidad
+        Carrito carrito = carritoConItems(803L);
+        inventario.stock.put(901L, 10);
+        inventario.stock.put(902L, 10);
+        inventario.alReservar = () -> carritoService.agregarItem(carrito.getId(), 901L, 1, 10.00);
+
+        // Act & Assert: el carrito no se completa y la reserva se compensa
+        mockMvc.perform(post("/api/carrito/{id}/checkout", carrito.getId()))
+                .andExpect(status().isConflict());
+        assertEquals(10, inventario.stock.get(901L));
+        assertEquals(10, inventario.stock.get(902L));
+        assertTrue(inventario.liberadas.contains("carrito-" + carrito.getId() + "-1"));
+        assertEquals(EstadoCarrito.ACTIVO, carritoService.obtenerResumen(carrito.getId()).getEstado());
+        assertEquals("FALLIDO", estadoCheckout(carrito.getId()));
+
+        // El reintento reserva el carrito actualizado
+        inventario.alReservar = null;
+        mockMvc.perform(post("/api/carrito/{id}/checkout", carrito.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cantidadItems").value(4));
+        assertEquals(7, inventario.stock.get(901L));
+    }
+
+    @Test
+    @DisplayName("Testing Checkout 4 - Un error remoto compensa la reserva y el reintento usa una reserva nueva")
+    void testErrorRemotoCompensaYReintenta() throws Exception {
+        // Arrange: la reserva se hace pero la respuesta se pierde; el primer email también falla
+        Carrito carrito = carritoConItems(804L);
+        inventario.stock.put(901L, 2);
+        inventario.stock.put(902L, 1);
+        inventario.fallosReserva.set(1);
+        notificaciones.fallos.set(1);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/carrito/{id}/checkout", carrito.getId()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+        assertEquals(2, inventario.stock.get(901L));
+        assertTrue(inventario.liberadas.contains("carrito-" + carrito.getId() + "-1"));
+        assertEquals(EstadoCarrito.ACTIVO, carritoService.obtenerResumen(carrito.getId()).getEstado());
+
+        mockMvc.perform(post("/api/carrito/{id}/checkout", carrito.getId()))
+                .andExpect(status().isOk());
+        assertTrue(inventario.reservas.containsKey("carrito-" + carrito.getId() + "-2"));
+        assertEquals(0, inventario.stock.get(901L));
+
+        // El email se entrega en el segundo intento
+        esperarNotificaciones(1);
+    }
+
+    @Test
+    @DisplayName("Testing Checkout 5 - Si cambió un precio actualiza el carrito, responde 409 y el reintento usa el precio nuevo")
+    void testPrecioCambiado() throws Exception {
+        // Arrange: el producto 911 subió de 10,00 a 12,00 desde que se agregó
+        Carrito carrito = carritoService.crearCarrito(805L);
+        carritoService.agregarItem(carrito.getId(), 911L, 2, 10.00);
+        carritoService.agregarItem(carrito.getId(), 912L, 1, 5.50);
+        inventario.stock.put(911L, 5);
+        inventario.stock.put(912L, 5);
+        precios.centavos.put(911L, 1200L);
+        precios.centavos.put(912L, 550L);
+
+        // Act & Assert: no se reserva nada y el carrito queda con el precio y el total nuevos
+        mockMvc.perform(post("/api/carrito/{id}/checkout", carrito.getId()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.preciosActualizados[0]").value(911))
+                .andExpect(jsonPath("$.preciosActualizados.length()").value(1));
+        assertEquals(1, precios.consultas.get());
+        assertTrue(inventario.reservas.isEmpty());
+        assertEquals(2950L, carritoService.obtenerResumen(carrito.getId()).getTotalCentavos());
+        assertEquals(EstadoCarrito.ACTIVO, carritoService.obtenerResumen(carrito.getId()).getEstado());
+        assertEquals("FALLIDO", estadoCheckout(carrito.getId()));
+
+        // Un item agregado después ya usa el precio vigente de la copia local
+        carritoService.agregarItem(carrito.getId(), 911L, 1, 10.00);
+        mockMvc.perform(post("/api/carrito/{id}/checkout", carrito.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cantidadItems").value(4))
+                .andExpect(jsonPath("$.total").value(41.5));
+        assertEquals(2, inventario.stock.get(911L));
+
+        mockMvc.perform(get("/api/carrito/admin/checkout"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.preciosCambiados").value(1))
+                .andExpect(jsonPath("$.pasos.VALIDAR_PRECIOS.ejecuciones").isNumber());
+        mockMvc.perform(get("/api/carrito/admin/precios"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.modo").value("SOBRESCRIBIR"))
+                .andExpect(jsonPath("$.preciosSobrescritos").value(1));
+    }
+
+    @Test
+    @DisplayName("Testing Checkout 6 - Si liberar la reserva falla varias veces, un intento posterior la sigue liberando")
+    void testLiberacionFallidaSeReintenta() throws Exception {
+        // Arrange: la reserva del primer intento se hace pero la respuesta se pierde,
+        // y las dos liberaciones siguientes fallan
+        Carrito carrito = carritoConItems(806L);
+        inventario.stock.put(901L, 2);
+        inventario.stock.put(902L, 1);
+        inventario.fallosReserva.set(1);
+        inventario.fallosLiberacion.set(2);
+        String primeraReserva = "carrito-" + carrito.getId() + "-1";
+
+        // Act & Assert: el primer intento no logra compensar y el segundo no logra liberar
+        mockMvc.perform(post("/api/carrito/{id}/checkout", carrito.getId()))
+                .andExpect(status().isServiceUnavailable());
+        mockMvc.perform(post("/api/carrito/{id}/checkout", carrito.getId()))
+                .andExpect(status().isServiceUnavailable());
+        assertFalse(inventario.liberadas.contains(primeraReserva));
+        assertEquals(primeraReserva,
+                jdbc.queryForObject("SELECT reserva_id FROM checkouts WHERE carrito_id = ?", String.class, carrito.getId()));
+
+        // El tercer intento libera la reserva del primero y reserva de nuevo
+        mockMvc.perform(post("/api/carrito/{id}/checkout", carrito.getId()))
+                .andExpect(status().isOk());
+        assertTrue(inventario.liberadas.contains(primeraReserva));
+        assertFalse(inventario.reservas.containsKey(primeraReserva));
+        assertTrue(inventario.reservas.containsKey("carrito-" + carrito.getId() + "-3"));
+        assertEquals(0, inventario.stock.get(901L));
+        assertEquals("COMPLETADO", estadoCheckout(carrito.getId()));
+    }
+
+    /**
+     * Versión local del stock del microservicio de productos
+     */
+    static class InventarioLocal implements ClienteInventario {
+
+        final Map<Long, Integer> stock = new ConcurrentHashMap<>();
+        final Map<String, List<LineaPedido>> reservas = new ConcurrentHashMap<>();
+        final Set<String> liberadas = ConcurrentHashMap.newKeySet();
+        final AtomicInteger fallosReserva = new AtomicInteger();
+        final AtomicInteger fallosLiberacion = new AtomicInteger();
+        volatile Runnable alReservar;
+
+        void reiniciar() {
+            stock.clear();
+            reservas.clear();
+            liberadas.clear();
+            fallosReserva.set(0);
+            fallosLiberacion.set(0);
+            alReservar = null;
+        }
+
+        @Override
+        public synchronized void reservar(String reservaId, List<LineaPedido> lineas) {
+            if (liberadas.contains(reservaId)) {
+                throw new IllegalStateException("Reserva liberada: " + reservaId);
+            }
+            if (!reservas.containsKey(reservaId)) {
+                List<Long> sinStock = new ArrayList<>();
+                for (LineaPedido linea : lineas) {
+                    if (stock.getOrDefault(linea.getProductoId(), 0) < linea.getCantidad()) {
+                        sinStock.add(linea.getProductoId());
+                    }
+                }
+                if (!sinStock.isEmpty()) {
+                    throw new StockInsuficienteException(sinStock);
+                }
+                lineas.forEach(linea -> stock.merge(linea.getProductoId(), -linea.getCantidad(), Integer::sum));
+                reservas.put(reservaId, lineas);
+            }
+            if (alReservar != null) {
+                alReservar.run();
+            }
+            if (fallosReserva.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new ResourceAccessException("Tiempo de espera agotado");
+            }
+        }
+
+        @Override
+        public synchronized void liberar(String reservaId) {
+            if (fallosLiberacion.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new ResourceAccessException("Tiempo de espera agotado");
+            }
+            if (liberadas.add(reservaId)) {
+                List<LineaPedido> lineas = reservas.remove(reservaId);
+                if (lineas != null) {
+                    lineas.forEach(linea -> stock.merge(linea.getProductoId(), linea.getCantidad(), Integer::sum));
+                }
+            }
+        }
+    }
+
+    /**
+     * Versión local del microservicio de emails que registra los pedidos notificados
+     */
+    static class NotificacionesRegistradas implements ClienteNotificaciones {
+
+        final List<PedidoConfirmado> enviados = new CopyOnWriteArrayList<>();
+        final AtomicInteger fallos = new AtomicInteger();
+
+        void reiniciar() {
+            enviados.clear();
+            fallos.set(0);
+        }
+
+        @Override
+        public void notificarPedido(PedidoConfirmado pedido) {
+            if (fallos.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new ResourceAccessException("Servicio de emails no disponible");
+            }
+            enviados.add(pedido);
+        }
+    }
+
+    /**
+     * Versión local de la lista de precios del microservicio de productos
+     * (sin precios configurados, ningún producto tiene precio vigente)
+     */
+    static class PreciosLocales implements ClientePrecios {
+
+        final Map<Long, Long> centavos = new ConcurrentHashMap<>();
+        final AtomicInteger consultas = new AtomicInteger();
+
+        @Override
+        public Optional<ListaPrecios> descargar(String versionActual) {
+            return Optional.empty();
+        }
+
+        @Override
+        public ListaPrecios consultar(Collection<Long> productoIds) {
+            consultas.incrementAndGet();
+            List<Long> ids = productoIds.stream().filter(centavos::containsKey).sorted().toList();
+            return new ListaPrecios(null, ids.stream().mapToLong(Long::longValue).toArray(),
+                    ids.stream().mapToLong(centavos::get).toArray());
+        }
+    }
+
+    @TestConfiguration
+    static class ServiciosLocales {
+
+        @Bean
+        @Primary
+        InventarioLocal inventarioLocal() {
+            return new InventarioLocal();
+        }
+
+        @Bean
+        @Primary
+        NotificacionesRegistradas notificacionesRegistradas() {
+            return new NotificacionesRegistradas();
+        }
+
+        @Bean
+        @Primary
+        PreciosLocales preciosLocales() {
+            return new PreciosLocales();
+        }
+    }
+}
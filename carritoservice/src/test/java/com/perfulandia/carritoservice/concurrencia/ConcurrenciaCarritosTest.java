@@ -0,0 +1,205 @@
+package com.perfulandia.carritoservice.concurrencia;
+
+import com.perfulandia.carritoservice.model.Carrito;
+import com.perfulandia.carritoservice.model.EstadisticasConcurrencia;
+import com.perfulandia.carritoservice.model.EstadoCarrito;
+import com.perfulandia.carritoservice.model.ItemCarrito;
+import com.perfulandia.carritoservice.model.ResumenCarrito;
+import com.perfulandia.carritoservice.repository.CarritoRepository;
+import com.perfulandia.carritoservice.service.CarritoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba los cambios concurrentes de un mismo carrito contra la base de
+ * datos H2: muchos hilos agregan, modifican y eliminan items a la vez y
+ * los totales del carrito deben coincidir con sus items.
+ */
+@SpringBootTest(properties = "carrito.concurrencia.espera-ms=1")
+class ConcurrenciaCarritosTest {
+
+    private static final int HILOS = 12;
+    private static final int RONDAS = 10;
+
+    @Autowired
+    private CarritoService carritoService;
+
+    @Autowired
+    private CarritoRepository carritoRepository;
+
+    @Autowired
+    private MutacionesCarrito mutaciones;
+
+    @Autowired
+    private TransactionTemplate transaccion;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    /**
+     * Verifica que las unidades y el total del carrito sean la suma de sus items
+     */
+    private ResumenCarrito verificarTotales(Long carritoId) {
+        ResumenCarrito resumen = carritoService.obtenerResumen(carritoId);
+        List<ItemCarrito> items = carritoService.obtenerItemsCarrito(carritoId);
+        assertEquals(items.stream().mapToInt(ItemCarrito::getCantidad).sum(), resumen.getCantidadItems());
+        assertEquals(items.stream().mapToLong(ItemCarrito::getSubtotalCentavos).sum(), resumen.getTotalCentavos());
+        return resumen;
+    }
+
+    @Test
+    @DisplayName("Testing Concurrencia 1 - Los cambios simultáneos de un carrito dejan sus totales iguales a la suma de los items")
+    void testCambiosSimultaneos() throws Exception {
+        // Arrange: dos carritos con un item que todos los hilos modifican
+        List<Long> carritos = new ArrayList<>();
+        List<Long> compartidos = new ArrayList<>();
+        for (long usuarioId = 720; usuarioId < 722; usuarioId++) {
+            Carrito carrito = carritoService.crearCarrito(usuarioId);
+            carritos.add(carrito.getId());
+            compartidos.add(carritoService.agregarItem(carrito.getId(), 930L, 1, 4.25).getId());
+        }
+        long[] revisiones = carritos.stream().mapToLong(id -> carritoService.obtenerResumen(id).getRevision()).toArray();
+        AtomicInteger[] exitosos = {new AtomicInteger(), new AtomicInteger()};
+
+        // Act: cada hilo suma unidades a un producto común, cambia la cantidad
+        // del item compartido y agrega y elimina un producto propio
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            long propio = 940L + h;
+            tareas.add(hilos.submit(() -> {
+                largada.await();
+                for (int ronda = 0; ronda < RONDAS; ronda++) {
+                    for (int c = 0; c < carritos.size(); c++) {
+                        Long carritoId = carritos.get(c);
+                        Long compartido = compartidos.get(c);
+                        mutaciones.ejecutar(carritoId, () -> carritoService.agregarItem(carritoId, 931L, 1, 10.00));
+                        int cantidad = ThreadLocalRandom.current().nextInt(1, 6);
+                        mutaciones.ejecutar(carritoId, () -> carritoService.actualizarCantidad(carritoId, compartido, cantidad));
+                        ItemCarrito item = mutaciones.ejecutar(carritoId,
+                                () -> carritoService.agregarItem(carritoId, propio, 2, 3.10));
+                        mutaciones.ejecutar(carritoId, () -> carritoService.eliminarItem(carritoId, item.getId()));
+                        exitosos[c].addAndGet(4);
+                    }
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        hilos.shutdown();
+
+        // Assert: ninguna suma se perdió y cada cambio avanzó la revisión una vez
+        for (int c = 0; c < carritos.size(); c++) {
+            Long carritoId = carritos.get(c);
+            ResumenCarrito resumen = verificarTotales(carritoId);
+            List<ItemCarrito> items = carritoService.obtenerItemsCarrito(carritoId);
+            assertEquals(2, items.size());
+            assertEquals(HILOS * RONDAS, items.stream().filter(item -> item.getProductoId() == 931L)
+                    .findFirst().orElseThrow().getCantidad());
+            assertEquals(revisiones[c] + exitosos[c].get(), resumen.getRevision());
+        }
+    }
+
+    @Test
+    @DisplayName("Testing Concurrencia 2 - Completar un carrito mientras otros hilos agregan items no deja totales inconsistentes")
+    void testCompletarMientrasSeAgrega() throws Exception {
+        // Arrange
+        Long carritoId = carritoService.crearCarrito(723L).getId();
+        AtomicInteger agregados = new AtomicInteger();
+        AtomicInteger rechazados = new AtomicInteger();
+
+        // Act: varios hilos agregan unidades y uno completa el carrito a mitad de camino
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            boolean completa = h == HILOS / 2;
+            tareas.add(hilos.submit(() -> {
+                largada.await();
+                for (int ronda = 0; ronda < RONDAS; ronda++) {
+                    if (completa && ronda == RONDAS / 2) {
+                        mutaciones.ejecutar(carritoId, () -> carritoService.completarCarrito(carritoId));
+                    }
+                    try {
+                        mutaciones.ejecutar(carritoId, () -> carritoService.agregarItem(carritoId, 932L, 1, 7.00));
+                        agregados.incrementAndGet();
+                    } catch (ConcurrencyFailureException e) {
+                        throw e;
+                    } catch (RuntimeException e) {
+                        rechazados.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        hilos.shutdown();
+
+        // Assert: solo cuentan las unidades agregadas antes de completarlo
+        ResumenCarrito resumen = verificarTotales(carritoId);
+        assertEquals(EstadoCarrito.COMPLETADO, resumen.getEstado());
+        assertEquals(agregados.get(), resumen.getCantidadItems());
+        assertEquals(HILOS * RONDAS, agregados.get() + rechazados.get());
+        assertTrue(rechazados.get() > 0);
+    }
+
+    @Test
+    @DisplayName("Testing Concurrencia 3 - Un conflicto de versión se reintenta y los que persisten agotan los intentos")
+    void testReintentaConflictos() {
+        // Arrange
+        Long carritoId = carritoService.crearCarrito(724L).getId();
+        carritoService.agregarItem(carritoId, 933L, 1, 2.00);
+        EstadisticasConcurrencia antes = mutaciones.instantanea();
+        AtomicInteger intentos = new AtomicInteger();
+
+        // Act: el primer intento lee el carrito y otra transacción lo cambia antes de guardarlo
+        mutaciones.ejecutar(carritoId, () -> transaccion.executeWithoutResult(estado -> {
+            Carrito carrito = carritoRepository.findById(carritoId).orElseThrow();
+            if (intentos.incrementAndGet() == 1) {
+                jdbc.update("UPDATE carritos SET revision = revision + 1 WHERE id = ?", carritoId);
+            }
+            carrito.setEstado(EstadoCarrito.COMPLETADO);
+        }));
+
+        // Assert: el segundo intento completó el carrito
+        assertEquals(2, intentos.get());
+        assertEquals(EstadoCarrito.COMPLETADO, carritoService.obtenerResumen(carritoId).getEstado());
+        EstadisticasConcurrencia despues = mutaciones.instantanea();
+        assertEquals(antes.getConflictos() + 1, despues.getConflictos());
+        assertEquals(antes.getAgotadas(), despues.getAgotadas());
+
+        // Un conflicto que no desaparece se propaga después del último intento
+        AtomicInteger llamadas = new AtomicInteger();
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> mutaciones.ejecutar(carritoId, () -> {
+            llamadas.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Carrito.class, carritoId);
+        }));
+        assertEquals(4, llamadas.get());
+        assertEquals(antes.getAgotadas() + 1, mutaciones.instantanea().getAgotadas());
+    }
+}
@@ -1,7 +1,11 @@
 package com.perfulandia.carritoservice.controller;
 
+import com.perfulandia.carritoservice.concurrencia.MutacionesCarrito;
 import com.perfulandia.carritoservice.model.Carrito;
+import com.perfulandia.carritoservice.model.EstadoCarrito;
 import com.perfulandia.carritoservice.model.ItemCarrito;
+import com.perfulandia.carritoservice.model.LineaLote;
+import com.perfulandia.carritoservice.model.ResumenCarrito;
 import com.perfulandia.carritoservice.service.CarritoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,14 +23,16 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CarritoController.class)
-@Import(MappingJackson2HttpMessageConverter.class)
+@Import({MappingJackson2HttpMessageConverter.class, MutacionesCarrito.class})
 class CarritoControllerTest {
 
     @Autowired
@@ -46,7 +52,7 @@ class CarritoControllerTest {
         carrito = Carrito.builder()
                 .id(1L)
                 .usuarioId(1L)
-                .estado("ACTIVO")
+                .estado(EstadoCarrito.ACTIVO)
                 .fechaCreacion(LocalDateTime.now())
                 .build();
 
@@ -132,4 +138,77 @@ class CarritoControllerTest {
                 .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Testing Controller 6 - Obtener resumen del carrito")
+    void testObtenerResumen() throws Exception {
+        when(service.obtenerResumen(1L)).thenReturn(ResumenCarrito.builder()
+                .id(1L)
+                .usuarioId(1L)
+                .estado(EstadoCarrito.ACTIVO)
+                .cantidadItems(3)
+                .totalCentavos(7008)
+                .build());
+
+        mockMvc.perform(get("/api/carrito/1/resumen")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cantidadItems").value(3))
+                .andExpect(jsonPath("$.totalCentavos").value(7008))
+                .andExpect(jsonPath("$.total").value(70.08));
+    }
+
+    @Test
+    @DisplayName("Testing Controller 7 - Modificar cantidad de un item")
+    void testActualizarCantidad() throws Exception {
+        itemCarrito.setCantidad(5);
+        when(service.actualizarCantidad(1L, 1L, 5)).thenReturn(itemCarrito);
+
+        mockMvc.perform(put("/api/carrito/1/items/1")
+                .param("cantidad", "5")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cantidad").value(5));
+
+        mockMvc.perform(put("/api/carrito/1/items/1")
+                .param("cantidad", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Testing Controller 8 - Eliminar item inexistente")
+    void testEliminarItemInexistente() throws Exception {
+        doThrow(new NoSuchElementException("Item no encontrado en el carrito"))
+                .when(service).eliminarItem(1L, 99L);
+
+        mockMvc.perform(delete("/api/carrito/1/items/99"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(delete("/api/carrito/1/items/1"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("Testing Controller 9 - Agregar varios items en lote")
+    void testAgregarItemsLote() throws Exception {
+        when(service.agregarItems(anyLong(), anyList())).thenReturn(List.of(itemCarrito));
+        List<LineaLote> lineas = List.of(new LineaLote(1L, 2, 10.0));
+
+        mockMvc.perform(post("/api/carrito/1/items/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(lineas)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productoId").value(1))
+                .andExpect(jsonPath("$[0].cantidad").value(2));
+
+        // Un lote vacío o con una línea inválida se rechaza completo
+        mockMvc.perform(post("/api/carrito/1/items/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/carrito/1/items/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(new LineaLote(1L, 2, 10.0), new LineaLote(2L, 0, 5.0)))))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,222 @@
+package com.perfulandia.carritoservice.controller;
+
+import com.perfulandia.carritoservice.model.Carrito;
+import com.perfulandia.carritoservice.model.ItemCarrito;
+import com.perfulandia.carritoservice.model.LineaLote;
+import com.perfulandia.carritoservice.service.CarritoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Verifica que los totales mantenidos del carrito sean correctos, que
+ * agregar un producto repetido sume la cantidad en el mismo item y que
+ * los endpoints de resumen y de vista se resuelvan con una sola consulta
+ * SQL (incluida la revalidación con ETag).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class CarritoResumenConsultasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CarritoService carritoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Testing Resumen 1 - Mantiene el total y las unidades al agregar, modificar y eliminar items")
+    void testMantieneTotales() throws Exception {
+        // Arrange
+        Carrito carrito = carritoService.crearCarrito(500L);
+        Long id = carrito.getId();
+
+        // Act: agregar son 4 sentencias (leer el carrito, insertar o sumar, leer el item y ajustar el total)
+        estadisticas.clear();
+        ItemCarrito perfume = carritoService.agregarItem(id, 1L, 2, 29.99);
+        assertEquals(4, estadisticas.getPrepareStatementCount());
+        ItemCarrito colonia = carritoService.agregarItem(id, 2L, 1, 10.10);
+
+        // Modificar son 3 sentencias (leer con bloqueo, actualizar el item y ajustar el total)
+        estadisticas.clear();
+        carritoService.actualizarCantidad(id, perfume.getId(), 3);
+        assertEquals(3, estadisticas.getPrepareStatementCount());
+        carritoService.eliminarItem(id, colonia.getId());
+
+        // Assert: 3 x 29,99 = 89,97
+        mockMvc.perform(get("/api/carrito/" + id + "/resumen"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cantidadItems").value(3))
+                .andExpect(jsonPath("$.totalCentavos").value(8997))
+                .andExpect(jsonPath("$.total").value(89.97));
+    }
+
+    @Test
+    @DisplayName("Testing Resumen 2 - Los endpoints de resumen ejecutan una sola consulta")
+    void testResumenUnaConsulta() throws Exception {
+        // Arrange
+        Carrito carrito = carritoService.crearCarrito(501L);
+        for (long producto = 1; producto <= 5; producto++) {
+            carritoService.agregarItem(carrito.getId(), producto, 1, 1.50);
+        }
+
+        // Act & Assert: resumen por ID
+        estadisticas.clear();
+        mockMvc.perform(get("/api/carrito/" + carrito.getId() + "/resumen"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cantidadItems").value(5))
+                .andExpect(jsonPath("$.totalCentavos").value(750));
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+        assertEquals(0, estadisticas.getCollectionLoadCount());
+
+        // Act & Assert: resumen del carrito activo (mini-carrito)
+        estadisticas.clear();
+        mockMvc.perform(get("/api/carrito/usuario/501/activo/resumen"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(carrito.getId()))
+                .andExpect(jsonPath("$.total").value(7.5));
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+
+        // Act & Assert: el carrito completo ya no carga la colección de items al serializarse
+        estadisticas.clear();
+        mockMvc.perform(get("/api/carrito/usuario/501/activo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(7.5))
+                .andExpect(jsonPath("$.items").doesNotExist());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(0, estadisticas.getCollectionLoadCount());
+    }
+
+    @Test
+    @DisplayName("Testing Resumen 3 - Agregar un producto repetido suma la cantidad en el mismo item")
+    void testAgregarProductoRepetido() throws Exception {
+        // Arrange
+        Carrito carrito = carritoService.crearCarrito(502L);
+
+        // Act: el usuario toca "agregar" varias veces; el precio del primer agregado se conserva
+        ItemCarrito primero = carritoService.agregarItem(carrito.getId(), 7L, 1, 12.50);
+        carritoService.agregarItem(carrito.getId(), 7L, 2, 12.50);
+        ItemCarrito ultimo = carritoService.agregarItem(carrito.getId(), 7L, 1, 13.00);
+
+        // Assert
+        assertEquals(primero.getId(), ultimo.getId());
+        assertEquals(4, ultimo.getCantidad());
+        assertEquals(1, carritoService.obtenerItemsCarrito(carrito.getId()).size());
+        mockMvc.perform(get("/api/carrito/" + carrito.getId() + "/resumen"))
+                .andExpect(jsonPath("$.cantidadItems").value(4))
+                .andExpect(jsonPath("$.totalCentavos").value(5000));
+    }
+
+    @Test
+    @DisplayName("Testing Resumen 4 - La vista trae el carrito y sus items en una sola consulta")
+    void testVistaUnaConsulta() throws Exception {
+        // Arrange
+        Carrito carrito = carritoService.crearCarrito(503L);
+        for (long producto = 1; producto <= 10; producto++) {
+            carritoService.agregarItem(carrito.getId(), producto, 2, 3.33);
+        }
+
+        // Act & Assert
+        estadisticas.clear();
+        mockMvc.perform(get("/api/carrito/usuario/503/activo/vista"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.id").value(carrito.getId()))
+                .andExpect(jsonPath("$.cantidadItems").value(20))
+                .andExpect(jsonPath("$.totalCentavos").value(6660))
+                .andExpect(jsonPath("$.items.length()").value(10))
+                .andExpect(jsonPath("$.items[0].productoId").value(1))
+                .andExpect(jsonPath("$.items[0].subtotalCentavos").value(666));
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+
+        // Un carrito vacío también se muestra, sin items
+        carritoService.crearCarrito(504L);
+        mockMvc.perform(get("/api/carrito/usuario/504/activo/vista"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+        mockMvc.perform(get("/api/carrito/usuario/505/activo/vista"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Testing Resumen 5 - La vista responde 304 mientras el carrito no cambie")
+    void testVistaEtag() throws Exception {
+        // Arrange
+        Carrito carrito = carritoService.crearCarrito(506L);
+        carritoService.agregarItem(carrito.getId(), 1L, 1, 20.00);
+        MvcResult primera = mockMvc.perform(get("/api/carrito/usuario/506/activo/vista"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = primera.getResponse().getHeader("ETag");
+
+        // Act & Assert: sin cambios, 304 sin cuerpo leyendo solo el encabezado
+        estadisticas.clear();
+        mockMvc.perform(get("/api/carrito/usuario/506/activo/vista").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+
+        // Act & Assert: al cambiar los items cambia el ETag y se envía la vista nueva
+        carritoService.agregarItem(carrito.getId(), 2L, 1, 5.00);
+        MvcResult cambiada = mockMvc.perform(get("/api/carrito/usuario/506/activo/vista").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andReturn();
+        assertNotEquals(etag, cambiada.getResponse().getHeader("ETag"));
+    }
+
+    @Test
+    @DisplayName("Testing Resumen 6 - El lote suma a los items existentes y ajusta el total una vez")
+    void testAgregarLote() throws Exception {
+        // Arrange
+        Carrito carrito = carritoService.crearCarrito(507L);
+        carritoService.agregarItem(carrito.getId(), 1L, 1, 10.00);
+        List<LineaLote> lineas = List.of(new LineaLote(1L, 2, 99.00), new LineaLote(2L, 1, 4.50),
+                new LineaLote(3L, 3, 1.00), new LineaLote(2L, 1, 4.50));
+
+        // Act
+        mockMvc.perform(post("/api/carrito/" + carrito.getId() + "/items/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lineas)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+
+        // Assert: 3 x 10,00 (precio original) + 2 x 4,50 + 3 x 1,00 = 42,00
+        assertEquals(3, carritoService.obtenerItemsCarrito(carrito.getId()).size());
+        mockMvc.perform(get("/api/carrito/" + carrito.getId() + "/resumen"))
+                .andExpect(jsonPath("$.cantidadItems").value(8))
+                .andExpect(jsonPath("$.totalCentavos").value(4200));
+    }
+}
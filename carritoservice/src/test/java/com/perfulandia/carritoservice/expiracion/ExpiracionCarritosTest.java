@@ -0,0 +1,159 @@
+package com.perfulandia.carritoservice.expiracion;
+
+import com.perfulandia.carritoservice.model.Carrito;
+import com.perfulandia.carritoservice.model.EstadoCarrito;
+import com.perfulandia.carritoservice.model.ResultadoBarrido;
+import com.perfulandia.carritoservice.repository.CarritoRepository;
+import com.perfulandia.carritoservice.service.CarritoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Prueba el barrido de expiración: los carritos activos inactivos pasan a
+ * EXPIRADO por lotes y los terminados antiguos se mueven al archivo.
+ */
+@SpringBootTest(properties = "carrito.expiracion.tamano-lote=2")
+@AutoConfigureMockMvc
+@RecordApplicationEvents
+class ExpiracionCarritosTest {
+
+    @Autowired
+    private CarritoService carritoService;
+
+    @Autowired
+    private ExpiradorCarritos expirador;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    @Autowired
+    private CarritoRepository carritoRepository;
+
+    @Autowired
+    private TransactionTemplate transaccion;
+
+    @Test
+    @DisplayName("Testing Expiracion 1 - Expira por lotes los carritos activos inactivos y publica sus unidades")
+    void testExpiraInactivos() {
+        // Arrange: cinco carritos sin actividad hace 4 días (más de un lote) y uno reciente
+        List<Long> inactivos = new ArrayList<>();
+        for (long usuarioId = 700; usuarioId < 705; usuarioId++) {
+            Carrito carrito = carritoService.crearCarrito(usuarioId);
+            carritoService.agregarItem(carrito.getId(), 1L, (int) (usuarioId - 699), 10.00);
+            inactivos.add(carrito.getId());
+        }
+        Carrito reciente = carritoService.crearCarrito(705L);
+        carritoService.agregarItem(reciente.getId(), 1L, 1, 10.00);
+        jdbc.update("UPDATE carritos SET ultima_actividad = DATEADD('HOUR', -96, CURRENT_TIMESTAMP) "
+                + "WHERE usuario_id BETWEEN 700 AND 704");
+
+        // Act
+        ResultadoBarrido resultado = expirador.barrer();
+
+        // Assert: solo los inactivos expiran; el usuario puede abrir un carrito nuevo
+        assertEquals(5, resultado.getExpirados());
+        for (Long carritoId : inactivos) {
+            assertEquals(EstadoCarrito.EXPIRADO, carritoService.obtenerResumen(carritoId).getEstado());
+        }
+        assertEquals(EstadoCarrito.ACTIVO, carritoService.obtenerResumen(reciente.getId()).getEstado());
+        assertNull(carritoService.obtenerCarritoActivo(702L));
+        assertNotEquals(inactivos.get(2), carritoService.crearCarrito(702L).getId());
+
+        // Un evento por carrito expirado, con las unidades que tenía
+        List<CarritoExpirado> publicados = eventos.stream(CarritoExpirado.class).toList();
+        assertEquals(5, publicados.size());
+        CarritoExpirado tercero = publicados.stream()
+                .filter(evento -> evento.getCarritoId() == inactivos.get(2)).findFirst().orElseThrow();
+        assertEquals(702L, tercero.getUsuarioId());
+        assertEquals(Map.of(1L, 3), tercero.getUnidadesPorProducto());
+
+        // Un segundo barrido no encuentra nada
+        assertEquals(0, expirador.barrer().getExpirados());
+    }
+
+    @Test
+    @DisplayName("Testing Expiracion 2 - Archiva los carritos terminados antiguos con sus items y expone las métricas")
+    void testArchivaTerminados() throws Exception {
+        // Arrange: un carrito completado hace 40 días y otro completado hoy
+        Carrito antiguo = carritoService.crearCarrito(710L);
+        carritoService.agregarItem(antiguo.getId(), 1L, 2, 10.00);
+        carritoService.agregarItem(antiguo.getId(), 2L, 1, 5.50);
+        carritoService.completarCarrito(antiguo.getId());
+        Carrito nuevo = carritoService.crearCarrito(711L);
+        carritoService.completarCarrito(nuevo.getId());
+        jdbc.update("UPDATE carritos SET ultima_actividad = DATEADD('DAY', -40, CURRENT_TIMESTAMP) WHERE id = ?",
+                antiguo.getId());
+
+        // Act
+        ResultadoBarrido resultado = expirador.barrer();
+
+        // Assert: el antiguo se movió al archivo junto con sus items; el reciente no
+        assertEquals(1, resultado.getArchivados());
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM carritos WHERE id = ?", Integer.class,
+                antiguo.getId()));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM item_carrito WHERE carrito_id = ?", Integer.class,
+                antiguo.getId()));
+        Map<String, Object> archivado = jdbc.queryForMap(
+                "SELECT usuario_id, estado, total_centavos FROM carritos_archivo WHERE id = ?", antiguo.getId());
+        assertEquals(710L, ((Number) archivado.get("usuario_id")).longValue());
+        assertEquals(EstadoCarrito.COMPLETADO.getCodigo(), ((Number) archivado.get("estado")).shortValue());
+        assertEquals(2550L, ((Number) archivado.get("total_centavos")).longValue());
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM item_carrito_archivo WHERE carrito_id = ?",
+                Integer.class, antiguo.getId()));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM carritos WHERE id = ?", Integer.class,
+                nuevo.getId()));
+
+        mockMvc.perform(get("/api/carrito/admin/expiracion"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.barridos").isNumber())
+                .andExpect(jsonPath("$.barridosFallidos").value(0));
+    }
+
+    @Test
+    @DisplayName("Testing Expiracion 3 - Completar un carrito que expiró después de leerlo falla con un conflicto")
+    void testCompletarCarritoExpirado() {
+        // Arrange: un carrito inactivo hace 4 días
+        Carrito carrito = carritoService.crearCarrito(720L);
+        carritoService.agregarItem(carrito.getId(), 1L, 2, 10.00);
+        jdbc.update("UPDATE carritos SET ultima_actividad = DATEADD('HOUR', -96, CURRENT_TIMESTAMP) WHERE id = ?",
+                carrito.getId());
+
+        // Act: la transacción de completarCarrito lee el carrito activo y,
+        // antes de guardarlo, el barrido lo expira desde otro hilo
+        ResultadoBarrido[] barrido = new ResultadoBarrido[1];
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> transaccion.executeWithoutResult(estado -> {
+            carritoRepository.findById(carrito.getId()).orElseThrow();
+            barrido[0] = CompletableFuture.supplyAsync(expirador::barrer).join();
+            carritoService.completarCarrito(carrito.getId());
+        }));
+
+        // Assert: el carrito queda expirado, como el barrido ya informó (y liberó su stock)
+        assertTrue(barrido[0].getExpirados() >= 1);
+        assertEquals(EstadoCarrito.EXPIRADO, carritoService.obtenerResumen(carrito.getId()).getEstado());
+    }
+}
@@ -0,0 +1,146 @@
+package com.perfulandia.carritoservice.memoria;
+
+import com.perfulandia.carritoservice.service.CarritoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara el rendimiento de agregar items con la ruta JPA y con el modo
+ * en memoria: throughput y latencia (p50, p99 y máxima) con varios hilos
+ * agregando productos a muchos carritos (cada hilo a los suyos).
+ * 
+ * No se ejecuta en el build normal. Para ejecutarlo:
+ * mvn test -Dtest=CarritoMemoriaBenchmarkTest -Dbenchmark=true
+ * (opcionalmente -Dbenchmark.hilos=1 -Dbenchmark.operaciones=2000)
+ * 
+ * Por defecto usa la base H2 de los tests con un solo hilo: H2 falla con
+ * INSERT ... ON DUPLICATE KEY UPDATE concurrentes. Para medir con varios
+ * hilos se debe apuntar a MySQL, por ejemplo:
+ * -Dspring.datasource.url=jdbc:mysql://localhost:3306/perfulandia_carrito
+ * -Dspring.datasource.username=root -Dspring.datasource.driverClassName=com.mysql.cj.jdbc.Driver
+ * -Dspring.jpa.database-platform=org.hibernate.dialect.MySQLDialect -Dbenchmark.hilos=8
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {"carrito.memoria.habilitada=true", "spring.jpa.show-sql=false"})
+class CarritoMemoriaBenchmarkTest {
+
+    private static final int USUARIOS = 200;
+    private static final int PRODUCTOS = 50;
+
+    @DynamicPropertySource
+    static void directorioWal(DynamicPropertyRegistry registro) {
+        registro.add("carrito.memoria.wal.directorio", () -> Path.of(System.getProperty("java.io.tmpdir"),
+                "wal-carritos-" + UUID.randomUUID()).toString());
+    }
+
+    @Autowired
+    @Qualifier("carritoService") // La implementación JPA
+    private CarritoService jpa;
+
+    @Autowired
+    @Qualifier("carritoMemoriaService")
+    private CarritoService memoria;
+
+    @Test
+    @DisplayName("Testing Benchmark 1 - Agregar items: JPA contra memoria")
+    void testCompararAgregarItem() throws Exception {
+        int hilos = Integer.getInteger("benchmark.hilos", 1);
+        int operaciones = Integer.getInteger("benchmark.operaciones", 2000);
+
+        // Calentamiento de ambas rutas (JIT y pool de conexiones)
+        medir(jpa, 10_000, hilos, operaciones / 10);
+        medir(memoria, 20_000, hilos, operaciones / 10);
+
+        Resultado resultadoJpa = medir(jpa, 30_000, hilos, operaciones);
+        Resultado resultadoMemoria = medir(memoria, 40_000, hilos, operaciones);
+
+        System.out.printf("%nAgregar item (%d hilos x %d operaciones, %d carritos)%n", hilos, operaciones, USUARIOS);
+        System.out.printf("%-8s %12s %10s %10s %10s%n", "ruta", "ops/s", "p50 us", "p99 us", "max us");
+        resultadoJpa.imprimir("jpa");
+        resultadoMemoria.imprimir("memoria");
+
+        assertTrue(resultadoMemoria.opsPorSegundo > resultadoJpa.opsPorSegundo,
+                "El modo en memoria debería superar a la ruta JPA");
+    }
+
+    private Resultado medir(CarritoService servicio, long usuarioBase, int hilos, int operaciones) throws Exception {
+        long[] carritos = new long[USUARIOS];
+        for (int i = 0; i < USUARIOS; i++) {
+            carritos[i] = servicio.crearCarrito(usuarioBase + i).getId();
+        }
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<long[]>> futuros = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            int hilo = h;
+            futuros.add(ejecutor.submit(() -> {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                long[] latencias = new long[operaciones];
+                largada.await();
+                for (int i = 0; i < operaciones; i++) {
+                    // Cada hilo usa sus propios carritos, como una sesión por usuario
+                    long carrito = carritos[hilo + hilos * aleatorio.nextInt(USUARIOS / hilos)];
+                    long producto = 1 + aleatorio.nextInt(PRODUCTOS);
+                    long inicio = System.nanoTime();
+                    servicio.agregarItem(carrito, producto, 1, 19.99);
+                    latencias[i] = System.nanoTime() - inicio;
+                }
+                return latencias;
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        long[] todas = new long[hilos * operaciones];
+        for (int h = 0; h < hilos; h++) {
+            System.arraycopy(futuros.get(h).get(), 0, todas, h * operaciones, operaciones);
+        }
+        long duracion = System.nanoTime() - inicio;
+        ejecutor.shutdown();
+        ejecutor.awaitTermination(10, TimeUnit.SECONDS);
+
+        Arrays.sort(todas);
+        return new Resultado(todas.length * 1e9 / duracion,
+                todas[todas.length / 2], todas[(int) (todas.length * 0.99)], todas[todas.length - 1]);
+    }
+
+    private static final class Resultado {
+        private final double opsPorSegundo;
+        private final long p50;
+        private final long p99;
+        private final long maximo;
+
+        private Resultado(double opsPorSegundo, long p50, long p99, long maximo) {
+            this.opsPorSegundo = opsPorSegundo;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.maximo = maximo;
+        }
+
+        private void imprimir(String ruta) {
+            System.out.printf("%-8s %12.0f %10.1f %10.1f %10.1f%n", ruta, opsPorSegundo,
+                    p50 / 1e3, p99 / 1e3, maximo / 1e3);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.perfulandia.carritoservice.memoria;
+
+import com.perfulandia.carritoservice.model.Carrito;
+import com.perfulandia.carritoservice.model.ItemCarrito;
+import com.perfulandia.carritoservice.model.VistaCarrito;
+import com.perfulandia.carritoservice.service.CarritoMemoriaService;
+import com.perfulandia.carritoservice.service.CarritoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba el modo en memoria de los carritos activos: los cambios se
+ * aplican sin consultas de Hibernate y el persistidor los escribe en la
+ * base de datos en segundo plano.
+ */
+@SpringBootTest(properties = {
+        "carrito.memoria.habilitada=true",
+        "carrito.memoria.intervalo-persistencia-ms=50",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class CarritoMemoriaTest {
+
+    @DynamicPropertySource
+    static void directorioWal(DynamicPropertyRegistry registro) {
+        registro.add("carrito.memoria.wal.directorio", () -> Path.of(System.getProperty("java.io.tmpdir"),
+                "wal-carritos-" + UUID.randomUUID()).toString());
+    }
+
+    @Autowired
+    private CarritoService carritoService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Testing Memoria 1 - Agregar items y leer la vista no ejecutan consultas y se persisten en segundo plano")
+    void testAgregaEnMemoria() throws Exception {
+        // Arrange
+        assertInstanceOf(CarritoMemoriaService.class, carritoService);
+        Carrito carrito = carritoService.crearCarrito(600L);
+
+        // Act
+        estadisticas.clear();
+        carritoService.agregarItem(carrito.getId(), 1L, 2, 29.99);
+        carritoService.agregarItem(carrito.getId(), 2L, 1, 10.10);
+        ItemCarrito repetido = carritoService.agregarItem(carrito.getId(), 1L, 1, 35.00);
+        VistaCarrito vista = carritoService.obtenerVistaActiva(600L);
+
+        // Assert: todo en memoria; el producto repetido conserva su precio
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+        assertEquals(3, repetido.getCantidad());
+        assertEquals(29.99, repetido.getPrecioUnitario());
+        assertEquals(2, vista.getItems().size());
+        assertEquals(10007L, vista.getTotalCentavos());
+        assertEquals(3L, vista.getRevision());
+
+        esperarPersistencia(carrito.getId(), 3L);
+        assertEquals(10007L, jdbc.queryForObject("SELECT total_centavos FROM carritos WHERE id = ?", Long.class, carrito.getId()));
+        assertEquals(List.of(3, 1), jdbc.queryForList(
+                "SELECT cantidad FROM item_carrito WHERE carrito_id = ? ORDER BY producto_id", Integer.class, carrito.getId()));
+    }
+
+    @Test
+    @DisplayName("Testing Memoria 2 - Eliminar un item persiste antes los cambios pendientes del carrito")
+    void testEliminarPersistePendientes() throws Exception {
+        // Arrange: un item ya persistido (con ID) y otro que solo está en memoria
+        Carrito carrito = carritoService.crearCarrito(601L);
+        carritoService.agregarItem(carrito.getId(), 1L, 2, 10.00);
+        esperarPersistencia(carrito.getId(), 1L);
+        Long itemId = esperarIdItem(601L);
+        carritoService.agregarItem(carrito.getId(), 2L, 4, 2.50);
+
+        // Act
+        carritoService.eliminarItem(carrito.getId(), itemId);
+
+        // Assert: la base y la vista (recargada) quedan con el segundo producto
+        assertEquals(1000L, jdbc.queryForObject("SELECT total_centavos FROM carritos WHERE id = ?", Long.class, carrito.getId()));
+        assertEquals(List.of(2L), jdbc.queryForList(
+                "SELECT producto_id FROM item_carrito WHERE carrito_id = ?", Long.class, carrito.getId()));
+        VistaCarrito vista = carritoService.obtenerVistaActiva(601L);
+        assertEquals(4, vista.getCantidadItems());
+        assertEquals(3L, vista.getRevision());
+    }
+
+    private void esperarPersistencia(Long carritoId, long revision) throws InterruptedException {
+        for (int intento = 0; intento < 100; intento++) {
+            Long actual = jdbc.queryForObject("SELECT revision FROM carritos WHERE id = ?", Long.class, carritoId);
+            if (actual != null && actual >= revision) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        fail("El carrito " + carritoId + " no se persistió a tiempo");
+    }
+
+    private Long esperarIdItem(Long usuarioId) throws InterruptedException {
+        for (int intento = 0; intento < 100; intento++) {
+            Long id = carritoService.obtenerVistaActiva(usuarioId).getItems().get(0).getId();
+            if (id != null) {
+                return id;
+            }
+            Thread.sleep(20);
+        }
+        return fail("El item no recibió su ID a tiempo");
+    }
+}
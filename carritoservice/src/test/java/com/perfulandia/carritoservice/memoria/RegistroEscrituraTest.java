@@ -0,0 +1,99 @@
+package com.perfulandia.carritoservice.memoria;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba el WAL de los carritos en memoria y su recuperación sobre una
+ * base H2 en modo MySQL propia, migrada con Flyway.
+ */
+public class RegistroEscrituraTest {
+
+    @TempDir
+    Path directorio;
+
+    private JdbcTemplate jdbc;
+    private PersistidorCarritos persistidor;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:wal" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        persistidor = new PersistidorCarritos(jdbc, new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        jdbc.update("INSERT INTO carritos (id, usuario_id, estado, fecha_creacion, total_centavos, cantidad_items, revision) "
+                + "VALUES (1, 10, 1, CURRENT_TIMESTAMP, 1000, 1, 3)");
+        jdbc.update("INSERT INTO item_carrito (carrito_id, producto_id, cantidad, precio_unitario) VALUES (1, 100, 1, 10.00)");
+    }
+
+    @Test
+    @DisplayName("Testing WAL 1 - Recupera los cambios no persistidos una sola vez y descarta la línea incompleta")
+    void testRecuperaCambiosPendientes() throws Exception {
+        // Arrange: la revisión 4 ya está en la base, las 5 y 6 no; la última línea quedó cortada
+        try (RegistroEscritura wal = new RegistroEscritura(directorio, false)) {
+            wal.anotar(new EntradaWal(1, 3, 100, 1, 10.00, 1000, 1));
+            wal.anotar(new EntradaWal(1, 5, 100, 2, 10.00, 2000, 2));
+            wal.anotar(new EntradaWal(1, 6, 200, 3, 5.50, 3650, 5));
+        }
+        Files.writeString(Files.list(directorio).findFirst().orElseThrow(), "1;7;300;1",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        RegistroEscritura reabierto = new RegistroEscritura(directorio, false);
+        List<EntradaWal> entradas = RegistroEscritura.leer(reabierto.pendientes());
+
+        // Act
+        int primera = persistidor.recuperar(entradas);
+        int segunda = persistidor.recuperar(entradas);
+
+        // Assert
+        assertEquals(3, entradas.size());
+        assertEquals(1, primera);
+        assertEquals(0, segunda);
+        Map<String, Object> carrito = jdbc.queryForMap("SELECT total_centavos, cantidad_items, revision FROM carritos WHERE id = 1");
+        assertEquals(3650L, ((Number) carrito.get("total_centavos")).longValue());
+        assertEquals(5, ((Number) carrito.get("cantidad_items")).intValue());
+        assertEquals(6L, ((Number) carrito.get("revision")).longValue());
+        assertEquals(List.of(2, 3), jdbc.queryForList(
+                "SELECT cantidad FROM item_carrito WHERE carrito_id = 1 ORDER BY producto_id", Integer.class));
+
+        reabierto.eliminar(reabierto.pendientes());
+        assertTrue(reabierto.pendientes().isEmpty());
+        reabierto.close();
+    }
+
+    @Test
+    @DisplayName("Testing WAL 2 - Una foto más vieja que la base de datos no se escribe")
+    void testDescartaFotoVieja() {
+        // Arrange: la base ya está en la revisión 3
+        FotoCarrito vieja = new FotoCarrito(1, 10, 2, 500, 1,
+                List.of(new FotoCarrito.Linea(100, 9, 10.00)), false);
+        FotoCarrito nueva = new FotoCarrito(1, 10, 4, 3000, 3,
+                List.of(new FotoCarrito.Linea(100, 3, 10.00)), false);
+
+        // Act
+        persistidor.persistir(List.of(vieja));
+        persistidor.persistir(List.of(nueva));
+
+        // Assert
+        assertEquals(3000L, jdbc.queryForObject("SELECT total_centavos FROM carritos WHERE id = 1", Long.class));
+        assertEquals(3, jdbc.queryForObject(
+                "SELECT cantidad FROM item_carrito WHERE carrito_id = 1 AND producto_id = 100", Integer.class));
+    }
+}
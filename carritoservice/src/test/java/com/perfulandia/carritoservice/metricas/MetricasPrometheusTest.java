@@ -0,0 +1,57 @@
+package com.perfulandia.carritoservice.metricas;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Verifica que /actuator/prometheus publique los timers de los endpoints
+ * (con la ruta como plantilla y buckets de histograma), de los métodos de
+ * los repositorios y las métricas del pool de conexiones de Hikari.
+ *
+ * Las propiedades de métricas se repiten aquí porque el application.properties
+ * de test reemplaza al principal.
+ */
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=health,prometheus",
+        "management.metrics.tags.application=carritoservice",
+        "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+        "management.metrics.distribution.percentiles-histogram.spring.data.repository.invocations=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricasPrometheusTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Testing Métricas 1 - Prometheus publica latencias por endpoint, repositorio y pool")
+    void testEndpointPrometheus() throws Exception {
+        // Arrange
+        mockMvc.perform(post("/api/carrito/usuario/4242")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/carrito/usuario/4242/activo")).andExpect(status().isOk());
+
+        // Act
+        String metricas = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertTrue(metricas.contains("http_server_requests_seconds_bucket{application=\"carritoservice\""));
+        assertTrue(metricas.contains("uri=\"/api/carrito/usuario/{usuarioId}/activo\""));
+        assertFalse(metricas.contains("uri=\"/api/carrito/usuario/4242"), "Las rutas no deben generar una serie por ID");
+        assertTrue(metricas.contains("spring_data_repository_invocations_seconds_bucket"));
+        assertTrue(metricas.contains("repository=\"CarritoRepository\""));
+        assertTrue(metricas.contains("hikaricp_connections_active"));
+        assertTrue(metricas.contains("hikaricp_connections_pending"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.perfulandia.carritoservice.migracion;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba las migraciones de Flyway sobre una base H2 en modo MySQL propia,
+ * cargando datos en una versión intermedia del esquema.
+ */
+public class MigracionesTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migraciones" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    private void migrarHasta(String version) {
+        Flyway.configure().dataSource(dataSource).target(version).load().migrate();
+    }
+
+    @Test
+    @DisplayName("Testing Migraciones 1 - Compacta los items duplicados y recalcula los totales")
+    void testCompactaDuplicados() {
+        // Arrange: esquema anterior a la restricción única, con filas repetidas
+        migrarHasta("2");
+        jdbc.update("INSERT INTO carritos (id, usuario_id, estado, fecha_creacion, total_centavos, cantidad_items) "
+                + "VALUES (1, 10, 'ACTIVO', CURRENT_TIMESTAMP, 0, 0), (2, 20, 'ACTIVO', CURRENT_TIMESTAMP, 0, 0)");
+        jdbc.update("INSERT INTO item_carrito (id, carrito_id, producto_id, cantidad, precio_unitario) VALUES "
+                + "(1, 1, 100, 1, 10.00), (2, 1, 100, 2, 11.00), (3, 1, 200, 1, 5.50), (4, 1, 100, 1, 10.00), "
+                + "(5, 2, 100, 3, 7.25)");
+
+        // Act
+        migrarHasta("latest");
+
+        // Assert: el carrito 1 conserva la fila 1 del producto 100 con 4 unidades a 10,00
+        List<Map<String, Object>> items = jdbc.queryForList(
+                "SELECT id, carrito_id, producto_id, cantidad FROM item_carrito ORDER BY id");
+        assertEquals(3, items.size());
+        assertEquals(List.of(1L, 3L, 5L), items.stream().map(fila -> ((Number) fila.get("id")).longValue()).toList());
+        assertEquals(4, ((Number) items.get(0).get("cantidad")).intValue());
+
+        Map<String, Object> carrito = jdbc.queryForMap("SELECT total_centavos, cantidad_items FROM carritos WHERE id = 1");
+        assertEquals(4550L, ((Number) carrito.get("total_centavos")).longValue());
+        assertEquals(5, ((Number) carrito.get("cantidad_items")).intValue());
+
+        // El carrito sin duplicados no se modifica
+        assertEquals(0L, jdbc.queryForObject("SELECT total_centavos FROM carritos WHERE id = 2", Long.class));
+    }
+
+    @Test
+    @DisplayName("Testing Migraciones 2 - La restricción única impide duplicar un producto en el carrito")
+    void testRestriccionUnica() {
+        // Arrange
+        migrarHasta("latest");
+        jdbc.update("INSERT INTO carritos (id, usuario_id, estado, fecha_creacion) VALUES (1, 10, 1, CURRENT_TIMESTAMP)");
+        jdbc.update("INSERT INTO item_carrito (carrito_id, producto_id, cantidad, precio_unitario) VALUES (1, 100, 1, 10.00)");
+
+        // Act & Assert
+        assertThrows(org.springframework.dao.DataIntegrityViolationException.class, () -> jdbc.update(
+                "INSERT INTO item_carrito (carrito_id, producto_id, cantidad, precio_unitario) VALUES (1, 100, 1, 10.00)"));
+    }
+
+    @Test
+    @DisplayName("Testing Migraciones 3 - Convierte el estado a código y deja un solo carrito activo por usuario")
+    void testEstadoCompactoYActivoUnico() {
+        // Arrange: el usuario 10 tiene dos carritos activos
+        migrarHasta("4");
+        jdbc.update("INSERT INTO carritos (id, usuario_id, estado, fecha_creacion) VALUES "
+                + "(1, 10, 'ACTIVO', CURRENT_TIMESTAMP), (2, 10, 'COMPLETADO', CURRENT_TIMESTAMP), "
+                + "(3, 10, 'ACTIVO', CURRENT_TIMESTAMP), (4, 20, 'ACTIVO', CURRENT_TIMESTAMP), "
+                + "(5, 20, 'OTRO', CURRENT_TIMESTAMP)");
+
+        // Act
+        migrarHasta("5");
+
+        // Assert: se conserva el activo más reciente; el anterior y el desconocido quedan cancelados
+        assertEquals(List.of(3, 2, 1, 1, 3), jdbc.queryForList("SELECT estado FROM carritos ORDER BY id", Integer.class));
+
+        // Un segundo carrito activo para el mismo usuario se rechaza; uno completado no
+        jdbc.update("INSERT INTO carritos (usuario_id, estado, fecha_creacion) VALUES (10, 2, CURRENT_TIMESTAMP)");
+        assertThrows(org.springframework.dao.DataIntegrityViolationException.class, () -> jdbc.update(
+                "INSERT INTO carritos (usuario_id, estado, fecha_creacion) VALUES (10, 1, CURRENT_TIMESTAMP)"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.perfulandia.carritoservice.precios;
+
+import com.perfulandia.carritoservice.model.LineaLote;
+import com.perfulandia.carritoservice.model.ListaPrecios;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba la copia local de precios con una versión local de la lista de
+ * precios del microservicio de productos.
+ */
+public class ReplicaPreciosTest {
+
+    @Test
+    @DisplayName("Testing Precios 1 - Descarga la lista solo si cambió y reemplaza los precios distintos del vigente")
+    void testDescargaYSobrescribe() {
+        // Arrange
+        PreciosRemotos remotos = new PreciosRemotos();
+        remotos.lista = new ListaPrecios("v1", new long[] {3L, 7L, 12L}, new long[] {1000L, 2550L, 899L});
+        ReplicaPrecios replica = new ReplicaPrecios(remotos, ModoPrecios.SOBRESCRIBIR, 0);
+
+        // Act
+        boolean primera = replica.refrescar();
+        boolean segunda = replica.refrescar();
+
+        // Assert: la segunda descarga envía la versión local y no trae cambios
+        assertTrue(primera);
+        assertFalse(segunda);
+        assertEquals(List.of("-", "v1"), remotos.versionesRecibidas);
+        assertEquals(25.5, replica.precioParaAgregar(7L, 1.0));
+        assertEquals(8.99, replica.precioParaAgregar(12L, 8.99));
+        // Un producto que no está en la copia conserva el precio enviado
+        assertEquals(4.0, replica.precioParaAgregar(5L, 4.0));
+        assertEquals(List.of(new LineaLote(3L, 2, 10.0), new LineaLote(5L, 1, 4.0)),
+                replica.preciosParaAgregar(List.of(new LineaLote(3L, 2, 0.5), new LineaLote(5L, 1, 4.0))));
+        assertEquals(3, replica.instantanea().getProductos());
+        assertEquals(1, replica.instantanea().getDescargasSinCambios());
+        assertEquals(2, replica.instantanea().getPreciosSobrescritos());
+    }
+
+    @Test
+    @DisplayName("Testing Precios 2 - En modo VALIDAR rechaza el precio distinto y conserva la copia si la descarga falla")
+    void testValidarYDescargaFallida() {
+        // Arrange
+        PreciosRemotos remotos = new PreciosRemotos();
+        remotos.lista = new ListaPrecios("v1", new long[] {7L}, new long[] {2550L});
+        ReplicaPrecios replica = new ReplicaPrecios(remotos, ModoPrecios.VALIDAR, 0);
+        replica.refrescar();
+        remotos.lista = null;
+
+        // Act
+        PrecioInvalidoException rechazo = assertThrows(PrecioInvalidoException.class,
+                () -> replica.precioParaAgregar(7L, 20.0));
+
+        // Assert
+        assertEquals(7L, rechazo.getProductoId());
+        assertEquals(25.5, rechazo.getPrecioVigente());
+        assertEquals(25.5, replica.precioParaAgregar(7L, 25.5));
+        assertThrows(IllegalStateException.class, replica::refrescar);
+        assertEquals("v1", replica.instantanea().getVersion());
+        assertEquals(1, replica.instantanea().getDescargasFallidas());
+        assertEquals(1, replica.instantanea().getPreciosRechazados());
+    }
+
+    @Test
+    @DisplayName("Testing Precios 3 - Los precios consultados en el checkout actualizan la copia")
+    void testPreciosVigentesActualizanLaCopia() {
+        // Arrange
+        PreciosRemotos remotos = new PreciosRemotos();
+        remotos.lista = new ListaPrecios("v1", new long[] {3L, 7L}, new long[] {1000L, 2550L});
+        ReplicaPrecios replica = new ReplicaPrecios(remotos, ModoPrecios.SOBRESCRIBIR, 0);
+        replica.refrescar();
+
+        // Act: el mismo precio no cambia la copia; uno nuevo y un producto nuevo sí
+        remotos.consulta = new ListaPrecios(null, new long[] {7L}, new long[] {2550L});
+        TablaPrecios sinCambios = replica.preciosVigentes(List.of(7L));
+        String versionSinCambios = replica.instantanea().getVersion();
+        remotos.consulta = new ListaPrecios(null, new long[] {1L, 7L}, new long[] {500L, 3000L});
+        TablaPrecios vigentes = replica.preciosVigentes(List.of(7L, 1L));
+
+        // Assert
+        assertEquals(2550L, sinCambios.centavos(7L));
+        assertEquals("v1", versionSinCambios);
+        assertEquals(3000L, vigentes.centavos(7L));
+        assertEquals(TablaPrecios.SIN_PRECIO, vigentes.centavos(3L));
+        assertEquals(30.0, replica.precioParaAgregar(7L, 25.5));
+        assertEquals(5.0, replica.precioParaAgregar(1L, 1.0));
+        assertEquals(10.0, replica.precioParaAgregar(3L, 1.0));
+        // La copia combinada ya no es la versión v1: la próxima descarga la reemplaza completa
+        assertNull(replica.instantanea().getVersion());
+        assertEquals(3, replica.instantanea().getProductos());
+        assertThrows(IllegalArgumentException.class, () -> TablaPrecios.desde(
+                new ListaPrecios(null, new long[] {7L, 3L}, new long[] {1L, 2L})));
+    }
+
+    /**
+     * Versión local de la lista de precios del microservicio de productos
+     */
+    static class PreciosRemotos implements ClientePrecios {
+
+        ListaPrecios lista;
+        ListaPrecios consulta;
+        final List<String> versionesRecibidas = new ArrayList<>();
+
+        @Override
+        public Optional<ListaPrecios> descargar(String versionActual) {
+            versionesRecibidas.add(versionActual == null ? "-" : versionActual);
+            if (lista == null) {
+                throw new IllegalStateException("Microservicio de productos no disponible");
+            }
+            return Objects.equals(versionActual, lista.getVersion()) ? Optional.empty() : Optional.of(lista);
+        }
+
+        @Override
+        public ListaPrecios consultar(Collection<Long> productoIds) {
+            return consulta;
+        }
+    }
+}
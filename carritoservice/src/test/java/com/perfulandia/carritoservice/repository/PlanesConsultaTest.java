@@ -0,0 +1,200 @@
+package com.perfulandia.carritoservice.repository;
+
+import com.perfulandia.carritoservice.model.EstadoCarrito;
+import com.perfulandia.rendimiento.consultas.PruebaPlanesConsulta;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que las consultas de los repositorios usen los índices de las
+ * migraciones: captura el SQL que genera Hibernate y revisa su plan con
+ * EXPLAIN en H2 (modo MySQL, mismas migraciones que en producción; ver
+ * PruebaPlanesConsulta en perf-runtime).
+ */
+class PlanesConsultaTest extends PruebaPlanesConsulta {
+
+    private static final long USUARIO_BASE = 900_000L;
+
+    /**
+     * Índice de item_carrito por carrito_id: en MySQL es la restricción única
+     * uk_item_carrito_carrito_producto, que reemplaza al índice propio de la
+     * clave foránea; H2 conserva ese índice (fk_item_carrito_carrito_index_*)
+     */
+    private static final String INDICE_ITEMS_POR_CARRITO = "_item_carrito_carrito_";
+
+    @Autowired
+    private CarritoRepository carritoRepository;
+
+    @Autowired
+    private ItemCarritoRepository itemCarritoRepository;
+
+    @Autowired
+    private CheckoutRepository checkoutRepository;
+
+    private Long usuarioId;
+    private Long carritoId;
+    private Long itemId;
+
+    @BeforeAll
+    void cargarDatos() {
+        // 100 usuarios con un carrito activo y dos completados; 3 items por carrito activo
+        List<Object[]> carritos = new ArrayList<>();
+        LongStream.range(0, 100).forEach(i -> {
+            carritos.add(new Object[]{USUARIO_BASE + i, EstadoCarrito.ACTIVO.getCodigo()});
+            carritos.add(new Object[]{USUARIO_BASE + i, EstadoCarrito.COMPLETADO.getCodigo()});
+            carritos.add(new Object[]{USUARIO_BASE + i, EstadoCarrito.COMPLETADO.getCodigo()});
+        });
+        jdbc.batchUpdate("INSERT INTO carritos (usuario_id, estado, fecha_creacion) VALUES (?, ?, CURRENT_TIMESTAMP)",
+                carritos);
+        List<Long> activos = jdbc.queryForList("SELECT id FROM carritos WHERE usuario_id >= ? AND estado = ? ORDER BY id",
+                Long.class, USUARIO_BASE, EstadoCarrito.ACTIVO.getCodigo());
+
+        List<Object[]> items = new ArrayList<>();
+        for (Long activo : activos) {
+            LongStream.rangeClosed(1, 3).forEach(producto -> items.add(new Object[]{activo, producto, 1, 9.99}));
+        }
+        jdbc.batchUpdate("INSERT INTO item_carrito (carrito_id, producto_id, cantidad, precio_unitario) VALUES (?, ?, ?, ?)",
+                items);
+        jdbc.batchUpdate("INSERT INTO checkouts (carrito_id, estado, intentos, fecha_inicio, fecha_actualizacion) "
+                + "VALUES (?, 'EN_CURSO', 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                activos.stream().map(activo -> new Object[]{activo}).toList());
+
+        // Estadísticas de las tablas para el optimizador, como las que InnoDB mantiene solas
+        jdbc.execute("ANALYZE");
+
+        usuarioId = USUARIO_BASE + 7;
+        carritoId = activos.get(7);
+        itemId = jdbc.queryForObject("SELECT MIN(id) FROM item_carrito WHERE carrito_id = ?", Long.class, carritoId);
+    }
+
+    @Test
+    @DisplayName("Testing Planes 1 - Las búsquedas de carritos por usuario usan idx_carritos_usuario_estado")
+    void testCarritosPorUsuario() {
+        // Act
+        String activo = sentenciaDe(() -> carritoRepository.findByUsuarioIdAndEstado(usuarioId, EstadoCarrito.ACTIVO));
+        String todos = sentenciaDe(() -> carritoRepository.findByUsuarioId(usuarioId));
+        String cuenta = sentenciaDe(() -> carritoRepository.countByUsuarioIdAndEstado(usuarioId, EstadoCarrito.ACTIVO));
+        String resumenes = sentenciaDe(() -> carritoRepository.buscarResumenesActivos(usuarioId));
+
+        // Assert
+        assertUsaIndice("idx_carritos_usuario_estado", plan(activo));
+        assertUsaIndice("idx_carritos_usuario_estado", plan(todos));
+        assertUsaIndice("idx_carritos_usuario_estado", plan(cuenta));
+        assertUsaIndice("idx_carritos_usuario_estado", plan(resumenes));
+    }
+
+    @Test
+    @DisplayName("Testing Planes 2 - La vista del carrito activo usa el índice del usuario y el de los items del carrito")
+    void testVistaActiva() {
+        // Act
+        String sql = sentenciaDe(() -> carritoRepository.buscarVistaActiva(usuarioId));
+
+        // Assert: carritos por (usuario_id, estado) y sus items por carrito_id
+        String plan = plan(sql);
+        assertUsaIndice("idx_carritos_usuario_estado", plan);
+        assertUsaIndice(INDICE_ITEMS_POR_CARRITO, plan);
+    }
+
+    @Test
+    @DisplayName("Testing Planes 3 - Buscar carritos por estado usa idx_carritos_estado_actividad")
+    void testCarritosPorEstado() {
+        // Act
+        String sql = sentenciaDe(() -> carritoRepository.findByEstado(EstadoCarrito.CANCELADO));
+
+        // Assert
+        assertUsaIndice("idx_carritos_estado_actividad", plan(sql));
+    }
+
+    @Test
+    @DisplayName("Testing Planes 4 - Los ajustes y el resumen de un carrito usan la clave primaria")
+    void testCarritoPorId() {
+        // Act
+        String ajustar = sentenciaDe(() -> carritoRepository.ajustarTotales(carritoId, 100, 1));
+        String ajustarSiRevision = sentenciaDe(() -> carritoRepository.ajustarTotalesSiRevision(carritoId, 1, 100));
+        String completar = sentenciaDe(() -> carritoRepository.completarSiRevision(carritoId, 2));
+        String resumen = sentenciaDe(() -> carritoRepository.buscarResumen(carritoId));
+
+        // Assert
+        assertUsaIndice("primary_key", plan(ajustar));
+        assertUsaIndice("primary_key", plan(ajustarSiRevision));
+        assertUsaIndice("primary_key", plan(completar));
+        assertUsaIndice("primary_key", plan(resumen));
+    }
+
+    @Test
+    @DisplayName("Testing Planes 5 - Las búsquedas de items de un carrito usan el índice de (carrito_id, producto_id)")
+    void testItemsPorCarrito() {
+        // Act
+        String items = sentenciaDe(() -> itemCarritoRepository.findByCarritoId(carritoId));
+        String ordenados = sentenciaDe(() -> itemCarritoRepository.findByCarritoIdOrderById(carritoId));
+        String cuenta = sentenciaDe(() -> itemCarritoRepository.countByCarritoId(carritoId));
+        String producto = sentenciaDe(() -> itemCarritoRepository.findByCarritoIdAndProductoId(carritoId, 2L));
+        String productos = sentenciaDe(() -> itemCarritoRepository.findByCarritoIdAndProductoIdIn(carritoId, List.of(1L, 2L)));
+        String precio = sentenciaDe(() -> itemCarritoRepository.actualizarPrecio(carritoId, 2L, 10.99));
+
+        // Assert
+        assertUsaIndice(INDICE_ITEMS_POR_CARRITO, plan(items));
+        assertUsaIndice(INDICE_ITEMS_POR_CARRITO, plan(ordenados));
+        assertUsaIndice(INDICE_ITEMS_POR_CARRITO, plan(cuenta));
+        assertUsaIndice("uk_item_carrito_carrito_producto", plan(producto));
+        assertUsaIndice("uk_item_carrito_carrito_producto", plan(productos));
+        assertUsaIndice("uk_item_carrito_carrito_producto", plan(precio));
+    }
+
+    @Test
+    @DisplayName("Testing Planes 6 - Vaciar un carrito lee sus items por carrito y los borra por clave primaria")
+    void testVaciarCarrito() {
+        // Act
+        List<String> sql = sentenciasDe(() -> {
+            itemCarritoRepository.deleteByCarritoId(carritoId);
+            entityManager.flush();
+        });
+
+        // Assert: el SELECT de los items, la carga de su carrito y el DELETE en lote por ID
+        assertEquals(3, sql.size(), () -> "Sentencias: " + sql);
+        assertUsaIndice(INDICE_ITEMS_POR_CARRITO, plan(sql.get(0)));
+        assertUsaIndice("primary_key", plan(sql.get(1)));
+        assertTrue(sql.get(2).startsWith("delete"), () -> "Sentencias: " + sql);
+        assertUsaIndice("primary_key", plan(sql.get(2)));
+    }
+
+    @Test
+    @DisplayName("Testing Planes 7 - Buscar items por producto usa idx_item_carrito_producto")
+    void testItemsPorProducto() {
+        // Act
+        String sql = sentenciaDe(() -> itemCarritoRepository.findByProductoId(2L));
+
+        // Assert
+        assertUsaIndice("idx_item_carrito_producto", plan(sql));
+    }
+
+    @Test
+    @DisplayName("Testing Planes 8 - Bloquear un item y los pasos del checkout usan la clave primaria")
+    void testPorClavePrimaria() {
+        // Act
+        String item = sentenciaDe(() -> itemCarritoRepository.buscarParaModificar(carritoId, itemId));
+        String checkout = sentenciaDe(() -> checkoutRepository.buscarParaModificar(carritoId));
+        String reserva = sentenciaDe(() -> checkoutRepository.registrarReserva(carritoId, 1, "reserva-plan", 0));
+        String olvidar = sentenciaDe(() -> checkoutRepository.olvidarReserva(carritoId, 1, "reserva-plan"));
+        String confirmar = sentenciaDe(() -> checkoutRepository.confirmar(carritoId, 1, "P-1", 2997, 3));
+        String fallido = sentenciaDe(() -> checkoutRepository.marcarFallido(carritoId, 1, "sin stock"));
+
+        // Assert: el item y su carrito se leen por clave primaria
+        String planItem = plan(item);
+        assertEquals(2, planItem.split("primary_key").length - 1, () -> "Plan:\n" + planItem);
+        assertUsaIndice("primary_key", planItem);
+        assertUsaIndice("primary_key", plan(checkout));
+        assertUsaIndice("primary_key", plan(reserva));
+        assertUsaIndice("primary_key", plan(olvidar));
+        assertUsaIndice("primary_key", plan(confirmar));
+        assertUsaIndice("primary_key", plan(fallido));
+    }
+}
@@ -1,7 +1,10 @@
 package com.perfulandia.carritoservice.service;
 
 import com.perfulandia.carritoservice.model.Carrito;
+import com.perfulandia.carritoservice.model.EstadoCarrito;
 import com.perfulandia.carritoservice.model.ItemCarrito;
+import com.perfulandia.carritoservice.model.LineaLote;
+import com.perfulandia.carritoservice.precios.ReplicaPrecios;
 import com.perfulandia.carritoservice.repository.CarritoRepository;
 import com.perfulandia.carritoservice.repository.ItemCarritoRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,10 +16,13 @@ import org.mockito.MockitoAnnotations;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 public class CarritoServiceTest {
@@ -27,6 +33,9 @@ public class CarritoServiceTest {
     @Mock
     private ItemCarritoRepository itemCarritoRepository;
 
+    @Mock
+    private ReplicaPrecios precios;
+
     @InjectMocks
     private CarritoService service;
 
@@ -36,12 +45,17 @@ public class CarritoServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Por defecto la copia de precios acepta el precio enviado
+        when(precios.precioParaAgregar(anyLong(), any())).thenAnswer(invocacion -> invocacion.getArgument(1));
+        when(precios.preciosParaAgregar(any())).thenAnswer(invocacion -> invocacion.getArgument(0));
+        // El carrito sigue activo al ajustar sus totales
+        when(carritoRepository.ajustarTotales(anyLong(), anyLong(), anyInt())).thenReturn(1);
         
         carrito = Carrito.builder()
                 .id(1L)
                 .usuarioId(1L)
                 .fechaCreacion(LocalDateTime.now())
-                .estado("ACTIVO")
+                .estado(EstadoCarrito.ACTIVO)
                 .build();
 
         itemCarrito = ItemCarrito.builder()
@@ -65,15 +79,28 @@ public class CarritoServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(usuarioId, result.getUsuarioId());
-        assertEquals("ACTIVO", result.getEstado());
+        assertEquals(EstadoCarrito.ACTIVO, result.getEstado());
         verify(carritoRepository).save(any(Carrito.class));
     }
 
+    @Test
+    void testCrearCarrito_YaTieneActivo() {
+        // Arrange
+        when(carritoRepository.findByUsuarioIdAndEstado(1L, EstadoCarrito.ACTIVO)).thenReturn(carrito);
+
+        // Act
+        Carrito result = service.crearCarrito(1L);
+
+        // Assert: se retorna el carrito activo existente sin crear otro
+        assertSame(carrito, result);
+        verify(carritoRepository, never()).save(any(Carrito.class));
+    }
+
     @Test
     void testObtenerCarritoActivo() {
         // Arrange
         Long usuarioId = 1L;
-        when(carritoRepository.findByUsuarioIdAndEstado(usuarioId, "ACTIVO"))
+        when(carritoRepository.findByUsuarioIdAndEstado(usuarioId, EstadoCarrito.ACTIVO))
                 .thenReturn(carrito);
 
         // Act
@@ -82,7 +109,7 @@ public class CarritoServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(usuarioId, result.getUsuarioId());
-        verify(carritoRepository).findByUsuarioIdAndEstado(usuarioId, "ACTIVO");
+        verify(carritoRepository).findByUsuarioIdAndEstado(usuarioId, EstadoCarrito.ACTIVO);
     }
 
     @Test
@@ -94,7 +121,7 @@ public class CarritoServiceTest {
         Double precioUnitario = 29.99;
 
         when(carritoRepository.findById(carritoId)).thenReturn(Optional.of(carrito));
-        when(itemCarritoRepository.save(any(ItemCarrito.class))).thenReturn(itemCarrito);
+        when(itemCarritoRepository.findByCarritoIdAndProductoId(carritoId, productoId)).thenReturn(itemCarrito);
 
         // Act
         ItemCarrito result = service.agregarItem(carritoId, productoId, cantidad, precioUnitario);
@@ -105,7 +132,24 @@ public class CarritoServiceTest {
         assertEquals(cantidad, result.getCantidad());
         assertEquals(precioUnitario, result.getPrecioUnitario());
         verify(carritoRepository).findById(carritoId);
-        verify(itemCarritoRepository).save(any(ItemCarrito.class));
+        verify(itemCarritoRepository).sumarOInsertar(carritoId, productoId, cantidad, precioUnitario);
+        // 2 x 29,99 = 5998 centavos y 2 unidades
+        verify(carritoRepository).ajustarTotales(carritoId, 5998L, 2);
+    }
+
+    @Test
+    void testAgregarItem_PrecioVigente() {
+        // Arrange: el cliente envía 19,99 pero el precio vigente es 29,99
+        when(precios.precioParaAgregar(1L, 19.99)).thenReturn(29.99);
+        when(carritoRepository.findById(1L)).thenReturn(Optional.of(carrito));
+        when(itemCarritoRepository.findByCarritoIdAndProductoId(1L, 1L)).thenReturn(itemCarrito);
+
+        // Act
+        service.agregarItem(1L, 1L, 2, 19.99);
+
+        // Assert: se guarda y se suma al total con el precio vigente
+        verify(itemCarritoRepository).sumarOInsertar(1L, 1L, 2, 29.99);
+        verify(carritoRepository).ajustarTotales(1L, 5998L, 2);
     }
 
     @Test
@@ -119,7 +163,26 @@ public class CarritoServiceTest {
             service.agregarItem(carritoId, 1L, 1, 10.0);
         });
         verify(carritoRepository).findById(carritoId);
-        verify(itemCarritoRepository, never()).save(any(ItemCarrito.class));
+        verify(itemCarritoRepository, never()).sumarOInsertar(anyLong(), anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void testAgregarItemsLote() {
+        // Arrange: el producto 1 se repite en el lote y ya está en el carrito a 29,99
+        ItemCarrito nuevo = ItemCarrito.builder().id(2L).carrito(carrito).productoId(2L).cantidad(1).precioUnitario(5.0).build();
+        when(carritoRepository.findById(1L)).thenReturn(Optional.of(carrito));
+        when(itemCarritoRepository.findByCarritoIdAndProductoIdIn(eq(1L), anyCollection()))
+                .thenReturn(List.of(itemCarrito, nuevo));
+        List<LineaLote> lineas = List.of(new LineaLote(1L, 1, 35.0), new LineaLote(2L, 1, 5.0), new LineaLote(1L, 2, 35.0));
+
+        // Act
+        List<ItemCarrito> result = service.agregarItems(1L, lineas);
+
+        // Assert: una línea por producto en un solo lote y un solo ajuste del total
+        assertEquals(2, result.size());
+        verify(itemCarritoRepository).sumarOInsertarLote(1L,
+                List.of(new LineaLote(1L, 3, 35.0), new LineaLote(2L, 1, 5.0)));
+        verify(carritoRepository).ajustarTotales(1L, 2999L * 3 + 500L, 4);
     }
 
     @Test
@@ -150,7 +213,7 @@ public class CarritoServiceTest {
         service.completarCarrito(carritoId);
 
         // Assert
-        assertEquals("COMPLETADO", carrito.getEstado());
+        assertEquals(EstadoCarrito.COMPLETADO, carrito.getEstado());
         verify(carritoRepository).findById(carritoId);
         verify(carritoRepository).save(carrito);
     }
@@ -168,4 +231,52 @@ public class CarritoServiceTest {
         verify(carritoRepository).findById(carritoId);
         verify(carritoRepository, never()).save(any(Carrito.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testCompletarCarrito_CarritoNoActivo() {
+        // Arrange
+        Long carritoId = 1L;
+        carrito.setEstado(EstadoCarrito.COMPLETADO);
+        when(carritoRepository.findById(carritoId)).thenReturn(Optional.of(carrito));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> service.completarCarrito(carritoId));
+        verify(carritoRepository, never()).save(any(Carrito.class));
+    }
+
+    @Test
+    void testActualizarCantidad() {
+        // Arrange
+        when(itemCarritoRepository.buscarParaModificar(1L, 1L)).thenReturn(Optional.of(itemCarrito));
+
+        // Act
+        ItemCarrito result = service.actualizarCantidad(1L, 1L, 5);
+
+        // Assert: de 2 a 5 unidades de 29,99 suma 3 unidades y 8997 centavos
+        assertEquals(5, result.getCantidad());
+        verify(carritoRepository).ajustarTotales(1L, 8997L, 3);
+    }
+
+    @Test
+    void testEliminarItem() {
+        // Arrange
+        when(itemCarritoRepository.buscarParaModificar(1L, 1L)).thenReturn(Optional.of(itemCarrito));
+
+        // Act
+        service.eliminarItem(1L, 1L);
+
+        // Assert
+        verify(itemCarritoRepository).delete(itemCarrito);
+        verify(carritoRepository).ajustarTotales(1L, -5998L, -2);
+    }
+
+    @Test
+    void testEliminarItem_ItemNoExiste() {
+        // Arrange
+        when(itemCarritoRepository.buscarParaModificar(1L, 99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> service.eliminarItem(1L, 99L));
+        verify(carritoRepository, never()).ajustarTotales(anyLong(), anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,78 @@
+package com.perfulandia.carritoservice.trazas;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Verifica que las peticiones se tracen continuando la traza recibida en
+ * el header traceparent, con spans de las consultas JDBC, y que
+ * /actuator/trazas (de perf-runtime) muestre su desglose.
+ */
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=health,trazas",
+        "management.tracing.sampling.probability=1.0",
+        "trazas.recientes.maximo=50"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class TrazasTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String SPAN_REMOTO = "00f067aa0ba902b7";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SdkTracerProvider proveedorSpans;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Testing Trazas 1 - Continúa la traza del header traceparent con spans JDBC")
+    void testTrazaDePeticion() throws Exception {
+        // Arrange
+        String traceparent = "00-" + TRACE_ID + "-" + SPAN_REMOTO + "-01";
+
+        // Act
+        mockMvc.perform(post("/api/carrito/usuario/7171").header("traceparent", traceparent))
+                .andExpect(status().isOk());
+        proveedorSpans.forceFlush().join(10, TimeUnit.SECONDS);
+        String respuesta = mockMvc.perform(get("/actuator/trazas/" + TRACE_ID))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        JsonNode traza = objectMapper.readTree(respuesta);
+        assertEquals(TRACE_ID, traza.get("traceId").asText());
+        JsonNode servidor = traza.get("spans").get(0);
+        assertEquals("SERVER", servidor.get("tipo").asText());
+        assertEquals(SPAN_REMOTO, servidor.get("padreId").asText());
+        boolean conConsulta = false;
+        for (JsonNode span : traza.get("spans")) {
+            conConsulta |= span.get("nombre").asText().equals("query");
+        }
+        assertTrue(conConsulta, "La traza debe incluir spans de las consultas JDBC");
+
+        mockMvc.perform(get("/actuator/trazas").param("limite", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/actuator/trazas/ffffffffffffffffffffffffffffffff"))
+                .andExpect(status().isNotFound());
+    }
+}
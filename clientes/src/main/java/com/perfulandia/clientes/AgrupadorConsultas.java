@@ -0,0 +1,137 @@
+package com.perfulandia.clientes;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Agrupa en un solo lote las cargas que llegan dentro de una ventana corta
+ *
+ * Cuando varios hilos buscan un ID cada uno al mismo tiempo (por ejemplo,
+ * los hilos que despachan emails), cada búsqueda sería una llamada HTTP.
+ * Con el agrupador, la primera carga abre un lote y espera la ventana
+ * configurada; las cargas que llegan mientras tanto se suman al lote y
+ * todas reciben su resultado de una sola llamada al cargador. Si el lote
+ * alcanza el tamaño máximo se envía sin esperar el resto de la ventana.
+ *
+ * No usa hilos propios: el hilo que abre el lote es el que hace la
+ * llamada, y el resto espera su resultado. Una ventana de 0 desactiva el
+ * agrupamiento.
+ *
+ * @param <K> Tipo de la clave (normalmente el ID)
+ * @param <V> Tipo del valor
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class AgrupadorConsultas<K, V> {
+
+    private final Function<Set<K>, Map<K, V>> cargador;
+    private final long ventanaNanos;
+    private final int tamanoMaximo;
+
+    // Lote que todavía acepta claves (null si no hay ninguno abierto)
+    private Lote<K, V> abierto;
+
+    /**
+     * @param cargador Función que obtiene del servicio remoto un lote de claves
+     * @param ventanaMs Tiempo que espera un lote a otras cargas antes de enviarse
+     * @param tamanoMaximo Cantidad de claves con la que el lote se envía sin esperar
+     */
+    public AgrupadorConsultas(Function<Set<K>, Map<K, V>> cargador, long ventanaMs, int tamanoMaximo) {
+        this.cargador = cargador;
+        this.ventanaNanos = TimeUnit.MILLISECONDS.toNanos(ventanaMs);
+        this.tamanoMaximo = tamanoMaximo;
+    }
+
+    /**
+     * Carga las claves, sumándolas al lote abierto si lo hay
+     *
+     * @param claves Claves a cargar
+     * @return Mapa con los valores encontrados (las claves desconocidas se omiten)
+     * @throws RuntimeException si la llamada del lote falla
+     */
+    public Map<K, V> cargar(Set<K> claves) {
+        if (ventanaNanos <= 0 || claves.size() >= tamanoMaximo) {
+            // Ya es un lote completo: no vale la pena esperar a otras cargas
+            return cargador.apply(claves);
+        }
+
+        Lote<K, V> lote;
+        boolean lider;
+        synchronized (this) {
+            lider = abierto == null;
+            if (lider) {
+                abierto = new Lote<>();
+            }
+            lote = abierto;
+            lote.claves.addAll(claves);
+            if (lote.claves.size() >= tamanoMaximo) {
+                abierto = null;
+                lote.lleno.countDown();
+            }
+        }
+
+        if (lider) {
+            enviar(lote);
+        }
+        Map<K, V> todos = esperar(lote.resultado);
+        Map<K, V> propios = new HashMap<>();
+        for (K clave : claves) {
+            V valor = todos.get(clave);
+            if (valor != null) {
+                propios.put(clave, valor);
+            }
+        }
+        return propios;
+    }
+
+    /**
+     * Espera la ventana (o a que el lote se llene), lo cierra y hace la llamada
+     */
+    private void enviar(Lote<K, V> lote) {
+        try {
+            lote.lleno.await(ventanaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Set<K> claves;
+        synchronized (this) {
+            if (abierto == lote) {
+                abierto = null;
+            }
+            claves = lote.claves;
+        }
+        try {
+            lote.resultado.complete(cargador.apply(claves));
+        } catch (RuntimeException e) {
+            lote.resultado.completeExceptionally(e);
+        }
+    }
+
+    private static <K, V> Map<K, V> esperar(CompletableFuture<Map<K, V>> resultado) {
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Claves acumuladas de un lote y el resultado que comparten
+     */
+    private static final class Lote<K, V> {
+        private final Set<K> claves = new LinkedHashSet<>();
+        private final CountDownLatch lleno = new CountDownLatch(1);
+        private final CompletableFuture<Map<K, V>> resultado = new CompletableFuture<>();
+    }
+}
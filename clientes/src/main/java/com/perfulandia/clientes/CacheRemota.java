@@ -0,0 +1,324 @@
+package com.perfulandia.clientes;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché en memoria para datos obtenidos de otro microservicio
+ *
+ * Evita que una ola de consultas (por ejemplo, las confirmaciones de una
+ * venta masiva en emailservice) se convierta en una llamada HTTP por cada
+ * consulta:
+ *
+ * - TTL: un valor se considera fresco durante el tiempo configurado
+ * - Stale-while-revalidate: pasado el TTL, el valor se sigue entregando
+ *   durante la ventana de obsolescencia mientras se recarga en segundo plano
+ * - Coalescencia: si varios hilos piden la misma clave ausente al mismo
+ *   tiempo, solo uno hace la llamada remota y el resto espera su resultado
+ * - Lotes: las claves ausentes de una consulta múltiple se cargan con una
+ *   sola llamada al cargador
+ *
+ * Las claves que el servicio remoto no conoce no se guardan en la caché.
+ * Al llegar al máximo de entradas, cada valor nuevo reemplaza al que se
+ * cargó (o recargó) hace más tiempo: las claves que se siguen consultando
+ * se recargan y pasan al final, así que se descartan primero las que ya
+ * nadie pide.
+ * Cuenta los aciertos (valores entregados desde la caché, frescos o
+ * vencidos) y los fallos (claves que hubo que cargar) para las métricas.
+ *
+ * @param <K> Tipo de la clave (normalmente el ID)
+ * @param <V> Tipo del valor
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Slf4j // Genera un logger para registrar fallos de recarga en segundo plano
+public class CacheRemota<K, V> {
+
+    private final Function<Set<K>, Map<K, V>> cargador;
+    private final long ttlNanos;
+    private final long obsoletoNanos;
+    private final int maximoEntradas;
+    private final Executor recargas;
+    private final LongSupplier reloj;
+
+    private final Map<K, Entrada<V>> entradas = new ConcurrentHashMap<>();
+    // Claves en orden de carga: la primera es la que se cargó hace más tiempo.
+    // Solo se modifica al escribir en entradas, que se hace con este lock; las lecturas no lo toman
+    private final Set<K> ordenCarga = new LinkedHashSet<>();
+    private final Map<K, CompletableFuture<V>> enVuelo = new ConcurrentHashMap<>();
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+
+    /**
+     * Crea una caché con su propio hilo de recarga en segundo plano
+     *
+     * @param nombre Nombre usado para el hilo de recarga
+     * @param cargador Función que obtiene del servicio remoto un lote de claves
+     * @param ttlSegundos Tiempo durante el cual un valor es fresco
+     * @param obsoletoSegundos Tiempo adicional durante el cual se entrega un valor vencido mientras se recarga
+     * @param maximoEntradas Cantidad máxima de valores guardados
+     */
+    public CacheRemota(String nombre, Function<Set<K>, Map<K, V>> cargador,
+                       long ttlSegundos, long obsoletoSegundos, int maximoEntradas) {
+        this(cargador, ttlSegundos, obsoletoSegundos, maximoEntradas,
+                Executors.newSingleThreadExecutor(tarea -> {
+                    Thread hilo = new Thread(tarea, "cache-" + nombre);
+                    hilo.setDaemon(true);
+                    return hilo;
+                }),
+                System::nanoTime);
+    }
+
+    /**
+     * Constructor completo que permite inyectar el ejecutor y el reloj (usado en tests)
+     */
+    public CacheRemota(Function<Set<K>, Map<K, V>> cargador,
+                       long ttlSegundos, long obsoletoSegundos, int maximoEntradas,
+                       Executor recargas, LongSupplier reloj) {
+        this.cargador = cargador;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSegundos);
+        this.obsoletoNanos = TimeUnit.SECONDS.toNanos(obsoletoSegundos);
+        this.maximoEntradas = maximoEntradas;
+        this.recargas = recargas;
+        this.reloj = reloj;
+    }
+
+    /**
+     * Obtiene un valor por su clave
+     *
+     * @param clave Clave a buscar
+     * @return El valor, o null si el servicio remoto no lo conoce
+     * @throws RuntimeException si la llamada remota falla y no hay un valor utilizable en caché
+     */
+    public V obtener(K clave) {
+        return obtenerVarios(List.of(clave)).get(clave);
+    }
+
+    /**
+     * Obtiene varios valores, cargando los ausentes con una sola llamada remota
+     *
+     * @param claves Claves a buscar
+     * @return Mapa con los valores encontrados (las claves desconocidas se omiten)
+     * @throws RuntimeException si la llamada remota falla y no hay un valor utilizable en caché
+     */
+    public Map<K, V> obtenerVarios(Collection<K> claves) {
+        long ahora = reloj.getAsLong();
+        Map<K, V> resultado = new HashMap<>();
+        Set<K> porCargar = new LinkedHashSet<>();
+        List<K> porRecargar = new ArrayList<>();
+
+        for (K clave : claves) {
+            Entrada<V> entrada = entradas.get(clave);
+            if (entrada == null || ahora - entrada.cargadaEn >= ttlNanos + obsoletoNanos) {
+                porCargar.add(clave);
+                continue;
+            }
+            resultado.put(clave, entrada.valor);
+            if (ahora - entrada.cargadaEn >= ttlNanos) {
+                porRecargar.add(clave);
+            }
+        }
+
+        aciertos.add(resultado.size());
+        if (!porRecargar.isEmpty()) {
+            recargarEnSegundoPlano(porRecargar);
+        }
+        if (!porCargar.isEmpty()) {
+            fallos.add(porCargar.size());
+            resultado.putAll(cargar(porCargar));
+        }
+        return resultado;
+    }
+
+    /**
+     * Elimina un valor de la caché para forzar su recarga en la próxima consulta
+     *
+     * @param clave Clave a invalidar
+     */
+    public void invalidar(K clave) {
+        quitar(clave);
+    }
+
+    /**
+     * Cantidad de valores guardados actualmente
+     */
+    public int tamano() {
+        return entradas.size();
+    }
+
+    /**
+     * Cantidad de claves entregadas desde la caché desde su creación
+     */
+    public long aciertos() {
+        return aciertos.sum();
+    }
+
+    /**
+     * Cantidad de claves que hubo que cargar del servicio remoto desde su creación
+     */
+    public long fallos() {
+        return fallos.sum();
+    }
+
+    /**
+     * Carga las claves ausentes coalesciendo con las cargas que ya están en curso
+     */
+    private Map<K, V> cargar(Set<K> claves) {
+        Map<K, CompletableFuture<V>> propias = new HashMap<>();
+        Map<K, CompletableFuture<V>> ajenas = new HashMap<>();
+        for (K clave : claves) {
+            CompletableFuture<V> nueva = new CompletableFuture<>();
+            CompletableFuture<V> existente = enVuelo.putIfAbsent(clave, nueva);
+            if (existente == null) {
+                propias.put(clave, nueva);
+            } else {
+                ajenas.put(clave, existente);
+            }
+        }
+
+        if (!propias.isEmpty()) {
+            ejecutarCarga(propias);
+        }
+
+        Map<K, V> resultado = new HashMap<>();
+        for (Map.Entry<K, CompletableFuture<V>> pendiente : propias.entrySet()) {
+            agregarSiExiste(resultado, pendiente.getKey(), esperar(pendiente.getValue()));
+        }
+        for (Map.Entry<K, CompletableFuture<V>> pendiente : ajenas.entrySet()) {
+            agregarSiExiste(resultado, pendiente.getKey(), esperar(pendiente.getValue()));
+        }
+        return resultado;
+    }
+
+    /**
+     * Recarga claves vencidas sin bloquear al llamador
+     * Las claves que ya se están cargando se omiten
+     */
+    private void recargarEnSegundoPlano(List<K> claves) {
+        Map<K, CompletableFuture<V>> propias = new HashMap<>();
+        for (K clave : claves) {
+            CompletableFuture<V> nueva = new CompletableFuture<>();
+            if (enVuelo.putIfAbsent(clave, nueva) == null) {
+                propias.put(clave, nueva);
+            }
+        }
+        if (propias.isEmpty()) {
+            return;
+        }
+        try {
+            recargas.execute(() -> {
+                try {
+                    ejecutarCarga(propias);
+                } catch (RuntimeException e) {
+                    log.warn("No se pudo recargar la caché; se mantienen los valores anteriores: {}", e.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            // Ejecutor detenido o saturado: se libera la coalescencia y se reintentará en la próxima consulta
+            propias.forEach((clave, futuro) -> {
+                enVuelo.remove(clave, futuro);
+                futuro.complete(null);
+            });
+        }
+    }
+
+    /**
+     * Llama al cargador, guarda los resultados y completa los futuros de las claves
+     */
+    private void ejecutarCarga(Map<K, CompletableFuture<V>> pendientes) {
+        Map<K, V> cargados;
+        try {
+            cargados = cargador.apply(pendientes.keySet());
+        } catch (RuntimeException e) {
+            pendientes.forEach((clave, futuro) -> {
+                enVuelo.remove(clave, futuro);
+                futuro.completeExceptionally(e);
+            });
+            throw e;
+        }
+
+        long ahora = reloj.getAsLong();
+        pendientes.forEach((clave, futuro) -> {
+            V valor = cargados.get(clave);
+            if (valor != null) {
+                guardar(clave, new Entrada<>(valor, ahora));
+            } else {
+                quitar(clave);
+            }
+            enVuelo.remove(clave, futuro);
+            futuro.complete(valor);
+        });
+    }
+
+    /**
+     * Guarda un valor al final del orden de carga; si la caché está llena,
+     * descarta primero los valores cargados hace más tiempo (O(1) por valor)
+     */
+    private void guardar(K clave, Entrada<V> entrada) {
+        synchronized (ordenCarga) {
+            ordenCarga.remove(clave);
+            Iterator<K> masAntiguas = ordenCarga.iterator();
+            while (ordenCarga.size() >= maximoEntradas && masAntiguas.hasNext()) {
+                entradas.remove(masAntiguas.next());
+                masAntiguas.remove();
+            }
+            ordenCarga.add(clave);
+            entradas.put(clave, entrada);
+        }
+    }
+
+    private void quitar(K clave) {
+        synchronized (ordenCarga) {
+            ordenCarga.remove(clave);
+            entradas.remove(clave);
+        }
+    }
+
+    private V esperar(CompletableFuture<V> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private void agregarSiExiste(Map<K, V> resultado, K clave, V valor) {
+        if (valor != null) {
+            resultado.put(clave, valor);
+        }
+    }
+
+    /**
+     * Valor guardado junto con el instante (reloj monotónico) en que se cargó
+     */
+    private static final class Entrada<V> {
+        private final V valor;
+        private final long cargadaEn;
+
+        private Entrada(V valor, long cargadaEn) {
+            this.valor = valor;
+            this.cargadaEn = cargadaEn;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.perfulandia.clientes;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Cliente de un endpoint de lote de otro microservicio (GET {ruta}?ids=...)
+ *
+ * Combina las tres formas de evitar llamadas remotas:
+ *
+ * - Caché (CacheRemota): los valores se reutilizan durante su TTL y se
+ *   recargan en segundo plano al vencer
+ * - Agrupamiento (AgrupadorConsultas): las búsquedas de un solo ID que
+ *   llegan juntas desde distintos hilos se envían en una sola llamada
+ * - Lotes: las búsquedas de varios IDs se envían de a tamanoLote IDs por
+ *   llamada
+ *
+ * Publica las métricas clientes.cache.consultas (etiqueta resultado:
+ * acierto o fallo), clientes.cache.tamano y clientes.lote.ids (IDs por
+ * llamada), todas con la etiqueta cliente. La latencia de cada llamada
+ * queda en http.client.requests si el RestClient se creó con el builder
+ * de Spring Boot (ver TransporteHttp).
+ *
+ * @param <V> Tipo de la entidad
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class ClienteEntidades<V> {
+
+    private final RestClient rest;
+    private final String rutaLote;
+    private final ParameterizedTypeReference<List<V>> tipoLista;
+    private final Function<V, Long> id;
+    private final int tamanoLote;
+    private final CacheRemota<Long, V> cache;
+    private final DistributionSummary idsPorLlamada;
+
+    /**
+     * @param nombre Nombre del cliente (etiqueta de las métricas y nombre del hilo de recarga)
+     * @param rest Cliente REST hacia el microservicio (con la URL base configurada)
+     * @param rutaLote Ruta del endpoint de lote, por ejemplo /api/usuarios/lote
+     * @param tipoLista Tipo de la lista que devuelve el endpoint
+     * @param id Función que obtiene el ID de una entidad
+     * @param configuracion Caché y agrupamiento
+     * @param registro Registro de métricas
+     */
+    public ClienteEntidades(String nombre, RestClient rest, String rutaLote,
+                            ParameterizedTypeReference<List<V>> tipoLista, Function<V, Long> id,
+                            ConfiguracionCliente configuracion, MeterRegistry registro) {
+        this.rest = rest;
+        this.rutaLote = rutaLote;
+        this.tipoLista = tipoLista;
+        this.id = id;
+        this.tamanoLote = configuracion.getTamanoLote();
+        AgrupadorConsultas<Long, V> agrupador =
+                new AgrupadorConsultas<>(this::cargar, configuracion.getVentanaLoteMs(), configuracion.getTamanoLote());
+        this.cache = new CacheRemota<>(nombre, agrupador::cargar, configuracion.getTtlSegundos(),
+                configuracion.getObsoletoSegundos(), configuracion.getMaximoEntradas());
+
+        FunctionCounter.builder("clientes.cache.consultas", cache, CacheRemota::aciertos)
+                .description("IDs buscados en la caché del cliente")
+                .tags("cliente", nombre, "resultado", "acierto")
+                .register(registro);
+        FunctionCounter.builder("clientes.cache.consultas", cache, CacheRemota::fallos)
+                .description("IDs buscados en la caché del cliente")
+                .tags("cliente", nombre, "resultado", "fallo")
+                .register(registro);
+        Gauge.builder("clientes.cache.tamano", cache, CacheRemota::tamano)
+                .description("Valores guardados en la caché del cliente")
+                .tag("cliente", nombre)
+                .register(registro);
+        this.idsPorLlamada = DistributionSummary.builder("clientes.lote.ids")
+                .description("IDs pedidos en cada llamada al endpoint de lote")
+                .tag("cliente", nombre)
+                .register(registro);
+    }
+
+    /**
+     * Busca una entidad por su ID
+     *
+     * @param id ID de la entidad
+     * @return Optional con la entidad, vacío si el microservicio no la conoce
+     * @throws org.springframework.web.client.RestClientException si el microservicio falla y no hay un valor en caché
+     */
+    public Optional<V> buscar(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.obtener(id));
+    }
+
+    /**
+     * Busca varias entidades, pidiendo las ausentes en lotes
+     *
+     * @param ids IDs de las entidades
+     * @return Mapa de ID a entidad con las entidades encontradas
+     * @throws org.springframework.web.client.RestClientException si el microservicio falla y no hay un valor en caché
+     */
+    public Map<Long, V> buscarVarios(Collection<Long> ids) {
+        return cache.obtenerVarios(ids);
+    }
+
+    /**
+     * Elimina una entidad de la caché para que la próxima búsqueda la pida de nuevo
+     *
+     * @param id ID de la entidad
+     */
+    public void invalidar(Long id) {
+        cache.invalidar(id);
+    }
+
+    /**
+     * Cargador de la caché: consulta el endpoint de lote en bloques de tamanoLote
+     */
+    private Map<Long, V> cargar(Set<Long> ids) {
+        Map<Long, V> encontrados = new HashMap<>();
+        List<Long> pendientes = new ArrayList<>(ids);
+        for (int desde = 0; desde < pendientes.size(); desde += tamanoLote) {
+            List<Long> bloque = pendientes.subList(desde, Math.min(desde + tamanoLote, pendientes.size()));
+            idsPorLlamada.record(bloque.size());
+            List<V> respuesta = rest.get()
+                    .uri(uri -> uri.path(rutaLote).queryParam("ids", bloque).build())
+                    .retrieve()
+                    .body(tipoLista);
+            if (respuesta != null) {
+                for (V entidad : respuesta) {
+                    encontrados.put(id.apply(entidad), entidad);
+                }
+            }
+        }
+        return encontrados;
+    }
+}
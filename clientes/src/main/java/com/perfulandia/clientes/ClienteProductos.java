@@ -0,0 +1,32 @@
+package com.perfulandia.clientes;
+
+import com.perfulandia.clientes.model.Producto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+/**
+ * Cliente del microservicio de productos (GET /api/productos/lote)
+ *
+ * El stock cambia con cada venta: conviene configurarlo con un TTL corto.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class ClienteProductos extends ClienteEntidades<Producto> {
+
+    private static final ParameterizedTypeReference<List<Producto>> LISTA_PRODUCTOS =
+            new ParameterizedTypeReference<>() { };
+
+    /**
+     * @param rest Cliente REST con la URL base del microservicio de productos
+     * @param configuracion Caché y agrupamiento
+     * @param registro Registro de métricas
+     */
+    public ClienteProductos(RestClient rest, ConfiguracionCliente configuracion, MeterRegistry registro) {
+        super("productos", rest, "/api/productos/lote", LISTA_PRODUCTOS, Producto::getId, configuracion, registro);
+    }
+}
@@ -0,0 +1,30 @@
+package com.perfulandia.clientes;
+
+import com.perfulandia.clientes.model.Usuario;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+/**
+ * Cliente del microservicio de usuarios (GET /api/usuarios/lote)
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class ClienteUsuarios extends ClienteEntidades<Usuario> {
+
+    private static final ParameterizedTypeReference<List<Usuario>> LISTA_USUARIOS =
+            new ParameterizedTypeReference<>() { };
+
+    /**
+     * @param rest Cliente REST con la URL base del microservicio de usuarios
+     * @param configuracion Caché y agrupamiento
+     * @param registro Registro de métricas
+     */
+    public ClienteUsuarios(RestClient rest, ConfiguracionCliente configuracion, MeterRegistry registro) {
+        super("usuarios", rest, "/api/usuarios/lote", LISTA_USUARIOS, Usuario::getId, configuracion, registro);
+    }
+}
@@ -0,0 +1,50 @@
+package com.perfulandia.clientes;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Configuración de la caché y del agrupamiento de un cliente de entidades
+ *
+ * Los valores por defecto sirven para datos que cambian poco (usuarios);
+ * para datos que cambian seguido, como el stock de los productos,
+ * conviene un TTL menor.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Getter // Genera los getters de la configuración
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class ConfiguracionCliente {
+
+    /**
+     * Tiempo durante el cual un valor es fresco
+     */
+    @Builder.Default
+    private final long ttlSegundos = 60;
+
+    /**
+     * Tiempo adicional durante el cual se entrega un valor vencido mientras se recarga
+     */
+    @Builder.Default
+    private final long obsoletoSegundos = 600;
+
+    /**
+     * Cantidad máxima de valores guardados en la caché
+     */
+    @Builder.Default
+    private final int maximoEntradas = 10000;
+
+    /**
+     * Tiempo que espera una búsqueda a otras para enviarlas juntas (0 = sin espera)
+     */
+    @Builder.Default
+    private final long ventanaLoteMs = 2;
+
+    /**
+     * Cantidad máxima de IDs por llamada al endpoint de lote
+     */
+    @Builder.Default
+    private final int tamanoLote = 100;
+}
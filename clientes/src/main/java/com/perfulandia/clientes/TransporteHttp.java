@@ -0,0 +1,67 @@
+package com.perfulandia.clientes;
+
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Transporte HTTP común de los clientes entre microservicios
+ *
+ * Todos los clientes de un servicio comparten un único
+ * java.net.http.HttpClient, que mantiene un pool de conexiones
+ * persistentes (keep-alive) por servidor: las llamadas reutilizan las
+ * conexiones abiertas en lugar de abrir una conexión TCP nueva cada vez.
+ *
+ * Con HTTP/2 todas las llamadas a un mismo servidor comparten una sola
+ * conexión. Sin TLS requiere que el servidor acepte h2c
+ * (server.http2.enabled=true); si no lo acepta, el HttpClient sigue con
+ * HTTP/1.1.
+ *
+ * Los RestClient se crean a partir del RestClient.Builder de Spring Boot,
+ * así cada llamada queda medida en http.client.requests y lleva el
+ * contexto de la traza.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public final class TransporteHttp {
+
+    private TransporteHttp() {
+    }
+
+    /**
+     * Crea el cliente HTTP compartido con pool de conexiones
+     *
+     * @param timeoutConexionMs Tiempo máximo para establecer una conexión
+     * @param http2 true para usar HTTP/2, false para HTTP/1.1
+     * @return HttpClient del JDK reutilizable entre hilos
+     */
+    public static HttpClient crearHttpClient(long timeoutConexionMs, boolean http2) {
+        return HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(timeoutConexionMs))
+                .build();
+    }
+
+    /**
+     * Crea un RestClient hacia un microservicio sobre el cliente HTTP compartido
+     *
+     * @param builder Builder configurado por Spring Boot (se clona, no se modifica)
+     * @param httpClient Cliente HTTP compartido
+     * @param url URL base del microservicio
+     * @param timeoutLecturaMs Tiempo máximo de espera de la respuesta
+     * @return RestClient listo para usar
+     */
+    public static RestClient crearRestClient(RestClient.Builder builder, HttpClient httpClient,
+                                             String url, long timeoutLecturaMs) {
+        JdkClientHttpRequestFactory fabrica = new JdkClientHttpRequestFactory(httpClient);
+        fabrica.setReadTimeout(Duration.ofMillis(timeoutLecturaMs));
+        return builder.clone()
+                .baseUrl(url)
+                .requestFactory(fabrica)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.perfulandia.clientes.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+/**
+ * Modelo de datos de un producto tal como lo entrega productservice
+ *
+ * Lo entrega ClienteProductos a los servicios que consultan productos
+ * (GET /api/productos/lote).
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+@JsonIgnoreProperties(ignoreUnknown = true) // Tolera campos nuevos en productservice
+public class Producto {
+
+    /**
+     * Identificador único del producto
+     */
+    private Long id;
+
+    /**
+     * Nombre del producto
+     */
+    private String nombre;
+
+    /**
+     * Descripción del producto
+     */
+    private String descripcion;
+
+    /**
+     * Precio unitario del producto
+     */
+    private Double precio;
+
+    /**
+     * Cantidad disponible en inventario
+     */
+    private Integer stock;
+}
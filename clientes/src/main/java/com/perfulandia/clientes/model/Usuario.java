@@ -0,0 +1,42 @@
+package com.perfulandia.clientes.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+/**
+ * Modelo de datos de un usuario tal como lo entrega usuarioservice
+ *
+ * Lo entrega ClienteUsuarios a los servicios que consultan usuarios
+ * (GET /api/usuarios/lote).
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+@JsonIgnoreProperties(ignoreUnknown = true) // Tolera campos nuevos en usuarioservice
+public class Usuario {
+
+    /**
+     * Identificador único del usuario
+     */
+    private Long id;
+
+    /**
+     * Nombre completo del usuario
+     */
+    private String nombre;
+
+    /**
+     * Correo electrónico del usuario
+     */
+    private String correo;
+
+    /**
+     * Rol del usuario en el sistema
+     */
+    private String rol;
+}
@@ -0,0 +1,91 @@
+package com.perfulandia.clientes;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AgrupadorConsultasTest {
+
+    private final List<Set<Long>> llamadas = new CopyOnWriteArrayList<>();
+
+    private final Function<Set<Long>, Map<Long, String>> cargador = claves -> {
+        llamadas.add(Set.copyOf(claves));
+        Map<Long, String> valores = new HashMap<>();
+        claves.stream().filter(clave -> clave != 99L).forEach(clave -> valores.put(clave, "valor-" + clave));
+        return valores;
+    };
+
+    @Test
+    @DisplayName("Testing Agrupador 1 - Búsquedas simultáneas de un ID salen en una sola llamada")
+    void testAgrupaBusquedasSimultaneas() throws Exception {
+        // Arrange
+        AgrupadorConsultas<Long, String> agrupador = new AgrupadorConsultas<>(cargador, 200, 100);
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Map<Long, String>>> resultados = new ArrayList<>();
+
+        // Act
+        try {
+            for (long id = 1; id <= 8; id++) {
+                long clave = id;
+                resultados.add(hilos.submit(() -> {
+                    largada.await();
+                    return agrupador.cargar(Set.of(clave));
+                }));
+            }
+            largada.countDown();
+
+            // Assert
+            for (int i = 0; i < resultados.size(); i++) {
+                long clave = i + 1;
+                assertEquals(Map.of(clave, "valor-" + clave), resultados.get(i).get());
+            }
+        } finally {
+            hilos.shutdown();
+        }
+        assertEquals(1, llamadas.size());
+        assertEquals(8, llamadas.get(0).size());
+    }
+
+    @Test
+    @DisplayName("Testing Agrupador 2 - Un lote lleno se envía sin esperar la ventana")
+    void testLoteLleno() {
+        // Arrange
+        AgrupadorConsultas<Long, String> agrupador = new AgrupadorConsultas<>(cargador, 60_000, 2);
+
+        // Act
+        long inicio = System.nanoTime();
+        Map<Long, String> valores = agrupador.cargar(Set.of(1L, 2L, 99L));
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        // Assert
+        assertEquals(Map.of(1L, "valor-1", 2L, "valor-2"), valores);
+        assertTrue(duracionMs < 1000, "No debía esperar la ventana: " + duracionMs + " ms");
+    }
+
+    @Test
+    @DisplayName("Testing Agrupador 3 - El error de la llamada llega a todas las búsquedas del lote")
+    void testErrorDelLote() {
+        // Arrange
+        AgrupadorConsultas<Long, String> agrupador = new AgrupadorConsultas<Long, String>(claves -> {
+            throw new IllegalStateException("servicio caído");
+        }, 1, 100);
+
+        // Act & Assert
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> agrupador.cargar(Set.of(1L)));
+        assertEquals("servicio caído", e.getMessage());
+    }
+}
@@ -0,0 +1,164 @@
+package com.perfulandia.clientes;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheRemotaTest {
+
+    private final AtomicLong reloj = new AtomicLong();
+    private final List<Set<Long>> llamadas = new ArrayList<>();
+    private final List<Runnable> recargasPendientes = new ArrayList<>();
+    private CacheRemota<Long, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        // TTL de 10 s, 20 s más de valor obsoleto; las recargas se ejecutan a mano
+        cache = new CacheRemota<>(this::cargar, 10, 20, 100, recargasPendientes::add, reloj::get);
+    }
+
+    private synchronized Map<Long, String> cargar(Set<Long> ids) {
+        llamadas.add(Set.copyOf(ids));
+        Map<Long, String> valores = new HashMap<>();
+        for (Long id : ids) {
+            if (id < 100) {
+                valores.put(id, "valor-" + id + "-" + llamadas.size());
+            }
+        }
+        return valores;
+    }
+
+    private void avanzar(long segundos) {
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(segundos));
+    }
+
+    @Test
+    @DisplayName("Testing Caché 1 - Carga en lote solo las claves ausentes")
+    void testCargaEnLote() {
+        cache.obtener(1L);
+
+        Map<Long, String> valores = cache.obtenerVarios(List.of(1L, 2L, 3L, 500L));
+
+        assertEquals(2, llamadas.size());
+        assertEquals(Set.of(2L, 3L, 500L), llamadas.get(1));
+        assertEquals(3, valores.size());
+        assertEquals("valor-1-1", valores.get(1L));
+        assertNull(cache.obtener(500L));
+    }
+
+    @Test
+    @DisplayName("Testing Caché 2 - Entrega el valor vencido y lo recarga en segundo plano")
+    void testStaleWhileRevalidate() {
+        assertEquals("valor-1-1", cache.obtener(1L));
+
+        avanzar(15);
+        assertEquals("valor-1-1", cache.obtener(1L));
+        assertEquals(1, llamadas.size());
+        assertEquals(1, recargasPendientes.size());
+
+        // Mientras la recarga está pendiente no se programa otra para la misma clave
+        cache.obtener(1L);
+        assertEquals(1, recargasPendientes.size());
+
+        recargasPendientes.get(0).run();
+        assertEquals("valor-1-2", cache.obtener(1L));
+    }
+
+    @Test
+    @DisplayName("Testing Caché 3 - Pasada la ventana de obsolescencia recarga en primer plano")
+    void testVencidoDefinitivamente() {
+        cache.obtener(1L);
+
+        avanzar(31);
+
+        assertEquals("valor-1-2", cache.obtener(1L));
+        assertTrue(recargasPendientes.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Testing Caché 4 - Consultas simultáneas por la misma clave hacen una sola llamada")
+    void testCoalescencia() throws Exception {
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch dentroDelCargador = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CacheRemota<Long, String> lenta = new CacheRemota<>(ids -> {
+            cargas.incrementAndGet();
+            dentroDelCargador.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Map.of(7L, "siete");
+        }, 10, 20, 100, Runnable::run, System::nanoTime);
+
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> resultados = new ArrayList<>();
+            resultados.add(hilos.submit(() -> lenta.obtener(7L)));
+            assertTrue(dentroDelCargador.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                resultados.add(hilos.submit(() -> lenta.obtener(7L)));
+            }
+            Thread.sleep(50);
+            liberar.countDown();
+
+            for (Future<String> resultado : resultados) {
+                assertEquals("siete", resultado.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, cargas.get());
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Testing Caché 5 - Un error remoto se propaga si no hay valor utilizable")
+    void testErrorRemoto() {
+        CacheRemota<Long, String> fallida = new CacheRemota<>(ids -> {
+            throw new IllegalStateException("Servicio caído");
+        }, 10, 20, 100, Runnable::run, reloj::get);
+
+        assertThrows(IllegalStateException.class, () -> fallida.obtener(1L));
+        // La clave no queda bloqueada por la carga fallida
+        assertThrows(IllegalStateException.class, () -> fallida.obtener(1L));
+    }
+
+    @Test
+    @DisplayName("Testing Caché 6 - Llena, guarda las claves nuevas y descarta las cargadas hace más tiempo")
+    void testCapacidadMaxima() {
+        CacheRemota<Long, String> pequena = new CacheRemota<>(this::cargar, 10, 20, 3, recargasPendientes::add, reloj::get);
+        pequena.obtenerVarios(List.of(1L, 2L, 3L));
+        avanzar(1);
+        pequena.obtener(4L);
+        pequena.obtener(5L);
+
+        // Todas las entradas siguen frescas, pero las claves nuevas quedan en la caché
+        assertEquals(3, pequena.tamano());
+        int llamadasAntes = llamadas.size();
+        Map<Long, String> valores = pequena.obtenerVarios(List.of(3L, 4L, 5L));
+        assertEquals(llamadasAntes, llamadas.size());
+        assertEquals(3, valores.size());
+        assertEquals(3, pequena.aciertos());
+
+        // Las más antiguas (1 y 2) se descartaron y se vuelven a cargar
+        pequena.obtener(1L);
+        assertEquals(Set.of(1L), llamadas.get(llamadas.size() - 1));
+        assertEquals(3, pequena.tamano());
+    }
+}
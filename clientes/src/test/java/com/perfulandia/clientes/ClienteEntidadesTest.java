@@ -0,0 +1,83 @@
+package com.perfulandia.clientes;
+
+import com.perfulandia.clientes.model.Producto;
+import com.perfulandia.clientes.model.Usuario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
+
+public class ClienteEntidadesTest {
+
+    private SimpleMeterRegistry registro;
+
+    @BeforeEach
+    void setUp() {
+        registro = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Testing Cliente Entidades 1 - Pide los productos en bloques y los reutiliza desde la caché")
+    void testLotesYCache() {
+        // Arrange
+        RestClient.Builder builder = RestClient.builder().baseUrl("http://productos");
+        MockRestServiceServer servidor = MockRestServiceServer.bindTo(builder).build();
+        ClienteProductos cliente = new ClienteProductos(builder.build(),
+                ConfiguracionCliente.builder().ventanaLoteMs(0).build(), registro);
+        List<Long> ids = new ArrayList<>(LongStream.rangeClosed(1, 150).boxed().toList());
+        servidor.expect(once(), requestTo(startsWith("http://productos/api/productos/lote?ids=1&ids=2&")))
+                .andRespond(withSuccess("[{\"id\":1,\"nombre\":\"Perfume A\",\"stock\":4}]", MediaType.APPLICATION_JSON));
+        servidor.expect(once(), requestTo("http://productos/api/productos/lote?"
+                        + LongStream.rangeClosed(101, 150).mapToObj(id -> "ids=" + id).collect(Collectors.joining("&"))))
+                .andRespond(withSuccess("[{\"id\":150,\"nombre\":\"Perfume B\",\"stock\":0}]", MediaType.APPLICATION_JSON));
+
+        // Act
+        Map<Long, Producto> productos = cliente.buscarVarios(ids);
+        Producto desdeCache = cliente.buscar(150L).orElseThrow();
+
+        // Assert
+        assertEquals(2, productos.size());
+        assertEquals("Perfume B", desdeCache.getNombre());
+        servidor.verify();
+        assertEquals(1.0, registro.get("clientes.cache.consultas").tag("resultado", "acierto").functionCounter().count());
+        assertEquals(150.0, registro.get("clientes.cache.consultas").tag("resultado", "fallo").functionCounter().count());
+        assertEquals(2, registro.get("clientes.lote.ids").summary().count());
+    }
+
+    @Test
+    @DisplayName("Testing Cliente Entidades 2 - Usuario inexistente y el campo correo del servicio de usuarios")
+    void testUsuario() {
+        // Arrange
+        RestClient.Builder builder = RestClient.builder().baseUrl("http://usuarios");
+        MockRestServiceServer servidor = MockRestServiceServer.bindTo(builder).build();
+        ClienteUsuarios cliente = new ClienteUsuarios(builder.build(), ConfiguracionCliente.builder().build(), registro);
+        servidor.expect(requestTo("http://usuarios/api/usuarios/lote?ids=1"))
+                .andRespond(withSuccess("[{\"id\":1,\"nombre\":\"Juan Pérez\",\"correo\":\"juan@email.com\",\"rol\":\"USUARIO\",\"nuevo\":true}]",
+                        MediaType.APPLICATION_JSON));
+        servidor.expect(requestTo("http://usuarios/api/usuarios/lote?ids=99"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        // Act
+        Usuario usuario = cliente.buscar(1L).orElseThrow();
+
+        // Assert
+        assertEquals("juan@email.com", usuario.getCorreo());
+        assertTrue(cliente.buscar(99L).isEmpty());
+        servidor.verify();
+    }
+}
@@ -0,0 +1,85 @@
+package com.perfulandia.emailservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.perfulandia.emailservice.model.CompraRequest;
+import com.perfulandia.emailservice.model.Producto;
+import com.perfulandia.emailservice.model.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la redacción del email de confirmación de compra (sin encolarlo) y
+ * la serialización JSON de la compra y sus modelos, con pedidos del
+ * tamaño indicado. El ObjectMapper se configura como el de Spring Boot.
+ *
+ * Se ejecuta con el perfil benchmark: mvn -Pbenchmark verify -DskipTests
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmailBenchmark {
+
+    @Param({"3", "30"})
+    private int productos;
+
+    private EmailService emailService;
+    private ObjectMapper objectMapper;
+    private CompraRequest compra;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        emailService = new EmailService();
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<Producto> comprados = new ArrayList<>();
+        double total = 0;
+        for (int i = 0; i < productos; i++) {
+            Producto producto = new Producto(String.valueOf(i), "Perfume Floral " + i, 19.99 + i, 10);
+            comprados.add(producto);
+            total += producto.getPrecio();
+        }
+        compra = CompraRequest.builder()
+                .usuario(new Usuario(1L, "Camila Rojas", "camila.rojas@perfulandia.cl"))
+                .productos(comprados)
+                .numeroPedido("PED-000123")
+                .fechaCompra(LocalDateTime.of(2025, 6, 30, 12, 0))
+                .total(total)
+                .build();
+    }
+
+    @Benchmark
+    public String redactarCompra() {
+        return emailService.redactarCompra(compra);
+    }
+
+    @Benchmark
+    public byte[] serializarCompra() throws Exception {
+        return objectMapper.writeValueAsBytes(compra);
+    }
+
+    @Benchmark
+    public String serializarUsuario() throws Exception {
+        return objectMapper.writeValueAsString(compra.getUsuario());
+    }
+
+    @Benchmark
+    public String serializarProducto() throws Exception {
+        return objectMapper.writeValueAsString(compra.getProductos().get(0));
+    }
+}
@@ -0,0 +1,76 @@
+package com.perfulandia.emailservice.campana;
+
+import com.perfulandia.emailservice.model.ProgresoCampana;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Campaña de emails masivos en curso
+ *
+ * Guarda la plantilla ya compilada y los contadores de progreso. Los
+ * contadores se actualizan desde el hilo que procesa la campaña y se
+ * leen desde las peticiones HTTP de consulta, por eso son atómicos.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Getter // Genera getters para todos los campos
+public class Campana {
+
+    private final Long id;
+    private final String asunto;
+    private final PlantillaCorreo plantilla;
+    private final LocalDateTime creadaEn = LocalDateTime.now();
+
+    private volatile EstadoCampana estado = EstadoCampana.CREADA;
+    private volatile String error;
+    private volatile LocalDateTime finalizadaEn;
+
+    /** Líneas leídas del listado que corresponden a un destinatario */
+    private final AtomicLong leidos = new AtomicLong();
+    /** Emails aceptados por la cola de envío */
+    private final AtomicLong encolados = new AtomicLong();
+    /** IDs que no corresponden a ningún usuario */
+    private final AtomicLong noEncontrados = new AtomicLong();
+    /** Líneas del listado que no se pudieron interpretar */
+    private final AtomicLong invalidos = new AtomicLong();
+
+    public Campana(Long id, String asunto, String plantilla) {
+        this.id = id;
+        this.asunto = asunto;
+        this.plantilla = PlantillaCorreo.compilar(plantilla);
+    }
+
+    public void cambiarEstado(EstadoCampana nuevoEstado) {
+        this.estado = nuevoEstado;
+        if (nuevoEstado == EstadoCampana.COMPLETADA || nuevoEstado == EstadoCampana.FALLIDA) {
+            this.finalizadaEn = LocalDateTime.now();
+        }
+    }
+
+    public void fallar(String mensaje) {
+        this.error = mensaje;
+        cambiarEstado(EstadoCampana.FALLIDA);
+    }
+
+    /**
+     * Genera una foto del progreso para exponer por HTTP
+     */
+    public ProgresoCampana progreso() {
+        return ProgresoCampana.builder()
+                .id(id)
+                .asunto(asunto)
+                .estado(estado)
+                .leidos(leidos.get())
+                .encolados(encolados.get())
+                .noEncontrados(noEncontrados.get())
+                .invalidos(invalidos.get())
+                .error(error)
+                .creadaEn(creadaEn)
+                .finalizadaEn(finalizadaEn)
+                .build();
+    }
+}
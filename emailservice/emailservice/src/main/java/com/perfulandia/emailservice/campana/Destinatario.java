@@ -0,0 +1,47 @@
+package com.perfulandia.emailservice.campana;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Destinatario leído del listado de una campaña
+ *
+ * Puede identificarse por ID de usuario (se resuelve contra el servicio
+ * de usuarios) o directamente por dirección de email, con un nombre
+ * opcional para la personalización.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Getter // Genera getters para todos los campos
+@AllArgsConstructor // Genera constructor con todos los parámetros
+public class Destinatario {
+
+    /**
+     * ID del usuario, o null si el destinatario viene por email
+     */
+    private final Long usuarioId;
+
+    /**
+     * Dirección de email, o null si el destinatario viene por ID
+     */
+    private final String email;
+
+    /**
+     * Nombre para la personalización (opcional)
+     */
+    private final String nombre;
+
+    public static Destinatario porId(Long usuarioId) {
+        return new Destinatario(usuarioId, null, null);
+    }
+
+    public static Destinatario porEmail(String email, String nombre) {
+        return new Destinatario(null, email, nombre);
+    }
+
+    public boolean tieneId() {
+        return usuarioId != null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.perfulandia.emailservice.campana;
+
+/**
+ * Estados por los que pasa una campaña de emails
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public enum EstadoCampana {
+    /** Creada, esperando el listado de destinatarios */
+    CREADA,
+    /** Listado recibido, esperando turno para procesarse */
+    EN_ESPERA,
+    /** Leyendo destinatarios y encolando emails */
+    EN_PROCESO,
+    /** Todos los destinatarios fueron procesados */
+    COMPLETADA,
+    /** El procesamiento se interrumpió por un error */
+    FALLIDA
+}
@@ -0,0 +1,29 @@
+package com.perfulandia.emailservice.campana;
+
+/**
+ * Formatos aceptados para el listado de destinatarios de una campaña
+ *
+ * - NDJSON: un objeto JSON por línea, {"id": 5} o {"email": "...", "nombre": "..."}
+ * - CSV: una fila por línea con ID o email en la primera columna y nombre opcional en la segunda
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public enum FormatoDestinatarios {
+    NDJSON,
+    CSV;
+
+    /**
+     * Determina el formato a partir del Content-Type de la petición
+     *
+     * @param contentType Valor de la cabecera Content-Type (puede ser null)
+     * @return CSV para text/csv; NDJSON en cualquier otro caso
+     */
+    public static FormatoDestinatarios desdeContentType(String contentType) {
+        if (contentType != null && contentType.toLowerCase().startsWith("text/csv")) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+}
@@ -0,0 +1,118 @@
+package com.perfulandia.emailservice.campana;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Lector incremental del listado de destinatarios de una campaña
+ *
+ * Lee el listado línea a línea, por lo que la memoria usada no depende
+ * de la cantidad de destinatarios. Las líneas vacías se ignoran y las
+ * líneas que no se pueden interpretar (incluida la cabecera de un CSV)
+ * se cuentan como inválidas sin detener la lectura.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class LectorDestinatarios {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final BufferedReader lector;
+    private final FormatoDestinatarios formato;
+    private long invalidos;
+
+    public LectorDestinatarios(BufferedReader lector, FormatoDestinatarios formato) {
+        this.lector = lector;
+        this.formato = formato;
+    }
+
+    /**
+     * Lee el siguiente destinatario válido
+     *
+     * @return El destinatario, o null al llegar al final del listado
+     * @throws IOException si falla la lectura
+     */
+    public Destinatario siguiente() throws IOException {
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            linea = linea.trim();
+            if (linea.isEmpty()) {
+                continue;
+            }
+            Destinatario destinatario = formato == FormatoDestinatarios.CSV ? desdeCsv(linea) : desdeJson(linea);
+            if (destinatario != null) {
+                return destinatario;
+            }
+            invalidos++;
+        }
+        return null;
+    }
+
+    /**
+     * Cantidad de líneas descartadas por no poder interpretarse
+     */
+    public long getInvalidos() {
+        return invalidos;
+    }
+
+    private static Destinatario desdeCsv(String linea) {
+        int coma = linea.indexOf(',');
+        String primera = limpiar(coma < 0 ? linea : linea.substring(0, coma));
+        String nombre = coma < 0 ? null : limpiar(linea.substring(coma + 1));
+        return interpretar(primera, nombre == null || nombre.isEmpty() ? null : nombre);
+    }
+
+    private static Destinatario desdeJson(String linea) {
+        try {
+            JsonNode nodo = MAPPER.readTree(linea);
+            if (nodo.isNumber()) {
+                return Destinatario.porId(nodo.asLong());
+            }
+            if (nodo.isTextual()) {
+                return interpretar(nodo.asText().trim(), null);
+            }
+            if (nodo.hasNonNull("id") && nodo.get("id").canConvertToLong()) {
+                return Destinatario.porId(nodo.get("id").asLong());
+            }
+            if (nodo.hasNonNull("email")) {
+                String nombre = nodo.hasNonNull("nombre") ? nodo.get("nombre").asText() : null;
+                return interpretar(nodo.get("email").asText().trim(), nombre);
+            }
+            return null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static Destinatario interpretar(String valor, String nombre) {
+        if (valor.isEmpty()) {
+            return null;
+        }
+        if (valor.chars().allMatch(Character::isDigit)) {
+            try {
+                return Destinatario.porId(Long.parseLong(valor));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        int arroba = valor.indexOf('@');
+        if (arroba > 0 && arroba < valor.length() - 1) {
+            return Destinatario.porEmail(valor, nombre);
+        }
+        return null;
+    }
+
+    private static String limpiar(String valor) {
+        String limpio = valor.trim();
+        if (limpio.length() >= 2 && limpio.startsWith("\"") && limpio.endsWith("\"")) {
+            limpio = limpio.substring(1, limpio.length() - 1).trim();
+        }
+        return limpio;
+    }
+}
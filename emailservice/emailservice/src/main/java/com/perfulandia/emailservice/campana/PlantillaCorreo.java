@@ -0,0 +1,99 @@
+package com.perfulandia.emailservice.campana;
+
+import com.perfulandia.emailservice.model.Usuario;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Plantilla de email con personalización por destinatario
+ *
+ * La plantilla se analiza una sola vez al crear la campaña y se guarda
+ * como una lista de fragmentos (texto fijo y variables), de modo que
+ * renderizarla para cada destinatario solo concatena fragmentos sin
+ * volver a buscar los marcadores en el texto.
+ *
+ * Variables soportadas:
+ * - {primerNombre}: Primer nombre del usuario (Usuario.getPrimerNombre())
+ * - {nombre}: Nombre completo del usuario
+ * - {email}: Dirección de email del usuario
+ *
+ * Los marcadores desconocidos se dejan tal cual en el texto.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public final class PlantillaCorreo {
+
+    private final List<Function<Usuario, String>> fragmentos;
+    private final int largoEstimado;
+
+    private PlantillaCorreo(List<Function<Usuario, String>> fragmentos, int largoEstimado) {
+        this.fragmentos = fragmentos;
+        this.largoEstimado = largoEstimado;
+    }
+
+    /**
+     * Analiza el texto de la plantilla y la deja lista para renderizar
+     *
+     * @param texto Texto con marcadores del tipo {variable}
+     * @return Plantilla compilada
+     */
+    public static PlantillaCorreo compilar(String texto) {
+        List<Function<Usuario, String>> fragmentos = new ArrayList<>();
+        int desde = 0;
+        while (desde < texto.length()) {
+            int abre = texto.indexOf('{', desde);
+            int cierra = abre < 0 ? -1 : texto.indexOf('}', abre);
+            if (cierra < 0) {
+                break;
+            }
+            Function<Usuario, String> variable = variable(texto.substring(abre + 1, cierra));
+            if (variable == null) {
+                // Marcador desconocido: se conserva como texto fijo
+                agregarTexto(fragmentos, texto.substring(desde, cierra + 1));
+            } else {
+                agregarTexto(fragmentos, texto.substring(desde, abre));
+                fragmentos.add(variable);
+            }
+            desde = cierra + 1;
+        }
+        agregarTexto(fragmentos, texto.substring(desde));
+        return new PlantillaCorreo(List.copyOf(fragmentos), texto.length() + 32);
+    }
+
+    /**
+     * Genera el texto personalizado para un destinatario
+     *
+     * @param usuario Destinatario del email
+     * @return Texto con las variables reemplazadas
+     */
+    public String renderizar(Usuario usuario) {
+        StringBuilder resultado = new StringBuilder(largoEstimado);
+        for (Function<Usuario, String> fragmento : fragmentos) {
+            resultado.append(fragmento.apply(usuario));
+        }
+        return resultado.toString();
+    }
+
+    private static Function<Usuario, String> variable(String nombre) {
+        switch (nombre) {
+            case "primerNombre":
+                return Usuario::getPrimerNombre;
+            case "nombre":
+                return usuario -> usuario.getNombre() == null ? "Cliente" : usuario.getNombre();
+            case "email":
+                return Usuario::getEmail;
+            default:
+                return null;
+        }
+    }
+
+    private static void agregarTexto(List<Function<Usuario, String>> fragmentos, String texto) {
+        if (!texto.isEmpty()) {
+            fragmentos.add(usuario -> texto);
+        }
+    }
+}
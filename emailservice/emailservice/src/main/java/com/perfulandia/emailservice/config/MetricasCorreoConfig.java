@@ -0,0 +1,50 @@
+package com.perfulandia.emailservice.config;
+
+import com.perfulandia.emailservice.envio.MedicionEnvioSmtp;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+
+/**
+ * Configuración de la medición de los envíos por SMTP
+ *
+ * Spring Boot no mide JavaMailSender, así que el JavaMailSender que crea
+ * se reemplaza por un proxy que mide sus envíos y los agrega a la traza
+ * actual (ver MedicionEnvioSmtp).
+ * Se hace con un BeanPostProcessor para no redefinir la configuración de
+ * spring.mail.* ni cambiar a quienes inyectan JavaMailSender.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Configuration // Indica que esta clase declara beans de Spring
+public class MetricasCorreoConfig {
+
+    /**
+     * Reemplaza cada JavaMailSender del contexto por un proxy que mide sus envíos
+     *
+     * Es static y recibe el registro como ObjectProvider para que el
+     * BeanPostProcessor se cree antes que el resto de los beans sin forzar
+     * la creación temprana del ObservationRegistry.
+     *
+     * @param registro Registro de observaciones, obtenido recién al envolver
+     * @return BeanPostProcessor que envuelve los JavaMailSender
+     */
+    @Bean // Registra el post-procesador en el contexto
+    public static BeanPostProcessor medicionJavaMailSender(ObjectProvider<ObservationRegistry> registro) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nombre) {
+                if (bean instanceof JavaMailSender mailSender && !AopUtils.isAopProxy(bean)) {
+                    return MedicionEnvioSmtp.medir(mailSender, registro.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package com.perfulandia.emailservice.controller;
+
+import com.perfulandia.emailservice.campana.FormatoDestinatarios;
+import com.perfulandia.emailservice.model.CampanaRequest;
+import com.perfulandia.emailservice.model.ProgresoCampana;
+import com.perfulandia.emailservice.service.CampanaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+
+/**
+ * Controlador REST para el envío de campañas de emails masivos
+ *
+ * Reemplaza el envío uno a uno mediante POST /api/email/enviar cuando
+ * se necesita escribir a muchos clientes. La campaña se crea primero con
+ * su plantilla y luego se le envía el listado de destinatarios en
+ * streaming, como NDJSON (application/x-ndjson) o CSV (text/csv).
+ *
+ * Endpoints disponibles:
+ * - POST /api/email/campanas - Crear campaña (asunto y plantilla)
+ * - POST /api/email/campanas/{id}/destinatarios - Enviar listado de destinatarios
+ * - GET /api/email/campanas/{id} - Consultar progreso de la campaña
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@RestController // Marca esta clase como un controlador REST que devuelve respuestas en formato JSON automáticamente
+@RequestMapping("/api/email/campanas") // Define la ruta base para todos los endpoints
+@RequiredArgsConstructor // Genera un constructor con los campos final (inyección de dependencias)
+public class CampanaController {
+
+    /**
+     * Servicio que gestiona las campañas
+     * Se inyecta automáticamente por Spring usando el constructor
+     */
+    private final CampanaService campanaService;
+
+    /**
+     * Crea una nueva campaña de emails
+     *
+     * @param request Objeto CampanaRequest con asunto y plantilla
+     * @return ResponseEntity con el progreso inicial (201) o error de validación (400)
+     */
+    @PostMapping // Mapea este método a peticiones POST en la ruta base
+    public ResponseEntity<?> crearCampana(@RequestBody CampanaRequest request) { // Extrae el cuerpo de la petición HTTP y lo convierte a CampanaRequest
+        if (!request.tieneCamposObligatorios()) {
+            return ResponseEntity.badRequest()
+                .body("Error: Los campos asunto y plantilla son obligatorios");
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(campanaService.crearCampana(request));
+    }
+
+    /**
+     * Recibe el listado de destinatarios de una campaña
+     *
+     * El cuerpo se lee en streaming; cada línea contiene un ID de usuario
+     * o una dirección de email. La respuesta 202 indica que el listado se
+     * aceptó y que el envío continúa en segundo plano.
+     *
+     * @param id ID de la campaña
+     * @param contentType Tipo del listado: text/csv o application/x-ndjson
+     * @param destinatarios Cuerpo de la petición
+     * @return ResponseEntity con el progreso (202), 404 si no existe o 409 si ya recibió su listado
+     */
+    @PostMapping("/{id}/destinatarios") // Mapea este método a peticiones POST en la ruta especificada
+    public ResponseEntity<?> recibirDestinatarios(@PathVariable Long id, // Extrae el ID de la URL
+                                                  @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                                  InputStream destinatarios) throws IOException {
+        try {
+            ProgresoCampana progreso = campanaService.recibirDestinatarios(
+                id, destinatarios, FormatoDestinatarios.desdeContentType(contentType));
+            return ResponseEntity.accepted().body(progreso);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Consulta el progreso de una campaña
+     *
+     * @param id ID de la campaña
+     * @return ResponseEntity con el progreso o 404 si la campaña no existe
+     */
+    @GetMapping("/{id}") // Mapea este método a peticiones GET en la ruta especificada
+    public ResponseEntity<ProgresoCampana> obtenerProgreso(@PathVariable Long id) { // Extrae el ID de la URL
+        try {
+            return ResponseEntity.ok(campanaService.obtenerProgreso(id));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
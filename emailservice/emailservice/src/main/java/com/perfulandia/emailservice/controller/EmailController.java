@@ -1,9 +1,15 @@
 package com.perfulandia.emailservice.controller;
 
+import com.perfulandia.emailservice.envio.ColaLlenaException;
 import com.perfulandia.emailservice.model.EmailRequest;
 import com.perfulandia.emailservice.model.CompraRequest;
+import com.perfulandia.emailservice.model.EstadisticasEnvio;
+import com.perfulandia.emailservice.model.PedidoRequest;
+import com.perfulandia.emailservice.service.ColaEnvioService;
 import com.perfulandia.emailservice.service.EmailService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,6 +26,11 @@ import java.util.NoSuchElementException;
  * Endpoints disponibles:
  * - POST /api/email/enviar - Enviar email simple
  * - POST /api/email/compra - Enviar email de confirmación de compra
+ * - POST /api/email/compra/pedido - Enviar email de confirmación de un pedido identificado por IDs
+ * - GET /api/email/metricas - Estadísticas de la cola de envío
+ * 
+ * Los emails se encolan y se despachan en segundo plano respetando los
+ * límites de tasa de Gmail; si el carril del email está lleno se responde HTTP 503.
  * 
  * Funcionalidades principales:
  * - Envío de emails de notificación general
@@ -42,6 +53,11 @@ public class EmailController {
      */
     private final EmailService emailService;
     
+    /**
+     * Cola de envío, usada para exponer sus estadísticas
+     */
+    private final ColaEnvioService colaEnvioService;
+    
     /**
      * Envía un email simple con los datos proporcionados
      * 
@@ -70,8 +86,11 @@ public class EmailController {
             // Delegar el envío al servicio
             emailService.enviarCorreo(request);
             
-            return ResponseEntity.ok("Email enviado exitosamente");
+            return ResponseEntity.ok("Email aceptado para envío");
             
+        } catch (ColaLlenaException e) {
+            // La cola está saturada: el cliente debe reintentar más tarde
+            return colaLlena(e);
         } catch (Exception e) {
             // Manejar errores de envío
             return ResponseEntity.internalServerError()
@@ -113,8 +132,11 @@ public class EmailController {
             // Delegar el envío al servicio
             emailService.enviarEmailCompra(request);
             
-            return ResponseEntity.ok("Email de confirmación de compra enviado exitosamente");
+            return ResponseEntity.ok("Email de confirmación de compra aceptado para envío");
             
+        } catch (ColaLlenaException e) {
+            // La cola está saturada: el cliente debe reintentar más tarde
+            return colaLlena(e);
         } catch (Exception e) {
             // Manejar errores de envío
             return ResponseEntity.internalServerError()
@@ -122,6 +144,69 @@ public class EmailController {
         }
     }
     
+    /**
+     * Envía un email de confirmación de un pedido identificado por IDs
+     * 
+     * Lo usa el checkout del carrito después de confirmar el pedido: envía
+     * solo IDs, cantidades y precios, y este servicio resuelve el usuario y
+     * los nombres de los productos.
+     * 
+     * @param request Objeto PedidoRequest con los datos del pedido
+     * @return ResponseEntity<String> con mensaje de confirmación, error 400 si los datos
+     *         son inválidos o error 503 si la cola está llena
+     */
+    @PostMapping("/compra/pedido") // Mapea este método a peticiones POST en la ruta especificada
+    public ResponseEntity<String> enviarEmailPedido(@RequestBody PedidoRequest request) { // Extrae el cuerpo de la petición HTTP y lo convierte a PedidoRequest
+        try {
+            // Validar que la solicitud tenga datos válidos
+            if (!request.tieneDatosValidos()) {
+                return ResponseEntity.badRequest()
+                    .body("Error: Datos del pedido incompletos o inválidos");
+            }
+            
+            // Delegar el envío al servicio
+            emailService.enviarEmailPedido(request);
+            
+            return ResponseEntity.ok("Email de confirmación del pedido aceptado para envío");
+            
+        } catch (ColaLlenaException e) {
+            // La cola está saturada: el cliente debe reintentar más tarde
+            return colaLlena(e);
+        } catch (Exception e) {
+            // Manejar errores de envío
+            return ResponseEntity.internalServerError()
+                .body("Error al enviar email del pedido: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Obtiene las estadísticas de la cola de envío
+     * 
+     * Permite comparar la tasa de emails enviados contra la tasa de
+     * emails diferidos por los límites de Gmail, además de los rechazos
+     * temporales (4xx) y los emails descartados. Incluye, por cada carril
+     * de prioridad, los percentiles de latencia p50/p95/p99 y el porcentaje
+     * de emails enviados dentro de su objetivo.
+     * 
+     * @return ResponseEntity<EstadisticasEnvio> con las métricas actuales
+     */
+    @GetMapping("/metricas") // Mapea este método a peticiones GET en la ruta especificada
+    public ResponseEntity<EstadisticasEnvio> obtenerMetricas() {
+        return ResponseEntity.ok(colaEnvioService.obtenerEstadisticas());
+    }
+    
+    /**
+     * Construye la respuesta HTTP 503 cuando la cola de envío está llena
+     * 
+     * @param e Excepción con el detalle de la capacidad
+     * @return ResponseEntity<String> con estado 503 y cabecera Retry-After
+     */
+    private ResponseEntity<String> colaLlena(ColaLlenaException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "30")
+            .body("Error: " + e.getMessage());
+    }
+    
     /**
      * Endpoint de prueba para verificar que el servicio esté funcionando
      * 
@@ -0,0 +1,127 @@
+package com.perfulandia.emailservice.controller;
+
+import com.perfulandia.emailservice.envio.ColaLlenaException;
+import com.perfulandia.emailservice.model.EnvioFallido;
+import com.perfulandia.emailservice.service.FallidosService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Controlador REST de administración de emails fallidos
+ *
+ * Expone el almacén de fallidos (dead-letter) donde terminan los emails
+ * rechazados con un error permanente o que agotaron sus reintentos, para
+ * poder revisarlos y volver a enviarlos.
+ *
+ * Endpoints disponibles:
+ * - GET /api/email/admin/fallidos?limite=100 - Listar emails fallidos
+ * - GET /api/email/admin/fallidos/{id} - Obtener un email fallido
+ * - POST /api/email/admin/fallidos/{id}/reintentar - Reintentar un email
+ * - POST /api/email/admin/fallidos/reintentar - Reintentar todos
+ * - DELETE /api/email/admin/fallidos/{id} - Descartar un email
+ * - DELETE /api/email/admin/fallidos - Descartar todos
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@RestController // Marca esta clase como un controlador REST que devuelve respuestas en formato JSON automáticamente
+@RequestMapping("/api/email/admin/fallidos") // Define la ruta base para todos los endpoints
+@RequiredArgsConstructor // Genera un constructor con los campos final (inyección de dependencias)
+public class FallidosController {
+
+    /**
+     * Servicio de administración de emails fallidos
+     * Se inyecta automáticamente por Spring usando el constructor
+     */
+    private final FallidosService fallidosService;
+
+    /**
+     * Lista los emails fallidos, los más recientes primero
+     *
+     * @param limite Cantidad máxima de resultados (por defecto 100)
+     * @return ResponseEntity<List<EnvioFallido>> con los emails fallidos
+     */
+    @GetMapping // Mapea este método a peticiones GET en la ruta base
+    public ResponseEntity<List<EnvioFallido>> listar(@RequestParam(defaultValue = "100") int limite) { // Extrae el límite de la URL
+        return ResponseEntity.ok(fallidosService.listar(Math.max(1, limite)));
+    }
+
+    /**
+     * Obtiene un email fallido por su ID
+     *
+     * @param id ID del email fallido
+     * @return ResponseEntity<EnvioFallido> con el email o 404 si no existe
+     */
+    @GetMapping("/{id}") // Mapea este método a peticiones GET en la ruta especificada
+    public ResponseEntity<EnvioFallido> buscar(@PathVariable Long id) { // Extrae el ID de la URL
+        try {
+            return ResponseEntity.ok(fallidosService.buscar(id));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Vuelve a encolar un email fallido
+     *
+     * @param id ID del email fallido
+     * @return ResponseEntity<String> 202 si se encoló, 404 si no existe o 503 si la cola está llena
+     */
+    @PostMapping("/{id}/reintentar") // Mapea este método a peticiones POST en la ruta especificada
+    public ResponseEntity<String> reintentar(@PathVariable Long id) { // Extrae el ID de la URL
+        try {
+            fallidosService.reintentar(id);
+            return ResponseEntity.accepted().body("Email " + id + " encolado nuevamente");
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (ColaLlenaException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Vuelve a encolar todos los emails fallidos
+     *
+     * @return ResponseEntity con la cantidad de emails encolados
+     */
+    @PostMapping("/reintentar") // Mapea este método a peticiones POST en la ruta especificada
+    public ResponseEntity<Map<String, Integer>> reintentarTodos() {
+        return ResponseEntity.accepted().body(Map.of("encolados", fallidosService.reintentarTodos()));
+    }
+
+    /**
+     * Descarta un email fallido
+     *
+     * @param id ID del email fallido
+     * @return ResponseEntity<Void> 204 si se descartó o 404 si no existe
+     */
+    @DeleteMapping("/{id}") // Mapea este método a peticiones DELETE en la ruta especificada
+    public ResponseEntity<Void> eliminar(@PathVariable Long id) { // Extrae el ID de la URL
+        try {
+            fallidosService.eliminar(id);
+            return ResponseEntity.noContent().build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Descarta todos los emails fallidos
+     *
+     * @return ResponseEntity con la cantidad de emails descartados
+     */
+    @DeleteMapping // Mapea este método a peticiones DELETE en la ruta base
+    public ResponseEntity<Map<String, Integer>> eliminarTodos() {
+        return ResponseEntity.ok(Map.of("eliminados", fallidosService.eliminarTodos()));
+    }
+}
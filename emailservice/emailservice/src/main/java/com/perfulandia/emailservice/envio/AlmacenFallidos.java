@@ -0,0 +1,129 @@
+package com.perfulandia.emailservice.envio;
+
+import com.perfulandia.emailservice.model.EnvioFallido;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Almacén en memoria de los emails que no se pudieron enviar (dead-letter)
+ *
+ * Tiene una capacidad máxima: cuando se llena se descarta el email
+ * fallido más antiguo, para que una caída prolongada del servidor SMTP
+ * no agote la memoria del servicio. Los descartes se cuentan en las
+ * métricas de envío.
+ *
+ * Los emails se ordenan por ID (el orden en que fallaron), también los
+ * que se restauran tras un reintento fallido: conservan su antigüedad.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Component // Marca esta clase como un componente de Spring (singleton compartido)
+public class AlmacenFallidos {
+
+    private final int capacidad;
+    private final TreeMap<Long, EnvioFallido> fallidos = new TreeMap<>();
+    private long secuencia;
+    private long descartados;
+
+    @Autowired // Indica a Spring cuál constructor usar para la inyección
+    public AlmacenFallidos(@Value("${email.fallidos.capacidad:10000}") int capacidad) {
+        this.capacidad = capacidad;
+    }
+
+    /**
+     * Guarda un email fallido, descartando el más antiguo si no hay espacio
+     *
+     * @param fallido Datos del email fallido (el ID se asigna aquí)
+     * @return El email fallido con su ID asignado
+     */
+    public synchronized EnvioFallido guardar(EnvioFallido fallido) {
+        fallido.setId(++secuencia);
+        fallidos.put(fallido.getId(), fallido);
+        descartarExcedentes();
+        return fallido;
+    }
+
+    /**
+     * Lista los emails fallidos más recientes primero
+     *
+     * @param limite Cantidad máxima de resultados
+     * @return Lista de emails fallidos
+     */
+    public synchronized List<EnvioFallido> listar(int limite) {
+        List<EnvioFallido> resultado = new ArrayList<>(Math.min(limite, fallidos.size()));
+        for (EnvioFallido fallido : fallidos.descendingMap().values()) {
+            if (resultado.size() >= limite) {
+                break;
+            }
+            resultado.add(fallido);
+        }
+        return resultado;
+    }
+
+    public synchronized Optional<EnvioFallido> buscar(Long id) {
+        return Optional.ofNullable(fallidos.get(id));
+    }
+
+    /**
+     * Retira un email fallido del almacén
+     *
+     * @param id ID del email fallido
+     * @return El email retirado, o vacío si no existe
+     */
+    public synchronized Optional<EnvioFallido> retirar(Long id) {
+        return Optional.ofNullable(fallidos.remove(id));
+    }
+
+    /**
+     * Devuelve al almacén un email retirado que no se pudo volver a encolar
+     * Conserva su ID original y su lugar por antigüedad; si mientras
+     * estaba retirado el almacén se llenó, se descarta el más antiguo
+     * (que puede ser el mismo email restaurado)
+     *
+     * @param fallido Email fallido previamente retirado
+     */
+    public synchronized void restaurar(EnvioFallido fallido) {
+        fallidos.put(fallido.getId(), fallido);
+        descartarExcedentes();
+    }
+
+    /**
+     * Retira todos los emails fallidos del almacén
+     *
+     * @return Los emails retirados, del más antiguo al más reciente
+     */
+    public synchronized List<EnvioFallido> retirarTodos() {
+        List<EnvioFallido> todos = new ArrayList<>(fallidos.values());
+        fallidos.clear();
+        return todos;
+    }
+
+    public synchronized int tamano() {
+        return fallidos.size();
+    }
+
+    /**
+     * Cantidad de emails fallidos descartados por falta de capacidad
+     */
+    public synchronized long getDescartados() {
+        return descartados;
+    }
+
+    /**
+     * Descarta los emails más antiguos que superan la capacidad
+     */
+    private void descartarExcedentes() {
+        while (fallidos.size() > capacidad) {
+            fallidos.pollFirstEntry();
+            descartados++;
+        }
+    }
+}
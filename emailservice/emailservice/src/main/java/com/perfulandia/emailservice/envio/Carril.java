@@ -0,0 +1,22 @@
+package com.perfulandia.emailservice.envio;
+
+/**
+ * Carriles de prioridad de la cola de envío
+ *
+ * Cada email entra a un carril según su origen. Los carriles tienen
+ * colas y capacidades independientes, y los trabajadores los atienden
+ * con un reparto ponderado, de modo que una campaña masiva no retrasa
+ * las confirmaciones de compra.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public enum Carril {
+    /** Confirmaciones de compra: el cliente las espera de inmediato */
+    TRANSACCIONAL,
+    /** Avisos individuales enviados por otros servicios */
+    NOTIFICACION,
+    /** Campañas y envíos de marketing */
+    MASIVO
+}
@@ -0,0 +1,154 @@
+package com.perfulandia.emailservice.envio;
+
+import jakarta.mail.MessagingException;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+
+import java.io.IOException;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Utilidad para interpretar los errores devueltos por el servidor SMTP
+ *
+ * Spring envuelve las excepciones de Jakarta Mail en MailException, y
+ * éstas a su vez encadenan excepciones con el código de respuesta SMTP.
+ * Esta clase recorre toda la cadena de causas para encontrarlo.
+ *
+ * Clasificación de códigos SMTP:
+ * - 4xx: errores temporales (el servidor pide reintentar más tarde)
+ * - 5xx: errores permanentes (dirección inexistente, rechazo de política)
+ *
+ * Cuando no hay código SMTP (por ejemplo, el servidor no respondió) el
+ * tipo de excepción decide: los problemas de red son temporales y los
+ * mensajes mal formados o las credenciales inválidas son permanentes.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public final class ClasificadorErrorSmtp {
+
+    /**
+     * Valor retornado cuando la cadena de excepciones no incluye código SMTP
+     */
+    public static final int SIN_CODIGO = -1;
+
+    private ClasificadorErrorSmtp() {
+    }
+
+    /**
+     * Busca el código de respuesta SMTP dentro de la cadena de excepciones
+     *
+     * @param error Excepción lanzada por JavaMailSender
+     * @return Código SMTP (por ejemplo 421, 450, 550) o SIN_CODIGO si no se encuentra
+     */
+    public static int codigoRespuesta(Throwable error) {
+        Set<Throwable> visitados = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Throwable> pendientes = new ArrayDeque<>();
+        pendientes.push(error);
+
+        while (!pendientes.isEmpty()) {
+            Throwable actual = pendientes.pop();
+            if (!visitados.add(actual)) {
+                continue;
+            }
+
+            int codigo = codigoDirecto(actual);
+            if (codigo != SIN_CODIGO) {
+                return codigo;
+            }
+
+            // MailSendException agrupa las excepciones de cada mensaje fallido
+            if (actual instanceof MailSendException envio) {
+                for (Exception causa : envio.getFailedMessages().values()) {
+                    apilar(pendientes, causa);
+                }
+                for (Exception causa : envio.getMessageExceptions()) {
+                    apilar(pendientes, causa);
+                }
+            }
+            // MessagingException encadena errores por destinatario con getNextException()
+            if (actual instanceof MessagingException mensajeria) {
+                apilar(pendientes, mensajeria.getNextException());
+            }
+            apilar(pendientes, actual.getCause());
+        }
+        return SIN_CODIGO;
+    }
+
+    /**
+     * Indica si un código SMTP corresponde a un error temporal (4xx)
+     *
+     * @param codigo Código de respuesta SMTP
+     * @return true si el servidor pide reintentar más tarde
+     */
+    public static boolean esTemporal(int codigo) {
+        return codigo >= 400 && codigo < 500;
+    }
+
+    /**
+     * Clasifica un error de envío como temporal o permanente
+     *
+     * @param error Excepción lanzada por JavaMailSender
+     * @return TEMPORAL si tiene sentido reintentar, PERMANENTE en caso contrario
+     */
+    public static TipoFallo clasificar(Throwable error) {
+        int codigo = codigoRespuesta(error);
+        if (codigo != SIN_CODIGO) {
+            return esTemporal(codigo) ? TipoFallo.TEMPORAL : TipoFallo.PERMANENTE;
+        }
+        // Reintentar no corrige un mensaje mal formado ni una contraseña incorrecta
+        if (error instanceof MailParseException
+                || error instanceof MailPreparationException
+                || error instanceof MailAuthenticationException) {
+            return TipoFallo.PERMANENTE;
+        }
+        // Conexión rechazada, timeouts y cortes de red
+        if (error instanceof MailSendException || tieneCausa(error, IOException.class)) {
+            return TipoFallo.TEMPORAL;
+        }
+        return TipoFallo.PERMANENTE;
+    }
+
+    /**
+     * ArrayDeque no admite null: las causas ausentes simplemente se omiten
+     */
+    private static void apilar(Deque<Throwable> pendientes, Throwable error) {
+        if (error != null) {
+            pendientes.push(error);
+        }
+    }
+
+    private static boolean tieneCausa(Throwable error, Class<? extends Throwable> tipo) {
+        Set<Throwable> visitados = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Throwable actual = error; actual != null && visitados.add(actual); actual = actual.getCause()) {
+            if (tipo.isInstance(actual)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int codigoDirecto(Throwable error) {
+        if (error instanceof SMTPSendFailedException smtp) {
+            return smtp.getReturnCode();
+        }
+        if (error instanceof SMTPAddressFailedException smtp) {
+            return smtp.getReturnCode();
+        }
+        if (error instanceof SMTPSenderFailedException smtp) {
+            return smtp.getReturnCode();
+        }
+        return SIN_CODIGO;
+    }
+}
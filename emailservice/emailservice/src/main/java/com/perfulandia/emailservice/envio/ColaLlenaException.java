@@ -0,0 +1,18 @@
+package com.perfulandia.emailservice.envio;
+
+/**
+ * Excepción lanzada cuando la cola de envío alcanzó su capacidad máxima
+ *
+ * El controlador la traduce a HTTP 503 para que el cliente reintente
+ * más tarde en lugar de perder el email.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class ColaLlenaException extends RuntimeException {
+
+    public ColaLlenaException(Carril carril, int capacidad) {
+        super("La cola de envío " + carril + " está llena (capacidad: " + capacidad + ")");
+    }
+}
@@ -0,0 +1,70 @@
+package com.perfulandia.emailservice.envio;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuración de los carriles de prioridad de la cola de envío
+ *
+ * Para cada carril define:
+ * - peso: proporción de los envíos que recibe cuando todos los carriles tienen trabajo
+ * - capacidad: máximo de emails pendientes en el carril
+ * - SLO: latencia objetivo desde que se encola hasta que se envía
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Component // Marca esta clase como un componente de Spring para inyectarla en la cola de envío
+public class ConfiguracionCarriles {
+
+    private final int[] pesos;
+    private final int[] capacidades;
+    private final long[] slosNanos;
+
+    @Autowired // Indica a Spring cuál constructor usar para la inyección
+    public ConfiguracionCarriles(
+            @Value("${email.carriles.transaccional.peso:8}") int pesoTransaccional,
+            @Value("${email.carriles.transaccional.capacidad:2000}") int capacidadTransaccional,
+            @Value("${email.carriles.transaccional.slo-ms:5000}") long sloTransaccionalMs,
+            @Value("${email.carriles.notificacion.peso:3}") int pesoNotificacion,
+            @Value("${email.carriles.notificacion.capacidad:3000}") int capacidadNotificacion,
+            @Value("${email.carriles.notificacion.slo-ms:60000}") long sloNotificacionMs,
+            @Value("${email.carriles.masivo.peso:1}") int pesoMasivo,
+            @Value("${email.carriles.masivo.capacidad:5000}") int capacidadMasivo,
+            @Value("${email.carriles.masivo.slo-ms:3600000}") long sloMasivoMs) {
+        this(new int[] {pesoTransaccional, pesoNotificacion, pesoMasivo},
+             new int[] {capacidadTransaccional, capacidadNotificacion, capacidadMasivo},
+             new long[] {sloTransaccionalMs, sloNotificacionMs, sloMasivoMs});
+    }
+
+    /**
+     * Constructor con los valores ordenados como Carril.values() (usado en tests)
+     */
+    public ConfiguracionCarriles(int[] pesos, int[] capacidades, long[] slosMs) {
+        this.pesos = pesos.clone();
+        this.capacidades = capacidades.clone();
+        this.slosNanos = new long[slosMs.length];
+        for (int i = 0; i < slosMs.length; i++) {
+            if (pesos[i] <= 0 || capacidades[i] <= 0) {
+                throw new IllegalArgumentException("El peso y la capacidad de cada carril deben ser positivos");
+            }
+            slosNanos[i] = TimeUnit.MILLISECONDS.toNanos(slosMs[i]);
+        }
+    }
+
+    public int peso(Carril carril) {
+        return pesos[carril.ordinal()];
+    }
+
+    public int capacidad(Carril carril) {
+        return capacidades[carril.ordinal()];
+    }
+
+    public long sloNanos(Carril carril) {
+        return slosNanos[carril.ordinal()];
+    }
+}
@@ -0,0 +1,114 @@
+package com.perfulandia.emailservice.envio;
+
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.mail.SimpleMailMessage;
+
+/**
+ * Email en espera dentro de la cola de envío
+ *
+ * Envuelve el mensaje junto con su carril de prioridad, el instante (reloj
+ * monotónico) a partir del cual puede despacharse y la cantidad de
+ * intentos realizados. Es
+ * inmutable: diferir o reintentar crea una nueva instancia.
+ *
+ * También guarda el contexto de la traza de quien encoló el email, para
+ * que el envío por SMTP (en un hilo de la cola) quede en esa misma traza.
+ * Los emails de campañas no lo guardan: miles de envíos en una sola traza
+ * no servirían para encontrar peticiones lentas.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Getter // Genera getters para todos los campos
+public class EnvioPendiente {
+
+    private static final ContextSnapshotFactory CONTEXTOS = ContextSnapshotFactory.builder().build();
+
+    /**
+     * Mensaje a enviar
+     */
+    private final SimpleMailMessage mensaje;
+
+    /**
+     * Carril de prioridad; los diferidos y reintentos vuelven al mismo carril
+     */
+    private final Carril carril;
+
+    /**
+     * Instante (System.nanoTime) desde el cual el envío está listo
+     */
+    private final long listoEn;
+
+    /**
+     * Instante (System.nanoTime) en que el mensaje entró a la cola
+     */
+    private final long encoladoEn;
+
+    /**
+     * Cantidad de intentos de envío fallidos con error temporal
+     */
+    private final int intentos;
+
+    /**
+     * Contexto (traza) del hilo que encoló el email; null en los emails masivos
+     */
+    @Getter(AccessLevel.NONE) // Se usa solo a través de restaurarContexto
+    private final ContextSnapshot contexto;
+
+    public EnvioPendiente(SimpleMailMessage mensaje, Carril carril, long ahora) {
+        this(mensaje, carril, ahora, ahora, 0, carril == Carril.MASIVO ? null : CONTEXTOS.captureAll());
+    }
+
+    private EnvioPendiente(SimpleMailMessage mensaje, Carril carril, long listoEn, long encoladoEn, int intentos,
+                           ContextSnapshot contexto) {
+        this.mensaje = mensaje;
+        this.carril = carril;
+        this.listoEn = listoEn;
+        this.encoladoEn = encoladoEn;
+        this.intentos = intentos;
+        this.contexto = contexto;
+    }
+
+    /**
+     * Crea una copia que estará lista después de la espera indicada (límite de tasa)
+     *
+     * @param esperaNanos Tiempo de espera en nanosegundos
+     * @return Nuevo envío diferido con los mismos intentos
+     */
+    public EnvioPendiente diferir(long esperaNanos) {
+        return new EnvioPendiente(mensaje, carril, System.nanoTime() + esperaNanos, encoladoEn, intentos, contexto);
+    }
+
+    /**
+     * Crea una copia para reintentar tras un error temporal
+     *
+     * @param esperaNanos Backoff en nanosegundos antes del reintento
+     * @return Nuevo envío diferido con un intento más registrado
+     */
+    public EnvioPendiente reintentar(long esperaNanos) {
+        return new EnvioPendiente(mensaje, carril, System.nanoTime() + esperaNanos, encoladoEn, intentos + 1, contexto);
+    }
+
+    /**
+     * Restaura en el hilo actual el contexto de quien encoló el email
+     *
+     * @return Scope que se debe cerrar al terminar el envío (no hace nada si no hay contexto)
+     */
+    public ContextSnapshot.Scope restaurarContexto() {
+        return contexto == null ? () -> { } : contexto.setThreadLocals();
+    }
+
+    /**
+     * Obtiene el destinatario principal del mensaje
+     *
+     * @return Primera dirección del campo "to", o null si no tiene
+     */
+    public String getDestinatario() {
+        String[] para = mensaje.getTo();
+        return para == null || para.length == 0 ? null : para[0];
+    }
+}
@@ -0,0 +1,111 @@
+package com.perfulandia.emailservice.envio;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias con buckets logarítmicos
+ *
+ * Registra latencias en microsegundos sin guardar cada muestra: cada
+ * potencia de 2 se divide en 8 buckets, por lo que el error relativo de
+ * un percentil es como máximo de 12,5% y la memoria es fija (unos 2,5 KB)
+ * sin importar la cantidad de emails. Registrar una muestra es O(1) y no
+ * bloquea.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class HistogramaLatencia {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int LINEALES = SUB_BUCKETS * 2;
+    private static final int BUCKETS = LINEALES + (64 - SUB_BITS - 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray cuentas = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Registra una latencia
+     *
+     * @param nanos Latencia en nanosegundos
+     */
+    public void registrar(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        cuentas.incrementAndGet(indice(micros));
+        total.increment();
+        maximo.accumulate(micros);
+    }
+
+    /**
+     * Calcula un percentil de las latencias registradas
+     *
+     * @param percentil Valor entre 0 y 100 (por ejemplo 99 para p99)
+     * @return Latencia en milisegundos (límite superior del bucket), 0 si no hay muestras
+     */
+    public double percentilMs(double percentil) {
+        long cantidad = total.sum();
+        if (cantidad == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(cantidad * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            acumulado += cuentas.get(i);
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximo.get()) / 1000.0;
+            }
+        }
+        return maximo.get() / 1000.0;
+    }
+
+    /**
+     * Porcentaje de muestras con latencia menor o igual al límite
+     *
+     * @param limiteNanos Latencia objetivo en nanosegundos
+     * @return Porcentaje entre 0 y 100 (100 si no hay muestras)
+     */
+    public double porcentajeHasta(long limiteNanos) {
+        long cantidad = total.sum();
+        if (cantidad == 0) {
+            return 100.0;
+        }
+        long limite = TimeUnit.NANOSECONDS.toMicros(limiteNanos);
+        long dentro = 0;
+        for (int i = 0; i < BUCKETS && limiteSuperior(i) <= limite; i++) {
+            dentro += cuentas.get(i);
+        }
+        return dentro * 100.0 / cantidad;
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public double maximoMs() {
+        return maximo.get() / 1000.0;
+    }
+
+    static int indice(long micros) {
+        if (micros < LINEALES) {
+            return (int) micros;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) ((micros >>> (exponente - SUB_BITS)) & (SUB_BUCKETS - 1));
+        return LINEALES + (exponente - SUB_BITS - 1) * SUB_BUCKETS + sub;
+    }
+
+    static long limiteSuperior(int indice) {
+        if (indice < LINEALES) {
+            return indice;
+        }
+        int exponente = (indice - LINEALES) / SUB_BUCKETS + SUB_BITS + 1;
+        int sub = (indice - LINEALES) % SUB_BUCKETS;
+        long ancho = 1L << (exponente - SUB_BITS);
+        return ((long) (SUB_BUCKETS + sub) << (exponente - SUB_BITS)) + ancho - 1;
+    }
+}
@@ -0,0 +1,196 @@
+package com.perfulandia.emailservice.envio;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador de tasa para el envío de emails
+ *
+ * Mantiene un token bucket por cuenta remitente y otro por dominio de
+ * destino (gmail.com, hotmail.com, etc.). Un email solo se despacha cuando
+ * ambos buckets tienen un token disponible; en caso contrario se informa
+ * el tiempo de espera para que la cola lo difiera.
+ *
+ * Ante respuestas SMTP temporales (4xx) aplica backoff adaptativo:
+ * - 421 (servicio no disponible) penaliza a la cuenta remitente completa,
+ *   ya que el servidor está limitando la conexión
+ * - El resto de códigos 4xx penalizan solo al dominio del destinatario
+ *
+ * Los buckets de los remitentes y dominios que dejan de usarse se
+ * descartan: una vez por período de inactividad se eliminan los que no se
+ * usaron en ese período y están llenos (ver TokenBucket.enReposo).
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Component // Marca esta clase como un componente de Spring para inyectarla en la cola de envío
+public class LimitadorEnvio {
+
+    private final Map<String, TokenBucket> bucketsRemitente = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> bucketsDominio = new ConcurrentHashMap<>();
+
+    private final double tasaRemitente;
+    private final int rafagaRemitente;
+    private final double tasaDominio;
+    private final int rafagaDominio;
+    private final long backoffInicialNanos;
+    private final long backoffMaximoNanos;
+    private final long inactividadNanos;
+    private final LongSupplier reloj;
+
+    private long ultimaLimpieza;
+
+    /**
+     * Constructor usado por Spring con los límites definidos en application.properties
+     */
+    @Autowired // Indica a Spring cuál constructor usar para la inyección
+    public LimitadorEnvio(
+            @Value("${email.limite.remitente.tasa:2.0}") double tasaRemitente,
+            @Value("${email.limite.remitente.rafaga:20}") int rafagaRemitente,
+            @Value("${email.limite.dominio.tasa:1.0}") double tasaDominio,
+            @Value("${email.limite.dominio.rafaga:10}") int rafagaDominio,
+            @Value("${email.limite.backoff.inicial-ms:1000}") long backoffInicialMs,
+            @Value("${email.limite.backoff.maximo-ms:300000}") long backoffMaximoMs,
+            @Value("${email.limite.inactividad-ms:600000}") long inactividadMs) {
+        this(tasaRemitente, rafagaRemitente, tasaDominio, rafagaDominio,
+                backoffInicialMs, backoffMaximoMs, inactividadMs, System::nanoTime);
+    }
+
+    /**
+     * Constructor completo que permite inyectar el reloj (usado en tests)
+     */
+    public LimitadorEnvio(double tasaRemitente, int rafagaRemitente,
+                          double tasaDominio, int rafagaDominio,
+                          long backoffInicialMs, long backoffMaximoMs,
+                          long inactividadMs, LongSupplier reloj) {
+        this.tasaRemitente = tasaRemitente;
+        this.rafagaRemitente = rafagaRemitente;
+        this.tasaDominio = tasaDominio;
+        this.rafagaDominio = rafagaDominio;
+        this.backoffInicialNanos = TimeUnit.MILLISECONDS.toNanos(backoffInicialMs);
+        this.backoffMaximoNanos = TimeUnit.MILLISECONDS.toNanos(backoffMaximoMs);
+        this.inactividadNanos = TimeUnit.MILLISECONDS.toNanos(inactividadMs);
+        this.reloj = reloj;
+        this.ultimaLimpieza = reloj.getAsLong();
+    }
+
+    /**
+     * Intenta reservar capacidad para enviar un email
+     *
+     * Verifica ambos buckets y solo consume tokens si los dos tienen
+     * disponibilidad, para no gastar cupo del remitente cuando el dominio
+     * está limitado (o viceversa).
+     *
+     * @param remitente Cuenta que envía el email
+     * @param dominio Dominio del destinatario
+     * @return 0 si se puede enviar ahora, o los nanosegundos que se debe esperar
+     */
+    public synchronized long reservar(String remitente, String dominio) {
+        long ahora = reloj.getAsLong();
+        if (ahora - ultimaLimpieza >= inactividadNanos) {
+            descartarEnReposo();
+            ultimaLimpieza = ahora;
+        }
+
+        TokenBucket bucketRemitente = bucketRemitente(remitente);
+        TokenBucket bucketDominio = bucketDominio(dominio);
+
+        long espera = Math.max(bucketRemitente.nanosHastaDisponible(), bucketDominio.nanosHastaDisponible());
+        if (espera > 0) {
+            return espera;
+        }
+
+        bucketRemitente.consumir();
+        bucketDominio.consumir();
+        return 0;
+    }
+
+    /**
+     * Registra un envío exitoso para recuperar gradualmente la tasa
+     *
+     * @param remitente Cuenta que envió el email
+     * @param dominio Dominio del destinatario
+     */
+    public void registrarExito(String remitente, String dominio) {
+        bucketRemitente(remitente).registrarExito();
+        bucketDominio(dominio).registrarExito();
+    }
+
+    /**
+     * Registra un rechazo temporal (4xx) y aplica backoff adaptativo
+     *
+     * @param remitente Cuenta que envió el email
+     * @param dominio Dominio del destinatario
+     * @param codigoSmtp Código de respuesta SMTP recibido
+     * @return Tiempo en nanosegundos que se debe esperar antes de reintentar
+     */
+    public long registrarRechazoTemporal(String remitente, String dominio, int codigoSmtp) {
+        TokenBucket penalizado = codigoSmtp == 421 ? bucketRemitente(remitente) : bucketDominio(dominio);
+        return penalizado.registrarRechazo(backoffInicialNanos, backoffMaximoNanos);
+    }
+
+    /**
+     * Obtiene la tasa efectiva actual de un dominio
+     *
+     * @param dominio Dominio a consultar
+     * @return Tasa actual en emails por segundo
+     */
+    public double tasaActualDominio(String dominio) {
+        return bucketDominio(dominio).getTasaActual();
+    }
+
+    /**
+     * Cantidad de buckets guardados (remitentes más dominios)
+     */
+    public int cantidadBuckets() {
+        return bucketsRemitente.size() + bucketsDominio.size();
+    }
+
+    /**
+     * Extrae el dominio de una dirección de email en minúsculas
+     *
+     * @param email Dirección de email (puede incluir nombre: "Juan <juan@x.com>")
+     * @return El dominio, o cadena vacía si la dirección no tiene '@'
+     */
+    public static String dominioDe(String email) {
+        if (email == null) {
+            return "";
+        }
+        int arroba = email.lastIndexOf('@');
+        if (arroba < 0) {
+            return "";
+        }
+        String dominio = email.substring(arroba + 1).trim();
+        if (dominio.endsWith(">")) {
+            dominio = dominio.substring(0, dominio.length() - 1);
+        }
+        return dominio.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Elimina los buckets sin uso durante el período de inactividad que ya están llenos
+     */
+    private void descartarEnReposo() {
+        bucketsRemitente.values().removeIf(bucket -> bucket.enReposo(inactividadNanos));
+        bucketsDominio.values().removeIf(bucket -> bucket.enReposo(inactividadNanos));
+    }
+
+    private TokenBucket bucketRemitente(String remitente) {
+        String clave = remitente == null ? "" : remitente.toLowerCase(Locale.ROOT);
+        return bucketsRemitente.computeIfAbsent(clave,
+                k -> new TokenBucket(tasaRemitente, rafagaRemitente, reloj));
+    }
+
+    private TokenBucket bucketDominio(String dominio) {
+        return bucketsDominio.computeIfAbsent(dominio,
+                k -> new TokenBucket(tasaDominio, rafagaDominio, reloj));
+    }
+}
@@ -0,0 +1,75 @@
+package com.perfulandia.emailservice.envio;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.mail.javamail.JavaMailSender;
+
+/**
+ * Mide cada envío de un JavaMailSender con una observación de Micrometer
+ *
+ * Cada llamada a send (la que habla con el servidor SMTP) se registra como
+ * la observación email.smtp.envio, que produce a la vez el timer del mismo
+ * nombre y un span en la traza actual. Lleva la etiqueta resultado (exito
+ * o error) y, en los errores, la clase de la excepción en la etiqueta
+ * error. Un envío de varios mensajes se mide como una sola llamada; crear
+ * mensajes no se mide porque no habla con el servidor.
+ *
+ * Se aplica con un proxy de la misma clase que el JavaMailSender original
+ * (por ejemplo JavaMailSenderImpl), así quienes lo buscan por su clase
+ * concreta, como el chequeo de salud de Actuator, lo siguen encontrando.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class MedicionEnvioSmtp implements MethodInterceptor {
+
+    /**
+     * Nombre de la observación (y del timer) de envíos por SMTP
+     */
+    public static final String METRICA = "email.smtp.envio";
+
+    private final ObservationRegistry observaciones;
+
+    public MedicionEnvioSmtp(ObservationRegistry observaciones) {
+        this.observaciones = observaciones;
+    }
+
+    /**
+     * Crea un proxy del JavaMailSender que mide sus envíos
+     *
+     * @param mailSender JavaMailSender que hace los envíos reales
+     * @param observaciones Registro de observaciones (métricas y trazas)
+     * @return Proxy de la misma clase que mailSender
+     */
+    public static JavaMailSender medir(JavaMailSender mailSender, ObservationRegistry observaciones) {
+        ProxyFactory fabrica = new ProxyFactory(mailSender);
+        fabrica.setProxyTargetClass(true);
+        fabrica.addAdvice(new MedicionEnvioSmtp(observaciones));
+        return (JavaMailSender) fabrica.getProxy(mailSender.getClass().getClassLoader());
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocacion) throws Throwable {
+        if (!"send".equals(invocacion.getMethod().getName())) {
+            return invocacion.proceed();
+        }
+        Observation observacion = Observation.createNotStarted(METRICA, observaciones)
+                .contextualName("smtp send")
+                .start();
+        try (Observation.Scope alcance = observacion.openScope()) {
+            Object resultado = invocacion.proceed();
+            observacion.lowCardinalityKeyValue("resultado", "exito");
+            return resultado;
+        } catch (Throwable e) {
+            observacion.lowCardinalityKeyValue("resultado", "error");
+            observacion.error(e);
+            throw e;
+        } finally {
+            observacion.stop();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.perfulandia.emailservice.envio;
+
+import com.perfulandia.emailservice.model.EstadisticasCarril;
+import com.perfulandia.emailservice.model.EstadisticasEnvio;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * Métricas de la cola de envío de emails
+ *
+ * Lleva contadores acumulados desde el inicio del servicio y contadores
+ * de ventana deslizante (último minuto) para comparar la tasa de emails
+ * enviados contra la tasa de emails diferidos por el limitador.
+ *
+ * Además, por cada carril de prioridad registra los contadores propios y
+ * un histograma de latencias (desde que el email se encola hasta que se
+ * envía) para verificar el objetivo de latencia de cada carril.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Component // Marca esta clase como un componente de Spring (singleton compartido)
+public class MetricasEnvio {
+
+    private final LongAdder encolados = new LongAdder();
+    private final LongAdder enviados = new LongAdder();
+    private final LongAdder diferidos = new LongAdder();
+    private final LongAdder rechazosTemporales = new LongAdder();
+    private final LongAdder reintentos = new LongAdder();
+    private final LongAdder fallidos = new LongAdder();
+    private final LongAdder rechazadosColaLlena = new LongAdder();
+
+    private final ContadorVentana enviadosMinuto = new ContadorVentana();
+    private final ContadorVentana diferidosMinuto = new ContadorVentana();
+
+    private final MetricasCarril[] porCarril = new MetricasCarril[Carril.values().length];
+
+    public MetricasEnvio() {
+        for (Carril carril : Carril.values()) {
+            porCarril[carril.ordinal()] = new MetricasCarril();
+        }
+    }
+
+    public void registrarEncolado(Carril carril) {
+        encolados.increment();
+        porCarril[carril.ordinal()].encolados.increment();
+    }
+
+    /**
+     * Registra un email entregado al servidor SMTP
+     *
+     * @param carril Carril del email
+     * @param latenciaNanos Tiempo transcurrido desde que se encoló
+     */
+    public void registrarEnviado(Carril carril, long latenciaNanos) {
+        enviados.increment();
+        enviadosMinuto.incrementar(segundoActual());
+        MetricasCarril metricasCarril = porCarril[carril.ordinal()];
+        metricasCarril.enviados.increment();
+        metricasCarril.latencias.registrar(latenciaNanos);
+    }
+
+    public void registrarDiferido() {
+        diferidos.increment();
+        diferidosMinuto.incrementar(segundoActual());
+    }
+
+    public void registrarRechazoTemporal() {
+        rechazosTemporales.increment();
+    }
+
+    public void registrarReintento() {
+        reintentos.increment();
+    }
+
+    public void registrarFallido() {
+        fallidos.increment();
+    }
+
+    public void registrarColaLlena(Carril carril) {
+        rechazadosColaLlena.increment();
+        porCarril[carril.ordinal()].rechazadosColaLlena.increment();
+    }
+
+    /**
+     * Histograma de latencias de un carril
+     */
+    public HistogramaLatencia latencias(Carril carril) {
+        return porCarril[carril.ordinal()].latencias;
+    }
+
+    /**
+     * Genera una foto de las métricas actuales
+     *
+     * @param pendientes Cantidad de emails actualmente en la cola
+     * @param enAlmacenFallidos Cantidad de emails en el almacén de fallidos
+     * @param configuracion Pesos, capacidades y objetivos de latencia de los carriles
+     * @param pendientesCarril Cantidad de emails pendientes en cada carril
+     * @return Estadísticas listas para exponer por HTTP
+     */
+    public EstadisticasEnvio instantanea(int pendientes, int enAlmacenFallidos,
+                                         ConfiguracionCarriles configuracion,
+                                         ToIntFunction<Carril> pendientesCarril) {
+        long segundo = segundoActual();
+        List<EstadisticasCarril> carriles = new ArrayList<>();
+        for (Carril carril : Carril.values()) {
+            MetricasCarril metricasCarril = porCarril[carril.ordinal()];
+            HistogramaLatencia latencias = metricasCarril.latencias;
+            carriles.add(EstadisticasCarril.builder()
+                    .carril(carril)
+                    .peso(configuracion.peso(carril))
+                    .capacidad(configuracion.capacidad(carril))
+                    .pendientes(pendientesCarril.applyAsInt(carril))
+                    .encolados(metricasCarril.encolados.sum())
+                    .enviados(metricasCarril.enviados.sum())
+                    .rechazadosColaLlena(metricasCarril.rechazadosColaLlena.sum())
+                    .latenciaP50Ms(latencias.percentilMs(50))
+                    .latenciaP95Ms(latencias.percentilMs(95))
+                    .latenciaP99Ms(latencias.percentilMs(99))
+                    .latenciaMaximaMs(latencias.maximoMs())
+                    .sloMs(TimeUnit.NANOSECONDS.toMillis(configuracion.sloNanos(carril)))
+                    .porcentajeDentroSlo(latencias.porcentajeHasta(configuracion.sloNanos(carril)))
+                    .build());
+        }
+        return EstadisticasEnvio.builder()
+                .encolados(encolados.sum())
+                .enviados(enviados.sum())
+                .diferidos(diferidos.sum())
+                .rechazosTemporales(rechazosTemporales.sum())
+                .reintentos(reintentos.sum())
+                .fallidos(fallidos.sum())
+                .enAlmacenFallidos(enAlmacenFallidos)
+                .rechazadosColaLlena(rechazadosColaLlena.sum())
+                .pendientes(pendientes)
+                .enviadosUltimoMinuto(enviadosMinuto.sumaUltimoMinuto(segundo))
+                .diferidosUltimoMinuto(diferidosMinuto.sumaUltimoMinuto(segundo))
+                .carriles(carriles)
+                .build();
+    }
+
+    private static long segundoActual() {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+    }
+
+    /**
+     * Contadores y latencias de un carril
+     */
+    private static final class MetricasCarril {
+        private final LongAdder encolados = new LongAdder();
+        private final LongAdder enviados = new LongAdder();
+        private final LongAdder rechazadosColaLlena = new LongAdder();
+        private final HistogramaLatencia latencias = new HistogramaLatencia();
+    }
+
+    /**
+     * Contador por segundo sobre una ventana circular de 60 posiciones
+     */
+    static final class ContadorVentana {
+
+        private static final int SEGUNDOS = 60;
+
+        private final long[] segundos = new long[SEGUNDOS];
+        private final long[] cuentas = new long[SEGUNDOS];
+
+        synchronized void incrementar(long segundo) {
+            int i = (int) Math.floorMod(segundo, (long) SEGUNDOS);
+            if (segundos[i] != segundo) {
+                segundos[i] = segundo;
+                cuentas[i] = 0;
+            }
+            cuentas[i]++;
+        }
+
+        synchronized long sumaUltimoMinuto(long segundo) {
+            long total = 0;
+            for (int i = 0; i < SEGUNDOS; i++) {
+                if (segundo - segundos[i] < SEGUNDOS) {
+                    total += cuentas[i];
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.perfulandia.emailservice.envio;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Colas de emails listos, una por carril, con reparto ponderado
+ *
+ * Los trabajadores toman el siguiente email con el algoritmo "smooth
+ * weighted round-robin": entre los carriles que tienen emails, cada uno
+ * suma su peso a un crédito y se atiende al de mayor crédito, que luego
+ * se descuenta con la suma de pesos. Con pesos 8/3/1 y los tres carriles
+ * ocupados, de cada 12 envíos 8 son transaccionales, 3 notificaciones y
+ * 1 masivo, intercalados en lugar de en ráfagas. Un carril vacío no
+ * acumula crédito, y ningún carril con trabajo queda sin atender.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class PlanificadorCarriles {
+
+    private static final Carril[] CARRILES = Carril.values();
+
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private final Condition hayEnvios = cerrojo.newCondition();
+
+    private final int[] pesos = new int[CARRILES.length];
+    private final int[] creditos = new int[CARRILES.length];
+    private final ArrayDeque<EnvioPendiente>[] colas;
+    private int tamano;
+
+    @SuppressWarnings("unchecked")
+    public PlanificadorCarriles(ConfiguracionCarriles configuracion) {
+        colas = new ArrayDeque[CARRILES.length];
+        for (Carril carril : CARRILES) {
+            pesos[carril.ordinal()] = configuracion.peso(carril);
+            colas[carril.ordinal()] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Agrega un email listo a la cola de su carril
+     */
+    public void agregar(EnvioPendiente envio) {
+        cerrojo.lock();
+        try {
+            colas[envio.getCarril().ordinal()].add(envio);
+            tamano++;
+            hayEnvios.signal();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Agrega varios emails listos (por ejemplo, los que vencieron en la rueda)
+     */
+    public void agregarTodos(Collection<EnvioPendiente> envios) {
+        if (envios.isEmpty()) {
+            return;
+        }
+        cerrojo.lock();
+        try {
+            for (EnvioPendiente envio : envios) {
+                colas[envio.getCarril().ordinal()].add(envio);
+                tamano++;
+                hayEnvios.signal();
+            }
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Toma el siguiente email esperando a que haya alguno
+     *
+     * @throws InterruptedException si el hilo es interrumpido mientras espera
+     */
+    public EnvioPendiente tomar() throws InterruptedException {
+        cerrojo.lockInterruptibly();
+        try {
+            while (tamano == 0) {
+                hayEnvios.await();
+            }
+            return elegir();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Toma el siguiente email esperando como máximo el tiempo indicado
+     *
+     * @return El email, o null si no llegó ninguno a tiempo
+     * @throws InterruptedException si el hilo es interrumpido mientras espera
+     */
+    public EnvioPendiente tomar(long espera, TimeUnit unidad) throws InterruptedException {
+        long restante = unidad.toNanos(espera);
+        cerrojo.lockInterruptibly();
+        try {
+            while (tamano == 0) {
+                if (restante <= 0) {
+                    return null;
+                }
+                restante = hayEnvios.awaitNanos(restante);
+            }
+            return elegir();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Toma el siguiente email sin esperar
+     *
+     * @return El email, o null si no hay ninguno listo
+     */
+    public EnvioPendiente sondear() {
+        cerrojo.lock();
+        try {
+            return tamano == 0 ? null : elegir();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Cantidad total de emails listos
+     */
+    public int tamano() {
+        cerrojo.lock();
+        try {
+            return tamano;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Cantidad de emails listos en un carril
+     */
+    public int tamano(Carril carril) {
+        cerrojo.lock();
+        try {
+            return colas[carril.ordinal()].size();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Elige el carril con el algoritmo smooth weighted round-robin
+     * (se llama con el cerrojo tomado y al menos un email listo)
+     */
+    private EnvioPendiente elegir() {
+        int elegido = -1;
+        int sumaPesos = 0;
+        for (int i = 0; i < CARRILES.length; i++) {
+            if (colas[i].isEmpty()) {
+                continue;
+            }
+            creditos[i] += pesos[i];
+            sumaPesos += pesos[i];
+            if (elegido < 0 || creditos[i] > creditos[elegido]) {
+                elegido = i;
+            }
+        }
+        creditos[elegido] -= sumaPesos;
+        if (colas[elegido].size() == 1) {
+            // El carril queda vacío: no conserva crédito ni deuda para cuando vuelva a tener trabajo
+            creditos[elegido] = 0;
+        }
+        tamano--;
+        return colas[elegido].poll();
+    }
+}
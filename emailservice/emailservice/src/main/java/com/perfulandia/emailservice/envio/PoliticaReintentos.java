@@ -0,0 +1,83 @@
+package com.perfulandia.emailservice.envio;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Política de reintentos para los errores temporales de envío
+ *
+ * Calcula la espera antes de cada reintento con backoff exponencial y
+ * jitter ("equal jitter"): la mitad de la espera es fija y la otra mitad
+ * aleatoria. Así, cuando muchos emails fallan a la vez (por ejemplo, una
+ * caída del servidor SMTP), sus reintentos se reparten en el tiempo en
+ * lugar de volver a llegar todos juntos.
+ *
+ * Espera del intento n (empezando en 0): base * 2^n, acotada al máximo.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Component // Marca esta clase como un componente de Spring para inyectarla en la cola de envío
+public class PoliticaReintentos {
+
+    private final long baseNanos;
+    private final long maximoNanos;
+    private final int maximoIntentos;
+    private final LongUnaryOperator aleatorio;
+
+    @Autowired // Indica a Spring cuál constructor usar para la inyección
+    public PoliticaReintentos(@Value("${email.reintentos.base-ms:2000}") long baseMs,
+                              @Value("${email.reintentos.maximo-ms:900000}") long maximoMs,
+                              @Value("${email.reintentos.maximo-intentos:6}") int maximoIntentos) {
+        this(baseMs, maximoMs, maximoIntentos, limite -> ThreadLocalRandom.current().nextLong(limite + 1));
+    }
+
+    /**
+     * Constructor que permite fijar la fuente aleatoria (usado en tests)
+     *
+     * @param aleatorio Función que, dado un límite, retorna un valor entre 0 y el límite inclusive
+     */
+    public PoliticaReintentos(long baseMs, long maximoMs, int maximoIntentos, LongUnaryOperator aleatorio) {
+        this.baseNanos = TimeUnit.MILLISECONDS.toNanos(baseMs);
+        this.maximoNanos = TimeUnit.MILLISECONDS.toNanos(maximoMs);
+        this.maximoIntentos = maximoIntentos;
+        this.aleatorio = aleatorio;
+    }
+
+    /**
+     * Indica si un envío que ya falló la cantidad de veces indicada puede reintentarse
+     *
+     * @param intentosFallidos Intentos fallidos hasta ahora (incluido el actual)
+     * @return true si todavía no se alcanzó el máximo de intentos
+     */
+    public boolean puedeReintentar(int intentosFallidos) {
+        return intentosFallidos < maximoIntentos;
+    }
+
+    /**
+     * Calcula la espera antes del siguiente reintento
+     *
+     * @param intentosPrevios Reintentos ya realizados (0 para el primer reintento)
+     * @return Espera en nanosegundos
+     */
+    public long esperaNanos(int intentosPrevios) {
+        int desplazamiento = Math.min(intentosPrevios, 30);
+        long exponencial = baseNanos << desplazamiento;
+        // Si el desplazamiento desborda, se usa directamente el máximo
+        if ((exponencial >> desplazamiento) != baseNanos || exponencial > maximoNanos) {
+            exponencial = maximoNanos;
+        }
+        long mitad = exponencial / 2;
+        return mitad + aleatorio.applyAsLong(exponencial - mitad);
+    }
+
+    public int getMaximoIntentos() {
+        return maximoIntentos;
+    }
+}
@@ -0,0 +1,171 @@
+package com.perfulandia.emailservice.envio;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rueda de temporización jerárquica para emails diferidos
+ *
+ * Guarda los envíos que deben esperar (límite de tasa o reintento con
+ * backoff) sin dedicar un hilo dormido a cada uno. El tiempo se divide
+ * en ticks; cada nivel de la rueda tiene 64 ranuras y cada ranura del
+ * nivel N abarca 64^N ticks:
+ *
+ * - Nivel 0: ranuras de 1 tick (con tick de 10 ms, 640 ms en total)
+ * - Nivel 1: ranuras de 64 ticks (~41 s en total)
+ * - Nivel 2: ranuras de 4096 ticks (~44 min en total)
+ * - Nivel 3: ranuras de 262144 ticks (~47 h en total)
+ *
+ * Programar y vencer un elemento cuesta O(1). Cuando el nivel 0 da una
+ * vuelta completa, la ranura correspondiente del nivel superior se
+ * redistribuye ("cascada") en los niveles inferiores.
+ *
+ * No es segura para hilos por sí sola: quien la usa debe sincronizar
+ * el acceso.
+ *
+ * @param <T> Tipo de los elementos programados
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class RuedaTemporizacion<T> {
+
+    private static final int BITS_POR_NIVEL = 6;
+    private static final int RANURAS = 1 << BITS_POR_NIVEL;
+    private static final int MASCARA = RANURAS - 1;
+
+    private final long tickNanos;
+    private final long inicio;
+    private final int niveles;
+    private final long ticksMaximos;
+    private final List<List<ArrayDeque<Programado<T>>>> ruedas;
+
+    /**
+     * Próximo tick que se va a procesar
+     */
+    private long tickActual;
+    private int tamano;
+
+    /**
+     * @param tick Duración de un tick
+     * @param unidad Unidad de la duración del tick
+     * @param niveles Cantidad de niveles de la rueda
+     * @param inicio Instante (System.nanoTime) que corresponde al tick 0
+     */
+    public RuedaTemporizacion(long tick, TimeUnit unidad, int niveles, long inicio) {
+        this.tickNanos = unidad.toNanos(tick);
+        this.inicio = inicio;
+        this.niveles = niveles;
+        this.ticksMaximos = 1L << (BITS_POR_NIVEL * niveles);
+        this.ruedas = new ArrayList<>(niveles);
+        for (int nivel = 0; nivel < niveles; nivel++) {
+            List<ArrayDeque<Programado<T>>> ranuras = new ArrayList<>(RANURAS);
+            for (int i = 0; i < RANURAS; i++) {
+                ranuras.add(new ArrayDeque<>());
+            }
+            ruedas.add(ranuras);
+        }
+    }
+
+    /**
+     * Programa un elemento para que venza en el instante indicado
+     *
+     * @param elemento Elemento a programar
+     * @param venceEn Instante (System.nanoTime) en que debe vencer
+     * @return false si el instante ya pasó y el elemento no se programó
+     *         (el llamador debe procesarlo de inmediato)
+     */
+    public boolean programar(T elemento, long venceEn) {
+        // Redondeo hacia arriba: un elemento nunca vence antes de su instante
+        long tick = Math.floorDiv(venceEn - inicio + tickNanos - 1, tickNanos);
+        if (tick < tickActual) {
+            return false;
+        }
+        insertar(new Programado<>(elemento, tick));
+        tamano++;
+        return true;
+    }
+
+    /**
+     * Avanza la rueda hasta el instante indicado y retira los elementos vencidos
+     *
+     * @param ahora Instante actual (System.nanoTime)
+     * @return Elementos vencidos, en orden de vencimiento aproximado
+     */
+    public List<T> avanzar(long ahora) {
+        long objetivo = Math.floorDiv(ahora - inicio, tickNanos);
+        List<T> vencidos = new ArrayList<>();
+        while (tickActual <= objetivo) {
+            int indice = (int) (tickActual & MASCARA);
+            if (indice == 0) {
+                cascada(1);
+            }
+            ArrayDeque<Programado<T>> ranura = ruedas.get(0).get(indice);
+            while (!ranura.isEmpty()) {
+                vencidos.add(ranura.poll().elemento);
+            }
+            tickActual++;
+            if (tamano == vencidos.size()) {
+                // Nada más programado: saltar directo al objetivo
+                tickActual = Math.max(tickActual, objetivo + 1);
+            }
+        }
+        tamano -= vencidos.size();
+        return vencidos;
+    }
+
+    /**
+     * Cantidad de elementos programados
+     */
+    public int tamano() {
+        return tamano;
+    }
+
+    private void insertar(Programado<T> programado) {
+        long delta = programado.tick - tickActual;
+        long tickRanura = programado.tick;
+        if (delta >= ticksMaximos) {
+            // Más allá del alcance de la rueda: se ubica en la ranura más lejana
+            // y se vuelve a distribuir cuando la cascada llegue a ella
+            delta = ticksMaximos - 1;
+            tickRanura = tickActual + delta;
+        }
+        int nivel = 0;
+        while (nivel < niveles - 1 && delta >= (1L << (BITS_POR_NIVEL * (nivel + 1)))) {
+            nivel++;
+        }
+        int indice = (int) ((tickRanura >>> (BITS_POR_NIVEL * nivel)) & MASCARA);
+        ruedas.get(nivel).get(indice).add(programado);
+    }
+
+    /**
+     * Redistribuye la ranura actual del nivel indicado en los niveles inferiores
+     */
+    private void cascada(int nivel) {
+        if (nivel >= niveles) {
+            return;
+        }
+        int indice = (int) ((tickActual >>> (BITS_POR_NIVEL * nivel)) & MASCARA);
+        if (indice == 0) {
+            cascada(nivel + 1);
+        }
+        ArrayDeque<Programado<T>> ranura = ruedas.get(nivel).get(indice);
+        List<Programado<T>> redistribuir = new ArrayList<>(ranura);
+        ranura.clear();
+        for (Programado<T> programado : redistribuir) {
+            insertar(programado);
+        }
+    }
+
+    private static final class Programado<T> {
+        private final T elemento;
+        private final long tick;
+
+        private Programado(T elemento, long tick) {
+            this.elemento = elemento;
+            this.tick = tick;
+        }
+    }
+}
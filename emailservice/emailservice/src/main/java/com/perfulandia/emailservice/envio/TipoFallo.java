@@ -0,0 +1,15 @@
+package com.perfulandia.emailservice.envio;
+
+/**
+ * Clasificación de un error de envío
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public enum TipoFallo {
+    /** El envío puede tener éxito si se reintenta más tarde (4xx, red caída) */
+    TEMPORAL,
+    /** Reintentar no cambiará el resultado (5xx, mensaje inválido) */
+    PERMANENTE
+}
@@ -0,0 +1,188 @@
+package com.perfulandia.emailservice.envio;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket con tasa adaptativa para limitar el envío de emails
+ *
+ * Cada bucket acumula tokens a una tasa fija (tokens por segundo) hasta
+ * una capacidad máxima (ráfaga). Cada email enviado consume un token; si
+ * no hay tokens disponibles, el bucket informa cuánto tiempo falta para
+ * que exista uno, de modo que el email se difiera en lugar de fallar.
+ *
+ * Además implementa un control adaptativo tipo AIMD:
+ * - Ante un rechazo temporal (SMTP 4xx) la tasa se reduce a la mitad y
+ *   el bucket queda en pausa durante un backoff exponencial
+ * - Cada envío exitoso recupera la tasa de forma aditiva hasta la tasa base
+ *
+ * Todas las operaciones son sincronizadas; el costo es despreciable frente
+ * a la latencia de una conversación SMTP.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class TokenBucket {
+
+    private static final long NANOS_POR_SEGUNDO = 1_000_000_000L;
+
+    /**
+     * Cantidad máxima de tokens acumulables (tamaño de ráfaga)
+     */
+    private final double capacidad;
+
+    /**
+     * Tasa configurada en tokens por segundo, a la que se vuelve tras los rechazos
+     */
+    private final double tasaBase;
+
+    /**
+     * Tasa mínima a la que puede bajar el control adaptativo
+     */
+    private final double tasaMinima;
+
+    /**
+     * Reloj monotónico en nanosegundos (inyectable para tests)
+     */
+    private final LongSupplier reloj;
+
+    private double tasaActual;
+    private double tokens;
+    private long ultimaRecarga;
+    private long pausadoHasta;
+    private long ultimoUso;
+    private int rechazosConsecutivos;
+
+    /**
+     * Crea un bucket lleno con la tasa y ráfaga indicadas
+     *
+     * @param tasaPorSegundo Tokens generados por segundo (debe ser mayor que cero)
+     * @param rafaga Capacidad máxima del bucket (al menos 1)
+     * @param reloj Fuente de tiempo monotónica en nanosegundos
+     */
+    public TokenBucket(double tasaPorSegundo, int rafaga, LongSupplier reloj) {
+        if (tasaPorSegundo <= 0 || rafaga < 1) {
+            throw new IllegalArgumentException("La tasa debe ser positiva y la ráfaga al menos 1");
+        }
+        this.capacidad = rafaga;
+        this.tasaBase = tasaPorSegundo;
+        this.tasaMinima = tasaPorSegundo / 16;
+        this.tasaActual = tasaPorSegundo;
+        this.tokens = rafaga;
+        this.reloj = reloj;
+        this.ultimaRecarga = reloj.getAsLong();
+        this.pausadoHasta = ultimaRecarga;
+        this.ultimoUso = ultimaRecarga;
+    }
+
+    /**
+     * Calcula cuántos nanosegundos faltan para poder consumir un token
+     *
+     * No consume tokens; se usa para verificar varios buckets antes de
+     * consumir en todos ellos a la vez.
+     *
+     * @return 0 si hay un token disponible, o el tiempo de espera en nanosegundos
+     */
+    public synchronized long nanosHastaDisponible() {
+        long ahora = reloj.getAsLong();
+        recargar(ahora);
+        ultimoUso = ahora;
+        long pausa = Math.max(0, pausadoHasta - ahora);
+        if (tokens >= 1) {
+            return pausa;
+        }
+        long faltante = (long) Math.ceil((1 - tokens) / tasaActual * NANOS_POR_SEGUNDO);
+        return Math.max(pausa, faltante);
+    }
+
+    /**
+     * Consume un token del bucket
+     *
+     * Debe llamarse solo después de que nanosHastaDisponible() haya
+     * retornado 0 bajo el mismo lock externo.
+     */
+    public synchronized void consumir() {
+        long ahora = reloj.getAsLong();
+        recargar(ahora);
+        ultimoUso = ahora;
+        tokens -= 1;
+    }
+
+    /**
+     * Registra un rechazo temporal del servidor SMTP
+     *
+     * Reduce la tasa a la mitad (sin bajar de la tasa mínima), vacía el
+     * bucket y lo pausa durante un backoff exponencial según la cantidad
+     * de rechazos consecutivos.
+     *
+     * @param backoffInicialNanos Pausa aplicada al primer rechazo
+     * @param backoffMaximoNanos Pausa máxima permitida
+     * @return La pausa aplicada en nanosegundos
+     */
+    public synchronized long registrarRechazo(long backoffInicialNanos, long backoffMaximoNanos) {
+        long ahora = reloj.getAsLong();
+        recargar(ahora);
+        ultimoUso = ahora;
+        rechazosConsecutivos++;
+        tasaActual = Math.max(tasaMinima, tasaActual / 2);
+        tokens = 0;
+        int exponente = Math.min(rechazosConsecutivos - 1, 30);
+        long pausa = Math.min(backoffMaximoNanos, backoffInicialNanos << exponente);
+        if (pausa < 0) {
+            pausa = backoffMaximoNanos;
+        }
+        pausadoHasta = ahora + pausa;
+        return pausa;
+    }
+
+    /**
+     * Registra un envío exitoso
+     *
+     * Reinicia el contador de rechazos y recupera la tasa de forma aditiva
+     * (un 10% de la tasa base por envío) hasta volver a la tasa configurada.
+     */
+    public synchronized void registrarExito() {
+        rechazosConsecutivos = 0;
+        if (tasaActual < tasaBase) {
+            recargar(reloj.getAsLong());
+            tasaActual = Math.min(tasaBase, tasaActual + tasaBase / 10);
+        }
+    }
+
+    /**
+     * Indica si el bucket lleva sin usarse al menos el tiempo indicado,
+     * está lleno y no tiene una pausa vigente
+     *
+     * Un bucket así se puede descartar: si vuelve a hacer falta se crea uno
+     * nuevo, lleno y con la tasa base (la tasa reducida por rechazos se
+     * olvida tras la inactividad).
+     *
+     * @param inactividadNanos Tiempo mínimo sin uso
+     * @return true si se puede descartar
+     */
+    public synchronized boolean enReposo(long inactividadNanos) {
+        long ahora = reloj.getAsLong();
+        recargar(ahora);
+        return ahora - ultimoUso >= inactividadNanos && ahora >= pausadoHasta && tokens >= capacidad;
+    }
+
+    /**
+     * Obtiene la tasa efectiva actual en tokens por segundo
+     *
+     * @return La tasa actual, menor que la base si hubo rechazos recientes
+     */
+    public synchronized double getTasaActual() {
+        return tasaActual;
+    }
+
+    /**
+     * Agrega los tokens generados desde la última recarga sin superar la capacidad
+     */
+    private void recargar(long ahora) {
+        long transcurrido = ahora - ultimaRecarga;
+        if (transcurrido > 0) {
+            tokens = Math.min(capacidad, tokens + transcurrido * tasaActual / NANOS_POR_SEGUNDO);
+            ultimaRecarga = ahora;
+        }
+    }
+}
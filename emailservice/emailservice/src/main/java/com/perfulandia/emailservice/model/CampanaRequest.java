@@ -0,0 +1,49 @@
+package com.perfulandia.emailservice.model;
+
+import lombok.*;
+
+/**
+ * Modelo de datos para crear una campaña de emails masivos
+ * 
+ * Contiene el asunto y la plantilla del mensaje. El listado de
+ * destinatarios se envía después, en una petición aparte, para
+ * poder transmitirlo en streaming sin cargarlo completo en memoria.
+ * 
+ * Campos obligatorios:
+ * - asunto: Asunto común de todos los emails
+ * - plantilla: Cuerpo con variables {primerNombre}, {nombre} o {email}
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class CampanaRequest {
+
+    /**
+     * Asunto de los emails de la campaña
+     * 
+     * Ejemplo: "Nuevas fragancias de temporada"
+     */
+    private String asunto;
+
+    /**
+     * Plantilla del cuerpo del email
+     * 
+     * Ejemplo: "Hola {primerNombre}, tenemos novedades para ti."
+     */
+    private String plantilla;
+
+    /**
+     * Verifica que la campaña tenga asunto y plantilla
+     * 
+     * @return true si ambos campos tienen contenido, false en caso contrario
+     */
+    public boolean tieneCamposObligatorios() {
+        return asunto != null && !asunto.trim().isEmpty() &&
+               plantilla != null && !plantilla.trim().isEmpty();
+    }
+}
@@ -0,0 +1,79 @@
+package com.perfulandia.emailservice.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.perfulandia.emailservice.envio.Carril;
+import com.perfulandia.emailservice.envio.TipoFallo;
+import lombok.*;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.time.LocalDateTime;
+
+/**
+ * Modelo de datos de un email que no se pudo enviar
+ * 
+ * Los emails que fallan con un error permanente, o que agotan sus
+ * reintentos, se guardan en el almacén de fallidos (dead-letter) en
+ * lugar de perderse. Desde los endpoints de administración se pueden
+ * consultar, reintentar o descartar.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class EnvioFallido {
+
+    /**
+     * Identificador del email dentro del almacén de fallidos
+     */
+    private Long id;
+
+    /**
+     * Destinatario principal del email
+     */
+    private String para;
+
+    /**
+     * Asunto del email
+     */
+    private String asunto;
+
+    /**
+     * Carril de prioridad del email; al reintentarlo vuelve al mismo carril
+     */
+    private Carril carril;
+
+    /**
+     * Cantidad de intentos de envío realizados
+     */
+    private int intentos;
+
+    /**
+     * Código de respuesta SMTP del último intento (-1 si no hubo respuesta)
+     */
+    private int codigoSmtp;
+
+    /**
+     * Clasificación del último error (TEMPORAL si se agotaron los reintentos)
+     */
+    private TipoFallo tipo;
+
+    /**
+     * Mensaje del último error
+     */
+    private String error;
+
+    /**
+     * Fecha en que el email pasó al almacén de fallidos
+     */
+    private LocalDateTime fallidoEn;
+
+    /**
+     * Mensaje original, conservado para poder reintentarlo tal cual
+     */
+    @JsonIgnore // No se expone por HTTP: el cuerpo puede contener datos personales
+    private SimpleMailMessage mensaje;
+}
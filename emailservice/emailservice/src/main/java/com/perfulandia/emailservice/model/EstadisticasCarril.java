@@ -0,0 +1,88 @@
+package com.perfulandia.emailservice.model;
+
+import com.perfulandia.emailservice.envio.Carril;
+import lombok.*;
+
+/**
+ * Modelo de datos con las estadísticas de un carril de la cola de envío
+ *
+ * Forma parte de la respuesta de /api/email/metricas. Las latencias se
+ * miden desde que el email entra a la cola hasta que el servidor SMTP lo
+ * acepta (incluye esperas por límite de tasa y reintentos) y se comparan
+ * con el objetivo de latencia (SLO) del carril.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class EstadisticasCarril {
+
+    /**
+     * Carril al que corresponden las estadísticas
+     */
+    private Carril carril;
+
+    /**
+     * Peso del carril en el reparto entre trabajadores
+     */
+    private int peso;
+
+    /**
+     * Máximo de emails pendientes admitidos en el carril
+     */
+    private int capacidad;
+
+    /**
+     * Emails actualmente pendientes en el carril (incluye diferidos)
+     */
+    private int pendientes;
+
+    /**
+     * Total de emails aceptados en el carril
+     */
+    private long encolados;
+
+    /**
+     * Total de emails del carril entregados al servidor SMTP
+     */
+    private long enviados;
+
+    /**
+     * Total de solicitudes rechazadas porque el carril estaba lleno
+     */
+    private long rechazadosColaLlena;
+
+    /**
+     * Latencia mediana (p50) en milisegundos
+     */
+    private double latenciaP50Ms;
+
+    /**
+     * Percentil 95 de latencia en milisegundos
+     */
+    private double latenciaP95Ms;
+
+    /**
+     * Percentil 99 de latencia en milisegundos
+     */
+    private double latenciaP99Ms;
+
+    /**
+     * Latencia máxima observada en milisegundos
+     */
+    private double latenciaMaximaMs;
+
+    /**
+     * Objetivo de latencia del carril en milisegundos
+     */
+    private long sloMs;
+
+    /**
+     * Porcentaje de emails enviados dentro del objetivo de latencia
+     */
+    private double porcentajeDentroSlo;
+}
@@ -0,0 +1,83 @@
+package com.perfulandia.emailservice.model;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Modelo de datos con las estadísticas de la cola de envío de emails
+ *
+ * Esta clase se expone en el endpoint /api/email/metricas y permite
+ * comparar cuántos emails se están enviando frente a cuántos se están
+ * difiriendo por los límites de tasa de Gmail.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class EstadisticasEnvio {
+
+    /**
+     * Total de emails aceptados en la cola desde el inicio del servicio
+     */
+    private long encolados;
+
+    /**
+     * Total de emails entregados al servidor SMTP
+     */
+    private long enviados;
+
+    /**
+     * Total de veces que un email se difirió por el límite de tasa
+     */
+    private long diferidos;
+
+    /**
+     * Total de respuestas SMTP temporales (4xx) recibidas
+     */
+    private long rechazosTemporales;
+
+    /**
+     * Total de reintentos programados tras un error temporal
+     */
+    private long reintentos;
+
+    /**
+     * Total de emails enviados al almacén de fallidos (error permanente o reintentos agotados)
+     */
+    private long fallidos;
+
+    /**
+     * Emails actualmente en el almacén de fallidos, disponibles para reintentar
+     */
+    private int enAlmacenFallidos;
+
+    /**
+     * Total de solicitudes rechazadas porque la cola estaba llena
+     */
+    private long rechazadosColaLlena;
+
+    /**
+     * Emails actualmente en la cola (incluye diferidos)
+     */
+    private int pendientes;
+
+    /**
+     * Emails enviados durante los últimos 60 segundos
+     */
+    private long enviadosUltimoMinuto;
+
+    /**
+     * Emails diferidos por el limitador durante los últimos 60 segundos
+     */
+    private long diferidosUltimoMinuto;
+
+    /**
+     * Estadísticas y latencias de cada carril de prioridad
+     */
+    private List<EstadisticasCarril> carriles;
+}
@@ -0,0 +1,46 @@
+package com.perfulandia.emailservice.model;
+
+import lombok.*;
+
+/**
+ * Línea de un pedido recibida desde otro microservicio
+ * 
+ * Solo trae el ID del producto: el nombre se resuelve en este servicio
+ * al construir el email.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class LineaPedido {
+    
+    /**
+     * ID del producto comprado
+     */
+    private Long productoId;
+    
+    /**
+     * Unidades compradas
+     */
+    private Integer cantidad;
+    
+    /**
+     * Precio unitario cobrado (el del carrito, no el actual del catálogo)
+     */
+    private Double precioUnitario;
+    
+    /**
+     * Verifica si la línea tiene datos válidos
+     * 
+     * @return true si tiene producto, cantidad positiva y precio no negativo
+     */
+    public boolean tieneDatosValidos() {
+        return productoId != null &&
+               cantidad != null && cantidad > 0 &&
+               precioUnitario != null && precioUnitario >= 0;
+    }
+}
@@ -0,0 +1,72 @@
+package com.perfulandia.emailservice.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Modelo de datos para la confirmación de un pedido enviada por otro microservicio
+ * 
+ * A diferencia de CompraRequest, trae solo IDs: el usuario y los nombres
+ * de los productos se resuelven aquí (con caché y en una sola consulta
+ * por servicio), de modo que quien confirma el pedido no tiene que
+ * consultar esos datos antes de avisar. Se utiliza en el endpoint
+ * /api/email/compra/pedido, que llama el checkout del carrito.
+ * 
+ * Campos obligatorios:
+ * - usuarioId: ID del cliente que realizó la compra
+ * - numeroPedido: Número único del pedido
+ * - fechaCompra: Fecha y hora de la compra
+ * - lineas: Productos, cantidades y precios
+ * - total: Monto total de la compra
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class PedidoRequest {
+    
+    /**
+     * ID del usuario que realizó la compra
+     */
+    private Long usuarioId;
+    
+    /**
+     * Número único del pedido
+     */
+    private String numeroPedido;
+    
+    /**
+     * Fecha y hora de la compra
+     */
+    private LocalDateTime fechaCompra;
+    
+    /**
+     * Productos comprados con su cantidad y precio unitario
+     */
+    private List<LineaPedido> lineas;
+    
+    /**
+     * Monto total de la compra
+     */
+    private Double total;
+    
+    /**
+     * Verifica si la solicitud tiene datos válidos
+     * 
+     * @return true si todos los campos obligatorios están presentes y las líneas son válidas
+     */
+    public boolean tieneDatosValidos() {
+        return usuarioId != null &&
+               numeroPedido != null && !numeroPedido.trim().isEmpty() &&
+               fechaCompra != null &&
+               lineas != null && !lineas.isEmpty() &&
+               lineas.stream().allMatch(linea -> linea != null && linea.tieneDatosValidos()) &&
+               total != null && total > 0;
+    }
+}
@@ -0,0 +1,73 @@
+package com.perfulandia.emailservice.model;
+
+import com.perfulandia.emailservice.campana.EstadoCampana;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Modelo de datos con el progreso de una campaña de emails
+ * 
+ * Se expone en GET /api/email/campanas/{id} para seguir el avance
+ * de la lectura de destinatarios y el encolado de los emails.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class ProgresoCampana {
+
+    /**
+     * Identificador de la campaña
+     */
+    private Long id;
+
+    /**
+     * Asunto de los emails de la campaña
+     */
+    private String asunto;
+
+    /**
+     * Estado actual de la campaña
+     */
+    private EstadoCampana estado;
+
+    /**
+     * Destinatarios leídos del listado
+     */
+    private long leidos;
+
+    /**
+     * Emails aceptados por la cola de envío
+     */
+    private long encolados;
+
+    /**
+     * IDs de usuario que no existen
+     */
+    private long noEncontrados;
+
+    /**
+     * Líneas del listado que no se pudieron interpretar
+     */
+    private long invalidos;
+
+    /**
+     * Motivo del fallo, si la campaña terminó en estado FALLIDA
+     */
+    private String error;
+
+    /**
+     * Fecha de creación de la campaña
+     */
+    private LocalDateTime creadaEn;
+
+    /**
+     * Fecha en que la campaña terminó (completada o fallida)
+     */
+    private LocalDateTime finalizadaEn;
+}
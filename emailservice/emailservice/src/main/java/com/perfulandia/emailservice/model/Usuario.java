@@ -1,5 +1,6 @@
 package com.perfulandia.emailservice.model;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.*;
 
 /**
@@ -55,7 +56,11 @@ public class Usuario {
      * 
      * Debe ser una dirección de email válida en formato
      * estándar (ejemplo@dominio.com).
+     * 
+     * El microservicio de usuarios expone este dato como "correo",
+     * por eso se acepta también ese nombre al deserializar.
      */
+    @JsonAlias("correo") // Acepta el nombre de campo usado por el microservicio de usuarios
     private String email;
     
     /**
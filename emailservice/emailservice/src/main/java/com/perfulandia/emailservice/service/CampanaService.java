@@ -0,0 +1,260 @@
+package com.perfulandia.emailservice.service;
+
+import com.perfulandia.emailservice.campana.Campana;
+import com.perfulandia.emailservice.campana.Destinatario;
+import com.perfulandia.emailservice.campana.EstadoCampana;
+import com.perfulandia.emailservice.campana.FormatoDestinatarios;
+import com.perfulandia.emailservice.campana.LectorDestinatarios;
+import com.perfulandia.emailservice.envio.Carril;
+import com.perfulandia.emailservice.model.CampanaRequest;
+import com.perfulandia.emailservice.model.ProgresoCampana;
+import com.perfulandia.emailservice.model.Usuario;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio que gestiona las campañas de emails masivos
+ *
+ * Una campaña se crea con un asunto y una plantilla, y luego recibe el
+ * listado de destinatarios (IDs de usuario o direcciones de email) en
+ * formato NDJSON o CSV. El listado se copia a un archivo temporal a
+ * medida que llega y se procesa en segundo plano línea a línea, por lo
+ * que una campaña de cientos de miles de destinatarios no se carga
+ * completa en memoria.
+ *
+ * Responsabilidades principales:
+ * - Resolver los IDs de usuario por lotes contra UsuarioService
+ * - Personalizar el cuerpo de cada email con la plantilla compilada
+ * - Encolar los emails esperando capacidad en la cola (backpressure)
+ * - Informar el progreso de cada campaña
+ * - Olvidar las campañas finalizadas pasado el tiempo de retención
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Slf4j // Genera un logger para registrar el resultado de las campañas
+@Service // Marca esta clase como un servicio de Spring, permitiendo la inyección de dependencias y el escaneo automático de componentes
+public class CampanaService {
+
+    private final ColaEnvioService colaEnvio;
+    private final UsuarioService usuarioService;
+    private final int tamanoLote;
+    private final Duration retencion;
+
+    private final Map<Long, Campana> campanas = new ConcurrentHashMap<>();
+    private final AtomicLong secuencia = new AtomicLong();
+
+    /**
+     * Hilo único que procesa las campañas en orden de llegada
+     * Una campaña masiva no debe competir consigo misma por la cola de envío
+     */
+    private final ExecutorService procesador = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "email-campana");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    @Autowired // Inyecta las dependencias, el tamaño de lote y la retención configurados
+    public CampanaService(ColaEnvioService colaEnvio,
+                          UsuarioService usuarioService,
+                          @Value("${email.campana.tamano-lote:500}") int tamanoLote,
+                          @Value("${email.campana.retencion-minutos:1440}") long retencionMinutos) {
+        this.colaEnvio = colaEnvio;
+        this.usuarioService = usuarioService;
+        this.tamanoLote = tamanoLote;
+        this.retencion = Duration.ofMinutes(retencionMinutos);
+    }
+
+    /**
+     * Detiene el procesamiento de campañas al cerrar la aplicación
+     */
+    @PreDestroy // Se ejecuta antes de destruir el bean
+    public void detener() {
+        procesador.shutdownNow();
+    }
+
+    /**
+     * Crea una campaña a la espera de su listado de destinatarios
+     *
+     * @param request Asunto y plantilla de la campaña
+     * @return Progreso inicial de la campaña (incluye su ID)
+     */
+    public ProgresoCampana crearCampana(CampanaRequest request) {
+        descartarAntiguas();
+        Long id = secuencia.incrementAndGet();
+        Campana campana = new Campana(id, request.getAsunto(), request.getPlantilla());
+        campanas.put(id, campana);
+        return campana.progreso();
+    }
+
+    /**
+     * Obtiene el progreso de una campaña
+     *
+     * @param id ID de la campaña
+     * @return Progreso actual de la campaña
+     * @throws NoSuchElementException si la campaña no existe
+     */
+    public ProgresoCampana obtenerProgreso(Long id) {
+        return buscar(id).progreso();
+    }
+
+    /**
+     * Recibe el listado de destinatarios y programa su procesamiento
+     *
+     * El listado se copia a un archivo temporal mientras se lee de la
+     * petición; el envío se realiza después, en segundo plano.
+     *
+     * @param id ID de la campaña
+     * @param destinatarios Cuerpo de la petición con el listado
+     * @param formato Formato del listado (NDJSON o CSV)
+     * @return Progreso de la campaña tras recibir el listado
+     * @throws NoSuchElementException si la campaña no existe
+     * @throws IllegalStateException si la campaña ya recibió su listado
+     * @throws IOException si falla la copia del listado
+     */
+    public ProgresoCampana recibirDestinatarios(Long id, InputStream destinatarios, FormatoDestinatarios formato)
+            throws IOException {
+        Campana campana = buscar(id);
+        synchronized (campana) {
+            if (campana.getEstado() != EstadoCampana.CREADA) {
+                throw new IllegalStateException("La campaña " + id + " ya recibió su listado de destinatarios");
+            }
+            campana.cambiarEstado(EstadoCampana.EN_ESPERA);
+        }
+
+        Path archivo = Files.createTempFile("campana-" + id + "-", ".tmp");
+        try {
+            Files.copy(destinatarios, archivo, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(archivo);
+            campana.fallar("No se pudo recibir el listado: " + e.getMessage());
+            throw e;
+        }
+
+        procesador.submit(() -> procesarArchivo(campana, archivo, formato));
+        return campana.progreso();
+    }
+
+    private void procesarArchivo(Campana campana, Path archivo, FormatoDestinatarios formato) {
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            procesar(campana, lector, formato);
+            log.info("Campaña {} completada: {} emails encolados", campana.getId(), campana.getEncolados().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            campana.fallar("Procesamiento interrumpido");
+        } catch (IOException | RuntimeException e) {
+            log.error("Error procesando la campaña {}", campana.getId(), e);
+            campana.fallar(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(archivo);
+            } catch (IOException e) {
+                log.warn("No se pudo eliminar el archivo temporal {}", archivo);
+            }
+        }
+    }
+
+    /**
+     * Lee el listado completo, resolviendo y encolando por lotes
+     */
+    void procesar(Campana campana, BufferedReader lector, FormatoDestinatarios formato)
+            throws IOException, InterruptedException {
+        campana.cambiarEstado(EstadoCampana.EN_PROCESO);
+        LectorDestinatarios destinatarios = new LectorDestinatarios(lector, formato);
+        List<Destinatario> lote = new ArrayList<>(tamanoLote);
+
+        Destinatario destinatario;
+        while ((destinatario = destinatarios.siguiente()) != null) {
+            campana.getLeidos().incrementAndGet();
+            lote.add(destinatario);
+            if (lote.size() == tamanoLote) {
+                procesarLote(campana, lote);
+                lote.clear();
+            }
+            campana.getInvalidos().set(destinatarios.getInvalidos());
+        }
+        procesarLote(campana, lote);
+        campana.getInvalidos().set(destinatarios.getInvalidos());
+        campana.cambiarEstado(EstadoCampana.COMPLETADA);
+    }
+
+    private void procesarLote(Campana campana, List<Destinatario> lote) throws InterruptedException {
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        // Una sola consulta por lote para todos los destinatarios identificados por ID
+        List<Long> ids = new ArrayList<>();
+        for (Destinatario destinatario : lote) {
+            if (destinatario.tieneId()) {
+                ids.add(destinatario.getUsuarioId());
+            }
+        }
+        Map<Long, Usuario> usuarios = ids.isEmpty() ? Map.of() : usuarioService.getUsersByIds(ids);
+
+        for (Destinatario destinatario : lote) {
+            Usuario usuario = destinatario.tieneId()
+                    ? usuarios.get(destinatario.getUsuarioId())
+                    : Usuario.builder().email(destinatario.getEmail()).nombre(destinatario.getNombre()).build();
+            if (usuario == null || usuario.getEmail() == null) {
+                campana.getNoEncontrados().incrementAndGet();
+                continue;
+            }
+
+            SimpleMailMessage mensaje = new SimpleMailMessage();
+            mensaje.setTo(usuario.getEmail());
+            mensaje.setSubject(campana.getAsunto());
+            mensaje.setText(campana.getPlantilla().renderizar(usuario));
+            mensaje.setFrom("perfulandia.comercial@gmail.com");
+
+            // Bloquea mientras la cola esté llena: la lectura avanza al ritmo del envío
+            colaEnvio.encolarEsperando(mensaje, Carril.MASIVO);
+            campana.getEncolados().incrementAndGet();
+        }
+    }
+
+    /**
+     * Descarta las campañas finalizadas hace más que el tiempo de retención
+     * y las que en ese tiempo nunca recibieron su listado
+     *
+     * Se llama al crear cada campaña, así el mapa guarda solo las campañas
+     * en curso y las recientes, no todo el historial.
+     */
+    private void descartarAntiguas() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencion);
+        campanas.values().removeIf(campana -> campana.getFinalizadaEn() != null
+                ? !campana.getFinalizadaEn().isAfter(limite)
+                : campana.getEstado() == EstadoCampana.CREADA && !campana.getCreadaEn().isAfter(limite));
+    }
+
+    private Campana buscar(Long id) {
+        Campana campana = campanas.get(id);
+        if (campana == null) {
+            throw new NoSuchElementException("Campaña no encontrada con ID: " + id);
+        }
+        return campana;
+    }
+}
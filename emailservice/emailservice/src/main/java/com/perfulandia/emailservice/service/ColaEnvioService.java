@@ -0,0 +1,329 @@
+package com.perfulandia.emailservice.service;
+
+import com.perfulandia.emailservice.envio.AlmacenFallidos;
+import com.perfulandia.emailservice.envio.Carril;
+import com.perfulandia.emailservice.envio.ClasificadorErrorSmtp;
+import com.perfulandia.emailservice.envio.ColaLlenaException;
+import com.perfulandia.emailservice.envio.ConfiguracionCarriles;
+import com.perfulandia.emailservice.envio.EnvioPendiente;
+import com.perfulandia.emailservice.envio.LimitadorEnvio;
+import com.perfulandia.emailservice.envio.MetricasEnvio;
+import com.perfulandia.emailservice.envio.PlanificadorCarriles;
+import com.perfulandia.emailservice.envio.PoliticaReintentos;
+import com.perfulandia.emailservice.envio.RuedaTemporizacion;
+import com.perfulandia.emailservice.envio.TipoFallo;
+import com.perfulandia.emailservice.model.EnvioFallido;
+import com.perfulandia.emailservice.model.EstadisticasEnvio;
+import io.micrometer.context.ContextSnapshot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Servicio que administra la cola de envío de emails
+ *
+ * Los emails ya no se envían dentro de la petición HTTP: EmailService los
+ * encola aquí y un grupo de hilos trabajadores los despacha respetando los
+ * límites de tasa de Gmail.
+ *
+ * Los emails que deben esperar (límite de tasa o reintento) se guardan en
+ * una rueda de temporización jerárquica; un único hilo temporizador la
+ * avanza cada tick y pasa los vencidos a la cola de listos. Ningún hilo
+ * queda dormido esperando un email concreto.
+ *
+ * Cada email entra a un carril de prioridad (transaccional, notificación
+ * o masivo) con su propia cola y capacidad. Los trabajadores reparten los
+ * envíos entre carriles según sus pesos, de modo que una campaña masiva
+ * que satura el envío no retrasa las confirmaciones de compra.
+ *
+ * Responsabilidades principales:
+ * - Aceptar emails con una capacidad máxima por carril (backpressure)
+ * - Diferir emails cuando la cuenta remitente o el dominio están limitados
+ * - Clasificar los errores de envío en temporales y permanentes
+ * - Reintentar los temporales con backoff exponencial con jitter
+ * - Guardar en el almacén de fallidos los permanentes y los que agotan sus reintentos
+ * - Registrar métricas de enviados vs. diferidos
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Slf4j // Genera un logger para registrar errores de envío
+@Service // Marca esta clase como un servicio de Spring, permitiendo la inyección de dependencias y el escaneo automático de componentes
+public class ColaEnvioService {
+
+    private final JavaMailSender mailSender;
+    private final LimitadorEnvio limitador;
+    private final MetricasEnvio metricas;
+    private final PoliticaReintentos politicaReintentos;
+    private final AlmacenFallidos almacenFallidos;
+
+    /**
+     * Emails listos para despachar de inmediato, separados por carril
+     */
+    private final PlanificadorCarriles listos;
+
+    /**
+     * Emails diferidos o a la espera de un reintento
+     * Se accede siempre sincronizando sobre la propia rueda
+     */
+    private final RuedaTemporizacion<EnvioPendiente> rueda;
+
+    /**
+     * Permisos de capacidad por carril: se toma uno al encolar y se libera al terminar
+     */
+    private final Semaphore[] capacidadDisponible;
+
+    private final ConfiguracionCarriles carriles;
+    private final int hilos;
+    private final long tickNanos;
+
+    private ExecutorService trabajadores;
+    private volatile boolean activo;
+
+    @Autowired // Inyecta las dependencias y la configuración de la cola
+    public ColaEnvioService(JavaMailSender mailSender,
+                            LimitadorEnvio limitador,
+                            MetricasEnvio metricas,
+                            PoliticaReintentos politicaReintentos,
+                            AlmacenFallidos almacenFallidos,
+                            ConfiguracionCarriles carriles,
+                            @Value("${email.cola.hilos:2}") int hilos,
+                            @Value("${email.cola.tick-ms:10}") long tickMs) {
+        this.mailSender = mailSender;
+        this.limitador = limitador;
+        this.metricas = metricas;
+        this.politicaReintentos = politicaReintentos;
+        this.almacenFallidos = almacenFallidos;
+        this.carriles = carriles;
+        this.hilos = hilos;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.listos = new PlanificadorCarriles(carriles);
+        this.capacidadDisponible = new Semaphore[Carril.values().length];
+        for (Carril carril : Carril.values()) {
+            capacidadDisponible[carril.ordinal()] = new Semaphore(carriles.capacidad(carril));
+        }
+        this.rueda = new RuedaTemporizacion<>(tickMs, TimeUnit.MILLISECONDS, 4, System.nanoTime());
+    }
+
+    /**
+     * Inicia los hilos trabajadores y el temporizador al levantar el contexto de Spring
+     */
+    @PostConstruct // Se ejecuta una vez que Spring terminó de inyectar las dependencias
+    public void iniciar() {
+        AtomicInteger contador = new AtomicInteger();
+        activo = true;
+        trabajadores = Executors.newFixedThreadPool(hilos + 1, tarea -> {
+            Thread hilo = new Thread(tarea, "email-envio-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        trabajadores.submit(this::avanzarTemporizador);
+        for (int i = 0; i < hilos; i++) {
+            trabajadores.submit(this::procesarContinuamente);
+        }
+    }
+
+    /**
+     * Detiene los hilos trabajadores al cerrar la aplicación
+     */
+    @PreDestroy // Se ejecuta antes de destruir el bean
+    public void detener() {
+        activo = false;
+        if (trabajadores != null) {
+            trabajadores.shutdownNow();
+        }
+    }
+
+    /**
+     * Agrega un email a la cola de envío
+     *
+     * @param mensaje Mensaje a enviar
+     * @param carril Carril de prioridad del email
+     * @throws ColaLlenaException si el carril alcanzó su capacidad máxima
+     */
+    public void encolar(SimpleMailMessage mensaje, Carril carril) {
+        if (!capacidadDisponible[carril.ordinal()].tryAcquire()) {
+            metricas.registrarColaLlena(carril);
+            throw new ColaLlenaException(carril, carriles.capacidad(carril));
+        }
+        listos.agregar(new EnvioPendiente(mensaje, carril, System.nanoTime()));
+        metricas.registrarEncolado(carril);
+    }
+
+    /**
+     * Agrega un email a la cola esperando a que haya capacidad
+     *
+     * Pensado para productores masivos (campañas): en lugar de rechazar
+     * el email cuando la cola está llena, bloquea al productor hasta que
+     * los trabajadores liberen espacio, de modo que la lectura de
+     * destinatarios avanza al ritmo del envío. Solo espera por la
+     * capacidad de su propio carril.
+     *
+     * @param mensaje Mensaje a enviar
+     * @param carril Carril de prioridad del email
+     * @throws InterruptedException si el hilo productor es interrumpido mientras espera
+     */
+    public void encolarEsperando(SimpleMailMessage mensaje, Carril carril) throws InterruptedException {
+        capacidadDisponible[carril.ordinal()].acquire();
+        listos.agregar(new EnvioPendiente(mensaje, carril, System.nanoTime()));
+        metricas.registrarEncolado(carril);
+    }
+
+    /**
+     * Obtiene las estadísticas actuales de la cola
+     *
+     * @return Métricas de enviados, diferidos y fallidos, con las latencias de cada carril
+     */
+    public EstadisticasEnvio obtenerEstadisticas() {
+        return metricas.instantanea(pendientes(), almacenFallidos.tamano(), carriles, this::pendientes);
+    }
+
+    /**
+     * Despacha el siguiente email listo, si existe (usado por los tests)
+     *
+     * @return true si había un email listo para procesar
+     */
+    boolean procesarSiguiente() {
+        moverVencidos();
+        EnvioPendiente envio = listos.sondear();
+        if (envio == null) {
+            return false;
+        }
+        despachar(envio);
+        return true;
+    }
+
+    /**
+     * Cantidad de emails en la cola, incluidos los diferidos
+     */
+    int pendientes() {
+        synchronized (rueda) {
+            return listos.tamano() + rueda.tamano();
+        }
+    }
+
+    /**
+     * Cantidad de emails de un carril que todavía no terminan (listos, diferidos o enviándose)
+     */
+    int pendientes(Carril carril) {
+        return carriles.capacidad(carril) - capacidadDisponible[carril.ordinal()].availablePermits();
+    }
+
+    private void procesarContinuamente() {
+        while (activo) {
+            try {
+                despachar(listos.tomar());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error inesperado en la cola de envío", e);
+            }
+        }
+    }
+
+    /**
+     * Bucle del hilo temporizador: avanza la rueda una vez por tick
+     */
+    private void avanzarTemporizador() {
+        while (activo && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(tickNanos);
+            moverVencidos();
+        }
+    }
+
+    private void moverVencidos() {
+        List<EnvioPendiente> vencidos;
+        synchronized (rueda) {
+            vencidos = rueda.avanzar(System.nanoTime());
+        }
+        listos.agregarTodos(vencidos);
+    }
+
+    private void programar(EnvioPendiente envio) {
+        boolean programado;
+        synchronized (rueda) {
+            programado = rueda.programar(envio, envio.getListoEn());
+        }
+        if (!programado) {
+            listos.agregar(envio);
+        }
+    }
+
+    /**
+     * Intenta enviar un email respetando los límites de tasa
+     *
+     * Si el limitador pide esperar, el email vuelve a la rueda diferido.
+     * Si el envío falla con un error temporal se reprograma con backoff;
+     * si es permanente o se agotaron los intentos, pasa al almacén de fallidos.
+     */
+    private void despachar(EnvioPendiente envio) {
+        String remitente = envio.getMensaje().getFrom();
+        String dominio = LimitadorEnvio.dominioDe(envio.getDestinatario());
+
+        long espera = limitador.reservar(remitente, dominio);
+        if (espera > 0) {
+            metricas.registrarDiferido();
+            programar(envio.diferir(espera));
+            return;
+        }
+
+        try {
+            try (ContextSnapshot.Scope traza = envio.restaurarContexto()) {
+                mailSender.send(envio.getMensaje());
+            }
+            limitador.registrarExito(remitente, dominio);
+            metricas.registrarEnviado(envio.getCarril(), System.nanoTime() - envio.getEncoladoEn());
+            capacidadDisponible[envio.getCarril().ordinal()].release();
+        } catch (RuntimeException e) {
+            // Normalmente MailException; cualquier otro error se clasifica como permanente
+            int codigo = ClasificadorErrorSmtp.codigoRespuesta(e);
+            TipoFallo tipo = ClasificadorErrorSmtp.clasificar(e);
+
+            long pausaLimitador = 0;
+            if (ClasificadorErrorSmtp.esTemporal(codigo)) {
+                // El servidor pide bajar el ritmo: se penaliza la tasa del remitente o dominio
+                pausaLimitador = limitador.registrarRechazoTemporal(remitente, dominio, codigo);
+                metricas.registrarRechazoTemporal();
+            }
+
+            if (tipo == TipoFallo.TEMPORAL && politicaReintentos.puedeReintentar(envio.getIntentos() + 1)) {
+                long backoff = Math.max(pausaLimitador, politicaReintentos.esperaNanos(envio.getIntentos()));
+                metricas.registrarReintento();
+                programar(envio.reintentar(backoff));
+                return;
+            }
+
+            metricas.registrarFallido();
+            capacidadDisponible[envio.getCarril().ordinal()].release();
+            EnvioFallido fallido = almacenFallidos.guardar(EnvioFallido.builder()
+                    .para(envio.getDestinatario())
+                    .carril(envio.getCarril())
+                    .asunto(envio.getMensaje().getSubject())
+                    .intentos(envio.getIntentos() + 1)
+                    .codigoSmtp(codigo)
+                    .tipo(tipo)
+                    .error(e.getMessage())
+                    .fallidoEn(LocalDateTime.now())
+                    .mensaje(envio.getMensaje())
+                    .build());
+            log.warn("Email a {} movido al almacén de fallidos (id {}, código SMTP {}, {} intentos): {}",
+                    fallido.getPara(), fallido.getId(), codigo, fallido.getIntentos(), e.getMessage());
+        }
+    }
+}
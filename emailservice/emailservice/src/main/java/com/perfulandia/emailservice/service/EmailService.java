@@ -1,14 +1,18 @@
 package com.perfulandia.emailservice.service;
 
+import com.perfulandia.emailservice.envio.Carril;
 import com.perfulandia.emailservice.model.EmailRequest;
 import com.perfulandia.emailservice.model.CompraRequest;
+import com.perfulandia.emailservice.model.LineaPedido;
+import com.perfulandia.emailservice.model.PedidoRequest;
 import com.perfulandia.emailservice.model.Usuario;
 import com.perfulandia.emailservice.model.Producto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 /**
  * Servicio que contiene la lógica de negocio para el envío de emails
  * 
@@ -17,7 +21,8 @@ import org.springframework.stereotype.Service;
  * confirmación de compra personalizados.
  * 
  * Dependencias inyectadas:
- * - JavaMailSender: Para el envío real de emails
+ * - ColaEnvioService: Cola que despacha los emails respetando los límites de tasa
+ *   (las confirmaciones de compra van por el carril transaccional y el resto por el de notificaciones)
  * - ProductoService: Para obtener información de productos
  * - UsuarioService: Para obtener información de usuarios
  * 
@@ -25,6 +30,7 @@ import org.springframework.stereotype.Service;
  * - Envío de emails simples con destinatario, asunto y mensaje
  * - Envío de emails por ID de usuario
  * - Envío de emails de confirmación de compra
+ * - Envío de emails de confirmación de pedidos identificados solo por IDs
  * - Validación de datos de entrada
  * - Manejo de errores de envío
  * 
@@ -36,11 +42,11 @@ import org.springframework.stereotype.Service;
 public class EmailService {
 
     /**
-     * Bean de Spring para el envío de emails
-     * Configurado automáticamente con los parámetros SMTP de Gmail
+     * Cola de envío de emails
+     * Despacha los mensajes en segundo plano respetando los límites de Gmail
      */
-    @Autowired // Inyecta automáticamente el bean JavaMailSender
-    private JavaMailSender mailSender;
+    @Autowired // Inyecta automáticamente el bean ColaEnvioService
+    private ColaEnvioService colaEnvio;
     
     /**
      * Servicio para obtener información de productos
@@ -60,11 +66,11 @@ public class EmailService {
      * Envía un email simple con los datos proporcionados
      * 
      * Este método valida que todos los campos obligatorios estén presentes
-     * y envía un email usando el JavaMailSender configurado.
+     * y deja el email en la cola de envío, que lo despacha en segundo plano.
      * 
      * @param request Objeto EmailRequest con los datos del email
      * @throws NullPointerException si algún campo obligatorio es null
-     * @throws RuntimeException si hay error en el envío
+     * @throws RuntimeException si la cola de envío está llena
      */
     public void enviarCorreo(EmailRequest request) {
         // Validar que los campos no sean nulos
@@ -85,8 +91,8 @@ public class EmailService {
         mensaje.setText(request.getMensaje());
         mensaje.setFrom("perfulandia.comercial@gmail.com");
 
-        // Enviar el email
-        mailSender.send(mensaje);
+        // Encolar el email para su envío
+        colaEnvio.encolar(mensaje, Carril.NOTIFICACION);
     }
 
     /**
@@ -108,14 +114,14 @@ public class EmailService {
         String nombre = user.getNombre();
         String mensajePersonalizado = "Hola " + nombre + "\n" + body;
 
-        // Crear y enviar el email
+        // Crear y encolar el email
         SimpleMailMessage mensaje = new SimpleMailMessage();
         mensaje.setTo(user.getEmail());
         mensaje.setSubject(subject);
         mensaje.setText(mensajePersonalizado);
         mensaje.setFrom("perfulandia.comercial@gmail.com");
 
-        mailSender.send(mensaje);
+        colaEnvio.encolar(mensaje, Carril.NOTIFICACION);
     }
 
     /**
@@ -141,14 +147,14 @@ public class EmailService {
                 user.getNombre(), producto.getNombre(), producto.getPrecio()
         );
 
-        // Crear y enviar el email
+        // Crear y encolar el email
         SimpleMailMessage mail = new SimpleMailMessage();
         mail.setTo(user.getEmail());
         mail.setSubject(asunto);
         mail.setText(mensaje);
         mail.setFrom("perfulandia.comercial@gmail.com");
 
-        mailSender.send(mail);
+        colaEnvio.encolar(mail, Carril.TRANSACCIONAL);
     }
     
     /**
@@ -162,12 +168,34 @@ public class EmailService {
      * @throws RuntimeException si hay error en el envío
      */
     public void enviarEmailCompra(CompraRequest request) {
-        // Obtener datos del usuario y productos
+        // Obtener datos del usuario
         Usuario usuario = request.getUsuario();
         
         // Crear el asunto del email
         String asunto = "Confirmación de compra - Pedido #" + request.getNumeroPedido();
         
+        // Crear y encolar el email
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setTo(usuario.getEmail());
+        mail.setSubject(asunto);
+        mail.setText(redactarCompra(request));
+        mail.setFrom("perfulandia.comercial@gmail.com");
+        
+        colaEnvio.encolar(mail, Carril.TRANSACCIONAL);
+    }
+    
+    /**
+     * Redacta el cuerpo del email de confirmación de compra
+     * 
+     * Separado del envío para poder medirlo sin encolar nada
+     * (ver EmailBenchmark).
+     * 
+     * @param request Objeto CompraRequest con todos los datos de la compra
+     * @return Texto del email con el pedido, los productos y el total
+     */
+    String redactarCompra(CompraRequest request) {
+        Usuario usuario = request.getUsuario();
+        
         // Construir el mensaje con detalles de la compra
         StringBuilder mensaje = new StringBuilder();
         mensaje.append("Hola ").append(usuario.getNombre()).append(",\n\n");
@@ -184,17 +212,63 @@ public class EmailService {
                    .append("\n");
         }
         
+        mensaje.append("\nTotal de la compra: $").append(String.format("%.2f", request.getTotal()));
+        mensaje.append("\n\nGracias por elegir Perfulandia.\n");
+        mensaje.append("Te mantendremos informado sobre el estado de tu pedido.");
+        return mensaje.toString();
+    }
+    
+    /**
+     * Envía un email de confirmación de un pedido recibido con IDs
+     * 
+     * Resuelve el usuario y los nombres de todos los productos del pedido
+     * (una sola consulta de productos, servida desde la caché cuando se
+     * puede) y encola el email en el carril transaccional. Si un producto
+     * ya no existe en el catálogo se muestra su ID en lugar del nombre:
+     * el pedido ya está confirmado y el email no debe perderse por eso.
+     * 
+     * @param request Objeto PedidoRequest con los datos del pedido
+     * @throws RuntimeException si el usuario no existe, algún microservicio no responde o la cola está llena
+     */
+    public void enviarEmailPedido(PedidoRequest request) {
+        // Obtener el usuario y los productos del pedido
+        Usuario usuario = usuarioService.getUserById(request.getUsuarioId());
+        Map<Long, Producto> productos = productoService.obtenerProductosPorIds(
+                request.getLineas().stream().map(LineaPedido::getProductoId).distinct().toList());
+        
+        // Crear el asunto del email
+        String asunto = "Confirmación de compra - Pedido #" + request.getNumeroPedido();
+        
+        // Construir el mensaje con detalles del pedido
+        StringBuilder mensaje = new StringBuilder();
+        mensaje.append("Hola ").append(usuario.getNombre()).append(",\n\n");
+        mensaje.append("Gracias por tu compra. Tu pedido ha sido confirmado.\n\n");
+        mensaje.append("Detalles del pedido:\n");
+        mensaje.append("Número de pedido: ").append(request.getNumeroPedido()).append("\n");
+        mensaje.append("Fecha: ").append(request.getFechaCompra()).append("\n\n");
+        
+        // Agregar lista de productos con cantidad y subtotal
+        mensaje.append("Productos comprados:\n");
+        for (LineaPedido linea : request.getLineas()) {
+            Producto producto = productos.get(linea.getProductoId());
+            String nombre = producto != null ? producto.getNombre() : "Producto #" + linea.getProductoId();
+            mensaje.append("- ").append(nombre)
+                   .append(" x").append(linea.getCantidad())
+                   .append(" - $").append(String.format("%.2f", linea.getPrecioUnitario() * linea.getCantidad()))
+                   .append("\n");
+        }
+        
         mensaje.append("\nTotal de la compra: $").append(String.format("%.2f", request.getTotal()));
         mensaje.append("\n\nGracias por elegir Perfulandia.\n");
         mensaje.append("Te mantendremos informado sobre el estado de tu pedido.");
         
-        // Crear y enviar el email
+        // Crear y encolar el email
         SimpleMailMessage mail = new SimpleMailMessage();
         mail.setTo(usuario.getEmail());
         mail.setSubject(asunto);
         mail.setText(mensaje.toString());
         mail.setFrom("perfulandia.comercial@gmail.com");
         
-        mailSender.send(mail);
+        colaEnvio.encolar(mail, Carril.TRANSACCIONAL);
     }
 }
\ No newline at end of file
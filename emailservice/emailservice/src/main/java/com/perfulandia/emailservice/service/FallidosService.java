@@ -0,0 +1,125 @@
+package com.perfulandia.emailservice.service;
+
+import com.perfulandia.emailservice.envio.AlmacenFallidos;
+import com.perfulandia.emailservice.envio.ColaLlenaException;
+import com.perfulandia.emailservice.model.EnvioFallido;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Servicio de administración de los emails que no se pudieron enviar
+ * 
+ * Permite revisar el almacén de fallidos (dead-letter) y volver a
+ * poner en la cola de envío los emails una vez corregida la causa
+ * del fallo (por ejemplo, credenciales SMTP o una dirección mal escrita
+ * en el servidor de destino).
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Service // Marca esta clase como un servicio de Spring, permitiendo la inyección de dependencias y el escaneo automático de componentes
+@RequiredArgsConstructor // Genera un constructor con los campos final para la inyección de dependencias
+public class FallidosService {
+
+    /**
+     * Almacén donde la cola deja los emails fallidos
+     */
+    private final AlmacenFallidos almacenFallidos;
+
+    /**
+     * Cola de envío donde se reintentan los emails
+     */
+    private final ColaEnvioService colaEnvio;
+
+    /**
+     * Lista los emails fallidos, los más recientes primero
+     * 
+     * @param limite Cantidad máxima de resultados
+     * @return Lista de emails fallidos
+     */
+    public List<EnvioFallido> listar(int limite) {
+        return almacenFallidos.listar(limite);
+    }
+
+    /**
+     * Obtiene un email fallido por su ID
+     * 
+     * @param id ID del email fallido
+     * @return El email fallido
+     * @throws NoSuchElementException si no existe
+     */
+    public EnvioFallido buscar(Long id) {
+        return almacenFallidos.buscar(id)
+                .orElseThrow(() -> new NoSuchElementException("Email fallido no encontrado con ID: " + id));
+    }
+
+    /**
+     * Vuelve a encolar un email fallido y lo retira del almacén
+     * 
+     * @param id ID del email fallido
+     * @throws NoSuchElementException si no existe
+     * @throws ColaLlenaException si la cola de envío está llena (el email permanece en el almacén)
+     */
+    public void reintentar(Long id) {
+        EnvioFallido fallido = almacenFallidos.retirar(id)
+                .orElseThrow(() -> new NoSuchElementException("Email fallido no encontrado con ID: " + id));
+        try {
+            colaEnvio.encolar(fallido.getMensaje(), fallido.getCarril());
+        } catch (ColaLlenaException e) {
+            almacenFallidos.restaurar(fallido);
+            throw e;
+        }
+    }
+
+    /**
+     * Vuelve a encolar todos los emails fallidos, del más antiguo al más reciente
+     * 
+     * Se detiene si la cola de envío se llena; los emails que no
+     * alcanzaron a encolarse permanecen en el almacén.
+     * 
+     * @return Cantidad de emails encolados
+     */
+    public int reintentarTodos() {
+        List<EnvioFallido> todos = almacenFallidos.retirarTodos();
+        int encolados = 0;
+        boolean colaLlena = false;
+        for (EnvioFallido fallido : todos) {
+            if (!colaLlena) {
+                try {
+                    colaEnvio.encolar(fallido.getMensaje(), fallido.getCarril());
+                    encolados++;
+                    continue;
+                } catch (ColaLlenaException e) {
+                    // Cola llena: este email y los siguientes vuelven al almacén
+                    colaLlena = true;
+                }
+            }
+            almacenFallidos.restaurar(fallido);
+        }
+        return encolados;
+    }
+
+    /**
+     * Descarta definitivamente un email fallido
+     * 
+     * @param id ID del email fallido
+     * @throws NoSuchElementException si no existe
+     */
+    public void eliminar(Long id) {
+        almacenFallidos.retirar(id)
+                .orElseThrow(() -> new NoSuchElementException("Email fallido no encontrado con ID: " + id));
+    }
+
+    /**
+     * Descarta todos los emails fallidos
+     * 
+     * @return Cantidad de emails descartados
+     */
+    public int eliminarTodos() {
+        return almacenFallidos.retirarTodos().size();
+    }
+}
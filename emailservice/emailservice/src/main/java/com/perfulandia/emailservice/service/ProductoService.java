@@ -1,24 +1,36 @@
 package com.perfulandia.emailservice.service;
 
+import com.perfulandia.clientes.ClienteEntidades;
+import com.perfulandia.clientes.ConfiguracionCliente;
 import com.perfulandia.emailservice.model.Producto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Servicio para obtener información de productos
  * 
- * Esta clase simula la obtención de datos de productos desde
- * el microservicio de productos. En una implementación real,
- * este servicio haría llamadas HTTP al microservicio de productos
- * para obtener la información necesaria.
+ * Esta clase consulta el microservicio de productos por HTTP
+ * (GET /api/productos/lote) y guarda los resultados en una caché
+ * local, de modo que las confirmaciones de una venta masiva del
+ * mismo producto no generan una llamada remota por cada email.
  * 
  * Responsabilidades principales:
  * - Obtener información de productos por ID
- * - Simular datos de productos para testing
+ * - Resolver varios productos con una sola llamada remota
  * - Manejo de casos donde el producto no existe
  * 
- * Nota: Esta es una implementación simulada para el propósito
- * de testing y demostración. En producción, se conectaría
- * al microservicio real de productos.
+ * La caché entrega valores vencidos mientras los recarga en segundo
+ * plano, y las búsquedas simultáneas (del mismo o de distintos productos)
+ * salen juntas en una sola llamada (ver ClienteEntidades en el módulo clientes).
  * 
  * @author Equipo Perfulandia
  * @version 1.0
@@ -27,67 +39,59 @@ import org.springframework.stereotype.Service;
 @Service // Marca esta clase como un servicio de Spring, permitiendo la inyección de dependencias y el escaneo automático de componentes
 public class ProductoService {
     
+    private static final ParameterizedTypeReference<List<Producto>> LISTA_PRODUCTOS =
+            new ParameterizedTypeReference<>() { };
+    
+    /**
+     * Cliente del endpoint de lote con caché por ID y agrupamiento de búsquedas
+     */
+    private final ClienteEntidades<Producto> cliente;
+    
+    @Autowired // Inyecta el cliente HTTP, la configuración de la caché y el registro de métricas
+    public ProductoService(@Qualifier("clienteProductos") RestClient clienteProductos,
+                           @Value("${email.clientes.productos.cache.ttl-segundos:30}") long ttlSegundos,
+                           @Value("${email.clientes.productos.cache.obsoleto-segundos:300}") long obsoletoSegundos,
+                           @Value("${email.clientes.productos.cache.maximo-entradas:10000}") int maximoEntradas,
+                           @Value("${email.clientes.ventana-lote-ms:2}") long ventanaLoteMs,
+                           MeterRegistry registro) {
+        ConfiguracionCliente configuracion = ConfiguracionCliente.builder()
+                .ttlSegundos(ttlSegundos)
+                .obsoletoSegundos(obsoletoSegundos)
+                .maximoEntradas(maximoEntradas)
+                .ventanaLoteMs(ventanaLoteMs)
+                .build();
+        this.cliente = new ClienteEntidades<>("productos", clienteProductos, "/api/productos/lote", LISTA_PRODUCTOS,
+                producto -> Long.valueOf(producto.getId()), configuracion, registro);
+    }
+    
     /**
      * Obtiene un producto por su ID
      * 
-     * Este método simula la búsqueda de un producto en la base de datos
-     * o en el microservicio de productos. Para el propósito de testing,
-     * retorna datos simulados basados en el ID proporcionado.
-     * 
      * @param id ID del producto a buscar
      * @return Producto con los datos correspondientes al ID
-     * @throws RuntimeException si el producto no existe
+     * @throws RuntimeException si el producto no existe o el microservicio no responde
      */
     public Producto obtenerProductoPorId(Long id) {
-        // Simulación de datos de productos para testing
-        // En una implementación real, esto haría una llamada HTTP
-        // al microservicio de productos
-        
         if (id == null) {
             throw new RuntimeException("ID de producto no puede ser null");
         }
         
-        // Simular diferentes productos basados en el ID
-        switch (id.intValue()) {
-            case 1:
-                return Producto.builder()
-                    .id("1")
-                    .nombre("Laptop Gaming")
-                    .precio(1299.99)
-                    .stock(10)
-                    .build();
-            case 2:
-                return Producto.builder()
-                    .id("2")
-                    .nombre("Smartphone Pro")
-                    .precio(899.99)
-                    .stock(15)
-                    .build();
-            case 3:
-                return Producto.builder()
-                    .id("3")
-                    .nombre("Auriculares Wireless")
-                    .precio(199.99)
-                    .stock(25)
-                    .build();
-            case 4:
-                return Producto.builder()
-                    .id("4")
-                    .nombre("Tablet Ultra")
-                    .precio(499.99)
-                    .stock(8)
-                    .build();
-            case 5:
-                return Producto.builder()
-                    .id("5")
-                    .nombre("Smartwatch Sport")
-                    .precio(299.99)
-                    .stock(20)
-                    .build();
-            default:
-                // Simular que el producto no existe
-                throw new RuntimeException("Producto no encontrado con ID: " + id);
+        Producto producto = cliente.buscar(id).orElse(null);
+        if (producto == null) {
+            throw new RuntimeException("Producto no encontrado con ID: " + id);
         }
+        return producto;
+    }
+    
+    /**
+     * Obtiene varios productos en una sola operación
+     * 
+     * @param ids IDs de los productos a buscar
+     * @return Mapa de ID a Producto con los productos encontrados
+     * @throws RuntimeException si el microservicio no responde
+     */
+    public Map<Long, Producto> obtenerProductosPorIds(Collection<Long> ids) {
+        return cliente.buscarVarios(ids);
     }
     
     /**
@@ -142,7 +146,8 @@ public class ProductoService {
      * Verifica si un producto está disponible (tiene stock)
      * 
      * Este método verifica si un producto tiene stock disponible
-     * para la venta.
+     * para la venta. Como el stock cambia con cada venta, este valor
+     * puede estar desactualizado según el TTL de la caché.
      * 
      * @param id ID del producto
      * @return true si el producto tiene stock disponible, false en caso contrario
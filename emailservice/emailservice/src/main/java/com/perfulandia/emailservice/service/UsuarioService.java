@@ -1,24 +1,36 @@
 package com.perfulandia.emailservice.service;
 
+import com.perfulandia.clientes.ClienteEntidades;
+import com.perfulandia.clientes.ConfiguracionCliente;
 import com.perfulandia.emailservice.model.Usuario;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Servicio para obtener información de usuarios
  * 
- * Esta clase simula la obtención de datos de usuarios desde
- * el microservicio de usuarios. En una implementación real,
- * este servicio haría llamadas HTTP al microservicio de usuarios
- * para obtener la información necesaria.
+ * Esta clase consulta el microservicio de usuarios por HTTP
+ * (GET /api/usuarios/lote) y guarda los resultados en una caché
+ * local, de modo que enviar muchos emails a los mismos clientes
+ * no genera una llamada remota por cada email.
  * 
  * Responsabilidades principales:
  * - Obtener información de usuarios por ID
- * - Simular datos de usuarios para testing
+ * - Resolver varios usuarios con una sola llamada remota
  * - Manejo de casos donde el usuario no existe
  * 
- * Nota: Esta es una implementación simulada para el propósito
- * de testing y demostración. En producción, se conectaría
- * al microservicio real de usuarios.
+ * La caché entrega valores vencidos mientras los recarga en segundo
+ * plano, y las búsquedas simultáneas (del mismo o de distintos usuarios)
+ * salen juntas en una sola llamada (ver ClienteEntidades en el módulo clientes).
  * 
  * @author Equipo Perfulandia
  * @version 1.0
@@ -27,50 +39,63 @@ import org.springframework.stereotype.Service;
 @Service // Marca esta clase como un servicio de Spring, permitiendo la inyección de dependencias y el escaneo automático de componentes
 public class UsuarioService {
     
+    private static final ParameterizedTypeReference<List<Usuario>> LISTA_USUARIOS =
+            new ParameterizedTypeReference<>() { };
+    
+    /**
+     * Cliente del endpoint de lote con caché por ID y agrupamiento de búsquedas
+     */
+    private final ClienteEntidades<Usuario> cliente;
+    
+    @Autowired // Inyecta el cliente HTTP, la configuración de la caché y el registro de métricas
+    public UsuarioService(@Qualifier("clienteUsuarios") RestClient clienteUsuarios,
+                          @Value("${email.clientes.usuarios.cache.ttl-segundos:60}") long ttlSegundos,
+                          @Value("${email.clientes.usuarios.cache.obsoleto-segundos:600}") long obsoletoSegundos,
+                          @Value("${email.clientes.usuarios.cache.maximo-entradas:100000}") int maximoEntradas,
+                          @Value("${email.clientes.ventana-lote-ms:2}") long ventanaLoteMs,
+                          MeterRegistry registro) {
+        ConfiguracionCliente configuracion = ConfiguracionCliente.builder()
+                .ttlSegundos(ttlSegundos)
+                .obsoletoSegundos(obsoletoSegundos)
+                .maximoEntradas(maximoEntradas)
+                .ventanaLoteMs(ventanaLoteMs)
+                .build();
+        this.cliente = new ClienteEntidades<>("usuarios", clienteUsuarios, "/api/usuarios/lote", LISTA_USUARIOS,
+                Usuario::getId, configuracion, registro);
+    }
+    
     /**
      * Obtiene un usuario por su ID
      * 
-     * Este método simula la búsqueda de un usuario en la base de datos
-     * o en el microservicio de usuarios. Para el propósito de testing,
-     * retorna datos simulados basados en el ID proporcionado.
-     * 
      * @param id ID del usuario a buscar
      * @return Usuario con los datos correspondientes al ID
-     * @throws RuntimeException si el usuario no existe
+     * @throws RuntimeException si el usuario no existe o el microservicio no responde
      */
     public Usuario getUserById(Long id) {
-        // Simulación de datos de usuarios para testing
-        // En una implementación real, esto haría una llamada HTTP
-        // al microservicio de usuarios
-        
         if (id == null) {
             throw new RuntimeException("ID de usuario no puede ser null");
         }
         
-        // Simular diferentes usuarios basados en el ID
-        switch (id.intValue()) {
-            case 1:
-                return Usuario.builder()
-                    .id(1L)
-                    .nombre("Juan Pérez")
-                    .email("juan.perez@email.com")
-                    .build();
-            case 2:
-                return Usuario.builder()
-                    .id(2L)
-                    .nombre("María García")
-                    .email("maria.garcia@email.com")
-                    .build();
-            case 3:
-                return Usuario.builder()
-                    .id(3L)
-                    .nombre("Carlos López")
-                    .email("carlos.lopez@email.com")
-                    .build();
-            default:
-                // Simular que el usuario no existe
-                throw new RuntimeException("Usuario no encontrado con ID: " + id);
+        Usuario usuario = cliente.buscar(id).orElse(null);
+        if (usuario == null) {
+            throw new RuntimeException("Usuario no encontrado con ID: " + id);
         }
+        return usuario;
+    }
+    
+    /**
+     * Obtiene varios usuarios en una sola operación
+     * 
+     * Este método se utiliza en el envío de campañas para resolver
+     * los destinatarios por lotes en lugar de uno a uno. Los IDs que
+     * no corresponden a un usuario se omiten del resultado.
+     * 
+     * @param ids IDs de los usuarios a buscar
+     * @return Mapa de ID a Usuario con los usuarios encontrados
+     * @throws RuntimeException si el microservicio no responde
+     */
+    public Map<Long, Usuario> getUsersByIds(Collection<Long> ids) {
+        return cliente.buscarVarios(ids);
     }
     
     /**
@@ -0,0 +1,40 @@
+package com.perfulandia.emailservice.campana;
+
+import com.perfulandia.emailservice.model.Usuario;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlantillaCorreoTest {
+
+    private final Usuario usuario = Usuario.builder()
+            .id(1L)
+            .nombre("María García")
+            .email("maria.garcia@email.com")
+            .build();
+
+    @Test
+    @DisplayName("Testing Plantilla 1 - Reemplaza las variables conocidas")
+    void testRenderizaVariables() {
+        PlantillaCorreo plantilla = PlantillaCorreo.compilar("Hola {primerNombre} ({nombre}), tu cuenta es {email}");
+
+        assertEquals("Hola María (María García), tu cuenta es maria.garcia@email.com", plantilla.renderizar(usuario));
+    }
+
+    @Test
+    @DisplayName("Testing Plantilla 2 - Conserva marcadores desconocidos y llaves sueltas")
+    void testConservaMarcadoresDesconocidos() {
+        PlantillaCorreo plantilla = PlantillaCorreo.compilar("{saludo} {primerNombre} {sin cerrar");
+
+        assertEquals("{saludo} María {sin cerrar", plantilla.renderizar(usuario));
+    }
+
+    @Test
+    @DisplayName("Testing Plantilla 3 - Usa 'Cliente' cuando el destinatario no tiene nombre")
+    void testSinNombre() {
+        PlantillaCorreo plantilla = PlantillaCorreo.compilar("Hola {primerNombre}");
+
+        assertEquals("Hola Cliente", plantilla.renderizar(Usuario.builder().email("x@y.com").build()));
+    }
+}
@@ -0,0 +1,83 @@
+package com.perfulandia.emailservice.controller;
+
+import com.perfulandia.emailservice.campana.EstadoCampana;
+import com.perfulandia.emailservice.campana.FormatoDestinatarios;
+import com.perfulandia.emailservice.model.CampanaRequest;
+import com.perfulandia.emailservice.model.ProgresoCampana;
+import com.perfulandia.emailservice.service.CampanaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CampanaController.class)
+public class CampanaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CampanaService campanaService;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Testing Campaña Controller 1 - Crear campaña")
+    void testCrearCampana() throws Exception {
+        CampanaRequest request = CampanaRequest.builder().asunto("Ofertas").plantilla("Hola {primerNombre}").build();
+        when(campanaService.crearCampana(any(CampanaRequest.class)))
+            .thenReturn(ProgresoCampana.builder().id(1L).estado(EstadoCampana.CREADA).build());
+
+        mockMvc.perform(post("/api/email/campanas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.estado").value("CREADA"));
+    }
+
+    @Test
+    @DisplayName("Testing Campaña Controller 2 - Crear campaña sin plantilla")
+    void testCrearCampanaSinPlantilla() throws Exception {
+        mockMvc.perform(post("/api/email/campanas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"asunto\": \"Ofertas\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(campanaService, never()).crearCampana(any());
+    }
+
+    @Test
+    @DisplayName("Testing Campaña Controller 3 - Enviar listado CSV de destinatarios")
+    void testRecibirDestinatariosCsv() throws Exception {
+        when(campanaService.recibirDestinatarios(eq(1L), any(InputStream.class), eq(FormatoDestinatarios.CSV)))
+            .thenReturn(ProgresoCampana.builder().id(1L).estado(EstadoCampana.EN_ESPERA).build());
+
+        mockMvc.perform(post("/api/email/campanas/1/destinatarios")
+                .contentType("text/csv")
+                .content("1\n2\nana@gmail.com,Ana\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.estado").value("EN_ESPERA"));
+    }
+
+    @Test
+    @DisplayName("Testing Campaña Controller 4 - Consultar campaña inexistente")
+    void testCampanaInexistente() throws Exception {
+        when(campanaService.obtenerProgreso(99L)).thenThrow(new NoSuchElementException("Campaña no encontrada"));
+
+        mockMvc.perform(get("/api/email/campanas/99"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,7 +1,13 @@
 package com.perfulandia.emailservice.controller;
 
+import com.perfulandia.emailservice.envio.Carril;
+import com.perfulandia.emailservice.envio.ColaLlenaException;
 import com.perfulandia.emailservice.model.EmailRequest;
 import com.perfulandia.emailservice.model.CompraRequest;
+import com.perfulandia.emailservice.model.EstadisticasEnvio;
+import com.perfulandia.emailservice.model.LineaPedido;
+import com.perfulandia.emailservice.model.PedidoRequest;
+import com.perfulandia.emailservice.service.ColaEnvioService;
 import com.perfulandia.emailservice.service.EmailService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -14,6 +20,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -28,6 +37,9 @@ public class EmailControllerTest {
     @MockBean
     private EmailService emailService;
 
+    @MockBean
+    private ColaEnvioService colaEnvioService;
+
     private final ObjectMapper mapper = new ObjectMapper();
 
     private EmailRequest emailRequest;
@@ -140,4 +152,71 @@ public class EmailControllerTest {
     void testUsuarioNoEncontrado() throws Exception {
         // Este endpoint no existe en el controlador real, así que lo omitimos o lo marcamos como ignorado
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Testing Controller 9 - Cola de envío llena")
+    void testColaDeEnvioLlena() throws Exception {
+        doThrow(new ColaLlenaException(Carril.NOTIFICACION, 3000)).when(emailService).enviarCorreo(any(EmailRequest.class));
+
+        mockMvc.perform(post("/api/email/enviar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(emailRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "30"));
+    }
+
+    @Test
+    @DisplayName("Testing Controller 10 - Métricas de la cola de envío")
+    void testMetricasCola() throws Exception {
+        when(colaEnvioService.obtenerEstadisticas()).thenReturn(EstadisticasEnvio.builder()
+                .enviados(12)
+                .diferidos(3)
+                .pendientes(1)
+                .build());
+
+        mockMvc.perform(get("/api/email/metricas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enviados").value(12))
+                .andExpect(jsonPath("$.diferidos").value(3))
+                .andExpect(jsonPath("$.pendientes").value(1));
+    }
+
+    @Test
+    @DisplayName("Testing Controller 11 - Enviar correo de pedido por IDs")
+    void testEnviarEmailPedido() throws Exception {
+        PedidoRequest pedido = PedidoRequest.builder()
+            .usuarioId(1L)
+            .numeroPedido("CARRITO-5-1")
+            .fechaCompra(LocalDateTime.now())
+            .lineas(List.of(new LineaPedido(1L, 2, 10.0)))
+            .total(20.0)
+            .build();
+        doNothing().when(emailService).enviarEmailPedido(any(PedidoRequest.class));
+
+        mockMvc.perform(post("/api/email/compra/pedido")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(pedido)))
+                .andExpect(status().isOk());
+
+        verify(emailService).enviarEmailPedido(any(PedidoRequest.class));
+    }
+
+    @Test
+    @DisplayName("Testing Controller 12 - Enviar correo de pedido sin líneas")
+    void testEnviarEmailPedidoSinLineas() throws Exception {
+        PedidoRequest pedido = PedidoRequest.builder()
+            .usuarioId(1L)
+            .numeroPedido("CARRITO-5-1")
+            .fechaCompra(LocalDateTime.now())
+            .lineas(List.of())
+            .total(20.0)
+            .build();
+
+        mockMvc.perform(post("/api/email/compra/pedido")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(pedido)))
+                .andExpect(status().isBadRequest());
+
+        verify(emailService, never()).enviarEmailPedido(any(PedidoRequest.class));
+    }
+}
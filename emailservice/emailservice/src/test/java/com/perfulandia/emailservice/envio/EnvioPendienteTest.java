@@ -0,0 +1,61 @@
+package com.perfulandia.emailservice.envio;
+
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EnvioPendienteTest {
+
+    @Test
+    @DisplayName("Testing Envío Pendiente 1 - Lleva la traza de quien encoló al hilo que envía")
+    void testRestauraContextoEnOtroHilo() throws Exception {
+        // Arrange
+        ObservationRegistry observaciones = ObservationRegistry.create();
+        observaciones.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public boolean supportsContext(Observation.Context contexto) {
+                return true;
+            }
+        });
+        Observation peticion = Observation.start("http.server.requests", observaciones);
+        EnvioPendiente transaccional;
+        EnvioPendiente masivo;
+        try (Observation.Scope alcance = peticion.openScope()) {
+            transaccional = new EnvioPendiente(new SimpleMailMessage(), Carril.TRANSACCIONAL, System.nanoTime());
+            masivo = new EnvioPendiente(new SimpleMailMessage(), Carril.MASIVO, System.nanoTime());
+        }
+        EnvioPendiente reintento = transaccional.reintentar(0);
+
+        // Act
+        ExecutorService trabajador = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<Observation> enReintento = CompletableFuture.supplyAsync(() -> {
+                try (ContextSnapshot.Scope traza = reintento.restaurarContexto()) {
+                    return observaciones.getCurrentObservation();
+                }
+            }, trabajador);
+            CompletableFuture<Observation> enMasivo = CompletableFuture.supplyAsync(() -> {
+                try (ContextSnapshot.Scope traza = masivo.restaurarContexto()) {
+                    return observaciones.getCurrentObservation();
+                }
+            }, trabajador);
+
+            // Assert
+            assertSame(peticion, enReintento.get());
+            assertNull(enMasivo.get(), "Los emails masivos no deben quedar en la traza de la petición");
+        } finally {
+            trabajador.shutdown();
+            peticion.stop();
+        }
+    }
+}
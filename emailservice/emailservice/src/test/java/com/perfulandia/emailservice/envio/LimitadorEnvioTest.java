@@ -0,0 +1,118 @@
+package com.perfulandia.emailservice.envio;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LimitadorEnvioTest {
+
+    private static final String REMITENTE = "perfulandia.comercial@gmail.com";
+
+    private final AtomicLong reloj = new AtomicLong();
+    private LimitadorEnvio limitador;
+
+    @BeforeEach
+    void setUp() {
+        // Remitente: 10 emails/s con ráfaga 3; dominio: 1 email/s con ráfaga 2
+        limitador = new LimitadorEnvio(10.0, 3, 1.0, 2, 1000, 8000, 600_000, reloj::get);
+    }
+
+    private void avanzar(long millis) {
+        reloj.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    @DisplayName("Testing Limitador 1 - Permite la ráfaga y luego exige esperar")
+    void testRafagaDominio() {
+        assertEquals(0, limitador.reservar(REMITENTE, "gmail.com"));
+        assertEquals(0, limitador.reservar(REMITENTE, "gmail.com"));
+
+        long espera = limitador.reservar(REMITENTE, "gmail.com");
+        assertEquals(TimeUnit.SECONDS.toNanos(1), espera);
+
+        // Otro dominio no se ve afectado por el límite de gmail.com
+        assertEquals(0, limitador.reservar(REMITENTE, "hotmail.com"));
+
+        avanzar(1000);
+        assertEquals(0, limitador.reservar(REMITENTE, "gmail.com"));
+    }
+
+    @Test
+    @DisplayName("Testing Limitador 2 - No consume cupo del remitente si el dominio está limitado")
+    void testNoConsumeRemitenteSiDominioLimitado() {
+        limitador.reservar(REMITENTE, "gmail.com");
+        limitador.reservar(REMITENTE, "gmail.com");
+        assertTrue(limitador.reservar(REMITENTE, "gmail.com") > 0);
+
+        // El remitente todavía conserva un token de su ráfaga de 3
+        assertEquals(0, limitador.reservar(REMITENTE, "yahoo.com"));
+        assertTrue(limitador.reservar(REMITENTE, "outlook.com") > 0);
+    }
+
+    @Test
+    @DisplayName("Testing Limitador 3 - Backoff exponencial y reducción de tasa ante 4xx")
+    void testBackoffAdaptativo() {
+        long primera = limitador.registrarRechazoTemporal(REMITENTE, "gmail.com", 450);
+        long segunda = limitador.registrarRechazoTemporal(REMITENTE, "gmail.com", 450);
+
+        assertEquals(TimeUnit.SECONDS.toNanos(1), primera);
+        assertEquals(TimeUnit.SECONDS.toNanos(2), segunda);
+        assertEquals(0.25, limitador.tasaActualDominio("gmail.com"), 1e-9);
+        assertTrue(limitador.reservar(REMITENTE, "gmail.com") >= segunda);
+
+        // Los envíos exitosos recuperan la tasa gradualmente
+        limitador.registrarExito(REMITENTE, "gmail.com");
+        assertEquals(0.35, limitador.tasaActualDominio("gmail.com"), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Testing Limitador 4 - El backoff nunca supera el máximo configurado")
+    void testBackoffMaximo() {
+        long pausa = 0;
+        for (int i = 0; i < 10; i++) {
+            pausa = limitador.registrarRechazoTemporal(REMITENTE, "gmail.com", 451);
+        }
+        assertEquals(TimeUnit.SECONDS.toNanos(8), pausa);
+    }
+
+    @Test
+    @DisplayName("Testing Limitador 5 - Extrae el dominio del destinatario")
+    void testDominioDe() {
+        assertEquals("gmail.com", LimitadorEnvio.dominioDe("Juan@Gmail.com"));
+        assertEquals("perfulandia.cl", LimitadorEnvio.dominioDe("Juan Pérez <juan@perfulandia.cl>"));
+        assertEquals("", LimitadorEnvio.dominioDe(null));
+    }
+
+    @Test
+    @DisplayName("Testing Limitador 6 - Descarta los buckets inactivos y llenos")
+    void testDescartaBucketsInactivos() {
+        // Arrange: ráfaga de remitente amplia, 1 segundo de inactividad y backoff de 5 segundos
+        LimitadorEnvio conInactividad = new LimitadorEnvio(1000.0, 1000, 1.0, 2, 5000, 8000, 1000, reloj::get);
+        for (int i = 0; i < 100; i++) {
+            conInactividad.reservar(REMITENTE, "dominio" + i + ".cl");
+        }
+        conInactividad.reservar(REMITENTE, "vacio.cl");
+        conInactividad.reservar(REMITENTE, "vacio.cl");
+        conInactividad.registrarRechazoTemporal(REMITENTE, "pausado.cl", 450);
+        assertEquals(103, conInactividad.cantidadBuckets());
+
+        // Act: los 100 dominios y el remitente se llenan; vacio.cl aún no y pausado.cl sigue en pausa
+        avanzar(1500);
+        conInactividad.reservar(REMITENTE, "nuevo.cl");
+
+        // Assert
+        assertEquals(4, conInactividad.cantidadBuckets());
+
+        // Act: vacio.cl ya se llenó, pausado.cl sigue en pausa
+        avanzar(1000);
+        conInactividad.reservar(REMITENTE, "nuevo.cl");
+
+        // Assert: quedan el remitente, nuevo.cl y pausado.cl
+        assertEquals(3, conInactividad.cantidadBuckets());
+    }
+}
@@ -0,0 +1,71 @@
+package com.perfulandia.emailservice.envio;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class MedicionEnvioSmtpTest {
+
+    private JavaMailSenderImpl destino;
+    private SimpleMeterRegistry registro;
+    private JavaMailSender medido;
+
+    @BeforeEach
+    void setUp() {
+        destino = mock(JavaMailSenderImpl.class);
+        registro = new SimpleMeterRegistry();
+        ObservationRegistry observaciones = ObservationRegistry.create();
+        observaciones.observationConfig().observationHandler(new DefaultMeterObservationHandler(registro));
+        medido = MedicionEnvioSmtp.medir(destino, observaciones);
+    }
+
+    @Test
+    @DisplayName("Testing Medición SMTP 1 - Mide los envíos exitosos y conserva la clase del JavaMailSender")
+    void testEnvioExitoso() {
+        // Arrange
+        MimeMessage mensaje = mock(MimeMessage.class);
+        SimpleMailMessage simple = new SimpleMailMessage();
+
+        // Act
+        medido.send(mensaje);
+        medido.send(simple, simple);
+        medido.createMimeMessage();
+
+        // Assert
+        assertInstanceOf(JavaMailSenderImpl.class, medido);
+        verify(destino).send(mensaje);
+        verify(destino).send(simple, simple);
+        Timer exitos = registro.get(MedicionEnvioSmtp.METRICA).tag("resultado", "exito").timer();
+        assertEquals(2, exitos.count());
+    }
+
+    @Test
+    @DisplayName("Testing Medición SMTP 2 - Mide los errores con la clase de la excepción y la relanza")
+    void testEnvioConError() {
+        // Arrange
+        MimeMessage mensaje = mock(MimeMessage.class);
+        doThrow(new MailSendException("421 servicio no disponible")).when(destino).send(mensaje);
+
+        // Act
+        assertThrows(MailSendException.class, () -> medido.send(mensaje));
+
+        // Assert
+        Timer errores = registro.get(MedicionEnvioSmtp.METRICA)
+                .tags("resultado", "error", "error", "MailSendException")
+                .timer();
+        assertEquals(1, errores.count());
+        assertNull(registro.find(MedicionEnvioSmtp.METRICA).tag("resultado", "exito").timer());
+    }
+}
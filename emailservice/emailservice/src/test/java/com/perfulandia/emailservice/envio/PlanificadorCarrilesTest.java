@@ -0,0 +1,83 @@
+package com.perfulandia.emailservice.envio;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlanificadorCarrilesTest {
+
+    private final ConfiguracionCarriles configuracion = new ConfiguracionCarriles(
+            new int[] {8, 3, 1}, new int[] {100, 100, 100}, new long[] {5000, 60000, 3600000});
+
+    private EnvioPendiente envio(Carril carril) {
+        return new EnvioPendiente(new SimpleMailMessage(), carril, System.nanoTime());
+    }
+
+    @Test
+    @DisplayName("Testing Planificador 1 - Reparte los envíos según el peso de cada carril")
+    void testRepartePorPeso() {
+        PlanificadorCarriles planificador = new PlanificadorCarriles(configuracion);
+        for (Carril carril : Carril.values()) {
+            for (int i = 0; i < 24; i++) {
+                planificador.agregar(envio(carril));
+            }
+        }
+
+        // Con los tres carriles ocupados, cada ronda de 12 envíos respeta los pesos 8/3/1
+        for (int ronda = 0; ronda < 2; ronda++) {
+            Map<Carril, Integer> atendidos = new EnumMap<>(Carril.class);
+            for (int i = 0; i < 12; i++) {
+                atendidos.merge(planificador.sondear().getCarril(), 1, Integer::sum);
+            }
+            assertEquals(8, atendidos.get(Carril.TRANSACCIONAL));
+            assertEquals(3, atendidos.get(Carril.NOTIFICACION));
+            assertEquals(1, atendidos.get(Carril.MASIVO));
+        }
+        assertEquals(48, planificador.tamano());
+    }
+
+    @Test
+    @DisplayName("Testing Planificador 2 - Un carril vacío no acumula crédito ni deja sin atender a los demás")
+    void testCarrilVacio() throws Exception {
+        PlanificadorCarriles planificador = new PlanificadorCarriles(configuracion);
+        for (int i = 0; i < 5; i++) {
+            planificador.agregar(envio(Carril.MASIVO));
+        }
+
+        // Solo el carril masivo tiene trabajo: se atiende sin esperar a los demás
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Carril.MASIVO, planificador.tomar().getCarril());
+        }
+
+        // Al llegar un transaccional se atiende primero, sin deuda acumulada
+        planificador.agregar(envio(Carril.TRANSACCIONAL));
+        assertEquals(Carril.TRANSACCIONAL, planificador.tomar().getCarril());
+        assertEquals(Carril.MASIVO, planificador.tomar().getCarril());
+        assertEquals(Carril.MASIVO, planificador.tomar().getCarril());
+        assertNull(planificador.tomar(1, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Testing Planificador 3 - El histograma calcula percentiles con error acotado")
+    void testHistogramaPercentiles() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        // 1.000 muestras de 1 a 1.000 ms
+        for (int i = 1; i <= 1000; i++) {
+            histograma.registrar(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        assertEquals(1000, histograma.getTotal());
+        assertEquals(500, histograma.percentilMs(50), 500 * 0.125);
+        assertEquals(990, histograma.percentilMs(99), 990 * 0.125);
+        assertTrue(histograma.percentilMs(99) >= 990);
+        assertEquals(1000, histograma.maximoMs(), 0.001);
+        assertEquals(100.0, histograma.porcentajeHasta(TimeUnit.SECONDS.toNanos(2)), 0.001);
+        assertEquals(50.0, histograma.porcentajeHasta(TimeUnit.MILLISECONDS.toNanos(512)), 10.0);
+    }
+}
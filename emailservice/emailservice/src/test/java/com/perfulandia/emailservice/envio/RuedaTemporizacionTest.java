@@ -0,0 +1,65 @@
+package com.perfulandia.emailservice.envio;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RuedaTemporizacionTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Testing Rueda 1 - Vence los elementos en su tick y no antes")
+    void testVenceEnSuTick() {
+        RuedaTemporizacion<String> rueda = new RuedaTemporizacion<>(10, TimeUnit.MILLISECONDS, 4, 0);
+
+        assertTrue(rueda.programar("a", 25 * MS));
+        assertTrue(rueda.programar("b", 30 * MS));
+
+        assertTrue(rueda.avanzar(29 * MS).isEmpty());
+        assertEquals(List.of("a", "b"), rueda.avanzar(30 * MS));
+        assertEquals(0, rueda.tamano());
+    }
+
+    @Test
+    @DisplayName("Testing Rueda 2 - Rechaza los elementos ya vencidos")
+    void testRechazaVencidos() {
+        RuedaTemporizacion<String> rueda = new RuedaTemporizacion<>(10, TimeUnit.MILLISECONDS, 4, 0);
+        rueda.avanzar(100 * MS);
+
+        assertFalse(rueda.programar("tarde", 50 * MS));
+        assertEquals(0, rueda.tamano());
+    }
+
+    @Test
+    @DisplayName("Testing Rueda 3 - Respeta los vencimientos de todos los niveles tras las cascadas")
+    void testCascadas() {
+        RuedaTemporizacion<Long> rueda = new RuedaTemporizacion<>(1, TimeUnit.MILLISECONDS, 3, 0);
+        Random aleatorio = new Random(42);
+        List<Long> vencimientos = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            // Entre 1 ms y ~5 veces el alcance de la rueda (64^3 ms), para cubrir el desborde
+            long vence = 1 + (long) (aleatorio.nextDouble() * 5 * 262_144);
+            vencimientos.add(vence);
+            rueda.programar(vence, vence * MS);
+        }
+
+        List<Long> vencidos = new ArrayList<>();
+        long ahora = 0;
+        while (vencidos.size() < vencimientos.size()) {
+            ahora += 1 + aleatorio.nextInt(500);
+            for (Long vence : rueda.avanzar(ahora * MS)) {
+                assertTrue(vence <= ahora, "Venció antes de tiempo: " + vence + " > " + ahora);
+                assertTrue(vence > ahora - 501, "Venció tarde: " + vence + " en " + ahora);
+                vencidos.add(vence);
+            }
+        }
+        assertEquals(0, rueda.tamano());
+    }
+}
@@ -0,0 +1,154 @@
+package com.perfulandia.emailservice.service;
+
+import com.perfulandia.emailservice.campana.Campana;
+import com.perfulandia.emailservice.campana.EstadoCampana;
+import com.perfulandia.emailservice.campana.FormatoDestinatarios;
+import com.perfulandia.emailservice.envio.Carril;
+import com.perfulandia.emailservice.model.CampanaRequest;
+import com.perfulandia.emailservice.model.ProgresoCampana;
+import com.perfulandia.emailservice.model.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class CampanaServiceTest {
+
+    private ColaEnvioService colaEnvio;
+    private UsuarioService usuarioService;
+    private CampanaService campanaService;
+
+    @BeforeEach
+    void setUp() {
+        colaEnvio = mock(ColaEnvioService.class);
+        usuarioService = mock(UsuarioService.class);
+        // Lotes de 2 destinatarios para verificar la resolución por lotes
+        campanaService = new CampanaService(colaEnvio, usuarioService, 2, 1440);
+
+        when(usuarioService.getUsersByIds(anyCollection())).thenAnswer(invocacion -> {
+            Collection<Long> ids = invocacion.getArgument(0);
+            Map<Long, Usuario> usuarios = new HashMap<>();
+            for (Long id : ids) {
+                if (id < 100) {
+                    usuarios.put(id, Usuario.builder().id(id).nombre("Cliente" + id + " Apellido")
+                            .email("cliente" + id + "@email.com").build());
+                }
+            }
+            return usuarios;
+        });
+    }
+
+    private Campana campana() {
+        return new Campana(1L, "Novedades", "Hola {primerNombre}, te escribimos a {email}.");
+    }
+
+    @Test
+    @DisplayName("Testing Campaña 1 - Procesa NDJSON resolviendo los IDs por lotes")
+    void testProcesaNdjson() throws Exception {
+        // Arrange
+        String ndjson = "{\"id\": 1}\n{\"id\": 2}\n{\"id\": 3}\n{\"email\": \"ana@gmail.com\", \"nombre\": \"Ana Soto\"}\n";
+        Campana campana = campana();
+
+        // Act
+        campanaService.procesar(campana, new BufferedReader(new StringReader(ndjson)), FormatoDestinatarios.NDJSON);
+
+        // Assert
+        verify(usuarioService).getUsersByIds(List.of(1L, 2L));
+        verify(usuarioService).getUsersByIds(List.of(3L));
+        verify(usuarioService, never()).getUserById(anyLong());
+
+        ArgumentCaptor<org.springframework.mail.SimpleMailMessage> captor =
+                ArgumentCaptor.forClass(org.springframework.mail.SimpleMailMessage.class);
+        verify(colaEnvio, times(4)).encolarEsperando(captor.capture(), eq(Carril.MASIVO));
+        assertEquals("Hola Cliente1, te escribimos a cliente1@email.com.", captor.getAllValues().get(0).getText());
+        assertEquals("Hola Ana, te escribimos a ana@gmail.com.", captor.getAllValues().get(3).getText());
+
+        ProgresoCampana progreso = campana.progreso();
+        assertEquals(EstadoCampana.COMPLETADA, progreso.getEstado());
+        assertEquals(4, progreso.getLeidos());
+        assertEquals(4, progreso.getEncolados());
+    }
+
+    @Test
+    @DisplayName("Testing Campaña 2 - Procesa CSV contando inválidos y no encontrados")
+    void testProcesaCsv() throws Exception {
+        // Arrange
+        String csv = "destinatario,nombre\n5\n500\nno-es-email\n\"pedro@gmail.com\",Pedro\n";
+        Campana campana = campana();
+
+        // Act
+        campanaService.procesar(campana, new BufferedReader(new StringReader(csv)), FormatoDestinatarios.CSV);
+
+        // Assert
+        ProgresoCampana progreso = campana.progreso();
+        assertEquals(3, progreso.getLeidos());
+        assertEquals(2, progreso.getEncolados());
+        assertEquals(1, progreso.getNoEncontrados());
+        assertEquals(2, progreso.getInvalidos());
+    }
+
+    @Test
+    @DisplayName("Testing Campaña 3 - Recibe el listado y lo procesa en segundo plano")
+    void testRecibirDestinatarios() throws Exception {
+        // Arrange
+        ProgresoCampana creada = campanaService.crearCampana(
+                CampanaRequest.builder().asunto("Ofertas").plantilla("Hola {nombre}").build());
+        byte[] cuerpo = "1\n2\n".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        campanaService.recibirDestinatarios(creada.getId(), new ByteArrayInputStream(cuerpo), FormatoDestinatarios.CSV);
+
+        // Assert
+        verify(colaEnvio, timeout(2000).times(2)).encolarEsperando(any(), eq(Carril.MASIVO));
+        assertThrows(IllegalStateException.class, () -> campanaService.recibirDestinatarios(
+                creada.getId(), new ByteArrayInputStream(cuerpo), FormatoDestinatarios.CSV));
+    }
+
+    @Test
+    @DisplayName("Testing Campaña 4 - Campaña inexistente")
+    void testCampanaInexistente() {
+        assertThrows(NoSuchElementException.class, () -> campanaService.obtenerProgreso(99L));
+    }
+
+    @Test
+    @DisplayName("Testing Campaña 5 - Olvida las campañas finalizadas pasada la retención")
+    void testRetencion() throws Exception {
+        // Arrange: sin retención, una campaña finalizada se descarta al crear la siguiente
+        CampanaService sinRetencion = new CampanaService(colaEnvio, usuarioService, 2, 0);
+        CampanaRequest request = CampanaRequest.builder().asunto("Ofertas").plantilla("Hola {nombre}").build();
+        Long finalizada = sinRetencion.crearCampana(request).getId();
+        sinRetencion.recibirDestinatarios(finalizada,
+                new ByteArrayInputStream("1\n".getBytes(StandardCharsets.UTF_8)), FormatoDestinatarios.CSV);
+        for (int i = 0; i < 200 && sinRetencion.obtenerProgreso(finalizada).getEstado() != EstadoCampana.COMPLETADA; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(EstadoCampana.COMPLETADA, sinRetencion.obtenerProgreso(finalizada).getEstado());
+
+        // Act
+        Long nueva = sinRetencion.crearCampana(request).getId();
+
+        // Assert
+        assertThrows(NoSuchElementException.class, () -> sinRetencion.obtenerProgreso(finalizada));
+        assertEquals(EstadoCampana.CREADA, sinRetencion.obtenerProgreso(nueva).getEstado());
+        sinRetencion.detener();
+
+        // Con la retención configurada la campaña sigue disponible
+        Long reciente = campanaService.crearCampana(request).getId();
+        campanaService.crearCampana(request);
+        assertEquals(EstadoCampana.CREADA, campanaService.obtenerProgreso(reciente).getEstado());
+    }
+}
@@ -0,0 +1,120 @@
+package com.perfulandia.emailservice.service;
+
+import com.perfulandia.emailservice.envio.AlmacenFallidos;
+import com.perfulandia.emailservice.envio.Carril;
+import com.perfulandia.emailservice.envio.ConfiguracionCarriles;
+import com.perfulandia.emailservice.envio.LimitadorEnvio;
+import com.perfulandia.emailservice.envio.MetricasEnvio;
+import com.perfulandia.emailservice.envio.PoliticaReintentos;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Prueba de carga de los carriles de prioridad: un servidor SMTP lento
+ * (2 ms por email) saturado por una campaña masiva no debe aumentar la
+ * latencia de las confirmaciones de compra.
+ */
+public class ColaEnvioCargaTest {
+
+    private static final int TRANSACCIONALES = 200;
+
+    private MetricasEnvio metricas;
+    private ColaEnvioService cola;
+
+    private void crearCola() {
+        JavaMailSender servidorLento = mock(JavaMailSender.class);
+        doAnswer(invocacion -> {
+            Thread.sleep(2);
+            return null;
+        }).when(servidorLento).send(any(SimpleMailMessage.class));
+
+        // Límites de tasa holgados: el cuello de botella es el servidor SMTP
+        LimitadorEnvio limitador = new LimitadorEnvio(1e6, 1_000_000, 1e6, 1_000_000, 1, 10, 600_000, System::nanoTime);
+        ConfiguracionCarriles carriles = new ConfiguracionCarriles(
+                new int[] {8, 3, 1}, new int[] {1000, 1000, 2000}, new long[] {5000, 60000, 3600000});
+        metricas = new MetricasEnvio();
+        cola = new ColaEnvioService(servidorLento, limitador, metricas,
+                new PoliticaReintentos(1, 10, 3, limite -> limite), new AlmacenFallidos(10), carriles, 2, 1);
+        cola.iniciar();
+    }
+
+    private SimpleMailMessage mensaje(String para) {
+        SimpleMailMessage mensaje = new SimpleMailMessage();
+        mensaje.setFrom("perfulandia.comercial@gmail.com");
+        mensaje.setTo(para);
+        mensaje.setSubject("Asunto");
+        mensaje.setText("Mensaje");
+        return mensaje;
+    }
+
+    /**
+     * Envía las confirmaciones de compra espaciadas 5 ms y retorna su p99 en milisegundos
+     */
+    private double enviarTransaccionales() throws InterruptedException {
+        for (int i = 0; i < TRANSACCIONALES; i++) {
+            cola.encolar(mensaje("cliente" + i + "@gmail.com"), Carril.TRANSACCIONAL);
+            Thread.sleep(5);
+        }
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (metricas.latencias(Carril.TRANSACCIONAL).getTotal() < TRANSACCIONALES && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertEquals(TRANSACCIONALES, metricas.latencias(Carril.TRANSACCIONAL).getTotal());
+        return metricas.latencias(Carril.TRANSACCIONAL).percentilMs(99);
+    }
+
+    @Test
+    @DisplayName("Testing Carga 1 - El p99 transaccional se mantiene con el envío saturado por una campaña")
+    void testP99TransaccionalConCampana() throws Exception {
+        // Línea base: solo tráfico transaccional
+        crearCola();
+        double p99Base;
+        try {
+            p99Base = enviarTransaccionales();
+        } finally {
+            cola.detener();
+        }
+
+        // Campaña masiva que mantiene su carril lleno mientras llegan las compras
+        crearCola();
+        Thread productor = new Thread(() -> {
+            try {
+                for (int i = 0; ; i++) {
+                    cola.encolarEsperando(mensaje("masivo" + i + "@hotmail.com"), Carril.MASIVO);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        productor.start();
+        double p99Saturado;
+        int masivosPendientes;
+        long masivosEnviados;
+        try {
+            // Esperar a que la campaña llene su carril
+            while (cola.pendientes(Carril.MASIVO) < 2000) {
+                Thread.sleep(5);
+            }
+            p99Saturado = enviarTransaccionales();
+            masivosPendientes = cola.pendientes(Carril.MASIVO);
+            masivosEnviados = metricas.latencias(Carril.MASIVO).getTotal();
+        } finally {
+            productor.interrupt();
+            cola.detener();
+        }
+
+        // Con una sola cola FIFO, cada compra esperaría detrás de ~2.000 emails masivos (~2 s)
+        assertTrue(masivosPendientes > 1000, "La campaña debe mantener saturado el envío");
+        assertTrue(masivosEnviados > 0, "El carril masivo no debe quedar sin atender");
+        assertTrue(p99Saturado < p99Base + 50,
+                "p99 transaccional base " + p99Base + " ms, con campaña " + p99Saturado + " ms");
+    }
+}
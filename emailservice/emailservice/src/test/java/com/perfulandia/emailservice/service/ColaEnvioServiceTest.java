@@ -0,0 +1,181 @@
+package com.perfulandia.emailservice.service;
+
+import com.perfulandia.emailservice.envio.AlmacenFallidos;
+import com.perfulandia.emailservice.envio.Carril;
+import com.perfulandia.emailservice.envio.ColaLlenaException;
+import com.perfulandia.emailservice.envio.ConfiguracionCarriles;
+import com.perfulandia.emailservice.envio.LimitadorEnvio;
+import com.perfulandia.emailservice.envio.MetricasEnvio;
+import com.perfulandia.emailservice.envio.PoliticaReintentos;
+import com.perfulandia.emailservice.envio.TipoFallo;
+import com.perfulandia.emailservice.model.EnvioFallido;
+import com.perfulandia.emailservice.model.EstadisticasEnvio;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ColaEnvioServiceTest {
+
+    private JavaMailSender mailSender;
+    private AlmacenFallidos almacen;
+    private ColaEnvioService cola;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = mock(JavaMailSender.class);
+        // Ráfaga de 1 email por remitente y tasa baja: el segundo email debe diferirse
+        LimitadorEnvio limitador = new LimitadorEnvio(0.01, 1, 100.0, 100, 1, 10, 600_000, System::nanoTime);
+        almacen = new AlmacenFallidos(10);
+        cola = crearCola(limitador);
+    }
+
+    private ColaEnvioService crearCola(LimitadorEnvio limitador) {
+        // Reintentos de 1 a 10 ms sin jitter, hasta 3 intentos en total; ticks de 1 ms
+        PoliticaReintentos politica = new PoliticaReintentos(1, 10, 3, limite -> limite);
+        // Pesos 8/3/1 y capacidad de 2 emails por carril
+        ConfiguracionCarriles carriles = new ConfiguracionCarriles(
+                new int[] {8, 3, 1}, new int[] {2, 2, 2}, new long[] {5000, 60000, 3600000});
+        return new ColaEnvioService(mailSender, limitador, new MetricasEnvio(), politica, almacen, carriles, 1, 1);
+    }
+
+    private SimpleMailMessage mensaje(String para) {
+        SimpleMailMessage mensaje = new SimpleMailMessage();
+        mensaje.setFrom("perfulandia.comercial@gmail.com");
+        mensaje.setTo(para);
+        mensaje.setSubject("Asunto");
+        mensaje.setText("Mensaje");
+        return mensaje;
+    }
+
+    @Test
+    @DisplayName("Testing Cola 1 - Envía el email encolado")
+    void testEnviaEmailEncolado() {
+        cola.encolar(mensaje("cliente@gmail.com"), Carril.NOTIFICACION);
+
+        assertTrue(cola.procesarSiguiente());
+
+        verify(mailSender).send(any(SimpleMailMessage.class));
+        EstadisticasEnvio estadisticas = cola.obtenerEstadisticas();
+        assertEquals(1, estadisticas.getEnviados());
+        assertEquals(1, estadisticas.getEnviadosUltimoMinuto());
+        assertEquals(0, estadisticas.getPendientes());
+    }
+
+    @Test
+    @DisplayName("Testing Cola 2 - Difiere el email cuando el remitente está limitado")
+    void testDifiereEmailLimitado() {
+        cola.encolar(mensaje("uno@gmail.com"), Carril.NOTIFICACION);
+        cola.encolar(mensaje("dos@hotmail.com"), Carril.NOTIFICACION);
+
+        assertTrue(cola.procesarSiguiente());
+        assertTrue(cola.procesarSiguiente());
+
+        // Solo el primero se envió; el segundo sigue en la cola esperando un token
+        verify(mailSender, times(1)).send(any(SimpleMailMessage.class));
+        EstadisticasEnvio estadisticas = cola.obtenerEstadisticas();
+        assertEquals(1, estadisticas.getDiferidos());
+        assertEquals(1, estadisticas.getPendientes());
+        assertFalse(cola.procesarSiguiente());
+    }
+
+    @Test
+    @DisplayName("Testing Cola 3 - Reintenta tras un error SMTP temporal")
+    void testReintentaErrorTemporal() throws Exception {
+        cola = crearCola(new LimitadorEnvio(100.0, 100, 100.0, 100, 1, 10, 600_000, System::nanoTime));
+        doThrow(new MailSendException("Servidor ocupado",
+                new SMTPSendFailedException("DATA", 451, "451 4.3.0 Try again later", null, null, null, null)))
+                .doNothing()
+                .when(mailSender).send(any(SimpleMailMessage.class));
+
+        cola.encolar(mensaje("cliente@gmail.com"), Carril.NOTIFICACION);
+        assertTrue(cola.procesarSiguiente());
+        assertEquals(1, cola.obtenerEstadisticas().getRechazosTemporales());
+        assertEquals(1, cola.obtenerEstadisticas().getReintentos());
+        assertEquals(1, cola.pendientes());
+        // El reintento espera en la rueda de temporización, no en la cola de listos
+        assertFalse(cola.procesarSiguiente());
+
+        // Esperar el backoff (1 ms) y procesar el reintento
+        Thread.sleep(20);
+        assertTrue(cola.procesarSiguiente());
+
+        verify(mailSender, times(2)).send(any(SimpleMailMessage.class));
+        assertEquals(1, cola.obtenerEstadisticas().getEnviados());
+        assertEquals(0, cola.pendientes());
+    }
+
+    @Test
+    @DisplayName("Testing Cola 4 - Mueve al almacén de fallidos un email con error SMTP permanente")
+    void testDescartaErrorPermanente() {
+        doThrow(new MailSendException("Dirección inexistente",
+                new SMTPSendFailedException("RCPT", 550, "550 5.1.1 User unknown", null, null, null, null)))
+                .when(mailSender).send(any(SimpleMailMessage.class));
+
+        cola.encolar(mensaje("nadie@gmail.com"), Carril.NOTIFICACION);
+        assertTrue(cola.procesarSiguiente());
+
+        EstadisticasEnvio estadisticas = cola.obtenerEstadisticas();
+        assertEquals(1, estadisticas.getFallidos());
+        assertEquals(0, estadisticas.getRechazosTemporales());
+        assertEquals(0, estadisticas.getReintentos());
+        assertEquals(0, estadisticas.getPendientes());
+        assertEquals(1, estadisticas.getEnAlmacenFallidos());
+
+        EnvioFallido fallido = almacen.listar(1).get(0);
+        assertEquals("nadie@gmail.com", fallido.getPara());
+        assertEquals(550, fallido.getCodigoSmtp());
+        assertEquals(TipoFallo.PERMANENTE, fallido.getTipo());
+        assertEquals(1, fallido.getIntentos());
+        assertNotNull(fallido.getMensaje());
+    }
+
+    @Test
+    @DisplayName("Testing Cola 5 - Rechaza emails cuando la cola está llena")
+    void testColaLlena() {
+        cola.encolar(mensaje("uno@gmail.com"), Carril.NOTIFICACION);
+        cola.encolar(mensaje("dos@gmail.com"), Carril.NOTIFICACION);
+
+        assertThrows(ColaLlenaException.class, () -> cola.encolar(mensaje("tres@gmail.com"), Carril.NOTIFICACION));
+        assertEquals(1, cola.obtenerEstadisticas().getRechazadosColaLlena());
+
+        // Al despachar un email se libera capacidad
+        cola.procesarSiguiente();
+        assertDoesNotThrow(() -> cola.encolar(mensaje("tres@gmail.com"), Carril.NOTIFICACION));
+
+        // Cada carril tiene su propia capacidad: el transaccional sigue aceptando emails
+        assertDoesNotThrow(() -> cola.encolar(mensaje("compra@gmail.com"), Carril.TRANSACCIONAL));
+        assertEquals(2, cola.pendientes(Carril.NOTIFICACION));
+        assertEquals(1, cola.pendientes(Carril.TRANSACCIONAL));
+    }
+
+    @Test
+    @DisplayName("Testing Cola 6 - Agota los reintentos ante un servidor caído y guarda el email como fallido")
+    void testAgotaReintentos() throws Exception {
+        cola = crearCola(new LimitadorEnvio(100.0, 100, 100.0, 100, 1, 10, 600_000, System::nanoTime));
+        doThrow(new MailSendException("Connection refused", new java.net.ConnectException("Connection refused")))
+                .when(mailSender).send(any(SimpleMailMessage.class));
+
+        cola.encolar(mensaje("cliente@gmail.com"), Carril.NOTIFICACION);
+        for (int i = 0; i < 3; i++) {
+            Thread.sleep(25);
+            assertTrue(cola.procesarSiguiente());
+        }
+
+        verify(mailSender, times(3)).send(any(SimpleMailMessage.class));
+        EstadisticasEnvio estadisticas = cola.obtenerEstadisticas();
+        assertEquals(2, estadisticas.getReintentos());
+        assertEquals(1, estadisticas.getFallidos());
+        assertEquals(0, estadisticas.getPendientes());
+        EnvioFallido fallido = almacen.listar(1).get(0);
+        assertEquals(TipoFallo.TEMPORAL, fallido.getTipo());
+        assertEquals(3, fallido.getIntentos());
+    }
+}
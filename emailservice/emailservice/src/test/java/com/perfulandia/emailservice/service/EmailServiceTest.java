@@ -1,27 +1,35 @@
 package com.perfulandia.emailservice.service;
 
+import com.perfulandia.emailservice.envio.Carril;
+import com.perfulandia.emailservice.envio.ColaLlenaException;
 import com.perfulandia.emailservice.model.EmailRequest;
+import com.perfulandia.emailservice.model.LineaPedido;
+import com.perfulandia.emailservice.model.PedidoRequest;
 import com.perfulandia.emailservice.model.Usuario;
 import com.perfulandia.emailservice.model.Producto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class EmailServiceTest {
 
     @Mock
-    private JavaMailSender mailSender;
+    private ColaEnvioService colaEnvio;
 
     @Mock
     private ProductoService productoService;
@@ -61,13 +69,13 @@ public class EmailServiceTest {
     @DisplayName("Testing Service 1 - Enviar correo")
     void testEnviarCorreo() {
         // Arrange
-        doNothing().when(mailSender).send(any(SimpleMailMessage.class));
+        doNothing().when(colaEnvio).encolar(any(SimpleMailMessage.class), eq(Carril.NOTIFICACION));
 
         // Act
         assertDoesNotThrow(() -> emailService.enviarCorreo(emailRequest));
 
         // Assert
-        verify(mailSender).send(any(SimpleMailMessage.class));
+        verify(colaEnvio).encolar(any(SimpleMailMessage.class), eq(Carril.NOTIFICACION));
     }
 
     @Test
@@ -75,14 +83,14 @@ public class EmailServiceTest {
     void testEnviarPorId() {
         // Arrange
         when(usuarioService.getUserById(1L)).thenReturn(usuario);
-        doNothing().when(mailSender).send(any(SimpleMailMessage.class));
+        doNothing().when(colaEnvio).encolar(any(SimpleMailMessage.class), eq(Carril.NOTIFICACION));
 
         // Act
         assertDoesNotThrow(() -> emailService.enviarPorId(1L, "Test Subject", "Test Message"));
 
         // Assert
         verify(usuarioService).getUserById(1L);
-        verify(mailSender).send(any(SimpleMailMessage.class));
+        verify(colaEnvio).encolar(any(SimpleMailMessage.class), eq(Carril.NOTIFICACION));
     }
 
     @Test
@@ -97,7 +105,7 @@ public class EmailServiceTest {
         });
 
         verify(usuarioService).getUserById(999L);
-        verify(mailSender, never()).send(any(SimpleMailMessage.class));
+        verify(colaEnvio, never()).encolar(any(SimpleMailMessage.class), any(Carril.class));
     }
 
     @Test
@@ -106,7 +114,7 @@ public class EmailServiceTest {
         // Arrange
         when(usuarioService.getUserById(1L)).thenReturn(usuario);
         when(productoService.obtenerProductoPorId(1L)).thenReturn(producto);
-        doNothing().when(mailSender).send(any(SimpleMailMessage.class));
+        doNothing().when(colaEnvio).encolar(any(SimpleMailMessage.class), eq(Carril.TRANSACCIONAL));
 
         // Act
         assertDoesNotThrow(() -> emailService.enviarCorreoCompraExitosa(1L, 1L));
@@ -114,7 +122,7 @@ public class EmailServiceTest {
         // Assert
         verify(usuarioService).getUserById(1L);
         verify(productoService).obtenerProductoPorId(1L);
-        verify(mailSender).send(any(SimpleMailMessage.class));
+        verify(colaEnvio).encolar(any(SimpleMailMessage.class), eq(Carril.TRANSACCIONAL));
     }
 
     @Test
@@ -130,7 +138,7 @@ public class EmailServiceTest {
 
         verify(usuarioService).getUserById(999L);
         verify(productoService, never()).obtenerProductoPorId(anyLong());
-        verify(mailSender, never()).send(any(SimpleMailMessage.class));
+        verify(colaEnvio, never()).encolar(any(SimpleMailMessage.class), any(Carril.class));
     }
 
     @Test
@@ -147,21 +155,21 @@ public class EmailServiceTest {
 
         verify(usuarioService).getUserById(1L);
         verify(productoService).obtenerProductoPorId(999L);
-        verify(mailSender, never()).send(any(SimpleMailMessage.class));
+        verify(colaEnvio, never()).encolar(any(SimpleMailMessage.class), any(Carril.class));
     }
 
     @Test
-    @DisplayName("Testing Service 7 - Enviar correo con error de mail")
+    @DisplayName("Testing Service 7 - Enviar correo con la cola de envío llena")
     void testEnviarCorreoConError() {
         // Arrange
-        doThrow(new RuntimeException("Error de conexión SMTP")).when(mailSender).send(any(SimpleMailMessage.class));
+        doThrow(new ColaLlenaException(Carril.NOTIFICACION, 3000)).when(colaEnvio).encolar(any(SimpleMailMessage.class), eq(Carril.NOTIFICACION));
 
         // Act & Assert
-        assertThrows(RuntimeException.class, () -> {
+        assertThrows(ColaLlenaException.class, () -> {
             emailService.enviarCorreo(emailRequest);
         });
 
-        verify(mailSender).send(any(SimpleMailMessage.class));
+        verify(colaEnvio).encolar(any(SimpleMailMessage.class), eq(Carril.NOTIFICACION));
     }
 
     @Test
@@ -178,4 +186,32 @@ public class EmailServiceTest {
             emailService.enviarCorreo(requestNulo);
         });
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Testing Service 9 - Enviar correo de pedido resolviendo usuario y productos")
+    void testEnviarEmailPedido() {
+        // Arrange: el producto 2 ya no está en el catálogo
+        PedidoRequest pedido = PedidoRequest.builder()
+                .usuarioId(1L)
+                .numeroPedido("CARRITO-5-1")
+                .fechaCompra(LocalDateTime.of(2025, 6, 30, 10, 0))
+                .lineas(List.of(new LineaPedido(1L, 2, 29.99), new LineaPedido(2L, 1, 5.00)))
+                .total(64.98)
+                .build();
+        when(usuarioService.getUserById(1L)).thenReturn(usuario);
+        when(productoService.obtenerProductosPorIds(List.of(1L, 2L))).thenReturn(Map.of(1L, producto));
+        ArgumentCaptor<SimpleMailMessage> captor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+
+        // Act
+        emailService.enviarEmailPedido(pedido);
+
+        // Assert
+        verify(colaEnvio).encolar(captor.capture(), eq(Carril.TRANSACCIONAL));
+        SimpleMailMessage mail = captor.getValue();
+        assertArrayEquals(new String[] {"usuario@example.com"}, mail.getTo());
+        assertTrue(mail.getSubject().contains("CARRITO-5-1"));
+        assertTrue(mail.getText().contains("Perfume Test x2 - $59.98"));
+        assertTrue(mail.getText().contains("Producto #2 x1 - $5.00"));
+        assertTrue(mail.getText().contains("$64.98"));
+    }
+}
@@ -0,0 +1,114 @@
+package com.perfulandia.emailservice.service;
+
+import com.perfulandia.emailservice.envio.AlmacenFallidos;
+import com.perfulandia.emailservice.envio.Carril;
+import com.perfulandia.emailservice.envio.ColaLlenaException;
+import com.perfulandia.emailservice.envio.TipoFallo;
+import com.perfulandia.emailservice.model.EnvioFallido;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class FallidosServiceTest {
+
+    private AlmacenFallidos almacen;
+    private ColaEnvioService colaEnvio;
+    private FallidosService fallidosService;
+
+    @BeforeEach
+    void setUp() {
+        almacen = new AlmacenFallidos(3);
+        colaEnvio = mock(ColaEnvioService.class);
+        fallidosService = new FallidosService(almacen, colaEnvio);
+    }
+
+    private EnvioFallido fallido(String para) {
+        SimpleMailMessage mensaje = new SimpleMailMessage();
+        mensaje.setTo(para);
+        return almacen.guardar(EnvioFallido.builder().para(para).carril(Carril.TRANSACCIONAL).tipo(TipoFallo.PERMANENTE).mensaje(mensaje).build());
+    }
+
+    @Test
+    @DisplayName("Testing Fallidos 1 - Descarta el más antiguo al superar la capacidad")
+    void testCapacidad() {
+        fallido("uno@gmail.com");
+        fallido("dos@gmail.com");
+        fallido("tres@gmail.com");
+        fallido("cuatro@gmail.com");
+
+        List<EnvioFallido> lista = fallidosService.listar(10);
+        assertEquals(3, lista.size());
+        assertEquals("cuatro@gmail.com", lista.get(0).getPara());
+        assertEquals(1, almacen.getDescartados());
+        assertThrows(NoSuchElementException.class, () -> fallidosService.buscar(1L));
+    }
+
+    @Test
+    @DisplayName("Testing Fallidos 2 - Reintentar encola el email y lo retira del almacén")
+    void testReintentar() {
+        EnvioFallido uno = fallido("uno@gmail.com");
+
+        fallidosService.reintentar(uno.getId());
+
+        verify(colaEnvio).encolar(uno.getMensaje(), Carril.TRANSACCIONAL);
+        assertEquals(0, almacen.tamano());
+    }
+
+    @Test
+    @DisplayName("Testing Fallidos 3 - Con la cola llena el email permanece en el almacén")
+    void testReintentarColaLlena() {
+        EnvioFallido uno = fallido("uno@gmail.com");
+        fallido("dos@gmail.com");
+        doNothing().doThrow(new ColaLlenaException(Carril.NOTIFICACION, 1)).when(colaEnvio).encolar(any(), any());
+
+        assertEquals(1, fallidosService.reintentarTodos());
+        assertEquals(1, almacen.tamano());
+        assertTrue(almacen.buscar(uno.getId()).isEmpty());
+
+        doThrow(new ColaLlenaException(Carril.NOTIFICACION, 1)).when(colaEnvio).encolar(any(), any());
+        assertThrows(ColaLlenaException.class, () -> fallidosService.reintentar(2L));
+        assertTrue(almacen.buscar(2L).isPresent());
+    }
+
+    @Test
+    @DisplayName("Testing Fallidos 4 - El email restaurado conserva su antigüedad y respeta la capacidad")
+    void testRestaurarConservaAntiguedad() {
+        // Arrange
+        EnvioFallido uno = fallido("uno@gmail.com");
+        fallido("dos@gmail.com");
+        fallido("tres@gmail.com");
+        doThrow(new ColaLlenaException(Carril.NOTIFICACION, 1)).when(colaEnvio).encolar(any(), any());
+
+        // Act: el reintento del más antiguo falla y llega un fallido nuevo
+        assertThrows(ColaLlenaException.class, () -> fallidosService.reintentar(uno.getId()));
+        List<String> trasRestaurar = fallidosService.listar(10).stream().map(EnvioFallido::getPara).toList();
+        fallido("cuatro@gmail.com");
+
+        // Assert: sigue siendo el más antiguo y es el que se descarta
+        assertEquals(List.of("tres@gmail.com", "dos@gmail.com", "uno@gmail.com"), trasRestaurar);
+        assertEquals(List.of("cuatro@gmail.com", "tres@gmail.com", "dos@gmail.com"),
+                fallidosService.listar(10).stream().map(EnvioFallido::getPara).toList());
+        assertEquals(1, almacen.getDescartados());
+
+        // Act: mientras se reintenta dos@gmail.com llega otro fallido y llena el almacén
+        doAnswer(invocacion -> {
+            fallido("cinco@gmail.com");
+            throw new ColaLlenaException(Carril.NOTIFICACION, 1);
+        }).when(colaEnvio).encolar(any(), any());
+        assertEquals(0, fallidosService.reintentarTodos());
+
+        // Assert: no se supera la capacidad y se descarta el más antiguo
+        assertEquals(3, almacen.tamano());
+        assertEquals(List.of("cinco@gmail.com", "cuatro@gmail.com", "tres@gmail.com"),
+                fallidosService.listar(10).stream().map(EnvioFallido::getPara).toList());
+        assertEquals(2, almacen.getDescartados());
+    }
+}
@@ -0,0 +1,87 @@
+package com.perfulandia.emailservice.service;
+
+import com.perfulandia.emailservice.model.Usuario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
+
+public class UsuarioServiceTest {
+
+    private MockRestServiceServer servidor;
+    private UsuarioService usuarioService;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder().baseUrl("http://usuarios");
+        servidor = MockRestServiceServer.bindTo(builder).build();
+        usuarioService = new UsuarioService(builder.build(), 60, 600, 1000, 0, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Testing Usuario Remoto 1 - Obtiene el usuario y lo guarda en caché")
+    void testObtieneYCachea() {
+        // Arrange
+        servidor.expect(requestTo("http://usuarios/api/usuarios/lote?ids=1"))
+                .andRespond(withSuccess("[{\"id\":1,\"nombre\":\"Juan Pérez\",\"correo\":\"juan@email.com\",\"rol\":\"USUARIO\"}]",
+                        MediaType.APPLICATION_JSON));
+
+        // Act
+        Usuario primero = usuarioService.getUserById(1L);
+        Usuario segundo = usuarioService.getUserById(1L);
+
+        // Assert
+        assertEquals("juan@email.com", primero.getEmail());
+        assertEquals("Juan", primero.getPrimerNombre());
+        assertSame(primero, segundo);
+        servidor.verify();
+    }
+
+    @Test
+    @DisplayName("Testing Usuario Remoto 2 - Resuelve varios usuarios con una sola llamada")
+    void testLote() {
+        // Arrange
+        servidor.expect(requestTo("http://usuarios/api/usuarios/lote?ids=1&ids=2&ids=3"))
+                .andRespond(withSuccess("[{\"id\":1,\"nombre\":\"Juan\",\"correo\":\"juan@email.com\"},"
+                        + "{\"id\":3,\"nombre\":\"Carlos\",\"correo\":\"carlos@email.com\"}]", MediaType.APPLICATION_JSON));
+
+        // Act
+        Map<Long, Usuario> usuarios = usuarioService.getUsersByIds(List.of(1L, 2L, 3L));
+
+        // Assert
+        assertEquals(2, usuarios.size());
+        assertEquals("carlos@email.com", usuarios.get(3L).getEmail());
+        servidor.verify();
+    }
+
+    @Test
+    @DisplayName("Testing Usuario Remoto 3 - Usuario inexistente")
+    void testUsuarioInexistente() {
+        servidor.expect(requestTo("http://usuarios/api/usuarios/lote?ids=99"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> usuarioService.getUserById(99L));
+        assertEquals("Usuario no encontrado con ID: 99", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Testing Usuario Remoto 4 - Error del microservicio de usuarios")
+    void testErrorRemoto() {
+        servidor.expect(requestTo("http://usuarios/api/usuarios/lote?ids=1"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertThrows(RuntimeException.class, () -> usuarioService.getUserById(1L));
+        assertFalse(usuarioService.usuarioExiste(null));
+    }
+}
@@ -0,0 +1,38 @@
+package com.perfulandia.gatewayservice;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Clase principal del gateway de la tienda
+ * 
+ * Esta clase es el punto de entrada de la aplicación Spring Boot para el
+ * gateway (backend-for-frontend) de la tienda. El gateway no tiene base de
+ * datos: expone endpoints compuestos que consultan en paralelo a los
+ * microservicios de carritos, productos y usuarios y entregan al navegador
+ * todo lo que necesita una página en una sola respuesta.
+ * 
+ * Funcionalidades principales:
+ * - Configuración automática de Spring Boot
+ * - Escaneo de componentes en el paquete com.perfulandia.gatewayservice
+ * - Clientes HTTP hacia los otros microservicios
+ * - Inicio del servidor web embebido
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@SpringBootApplication // Combina @Configuration, @EnableAutoConfiguration y @ComponentScan para configurar automáticamente la aplicación
+public class GatewayserviceApplication {
+    
+	/**
+	 * Método principal que inicia la aplicación Spring Boot
+	 * 
+	 * @param args Argumentos de línea de comandos (no utilizados en este caso)
+	 */
+	public static void main(String[] args) {
+		// Inicia la aplicación Spring Boot
+		SpringApplication.run(GatewayserviceApplication.class, args);
+	}
+    
+}
@@ -0,0 +1,47 @@
+package com.perfulandia.gatewayservice.cliente;
+
+import com.perfulandia.gatewayservice.model.VistaCarrito;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.util.Optional;
+
+/**
+ * Cliente del microservicio de carritos
+ * 
+ * Usa la vista del carrito activo (GET /api/carrito/usuario/{usuarioId}/activo/vista),
+ * que entrega el encabezado y los items en una sola llamada.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Component // Marca esta clase como un componente de Spring
+public class ClienteCarritos {
+    
+    private final RestClient clienteCarritos;
+    
+    public ClienteCarritos(@Qualifier("restCarritos") RestClient clienteCarritos) {
+        this.clienteCarritos = clienteCarritos;
+    }
+    
+    /**
+     * Obtiene la vista del carrito activo de un usuario
+     * 
+     * @param usuarioId ID del usuario
+     * @return Optional con la vista, vacío si el usuario no tiene carrito activo
+     * @throws org.springframework.web.client.RestClientException si carritoservice falla o no responde
+     */
+    public Optional<VistaCarrito> carritoActivo(Long usuarioId) {
+        try {
+            return Optional.ofNullable(clienteCarritos.get()
+                    .uri("/api/carrito/usuario/{usuarioId}/activo/vista", usuarioId)
+                    .retrieve()
+                    .body(VistaCarrito.class));
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+}
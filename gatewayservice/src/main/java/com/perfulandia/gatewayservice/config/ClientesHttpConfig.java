@@ -0,0 +1,140 @@
+package com.perfulandia.gatewayservice.config;
+
+import com.perfulandia.clientes.ClienteProductos;
+import com.perfulandia.clientes.ClienteUsuarios;
+import com.perfulandia.clientes.ConfiguracionCliente;
+import com.perfulandia.clientes.TransporteHttp;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuración de los clientes HTTP hacia los otros microservicios
+ * 
+ * Todos los clientes comparten un único java.net.http.HttpClient, que
+ * mantiene un pool de conexiones persistentes (keep-alive) por servidor,
+ * así cada página de la tienda reutiliza las conexiones abiertas. Los
+ * clientes de usuarios y productos son los del módulo compartido
+ * clientes, con caché y agrupamiento de búsquedas en lotes.
+ * 
+ * Las llamadas de una misma petición se lanzan en paralelo en el pool
+ * de hilos "gateway-consultas"; cada tarea lleva el contexto de la
+ * petición, así las llamadas quedan en su traza.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Configuration // Indica que esta clase declara beans de Spring
+public class ClientesHttpConfig {
+    
+    /**
+     * Cliente HTTP compartido con pool de conexiones
+     * 
+     * @param timeoutConexionMs Tiempo máximo para establecer una conexión
+     * @param http2 true para usar HTTP/2 en lugar de HTTP/1.1
+     * @return HttpClient del JDK reutilizable entre hilos
+     */
+    @Bean // Registra el HttpClient como bean compartido
+    public HttpClient httpClient(@Value("${gateway.clientes.timeout-conexion-ms:1000}") long timeoutConexionMs,
+                                 @Value("${gateway.clientes.http2:false}") boolean http2) {
+        return TransporteHttp.crearHttpClient(timeoutConexionMs, http2);
+    }
+    
+    /**
+     * Cliente del microservicio de usuarios
+     * 
+     * Los datos de un usuario casi no cambian entre páginas, así que se
+     * guardan en caché con el TTL de gateway.clientes.usuarios.cache.
+     */
+    @Bean // Registra el cliente como bean inyectable en los servicios
+    public ClienteUsuarios clienteUsuarios(RestClient.Builder builder, HttpClient httpClient,
+                                           @Value("${gateway.clientes.usuarios.url:http://localhost:8081}") String url,
+                                           @Value("${gateway.clientes.timeout-lectura-ms:2000}") long timeoutLecturaMs,
+                                           @Value("${gateway.clientes.usuarios.cache.ttl-segundos:60}") long ttlSegundos,
+                                           @Value("${gateway.clientes.usuarios.cache.obsoleto-segundos:600}") long obsoletoSegundos,
+                                           @Value("${gateway.clientes.ventana-lote-ms:2}") long ventanaLoteMs,
+                                           MeterRegistry registro) {
+        ConfiguracionCliente configuracion = ConfiguracionCliente.builder()
+                .ttlSegundos(ttlSegundos)
+                .obsoletoSegundos(obsoletoSegundos)
+                .ventanaLoteMs(ventanaLoteMs)
+                .build();
+        return new ClienteUsuarios(TransporteHttp.crearRestClient(builder, httpClient, url, timeoutLecturaMs),
+                configuracion, registro);
+    }
+    
+    /**
+     * Cliente del microservicio de productos
+     * 
+     * El stock cambia con cada venta, así que la caché de productos tiene
+     * un TTL de pocos segundos: basta para absorber las consultas
+     * repetidas de una ráfaga de visitas al mismo producto.
+     */
+    @Bean // Registra el cliente como bean inyectable en los servicios
+    public ClienteProductos clienteProductos(RestClient.Builder builder, HttpClient httpClient,
+                                             @Value("${gateway.clientes.productos.url:http://localhost:8082}") String url,
+                                             @Value("${gateway.clientes.timeout-lectura-ms:2000}") long timeoutLecturaMs,
+                                             @Value("${gateway.clientes.productos.cache.ttl-segundos:2}") long ttlSegundos,
+                                             @Value("${gateway.clientes.productos.cache.obsoleto-segundos:10}") long obsoletoSegundos,
+                                             @Value("${gateway.clientes.ventana-lote-ms:2}") long ventanaLoteMs,
+                                             MeterRegistry registro) {
+        ConfiguracionCliente configuracion = ConfiguracionCliente.builder()
+                .ttlSegundos(ttlSegundos)
+                .obsoletoSegundos(obsoletoSegundos)
+                .ventanaLoteMs(ventanaLoteMs)
+                .build();
+        return new ClienteProductos(TransporteHttp.crearRestClient(builder, httpClient, url, timeoutLecturaMs),
+                configuracion, registro);
+    }
+    
+    /**
+     * Cliente REST para el microservicio de carritos
+     */
+    @Bean // Registra el cliente como bean inyectable por nombre
+    public RestClient restCarritos(RestClient.Builder builder, HttpClient httpClient,
+                                      @Value("${gateway.clientes.carritos.url:http://localhost:8084}") String url,
+                                      @Value("${gateway.clientes.timeout-lectura-ms:2000}") long timeoutLecturaMs) {
+        return TransporteHttp.crearRestClient(builder, httpClient, url, timeoutLecturaMs);
+    }
+    
+    /**
+     * Pool de hilos para las consultas en paralelo
+     * 
+     * Las llamadas HTTP bloquean su hilo mientras esperan la respuesta, así
+     * que el pool tiene tamaño fijo y una cola acotada: si se llena, la
+     * tarea se ejecuta en el hilo de la petición (más lenta, pero sin
+     * rechazarla).
+     * 
+     * @param hilos Cantidad de hilos del pool
+     * @param capacidadCola Tareas que pueden esperar un hilo libre
+     * @return ExecutorService que propaga el contexto (traza) a cada tarea
+     */
+    @Bean // Registra el pool como bean; Spring llama a shutdown al cerrar el contexto
+    public ExecutorService consultasGateway(@Value("${gateway.consultas.hilos:32}") int hilos,
+                                            @Value("${gateway.consultas.capacidad-cola:1000}") int capacidadCola) {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(hilos, hilos, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(capacidadCola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "gateway-consultas-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        ContextSnapshotFactory contexto = ContextSnapshotFactory.builder().build();
+        return ContextExecutorService.wrap(pool, contexto::captureAll);
+    }
+}
@@ -0,0 +1,70 @@
+package com.perfulandia.gatewayservice.controller;
+
+import com.perfulandia.gatewayservice.model.CarritoDetallado;
+import com.perfulandia.gatewayservice.model.ProductoDetallado;
+import com.perfulandia.gatewayservice.service.ServicioNoDisponibleException;
+import com.perfulandia.gatewayservice.service.TiendaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST con los endpoints compuestos de la tienda
+ * 
+ * Cada endpoint entrega en una sola respuesta lo que necesita una página
+ * del navegador, consultando en paralelo a los microservicios.
+ * 
+ * Endpoints disponibles:
+ * - GET /api/tienda/carrito/usuario/{usuarioId} - Carrito activo con usuario y productos
+ * - GET /api/tienda/productos/{id}?usuarioId= - Producto con disponibilidad y unidades en el carrito
+ * 
+ * Respuestas: 200 (con parcial=true y avisos si faltó algún dato
+ * complementario), 404 si no existe el carrito activo o el producto, y 503
+ * si el servicio principal no respondió a tiempo.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@RestController // Marca esta clase como un controlador REST que devuelve respuestas en formato JSON automáticamente
+@RequestMapping("/api/tienda") // Define la ruta base para todos los endpoints
+@RequiredArgsConstructor // Genera un constructor con los campos final (inyección de dependencias)
+public class TiendaController {
+    
+    private final TiendaService tiendaService;
+    
+    /**
+     * Obtiene el carrito activo de un usuario con sus datos y los de cada producto
+     * 
+     * @param usuarioId ID del usuario
+     * @return ResponseEntity<CarritoDetallado> con el carrito, 404 si no tiene carrito activo o 503
+     */
+    @GetMapping("/carrito/usuario/{usuarioId}") // Mapea este método a peticiones GET en la ruta especificada
+    public ResponseEntity<CarritoDetallado> obtenerCarrito(@PathVariable Long usuarioId) { // Extrae el valor de la URL y lo convierte a Long
+        try {
+            return ResponseEntity.of(tiendaService.carritoDetallado(usuarioId));
+        } catch (ServicioNoDisponibleException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
+    /**
+     * Obtiene un producto con su disponibilidad y, si se indica el usuario,
+     * las unidades que ya tiene en su carrito
+     * 
+     * @param id ID del producto
+     * @param usuarioId ID del usuario (opcional)
+     * @return ResponseEntity<ProductoDetallado> con el producto, 404 si no existe o 503
+     */
+    @GetMapping("/productos/{id}") // Mapea este método a peticiones GET en la ruta especificada
+    public ResponseEntity<ProductoDetallado> obtenerProducto(
+            @PathVariable Long id, // Extrae el valor de la URL y lo convierte a Long
+            @RequestParam(required = false) Long usuarioId) { // Parámetro opcional de la consulta
+        try {
+            return ResponseEntity.of(tiendaService.productoDetallado(id, usuarioId));
+        } catch (ServicioNoDisponibleException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
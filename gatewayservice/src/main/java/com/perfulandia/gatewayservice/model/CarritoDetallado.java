@@ -0,0 +1,88 @@
+package com.perfulandia.gatewayservice.model;
+
+import com.perfulandia.clientes.model.Usuario;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Respuesta compuesta con todo lo que necesita la página del carrito
+ * 
+ * Reúne en una sola respuesta el carrito activo (carritoservice), los
+ * datos del usuario (usuarioservice) y los productos de cada item
+ * (productservice). El navegador hace una sola llamada en lugar de una
+ * por el carrito, una por el usuario y una por cada producto.
+ * 
+ * Si usuarioservice o productservice no responden a tiempo la respuesta
+ * se entrega igual con parcial=true y un aviso por cada dato faltante.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class CarritoDetallado {
+    
+    /**
+     * ID del carrito
+     */
+    private Long id;
+    
+    /**
+     * ID del usuario propietario del carrito
+     */
+    private Long usuarioId;
+    
+    /**
+     * Datos del usuario (null si no se pudieron obtener)
+     */
+    private Usuario usuario;
+    
+    /**
+     * Estado actual del carrito
+     */
+    private String estado;
+    
+    /**
+     * Fecha y hora de creación del carrito
+     */
+    private LocalDateTime fechaCreacion;
+    
+    /**
+     * Cantidad total de unidades en el carrito
+     */
+    private int cantidadItems;
+    
+    /**
+     * Total del carrito en centavos
+     */
+    private long totalCentavos;
+    
+    /**
+     * Items del carrito con los datos de cada producto
+     */
+    private List<ItemDetallado> items;
+    
+    /**
+     * true si falta algún dato porque un servicio no respondió a tiempo
+     */
+    private boolean parcial;
+    
+    /**
+     * Descripción de cada dato faltante
+     */
+    private List<String> avisos;
+    
+    /**
+     * Método que obtiene el total del carrito en la unidad monetaria
+     * 
+     * @return El total del carrito
+     */
+    public Double getTotal() {
+        return totalCentavos / 100.0;
+    }
+}
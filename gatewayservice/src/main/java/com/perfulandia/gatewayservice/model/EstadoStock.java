@@ -0,0 +1,34 @@
+package com.perfulandia.gatewayservice.model;
+
+/**
+ * Disponibilidad de un producto tal como se muestra en la tienda
+ * 
+ * Se calcula en el gateway a partir del stock que informa productservice,
+ * para que el navegador no tenga que conocer el umbral de stock bajo.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public enum EstadoStock {
+    
+    /**
+     * Hay stock suficiente
+     */
+    DISPONIBLE,
+    
+    /**
+     * Quedan pocas unidades (stock menor o igual al umbral configurado)
+     */
+    ULTIMAS_UNIDADES,
+    
+    /**
+     * Sin stock
+     */
+    AGOTADO,
+    
+    /**
+     * No se pudo consultar el producto a tiempo
+     */
+    DESCONOCIDO
+}
@@ -0,0 +1,58 @@
+package com.perfulandia.gatewayservice.model;
+
+import com.perfulandia.clientes.model.Producto;
+import lombok.*;
+
+/**
+ * Item del carrito con los datos del producto incluidos
+ * 
+ * Combina el item que entrega carritoservice con el producto de
+ * productservice. Si el producto no se pudo consultar a tiempo, producto
+ * queda en null y estadoStock en DESCONOCIDO, pero el item (cantidad y
+ * precios del carrito) se muestra igual.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class ItemDetallado {
+    
+    /**
+     * ID del item en el carrito
+     */
+    private Long id;
+    
+    /**
+     * ID del producto
+     */
+    private Long productoId;
+    
+    /**
+     * Cantidad de unidades del producto
+     */
+    private Integer cantidad;
+    
+    /**
+     * Precio unitario registrado en el carrito
+     */
+    private Double precioUnitario;
+    
+    /**
+     * Subtotal del item en centavos
+     */
+    private long subtotalCentavos;
+    
+    /**
+     * Datos del producto (null si no se pudieron obtener)
+     */
+    private Producto producto;
+    
+    /**
+     * Disponibilidad del producto
+     */
+    private EstadoStock estadoStock;
+}
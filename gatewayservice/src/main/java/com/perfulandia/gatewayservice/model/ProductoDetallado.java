@@ -0,0 +1,51 @@
+package com.perfulandia.gatewayservice.model;
+
+import com.perfulandia.clientes.model.Producto;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Respuesta compuesta con todo lo que necesita la página de un producto
+ * 
+ * Reúne el producto (productservice), su disponibilidad y, si se indica
+ * el usuario, cuántas unidades tiene ya en su carrito activo
+ * (carritoservice). Si el carrito no responde a tiempo la respuesta se
+ * entrega igual con parcial=true y cantidadEnCarrito en null.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class ProductoDetallado {
+    
+    /**
+     * Datos del producto
+     */
+    private Producto producto;
+    
+    /**
+     * Disponibilidad del producto
+     */
+    private EstadoStock estadoStock;
+    
+    /**
+     * Unidades del producto en el carrito activo del usuario (null si no
+     * se indicó usuario o el carrito no se pudo consultar)
+     */
+    private Integer cantidadEnCarrito;
+    
+    /**
+     * true si falta algún dato porque un servicio no respondió a tiempo
+     */
+    private boolean parcial;
+    
+    /**
+     * Descripción de cada dato faltante
+     */
+    private List<String> avisos;
+}
@@ -0,0 +1,82 @@
+package com.perfulandia.gatewayservice.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Modelo de datos de la vista del carrito activo que entrega carritoservice
+ * 
+ * Corresponde a GET /api/carrito/usuario/{usuarioId}/activo/vista: el
+ * encabezado del carrito y sus items con precios, pero sin los datos de
+ * los productos (nombre, stock), que el gateway completa.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+@JsonIgnoreProperties(ignoreUnknown = true) // Ignora campos calculados como total
+public class VistaCarrito {
+    
+    /**
+     * ID del carrito
+     */
+    private Long id;
+    
+    /**
+     * ID del usuario propietario del carrito
+     */
+    private Long usuarioId;
+    
+    /**
+     * Estado actual del carrito (ACTIVO, COMPRADO, ...)
+     */
+    private String estado;
+    
+    /**
+     * Fecha y hora de creación del carrito
+     */
+    private LocalDateTime fechaCreacion;
+    
+    /**
+     * Cantidad total de unidades en el carrito
+     */
+    private int cantidadItems;
+    
+    /**
+     * Total del carrito en centavos
+     */
+    private long totalCentavos;
+    
+    /**
+     * Items del carrito ordenados por ID
+     */
+    private List<ItemVista> items;
+    
+    /**
+     * Item dentro de la vista del carrito
+     */
+    @Data // Genera automáticamente getters, setters, toString, equals y hashCode
+    @AllArgsConstructor // Genera constructor con todos los parámetros
+    @NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+    @Builder // Implementa el patrón Builder para crear instancias de forma fluida
+    @JsonIgnoreProperties(ignoreUnknown = true) // Tolera campos nuevos en carritoservice
+    public static class ItemVista {
+        
+        private Long id;
+        private Long productoId;
+        private Integer cantidad;
+        private Double precioUnitario;
+        
+        /**
+         * Subtotal del item en centavos
+         */
+        private long subtotalCentavos;
+    }
+}
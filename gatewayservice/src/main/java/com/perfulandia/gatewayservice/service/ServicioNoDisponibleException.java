@@ -0,0 +1,20 @@
+package com.perfulandia.gatewayservice.service;
+
+/**
+ * Excepción lanzada cuando un microservicio imprescindible para una
+ * respuesta compuesta falla o no responde dentro del plazo
+ * 
+ * El controlador la traduce a HTTP 503. Los servicios que solo aportan
+ * datos complementarios no la propagan: su falta se informa como aviso
+ * en una respuesta parcial.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class ServicioNoDisponibleException extends RuntimeException {
+    
+    public ServicioNoDisponibleException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
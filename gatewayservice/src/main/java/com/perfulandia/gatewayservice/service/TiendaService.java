@@ -0,0 +1,261 @@
+package com.perfulandia.gatewayservice.service;
+
+import com.perfulandia.clientes.ClienteProductos;
+import com.perfulandia.clientes.ClienteUsuarios;
+import com.perfulandia.clientes.model.Producto;
+import com.perfulandia.clientes.model.Usuario;
+import com.perfulandia.gatewayservice.cliente.ClienteCarritos;
+import com.perfulandia.gatewayservice.model.CarritoDetallado;
+import com.perfulandia.gatewayservice.model.EstadoStock;
+import com.perfulandia.gatewayservice.model.ItemDetallado;
+import com.perfulandia.gatewayservice.model.ProductoDetallado;
+import com.perfulandia.gatewayservice.model.VistaCarrito;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Servicio que arma las respuestas compuestas de la tienda
+ * 
+ * Cada página de la tienda necesitaba antes varias llamadas del navegador
+ * (el carrito, el usuario y un producto por item: N+2 viajes). Aquí se
+ * hacen en el gateway, dentro de la red interna y en paralelo:
+ * 
+ * - Carrito: el carrito y el usuario se piden a la vez; los productos se
+ *   piden con el endpoint de lote apenas llega el carrito.
+ * - Producto: el producto y el carrito activo del usuario se piden a la vez.
+ * 
+ * Toda la respuesta tiene un plazo (gateway.tienda.plazo-ms). Si el
+ * servicio principal (el carrito o el producto) falla o no responde a
+ * tiempo se lanza ServicioNoDisponibleException; si falla uno que solo
+ * aporta datos complementarios, la respuesta se entrega igual marcada
+ * como parcial y con un aviso. Cada llamada queda además acotada por el
+ * timeout de lectura de su cliente HTTP, así que las consultas que se
+ * abandonan por el plazo terminan solas poco después.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Slf4j // Genera el logger
+@Service // Marca esta clase como un servicio de Spring, permitiendo la inyección de dependencias y el escaneo automático de componentes
+public class TiendaService {
+    
+    private final ClienteCarritos carritos;
+    private final ClienteProductos productos;
+    private final ClienteUsuarios usuarios;
+    
+    /**
+     * Pool de hilos donde corren las consultas en paralelo
+     */
+    private final ExecutorService consultas;
+    
+    /**
+     * Tiempo máximo para armar una respuesta completa
+     */
+    private final long plazoMs;
+    
+    /**
+     * Stock desde el cual (inclusive) un producto se muestra como ULTIMAS_UNIDADES
+     */
+    private final int stockBajo;
+    
+    @Autowired // Inyecta los clientes, el pool de consultas y la configuración
+    public TiendaService(ClienteCarritos carritos, ClienteProductos productos, ClienteUsuarios usuarios,
+                         @Qualifier("consultasGateway") ExecutorService consultas,
+                         @Value("${gateway.tienda.plazo-ms:1500}") long plazoMs,
+                         @Value("${gateway.tienda.stock-bajo:5}") int stockBajo) {
+        this.carritos = carritos;
+        this.productos = productos;
+        this.usuarios = usuarios;
+        this.consultas = consultas;
+        this.plazoMs = plazoMs;
+        this.stockBajo = stockBajo;
+    }
+    
+    /**
+     * Arma el carrito activo de un usuario con sus productos y sus datos
+     * 
+     * @param usuarioId ID del usuario
+     * @return Optional con el carrito detallado, vacío si el usuario no tiene carrito activo
+     * @throws ServicioNoDisponibleException si carritoservice falla o no responde a tiempo
+     */
+    public Optional<CarritoDetallado> carritoDetallado(Long usuarioId) {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(plazoMs);
+        
+        CompletableFuture<Optional<VistaCarrito>> carrito =
+                CompletableFuture.supplyAsync(() -> carritos.carritoActivo(usuarioId), consultas);
+        CompletableFuture<Optional<Usuario>> usuario =
+                CompletableFuture.supplyAsync(() -> usuarios.buscar(usuarioId), consultas);
+        // Los productos se piden apenas llega el carrito, sin esperar al usuario
+        CompletableFuture<Map<Long, Producto>> productosCarrito = carrito.thenApplyAsync(vista -> vista
+                .map(v -> productos.buscarVarios(items(v).stream().map(VistaCarrito.ItemVista::getProductoId).toList()))
+                .orElse(Map.of()), consultas);
+        
+        VistaCarrito vista;
+        try {
+            vista = esperar(carrito, limite, "carritoservice").orElse(null);
+        } catch (ServicioNoDisponibleException e) {
+            usuario.cancel(true);
+            throw e;
+        }
+        if (vista == null) {
+            usuario.cancel(true);
+            return Optional.empty();
+        }
+        
+        List<String> avisos = new ArrayList<>();
+        Optional<Usuario> datosUsuario = esperarParcial(usuario, limite, "usuarioservice", avisos);
+        Map<Long, Producto> datosProductos = esperarParcial(productosCarrito, limite, "productservice", avisos);
+        
+        List<ItemDetallado> items = items(vista).stream()
+                .map(item -> {
+                    Producto producto = datosProductos == null ? null : datosProductos.get(item.getProductoId());
+                    return ItemDetallado.builder()
+                            .id(item.getId())
+                            .productoId(item.getProductoId())
+                            .cantidad(item.getCantidad())
+                            .precioUnitario(item.getPrecioUnitario())
+                            .subtotalCentavos(item.getSubtotalCentavos())
+                            .producto(producto)
+                            .estadoStock(estadoStock(producto))
+                            .build();
+                })
+                .toList();
+        
+        return Optional.of(CarritoDetallado.builder()
+                .id(vista.getId())
+                .usuarioId(vista.getUsuarioId())
+                .usuario(datosUsuario == null ? null : datosUsuario.orElse(null))
+                .estado(vista.getEstado())
+                .fechaCreacion(vista.getFechaCreacion())
+                .cantidadItems(vista.getCantidadItems())
+                .totalCentavos(vista.getTotalCentavos())
+                .items(items)
+                .parcial(!avisos.isEmpty())
+                .avisos(avisos)
+                .build());
+    }
+    
+    /**
+     * Arma un producto con su disponibilidad y, si se indica el usuario,
+     * las unidades que ya tiene en su carrito activo
+     * 
+     * @param productoId ID del producto
+     * @param usuarioId ID del usuario (opcional)
+     * @return Optional con el producto detallado, vacío si el producto no existe
+     * @throws ServicioNoDisponibleException si productservice falla o no responde a tiempo
+     */
+    public Optional<ProductoDetallado> productoDetallado(Long productoId, Long usuarioId) {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(plazoMs);
+        
+        CompletableFuture<Optional<Producto>> producto =
+                CompletableFuture.supplyAsync(() -> productos.buscar(productoId), consultas);
+        CompletableFuture<Optional<VistaCarrito>> carrito = usuarioId == null ? null
+                : CompletableFuture.supplyAsync(() -> carritos.carritoActivo(usuarioId), consultas);
+        
+        Producto datosProducto;
+        try {
+            datosProducto = esperar(producto, limite, "productservice").orElse(null);
+        } catch (ServicioNoDisponibleException e) {
+            cancelar(carrito);
+            throw e;
+        }
+        if (datosProducto == null) {
+            cancelar(carrito);
+            return Optional.empty();
+        }
+        
+        List<String> avisos = new ArrayList<>();
+        Integer cantidadEnCarrito = null;
+        if (carrito != null) {
+            Optional<VistaCarrito> vista = esperarParcial(carrito, limite, "carritoservice", avisos);
+            if (vista != null) {
+                cantidadEnCarrito = vista.map(v -> items(v).stream()
+                                .filter(item -> productoId.equals(item.getProductoId()))
+                                .mapToInt(item -> item.getCantidad() == null ? 0 : item.getCantidad())
+                                .sum())
+                        .orElse(0);
+            }
+        }
+        
+        return Optional.of(ProductoDetallado.builder()
+                .producto(datosProducto)
+                .estadoStock(estadoStock(datosProducto))
+                .cantidadEnCarrito(cantidadEnCarrito)
+                .parcial(!avisos.isEmpty())
+                .avisos(avisos)
+                .build());
+    }
+    
+    /**
+     * Calcula la disponibilidad de un producto según su stock
+     * 
+     * @param producto Producto (null si no se pudo consultar)
+     * @return Estado de stock para mostrar en la tienda
+     */
+    EstadoStock estadoStock(Producto producto) {
+        if (producto == null || producto.getStock() == null) {
+            return EstadoStock.DESCONOCIDO;
+        }
+        if (producto.getStock() <= 0) {
+            return EstadoStock.AGOTADO;
+        }
+        return producto.getStock() <= stockBajo ? EstadoStock.ULTIMAS_UNIDADES : EstadoStock.DISPONIBLE;
+    }
+    
+    /**
+     * Espera una consulta hasta el límite de la respuesta
+     * 
+     * @throws ServicioNoDisponibleException si la consulta falló o no terminó a tiempo
+     */
+    private static <T> T esperar(CompletableFuture<T> consulta, long limite, String servicio) {
+        try {
+            return consulta.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            consulta.cancel(true);
+            throw new ServicioNoDisponibleException(servicio + " no respondió a tiempo", e);
+        } catch (ExecutionException e) {
+            throw new ServicioNoDisponibleException(servicio + " no disponible: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServicioNoDisponibleException("Consulta a " + servicio + " interrumpida", e);
+        }
+    }
+    
+    /**
+     * Espera una consulta de datos complementarios: si falla o no termina
+     * a tiempo agrega un aviso y devuelve null
+     */
+    private static <T> T esperarParcial(CompletableFuture<T> consulta, long limite, String servicio, List<String> avisos) {
+        try {
+            return esperar(consulta, limite, servicio);
+        } catch (ServicioNoDisponibleException e) {
+            log.warn("Respuesta parcial: {}", e.getMessage());
+            avisos.add(e.getMessage());
+            return null;
+        }
+    }
+    
+    private static void cancelar(CompletableFuture<?> consulta) {
+        if (consulta != null) {
+            consulta.cancel(true);
+        }
+    }
+    
+    private static List<VistaCarrito.ItemVista> items(VistaCarrito vista) {
+        return vista.getItems() == null ? List.of() : vista.getItems();
+    }
+}
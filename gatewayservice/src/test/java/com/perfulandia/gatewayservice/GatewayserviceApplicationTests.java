@@ -0,0 +1,13 @@
+package com.perfulandia.gatewayservice;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class GatewayserviceApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.perfulandia.gatewayservice.controller;
+
+import com.perfulandia.gatewayservice.model.CarritoDetallado;
+import com.perfulandia.gatewayservice.model.EstadoStock;
+import com.perfulandia.gatewayservice.model.ItemDetallado;
+import com.perfulandia.gatewayservice.service.ServicioNoDisponibleException;
+import com.perfulandia.gatewayservice.service.TiendaService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TiendaController.class)
+public class TiendaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TiendaService tiendaService;
+
+    @Test
+    @DisplayName("Testing Tienda Controller 1 - Carrito parcial en una sola respuesta")
+    void testCarritoParcial() throws Exception {
+        // Arrange
+        when(tiendaService.carritoDetallado(1L)).thenReturn(Optional.of(CarritoDetallado.builder()
+                .id(7L).usuarioId(1L).totalCentavos(250050)
+                .items(List.of(ItemDetallado.builder().productoId(10L).cantidad(1).estadoStock(EstadoStock.DESCONOCIDO).build()))
+                .parcial(true).avisos(List.of("productservice no respondió a tiempo"))
+                .build()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/tienda/carrito/usuario/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2500.5))
+                .andExpect(jsonPath("$.parcial").value(true))
+                .andExpect(jsonPath("$.items[0].estadoStock").value("DESCONOCIDO"))
+                .andExpect(jsonPath("$.avisos[0]").value("productservice no respondió a tiempo"));
+    }
+
+    @Test
+    @DisplayName("Testing Tienda Controller 2 - 404 sin carrito activo y 503 si carritoservice no responde")
+    void testCarritoNoEncontradoONoDisponible() throws Exception {
+        // Arrange
+        when(tiendaService.carritoDetallado(1L)).thenReturn(Optional.empty());
+        when(tiendaService.carritoDetallado(2L))
+                .thenThrow(new ServicioNoDisponibleException("carritoservice no respondió a tiempo", null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/tienda/carrito/usuario/1")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/tienda/carrito/usuario/2")).andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    @DisplayName("Testing Tienda Controller 3 - Producto con usuario opcional")
+    void testProducto() throws Exception {
+        // Arrange
+        when(tiendaService.productoDetallado(10L, null)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/tienda/productos/10")).andExpect(status().isNotFound());
+        verify(tiendaService).productoDetallado(10L, null);
+    }
+}
@@ -0,0 +1,167 @@
+package com.perfulandia.gatewayservice.service;
+
+import com.perfulandia.clientes.ClienteProductos;
+import com.perfulandia.clientes.ClienteUsuarios;
+import com.perfulandia.clientes.model.Producto;
+import com.perfulandia.clientes.model.Usuario;
+import com.perfulandia.gatewayservice.cliente.ClienteCarritos;
+import com.perfulandia.gatewayservice.model.CarritoDetallado;
+import com.perfulandia.gatewayservice.model.EstadoStock;
+import com.perfulandia.gatewayservice.model.ProductoDetallado;
+import com.perfulandia.gatewayservice.model.VistaCarrito;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TiendaServiceTest {
+
+    private ClienteCarritos carritos;
+    private ClienteProductos productos;
+    private ClienteUsuarios usuarios;
+    private ExecutorService consultas;
+    private TiendaService tiendaService;
+
+    @BeforeEach
+    void setUp() {
+        carritos = mock(ClienteCarritos.class);
+        productos = mock(ClienteProductos.class);
+        usuarios = mock(ClienteUsuarios.class);
+        consultas = Executors.newFixedThreadPool(4);
+        tiendaService = new TiendaService(carritos, productos, usuarios, consultas, 500, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consultas.shutdownNow();
+    }
+
+    private static VistaCarrito carrito(Long... productoIds) {
+        List<VistaCarrito.ItemVista> items = java.util.Arrays.stream(productoIds)
+                .map(id -> VistaCarrito.ItemVista.builder().id(id * 10).productoId(id).cantidad(2)
+                        .precioUnitario(1000.0).subtotalCentavos(200000).build())
+                .toList();
+        return VistaCarrito.builder().id(7L).usuarioId(1L).estado("ACTIVO")
+                .cantidadItems(items.size() * 2).totalCentavos(items.size() * 200000L).items(items).build();
+    }
+
+    @Test
+    @DisplayName("Testing Tienda 1 - Consulta carrito y usuario en paralelo y los productos en un lote")
+    void testCarritoDetalladoEnParalelo() {
+        // Arrange: cada llamada espera a la otra, así que solo terminan si corren a la vez
+        CountDownLatch ambas = new CountDownLatch(2);
+        when(carritos.carritoActivo(1L)).thenAnswer(invocacion -> {
+            ambas.countDown();
+            assertTrue(ambas.await(1, TimeUnit.SECONDS));
+            return Optional.of(carrito(10L, 20L));
+        });
+        when(usuarios.buscar(1L)).thenAnswer(invocacion -> {
+            ambas.countDown();
+            assertTrue(ambas.await(1, TimeUnit.SECONDS));
+            return Optional.of(Usuario.builder().id(1L).nombre("Juan Pérez").build());
+        });
+        when(productos.buscarVarios(List.of(10L, 20L))).thenReturn(Map.of(
+                10L, Producto.builder().id(10L).nombre("Perfume A").stock(50).build(),
+                20L, Producto.builder().id(20L).nombre("Perfume B").stock(0).build()));
+
+        // Act
+        CarritoDetallado detalle = tiendaService.carritoDetallado(1L).orElseThrow();
+
+        // Assert
+        assertFalse(detalle.isParcial());
+        assertEquals("Juan Pérez", detalle.getUsuario().getNombre());
+        assertEquals("Perfume A", detalle.getItems().get(0).getProducto().getNombre());
+        assertEquals(EstadoStock.DISPONIBLE, detalle.getItems().get(0).getEstadoStock());
+        assertEquals(EstadoStock.AGOTADO, detalle.getItems().get(1).getEstadoStock());
+        assertEquals(4000.0, detalle.getTotal());
+        verify(productos, times(1)).buscarVarios(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Testing Tienda 2 - Entrega el carrito parcial si productservice falla")
+    void testCarritoParcial() {
+        // Arrange
+        when(carritos.carritoActivo(1L)).thenReturn(Optional.of(carrito(10L)));
+        when(usuarios.buscar(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+        when(productos.buscarVarios(anyCollection())).thenThrow(new ResourceAccessException("Connection refused"));
+
+        // Act
+        CarritoDetallado detalle = tiendaService.carritoDetallado(1L).orElseThrow();
+
+        // Assert
+        assertTrue(detalle.isParcial());
+        assertEquals(1, detalle.getAvisos().size());
+        assertTrue(detalle.getAvisos().get(0).startsWith("productservice"));
+        assertNull(detalle.getItems().get(0).getProducto());
+        assertEquals(EstadoStock.DESCONOCIDO, detalle.getItems().get(0).getEstadoStock());
+        assertEquals(2, detalle.getItems().get(0).getCantidad());
+        assertNotNull(detalle.getUsuario());
+    }
+
+    @Test
+    @DisplayName("Testing Tienda 3 - Respeta el plazo aunque usuarioservice no responda")
+    void testPlazoUsuarioLento() {
+        // Arrange
+        when(carritos.carritoActivo(1L)).thenReturn(Optional.of(carrito()));
+        when(usuarios.buscar(1L)).thenAnswer(invocacion -> {
+            Thread.sleep(5000);
+            return Optional.empty();
+        });
+
+        // Act
+        long inicio = System.nanoTime();
+        CarritoDetallado detalle = tiendaService.carritoDetallado(1L).orElseThrow();
+        long duracionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        // Assert
+        assertTrue(duracionMs < 2000, "La respuesta tardó " + duracionMs + " ms");
+        assertTrue(detalle.isParcial());
+        assertEquals(List.of("usuarioservice no respondió a tiempo"), detalle.getAvisos());
+        verify(productos, never()).buscarVarios(argThat(ids -> !ids.isEmpty()));
+    }
+
+    @Test
+    @DisplayName("Testing Tienda 4 - Sin carrito activo o con carritoservice caído")
+    void testCarritoInexistenteOCaido() {
+        // Arrange
+        when(carritos.carritoActivo(1L)).thenReturn(Optional.empty());
+        when(carritos.carritoActivo(2L)).thenThrow(new ResourceAccessException("Read timed out"));
+        when(usuarios.buscar(anyLong())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertTrue(tiendaService.carritoDetallado(1L).isEmpty());
+        assertThrows(ServicioNoDisponibleException.class, () -> tiendaService.carritoDetallado(2L));
+    }
+
+    @Test
+    @DisplayName("Testing Tienda 5 - Producto con stock bajo y unidades en el carrito")
+    void testProductoDetallado() {
+        // Arrange
+        when(productos.buscar(10L)).thenReturn(Optional.of(Producto.builder().id(10L).stock(3).build()));
+        when(carritos.carritoActivo(1L)).thenReturn(Optional.of(carrito(10L, 20L)));
+
+        // Act
+        ProductoDetallado conUsuario = tiendaService.productoDetallado(10L, 1L).orElseThrow();
+        ProductoDetallado sinUsuario = tiendaService.productoDetallado(10L, null).orElseThrow();
+
+        // Assert
+        assertEquals(EstadoStock.ULTIMAS_UNIDADES, conUsuario.getEstadoStock());
+        assertEquals(2, conUsuario.getCantidadEnCarrito());
+        assertFalse(conUsuario.isParcial());
+        assertNull(sinUsuario.getCantidadEnCarrito());
+        verify(carritos, times(1)).carritoActivo(anyLong());
+    }
+}
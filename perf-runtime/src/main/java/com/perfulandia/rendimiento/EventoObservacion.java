@@ -0,0 +1,52 @@
+package com.perfulandia.rendimiento;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder de una operación observada por Micrometer
+ *
+ * Cubre lo que ya se mide como timer: peticiones HTTP recibidas y enviadas,
+ * conexiones y consultas JDBC, métodos de los repositorios y envíos por
+ * SMTP. En una grabación de JFR quedan en la misma línea de tiempo que las
+ * pausas del GC, los bloqueos de monitores y el muestreo de CPU de cada hilo.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Name("com.perfulandia.Observacion")
+@Label("Observación")
+@Category("Perfulandia")
+@Description("Operación observada por Micrometer (petición, consulta, llamada a otro servicio)")
+@StackTrace(false) // La pila del hilo al terminar la operación no aporta y cuesta cada evento
+class EventoObservacion extends Event {
+
+    /**
+     * Nombre de la observación, por ejemplo http.server.requests o jdbc.query
+     */
+    @Label("Nombre")
+    String nombre;
+
+    /**
+     * Nombre contextual, por ejemplo "http get /api/productos/{id}"
+     */
+    @Label("Nombre contextual")
+    String nombreContextual;
+
+    /**
+     * Etiquetas de baja cardinalidad (método, URI, estado...) como clave=valor
+     */
+    @Label("Etiquetas")
+    String etiquetas;
+
+    /**
+     * Clase de la excepción si la operación falló
+     */
+    @Label("Error")
+    String error;
+}
@@ -0,0 +1,58 @@
+package com.perfulandia.rendimiento;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Registra cada observación de Micrometer como un evento de JFR (EventoObservacion)
+ *
+ * Spring Boot agrega este handler al ObservationRegistry junto con los de
+ * métricas y trazas. Sin una grabación de JFR activa el evento no está
+ * habilitado y el handler no hace nada más que crearlo; con una grabación
+ * (-XX:StartFlightRecording o jcmd <pid> JFR.start) solo se completan los
+ * eventos que superan el umbral configurado para com.perfulandia.Observacion.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class ObservacionesJfr implements ObservationHandler<Observation.Context> {
+
+    @Override
+    public void onStart(Observation.Context contexto) {
+        EventoObservacion evento = new EventoObservacion();
+        if (evento.isEnabled()) {
+            evento.begin();
+            contexto.put(EventoObservacion.class, evento);
+        }
+    }
+
+    @Override
+    public void onStop(Observation.Context contexto) {
+        EventoObservacion evento = contexto.get(EventoObservacion.class);
+        if (evento == null) {
+            return;
+        }
+        contexto.remove(EventoObservacion.class);
+        evento.end();
+        // Las etiquetas se arman solo para los eventos que se guardan
+        if (evento.shouldCommit()) {
+            evento.nombre = contexto.getName();
+            evento.nombreContextual = contexto.getContextualName();
+            evento.etiquetas = StreamSupport.stream(contexto.getLowCardinalityKeyValues().spliterator(), false)
+                    .map(etiqueta -> etiqueta.getKey() + "=" + etiqueta.getValue())
+                    .collect(Collectors.joining(","));
+            evento.error = contexto.getError() == null ? null : contexto.getError().getClass().getName();
+            evento.commit();
+        }
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context contexto) {
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+package com.perfulandia.rendimiento;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.micrometer.observation.ObservationHandler;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Autoconfiguración de rendimiento común a todos los microservicios
+ *
+ * Se activa al agregar la dependencia perf-runtime (junto con los valores
+ * por defecto de ValoresRendimiento):
+ *
+ * - Jackson: parseo y escritura rápidos de números decimales y el módulo
+ *   Blackbird, que reemplaza la reflexión de getters, setters y
+ *   constructores por accesores generados. En la imagen nativa Blackbird
+ *   no se registra (no puede generar clases al ejecutar).
+ *   rendimiento.jackson.blackbird=false lo desactiva.
+ * - JFR: un evento por cada operación observada (ver ObservacionesJfr).
+ *   rendimiento.jfr.habilitado=false lo desactiva.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@AutoConfiguration // Se registra en META-INF/spring/...AutoConfiguration.imports
+public class RendimientoAutoConfiguration {
+
+    /**
+     * Configuración del ObjectMapper de Spring Boot
+     */
+    @Configuration(proxyBeanMethods = false) // Sin proxies CGLIB: los beans no se llaman entre sí
+    @ConditionalOnClass({Jackson2ObjectMapperBuilder.class, BlackbirdModule.class}) // Solo en servicios con Jackson y Spring Web
+    static class JacksonRendimiento {
+
+        /**
+         * Parseo y escritura de double, float y BigDecimal con los algoritmos rápidos de Jackson
+         */
+        @Bean
+        Jackson2ObjectMapperBuilderCustomizer numerosRapidosJackson() {
+            return builder -> builder.featuresToEnable(
+                    JsonParser.Feature.USE_FAST_DOUBLE_PARSER,
+                    JsonParser.Feature.USE_FAST_BIG_NUMBER_PARSER,
+                    JsonGenerator.Feature.USE_FAST_DOUBLE_WRITER);
+        }
+
+        /**
+         * Spring Boot registra en el ObjectMapper todos los beans de tipo Module
+         */
+        @Bean
+        @ConditionalOnProperty(name = "rendimiento.jackson.blackbird", matchIfMissing = true) // Activo salvo que se desactive
+        Module moduloBlackbird() {
+            // Con Spring AOT la condición queda fija al compilar: la imagen nativa se detecta al ejecutar
+            return NativeDetector.inNativeImage() ? new SimpleModule("sin-blackbird") : new BlackbirdModule();
+        }
+    }
+
+    /**
+     * Eventos JFR de las observaciones de Micrometer
+     */
+    @Configuration(proxyBeanMethods = false) // Sin proxies CGLIB: los beans no se llaman entre sí
+    @ConditionalOnClass(ObservationHandler.class) // Solo en servicios con Micrometer Observation (Actuator)
+    @ConditionalOnProperty(name = "rendimiento.jfr.habilitado", matchIfMissing = true) // Activo salvo que se desactive
+    static class JfrRendimiento {
+
+        @Bean
+        ObservacionesJfr observacionesJfr() {
+            return new ObservacionesJfr();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.perfulandia.rendimiento.trazas;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.util.ClassUtils;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Hints de la imagen nativa para los proxies JDBC de las trazas
+ *
+ * Los spans de conexiones y consultas (datasource-micrometer) envuelven
+ * cada Connection, Statement y ResultSet en un proxy JDK creado con
+ * Proxy.newProxyInstance. En la imagen nativa esas clases de proxy se
+ * generan al compilar, y ni datasource-proxy ni GraalVM Reachability
+ * Metadata las declaran, así que se registran aquí con las mismas
+ * interfaces (y en el mismo orden) que usa JdkJdbcProxyFactory.
+ *
+ * Spring AOT lo carga desde META-INF/spring/aot.factories en todos los
+ * microservicios con perf-runtime; en los que no usan datasource-proxy no
+ * registra nada. El resto lo registra Spring AOT: entidades JPA, cuerpos
+ * JSON de los controladores, proyecciones de Spring Data y endpoints de
+ * Actuator.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class ProxiesJdbcHints implements RuntimeHintsRegistrar {
+
+    /**
+     * Interfaz que datasource-proxy agrega a cada proxy (se nombra sin cargarla)
+     */
+    static final String PROXY_JDBC = "net.ttddyy.dsproxy.proxy.ProxyJdbcObject";
+
+    /**
+     * Interfaces JDBC que datasource-proxy envuelve junto con ProxyJdbcObject
+     */
+    static final List<Class<?>> INTERFACES_JDBC = List.of(
+            Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class, ResultSet.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        if (!ClassUtils.isPresent(PROXY_JDBC, classLoader)) {
+            return;
+        }
+        for (Class<?> interfaz : INTERFACES_JDBC) {
+            hints.proxies().registerJdkProxy(TypeReference.of(PROXY_JDBC), TypeReference.of(interfaz));
+        }
+    }
+}
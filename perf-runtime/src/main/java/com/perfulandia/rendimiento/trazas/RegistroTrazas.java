@@ -0,0 +1,161 @@
+package com.perfulandia.rendimiento.trazas;
+
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exportador de spans que guarda en memoria las trazas más recientes
+ *
+ * Spring Boot agrega todos los SpanExporter del contexto al procesador de
+ * spans de OpenTelemetry, así que este registro recibe los mismos spans que
+ * el exportador OTLP (si está configurado) sin depender de un colector.
+ * Guarda los spans agrupados por traza y, al superar el máximo, descarta
+ * las trazas más antiguas. Los spans llegan en lotes unos segundos después
+ * de terminar.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class RegistroTrazas implements SpanExporter {
+
+    private final int maximoSpansPorTraza;
+
+    // Orden de inserción: la primera entrada es la traza más antigua
+    private final Map<String, List<SpanData>> trazas;
+
+    /**
+     * @param maximoTrazas Trazas que se guardan; al superarlo se descarta la más antigua
+     * @param maximoSpansPorTraza Spans que se guardan de cada traza; los siguientes se ignoran
+     */
+    public RegistroTrazas(int maximoTrazas, int maximoSpansPorTraza) {
+        this.maximoSpansPorTraza = maximoSpansPorTraza;
+        this.trazas = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<SpanData>> masAntigua) {
+                return size() > maximoTrazas;
+            }
+        };
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        synchronized (trazas) {
+            for (SpanData span : spans) {
+                List<SpanData> traza = trazas.computeIfAbsent(span.getTraceId(), id -> new ArrayList<>());
+                if (traza.size() < maximoSpansPorTraza) {
+                    traza.add(span);
+                }
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Obtiene las trazas recientes más lentas con el desglose de sus spans
+     * 
+     * @param limite Cantidad máxima de trazas
+     * @return Trazas ordenadas de la más lenta a la más rápida
+     */
+    public List<TrazaReciente> masLentas(int limite) {
+        List<List<SpanData>> copia;
+        synchronized (trazas) {
+            copia = new ArrayList<>(trazas.size());
+            trazas.values().forEach(spans -> copia.add(new ArrayList<>(spans)));
+        }
+        return copia.stream()
+                .map(RegistroTrazas::resumir)
+                .sorted(Comparator.comparingDouble(TrazaReciente::getDuracionMs).reversed())
+                .limit(Math.max(0, limite))
+                .toList();
+    }
+
+    /**
+     * Busca una traza reciente por su identificador
+     * 
+     * @param traceId Identificador de la traza
+     * @return Optional con la traza, vacío si no está (o ya se descartó)
+     */
+    public Optional<TrazaReciente> buscar(String traceId) {
+        List<SpanData> spans;
+        synchronized (trazas) {
+            List<SpanData> guardados = trazas.get(traceId);
+            spans = guardados == null ? null : new ArrayList<>(guardados);
+        }
+        return Optional.ofNullable(spans).map(RegistroTrazas::resumir);
+    }
+
+    /**
+     * Arma el desglose de una traza: tiempos relativos al primer span y
+     * como raíz el primer span cuyo padre no está en la traza
+     */
+    static TrazaReciente resumir(List<SpanData> spans) {
+        spans.sort(Comparator.comparingLong(SpanData::getStartEpochNanos));
+        long inicio = spans.get(0).getStartEpochNanos();
+        long fin = spans.stream().mapToLong(SpanData::getEndEpochNanos).max().orElse(inicio);
+
+        Set<String> ids = new HashSet<>();
+        spans.forEach(span -> ids.add(span.getSpanId()));
+        String raiz = spans.stream()
+                .filter(span -> !ids.contains(span.getParentSpanId()))
+                .findFirst()
+                .orElse(spans.get(0))
+                .getName();
+
+        List<SpanTraza> desglose = spans.stream()
+                .map(span -> SpanTraza.builder()
+                        .spanId(span.getSpanId())
+                        .padreId(span.getParentSpanContext().isValid() ? span.getParentSpanId() : null)
+                        .nombre(span.getName())
+                        .tipo(span.getKind().name())
+                        .inicioMs(aMs(span.getStartEpochNanos() - inicio))
+                        .duracionMs(aMs(span.getEndEpochNanos() - span.getStartEpochNanos()))
+                        .error(span.getStatus().getStatusCode() == StatusCode.ERROR)
+                        .atributos(atributos(span))
+                        .build())
+                .toList();
+
+        return TrazaReciente.builder()
+                .traceId(spans.get(0).getTraceId())
+                .raiz(raiz)
+                .inicio(Instant.ofEpochSecond(0, inicio))
+                .duracionMs(aMs(fin - inicio))
+                .spans(desglose)
+                .build();
+    }
+
+    private static Map<String, String> atributos(SpanData span) {
+        Map<String, String> atributos = new TreeMap<>();
+        span.getAttributes().forEach((clave, valor) -> atributos.put(clave.getKey(), String.valueOf(valor)));
+        return atributos;
+    }
+
+    private static double aMs(long nanos) {
+        return Math.round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1) * 1000) / 1000.0;
+    }
+}
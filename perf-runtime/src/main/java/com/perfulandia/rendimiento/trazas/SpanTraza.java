@@ -0,0 +1,63 @@
+package com.perfulandia.rendimiento.trazas;
+
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * Modelo de datos de un span (una operación medida) dentro de una traza
+ *
+ * Forma parte del desglose de una traza reciente que muestra el endpoint
+ * /actuator/trazas: el span de la petición HTTP, las consultas JDBC, las
+ * llamadas a otros microservicios y los envíos por SMTP.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class SpanTraza {
+
+    /**
+     * Identificador del span
+     */
+    private String spanId;
+
+    /**
+     * Span padre; si no está en la traza es de otro microservicio (o es la raíz)
+     */
+    private String padreId;
+
+    /**
+     * Nombre de la operación (por ejemplo "http post /api/carrito/{carritoId}/checkout" o "query")
+     */
+    private String nombre;
+
+    /**
+     * Tipo de span: SERVER, CLIENT o INTERNAL
+     */
+    private String tipo;
+
+    /**
+     * Milisegundos desde el inicio de la traza hasta el inicio del span
+     */
+    private double inicioMs;
+
+    /**
+     * Duración del span en milisegundos
+     */
+    private double duracionMs;
+
+    /**
+     * Indica si la operación terminó con error
+     */
+    private boolean error;
+
+    /**
+     * Atributos del span (ruta HTTP, URL llamada, consulta SQL, etc.)
+     */
+    private Map<String, String> atributos;
+}
@@ -0,0 +1,49 @@
+package com.perfulandia.rendimiento.trazas;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Modelo de datos de una traza reciente con el desglose de sus spans
+ *
+ * Incluye solo los spans registrados en este microservicio; los de los
+ * otros servicios comparten el mismo traceId y se consultan en el
+ * endpoint /actuator/trazas de cada uno.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias de forma fluida
+public class TrazaReciente {
+
+    /**
+     * Identificador de la traza (propagado entre microservicios en el header traceparent)
+     */
+    private String traceId;
+
+    /**
+     * Nombre del primer span de la traza en este microservicio
+     */
+    private String raiz;
+
+    /**
+     * Momento en que empezó el primer span
+     */
+    private Instant inicio;
+
+    /**
+     * Milisegundos entre el inicio del primer span y el fin del último
+     */
+    private double duracionMs;
+
+    /**
+     * Spans de la traza ordenados por inicio
+     */
+    private List<SpanTraza> spans;
+}
@@ -0,0 +1,45 @@
+package com.perfulandia.rendimiento.trazas;
+
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Autoconfiguración de las trazas recientes de cada microservicio
+ *
+ * Registra el exportador RegistroTrazas, que guarda en memoria los spans de
+ * OpenTelemetry, y el endpoint /actuator/trazas que los muestra. Se activa
+ * en los servicios con Actuator y el puente de Micrometer Tracing a
+ * OpenTelemetry:
+ *
+ * - trazas.recientes.maximo: trazas que se guardan (500 por defecto)
+ * - trazas.recientes.spans-por-traza: spans por traza (200 por defecto)
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@AutoConfiguration // Se registra en META-INF/spring/...AutoConfiguration.imports
+@ConditionalOnClass({SpanExporter.class, Endpoint.class}) // Solo en servicios con OpenTelemetry y Actuator
+public class TrazasAutoConfiguration {
+
+    /**
+     * Spring Boot agrega este exportador al procesador de spans de OpenTelemetry
+     */
+    @Bean
+    @ConditionalOnMissingBean // Un servicio puede definir su propio registro
+    RegistroTrazas registroTrazas(@Value("${trazas.recientes.maximo:500}") int maximoTrazas,
+                                  @Value("${trazas.recientes.spans-por-traza:200}") int maximoSpansPorTraza) {
+        return new RegistroTrazas(maximoTrazas, maximoSpansPorTraza);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    TrazasEndpoint trazasEndpoint(RegistroTrazas registro) {
+        return new TrazasEndpoint(registro);
+    }
+}
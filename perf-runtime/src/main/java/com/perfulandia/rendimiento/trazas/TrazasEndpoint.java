@@ -0,0 +1,55 @@
+package com.perfulandia.rendimiento.trazas;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * Endpoint de Actuator con las trazas recientes más lentas
+ *
+ * - GET /actuator/trazas?limite=10: las trazas más lentas con sus spans
+ * - GET /actuator/trazas/{traceId}: una traza (404 si no está)
+ *
+ * El traceId es el mismo en todos los microservicios: el span SERVER de
+ * una petición tiene como padre el span CLIENT del servicio que llamó, así
+ * que el desglose de una petición lenta se completa consultando la misma
+ * traza en cada microservicio por el que pasó.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Endpoint(id = "trazas") // Registra el endpoint de Actuator /actuator/trazas
+public class TrazasEndpoint {
+
+    private final RegistroTrazas registro;
+
+    public TrazasEndpoint(RegistroTrazas registro) {
+        this.registro = registro;
+    }
+
+    /**
+     * Obtiene las trazas recientes más lentas
+     * 
+     * @param limite Cantidad máxima de trazas (10 si no se indica)
+     * @return Trazas ordenadas de la más lenta a la más rápida
+     */
+    @ReadOperation // Responde a GET /actuator/trazas
+    public List<TrazaReciente> masLentas(@Nullable Integer limite) {
+        return registro.masLentas(limite == null ? 10 : limite);
+    }
+
+    /**
+     * Obtiene una traza reciente con el desglose de sus spans
+     * 
+     * @param traceId Identificador de la traza
+     * @return La traza, o null (404) si no está
+     */
+    @ReadOperation // Responde a GET /actuator/trazas/{traceId}
+    public TrazaReciente traza(@Selector String traceId) {
+        return registro.buscar(traceId).orElse(null);
+    }
+}
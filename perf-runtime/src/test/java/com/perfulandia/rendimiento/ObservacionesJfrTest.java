@@ -0,0 +1,77 @@
+package com.perfulandia.rendimiento;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObservacionesJfrTest {
+
+    private final ObservationRegistry registro = ObservationRegistry.create();
+
+    ObservacionesJfrTest() {
+        registro.observationConfig().observationHandler(new ObservacionesJfr());
+    }
+
+    @Test
+    @DisplayName("Testing JFR 1 - Cada observación queda como evento con su nombre, etiquetas y error")
+    void testEventos(@TempDir Path directorio) throws Exception {
+        // Arrange
+        Path archivo = directorio.resolve("observaciones.jfr");
+
+        try (Recording grabacion = new Recording()) {
+            grabacion.enable("com.perfulandia.Observacion");
+            grabacion.start();
+
+            // Act
+            Observation.createNotStarted("http.server.requests", registro)
+                    .contextualName("http get /api/productos/{id}")
+                    .lowCardinalityKeyValue("method", "GET")
+                    .lowCardinalityKeyValue("status", "200")
+                    .observe(() -> { });
+            Observation fallida = Observation.start("jdbc.query", registro);
+            fallida.error(new IllegalStateException("sin conexión"));
+            fallida.stop();
+
+            grabacion.stop();
+            grabacion.dump(archivo);
+        }
+        List<RecordedEvent> eventos = RecordingFile.readAllEvents(archivo).stream()
+                .filter(evento -> evento.getEventType().getName().equals("com.perfulandia.Observacion"))
+                .toList();
+
+        // Assert
+        assertEquals(2, eventos.size());
+        RecordedEvent peticion = eventos.stream().filter(evento -> evento.getString("nombre").equals("http.server.requests")).findFirst().orElseThrow();
+        assertEquals("http get /api/productos/{id}", peticion.getString("nombreContextual"));
+        assertTrue(peticion.getString("etiquetas").contains("method=GET"));
+        assertTrue(peticion.getString("etiquetas").contains("status=200"));
+        assertNull(peticion.getString("error"));
+        RecordedEvent consulta = eventos.stream().filter(evento -> evento.getString("nombre").equals("jdbc.query")).findFirst().orElseThrow();
+        assertEquals(IllegalStateException.class.getName(), consulta.getString("error"));
+    }
+
+    @Test
+    @DisplayName("Testing JFR 2 - Sin una grabación activa no se guarda nada en el contexto")
+    void testSinGrabacion() {
+        // Arrange
+        ObservacionesJfr manejador = new ObservacionesJfr();
+        Observation.Context contexto = new Observation.Context();
+
+        // Act
+        manejador.onStart(contexto);
+        manejador.onStop(contexto);
+
+        // Assert
+        assertNull(contexto.get(EventoObservacion.class));
+    }
+}
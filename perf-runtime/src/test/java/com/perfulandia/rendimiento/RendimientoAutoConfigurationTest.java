@@ -0,0 +1,85 @@
+package com.perfulandia.rendimiento;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RendimientoAutoConfigurationTest {
+
+    private final ApplicationContextRunner contexto = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class, RendimientoAutoConfiguration.class));
+
+    /**
+     * Cuerpo JSON con getters y setters, como las entidades de los microservicios
+     */
+    public static class Perfume {
+        private String nombre;
+        private double precio;
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public void setNombre(String nombre) {
+            this.nombre = nombre;
+        }
+
+        public double getPrecio() {
+            return precio;
+        }
+
+        public void setPrecio(double precio) {
+            this.precio = precio;
+        }
+    }
+
+    @Test
+    @DisplayName("Testing Autoconfiguración 1 - El ObjectMapper usa Blackbird y los números rápidos")
+    void testJackson() {
+        contexto.run(aplicacion -> {
+            // Arrange
+            ObjectMapper objectMapper = aplicacion.getBean(ObjectMapper.class);
+            Perfume perfume = new Perfume();
+            perfume.setNombre("Floral");
+            perfume.setPrecio(19990.5);
+
+            // Act
+            Perfume leido = objectMapper.readValue(objectMapper.writeValueAsString(perfume), Perfume.class);
+
+            // Assert
+            assertTrue(objectMapper.getRegisteredModuleIds().contains(new BlackbirdModule().getTypeId()));
+            assertTrue(objectMapper.getFactory().isEnabled(JsonParser.Feature.USE_FAST_DOUBLE_PARSER));
+            assertTrue(objectMapper.getFactory().isEnabled(JsonGenerator.Feature.USE_FAST_DOUBLE_WRITER));
+            assertEquals("Floral", leido.getNombre());
+            assertEquals(19990.5, leido.getPrecio());
+        });
+    }
+
+    @Test
+    @DisplayName("Testing Autoconfiguración 2 - Blackbird y JFR se desactivan por propiedad")
+    void testDesactivar() {
+        contexto.withPropertyValues("rendimiento.jackson.blackbird=false", "rendimiento.jfr.habilitado=false")
+                .run(aplicacion -> {
+                    // Act
+                    ObjectMapper objectMapper = aplicacion.getBean(ObjectMapper.class);
+
+                    // Assert
+                    assertFalse(objectMapper.getRegisteredModuleIds().contains(new BlackbirdModule().getTypeId()));
+                    assertTrue(aplicacion.getBeansOfType(ObservacionesJfr.class).isEmpty());
+                });
+    }
+
+    @Test
+    @DisplayName("Testing Autoconfiguración 3 - El handler de JFR se registra por defecto")
+    void testJfr() {
+        contexto.run(aplicacion -> assertEquals(1, aplicacion.getBeansOfType(ObservacionesJfr.class).size()));
+    }
+}
@@ -0,0 +1,73 @@
+package com.perfulandia.rendimiento;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValoresRendimientoTest {
+
+    private StandardEnvironment entorno(Map<String, Object> aplicacion) {
+        StandardEnvironment entorno = new StandardEnvironment();
+        entorno.getPropertySources().addFirst(new MapPropertySource("application.properties", aplicacion));
+        new ValoresRendimiento().postProcessEnvironment(entorno, new SpringApplication());
+        return entorno;
+    }
+
+    @Test
+    @DisplayName("Testing Valores 1 - Los valores del servicio reemplazan a los comunes")
+    void testPrecedencia() {
+        // Arrange
+        Map<String, Object> aplicacion = Map.of(
+                "spring.application.name", "productservice",
+                "spring.datasource.url", "jdbc:h2:mem:testdb",
+                "spring.datasource.hikari.maximum-pool-size", "20");
+
+        // Act
+        StandardEnvironment entorno = entorno(aplicacion);
+
+        // Assert
+        assertEquals("20", entorno.getProperty("spring.datasource.hikari.maximum-pool-size"));
+        assertEquals("10", entorno.getProperty("spring.datasource.hikari.minimum-idle"));
+        assertEquals("productservice", entorno.getProperty("spring.datasource.hikari.pool-name"));
+        assertEquals("50", entorno.getProperty("spring.jpa.properties.hibernate.jdbc.batch_size"));
+        assertEquals("32", entorno.getProperty("spring.jpa.properties.hibernate.default_batch_fetch_size"));
+    }
+
+    @Test
+    @DisplayName("Testing Valores 2 - Las propiedades de Connector/J solo se agregan con MySQL")
+    void testMysql() {
+        // Arrange
+        Bindable<Map<String, String>> propiedades = Bindable.mapOf(String.class, String.class);
+
+        // Act
+        Map<String, String> mysql = Binder.get(entorno(Map.of("spring.datasource.url", "jdbc:mysql://localhost:3306/perfulandia")))
+                .bind("spring.datasource.hikari.data-source-properties", propiedades).get();
+        boolean h2 = Binder.get(entorno(Map.of("spring.datasource.url", "jdbc:h2:mem:testdb")))
+                .bind("spring.datasource.hikari.data-source-properties", propiedades).isBound();
+
+        // Assert: las claves llegan al driver con su nombre original
+        assertEquals("true", mysql.get("cachePrepStmts"));
+        assertEquals("250", mysql.get("prepStmtCacheSize"));
+        assertEquals("true", mysql.get("rewriteBatchedStatements"));
+        assertFalse(h2);
+    }
+
+    @Test
+    @DisplayName("Testing Valores 3 - rendimiento.valores.habilitado=false no agrega los valores")
+    void testDeshabilitado() {
+        // Act
+        StandardEnvironment entorno = entorno(Map.of("rendimiento.valores.habilitado", "false"));
+
+        // Assert
+        assertFalse(entorno.getPropertySources().contains(ValoresRendimiento.NOMBRE));
+        assertNull(entorno.getProperty("spring.jpa.properties.hibernate.jdbc.batch_size"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.perfulandia.rendimiento.consultas;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Base de las pruebas de planes de consulta de los microservicios
+ *
+ * Verifica que las consultas de los repositorios usen los índices de las
+ * migraciones: captura el SQL que genera Hibernate y revisa su plan con
+ * EXPLAIN en H2 (modo MySQL, mismas migraciones que en producción). Cada
+ * microservicio la extiende con sus datos (en un método @BeforeAll) y las
+ * consultas que verifica.
+ *
+ * Se publica en el test-jar de perf-runtime.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:planes;MODE=MySQL;DATABASE_TO_LOWER=TRUE")
+@Import(PruebaPlanesConsulta.Captura.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional
+public abstract class PruebaPlanesConsulta {
+
+    @Autowired
+    private SentenciasCapturadas sentencias;
+
+    @Autowired
+    protected EntityManager entityManager;
+
+    @Autowired
+    protected JdbcTemplate jdbc;
+
+    /**
+     * Ejecuta la consulta con la sesión vacía y devuelve su sentencia SQL
+     * (la primera; las siguientes cargan las asociaciones)
+     */
+    protected String sentenciaDe(Runnable consulta) {
+        List<String> capturadas = sentenciasDe(consulta);
+        assertFalse(capturadas.isEmpty(), "La consulta no ejecutó SQL");
+        return capturadas.get(0);
+    }
+
+    /**
+     * Ejecuta la consulta con la sesión vacía y devuelve todas sus sentencias SQL
+     */
+    protected List<String> sentenciasDe(Runnable consulta) {
+        entityManager.flush();
+        entityManager.clear();
+        sentencias.limpiar();
+        consulta.run();
+        return sentencias.todas();
+    }
+
+    /**
+     * Plan de H2 para la sentencia, en minúsculas
+     *
+     * H2 elige el plan al preparar la sentencia, así que los parámetros
+     * se envían en NULL: su valor no cambia el plan.
+     */
+    protected String plan(String sql) {
+        List<String> filas = jdbc.query(conexion -> {
+            PreparedStatement explain = conexion.prepareStatement("EXPLAIN " + sql);
+            for (int i = 1; i <= explain.getParameterMetaData().getParameterCount(); i++) {
+                explain.setNull(i, Types.NULL);
+            }
+            return explain;
+        }, (fila, n) -> fila.getString(1));
+        return String.join("\n", filas).toLowerCase();
+    }
+
+    protected static void assertUsaIndice(String indice, String plan) {
+        assertTrue(plan.contains(indice), () -> "Se esperaba el índice " + indice + " en el plan:\n" + plan);
+        assertFalse(plan.contains("tablescan"), () -> "El plan recorre la tabla completa:\n" + plan);
+    }
+
+    /**
+     * Registra el inspector de sentencias en Hibernate
+     */
+    @TestConfiguration
+    static class Captura {
+
+        @Bean
+        SentenciasCapturadas sentenciasCapturadas() {
+            return new SentenciasCapturadas();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer inspectorSentencias(SentenciasCapturadas sentencias) {
+            return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, sentencias);
+        }
+    }
+
+    /**
+     * Guarda el SQL que Hibernate prepara, sin modificarlo
+     */
+    static class SentenciasCapturadas implements StatementInspector {
+
+        private final List<String> sql = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sentencia) {
+            sql.add(sentencia);
+            return sentencia;
+        }
+
+        void limpiar() {
+            sql.clear();
+        }
+
+        List<String> todas() {
+            return new ArrayList<>(sql);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.perfulandia.rendimiento.trazas;
+
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.proxy.SimpleResultSetProxyLogicFactory;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.jdk.JdkJdbcProxyFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.aot.AotServices;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProxiesJdbcHintsTest {
+
+    @Test
+    @DisplayName("Testing Hints 1 - Cada proxy JDBC de las trazas tiene su hint con las mismas interfaces")
+    void testProxiesJdbc() throws Exception {
+        // Arrange
+        RuntimeHints hints = new RuntimeHints();
+        new ProxiesJdbcHints().registerHints(hints, getClass().getClassLoader());
+        JdkJdbcProxyFactory fabrica = new JdkJdbcProxyFactory();
+        ProxyConfig configuracion = ProxyConfig.Builder.create()
+                .resultSetProxyLogicFactory(new SimpleResultSetProxyLogicFactory())
+                .build();
+        ConnectionInfo info = new ConnectionInfo();
+
+        try (Connection conexion = DriverManager.getConnection("jdbc:h2:mem:hints", "sa", "");
+             Statement sentencia = conexion.createStatement()) {
+            // Act: los mismos proxies que crea el DataSource de las trazas
+            List<Object> proxies = List.of(
+                    fabrica.createConnection(conexion, info, configuracion),
+                    fabrica.createStatement(sentencia, info, conexion, configuracion),
+                    fabrica.createPreparedStatement(conexion.prepareStatement("SELECT 1"), "SELECT 1", info, conexion, configuracion, false),
+                    fabrica.createCallableStatement(conexion.prepareCall("SELECT 1"), "SELECT 1", info, conexion, configuracion),
+                    fabrica.createResultSet(sentencia.executeQuery("SELECT 1"), info, configuracion));
+
+            // Assert
+            for (Object proxy : proxies) {
+                Class<?>[] interfaces = proxy.getClass().getInterfaces();
+                assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(interfaces).test(hints),
+                        "Sin hint para " + List.of(interfaces));
+            }
+            assertEquals(proxies.size(), hints.proxies().jdkProxyHints().count());
+        }
+    }
+
+    @Test
+    @DisplayName("Testing Hints 2 - Spring AOT carga los hints desde aot.factories")
+    void testRegistradoEnAotFactories() {
+        // Act
+        List<RuntimeHintsRegistrar> registradores = AotServices.factories().load(RuntimeHintsRegistrar.class).asList();
+
+        // Assert
+        assertTrue(registradores.stream().anyMatch(ProxiesJdbcHints.class::isInstance));
+    }
+
+    @Test
+    @DisplayName("Testing Hints 3 - Sin datasource-proxy en el classpath no registra nada")
+    void testSinDatasourceProxy() {
+        // Arrange: un class loader que no ve las clases de la aplicación
+        RuntimeHints hints = new RuntimeHints();
+        ClassLoader sinAplicacion = new ClassLoader(null) {
+        };
+
+        // Act
+        new ProxiesJdbcHints().registerHints(hints, sinAplicacion);
+
+        // Assert
+        assertEquals(0, hints.proxies().jdkProxyHints().count());
+    }
+}
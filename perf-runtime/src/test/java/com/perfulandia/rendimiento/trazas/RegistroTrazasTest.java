@@ -0,0 +1,120 @@
+package com.perfulandia.rendimiento.trazas;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegistroTrazasTest {
+
+    private final ApplicationContextRunner contexto = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TrazasAutoConfiguration.class));
+
+    @Test
+    @DisplayName("Testing Trazas 1 - Ordena las trazas por duración y arma el desglose de spans")
+    void testTrazasMasLentas() {
+        // Arrange
+        RegistroTrazas registro = new RegistroTrazas(2, 10);
+        try (SdkTracerProvider proveedor = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(registro))
+                .build()) {
+            Tracer tracer = proveedor.get("test");
+
+            // Act
+            String lenta = traza(tracer, "lenta", 0, 90);
+            String rapida = traza(tracer, "rapida", 1_000, 5);
+            String reciente = traza(tracer, "reciente", 2_000, 40);
+
+            // Assert: con máximo 2 trazas se descartó la más antigua (la lenta)
+            assertTrue(registro.buscar(lenta).isEmpty());
+            List<TrazaReciente> lentas = registro.masLentas(10);
+            assertEquals(List.of(reciente, rapida), lentas.stream().map(TrazaReciente::getTraceId).toList());
+
+            TrazaReciente primera = lentas.get(0);
+            assertEquals("reciente", primera.getRaiz());
+            assertEquals(40.0, primera.getDuracionMs());
+            assertEquals(2, primera.getSpans().size());
+            assertEquals("query", primera.getSpans().get(1).getNombre());
+            assertEquals(1.0, primera.getSpans().get(1).getInicioMs());
+            assertEquals(primera.getSpans().get(0).getSpanId(), primera.getSpans().get(1).getPadreId());
+        }
+    }
+
+    @Test
+    @DisplayName("Testing Trazas 2 - Guarda como máximo los spans por traza configurados")
+    void testMaximoSpansPorTraza() {
+        // Arrange
+        RegistroTrazas registro = new RegistroTrazas(10, 3);
+        try (SdkTracerProvider proveedor = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(registro))
+                .build()) {
+            Tracer tracer = proveedor.get("test");
+            Span raiz = tracer.spanBuilder("raiz").setStartTimestamp(0, TimeUnit.MILLISECONDS).startSpan();
+
+            // Act: 5 consultas hijas y la raíz, que termina al final
+            for (int i = 0; i < 5; i++) {
+                tracer.spanBuilder("query")
+                        .setParent(Context.root().with(raiz))
+                        .setStartTimestamp(i, TimeUnit.MILLISECONDS)
+                        .startSpan()
+                        .end(i + 1, TimeUnit.MILLISECONDS);
+            }
+            raiz.end(10, TimeUnit.MILLISECONDS);
+
+            // Assert: la raíz llegó después del máximo y no se guardó
+            TrazaReciente traza = registro.buscar(raiz.getSpanContext().getTraceId()).orElseThrow();
+            assertEquals(3, traza.getSpans().size());
+            assertTrue(traza.getSpans().stream().allMatch(span -> span.getNombre().equals("query")));
+            assertEquals("query", traza.getRaiz());
+        }
+    }
+
+    @Test
+    @DisplayName("Testing Trazas 3 - La autoconfiguración registra el exportador y el endpoint con los máximos configurados")
+    void testAutoconfiguracion() {
+        contexto.withPropertyValues("trazas.recientes.maximo=1").run(aplicacion -> {
+            // Arrange
+            RegistroTrazas registro = aplicacion.getBean(RegistroTrazas.class);
+            TrazasEndpoint endpoint = aplicacion.getBean(TrazasEndpoint.class);
+            try (SdkTracerProvider proveedor = SdkTracerProvider.builder()
+                    .addSpanProcessor(SimpleSpanProcessor.create(registro))
+                    .build()) {
+                Tracer tracer = proveedor.get("test");
+
+                // Act
+                traza(tracer, "primera", 0, 10);
+                String segunda = traza(tracer, "segunda", 100, 10);
+
+                // Assert: solo se guarda una traza y el endpoint la muestra
+                assertEquals(List.of(segunda), endpoint.masLentas(null).stream().map(TrazaReciente::getTraceId).toList());
+                assertEquals("segunda", endpoint.traza(segunda).getRaiz());
+                assertNull(endpoint.traza("ffffffffffffffffffffffffffffffff"));
+            }
+        });
+    }
+
+    /**
+     * Crea una traza con un span raíz de la duración indicada y una
+     * consulta hija que empieza 1 ms después
+     */
+    private static String traza(Tracer tracer, String nombre, long inicioMs, long duracionMs) {
+        Span raiz = tracer.spanBuilder(nombre).setStartTimestamp(inicioMs, TimeUnit.MILLISECONDS).startSpan();
+        tracer.spanBuilder("query")
+                .setParent(Context.root().with(raiz))
+                .setStartTimestamp(inicioMs + 1, TimeUnit.MILLISECONDS)
+                .startSpan()
+                .end(inicioMs + 2, TimeUnit.MILLISECONDS);
+        raiz.end(inicioMs + duracionMs, TimeUnit.MILLISECONDS);
+        return raiz.getSpanContext().getTraceId();
+    }
+}
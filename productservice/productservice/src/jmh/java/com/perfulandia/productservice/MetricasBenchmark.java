@@ -0,0 +1,107 @@
+package com.perfulandia.productservice;
+
+import com.perfulandia.productservice.model.Producto;
+import com.perfulandia.productservice.repository.ProductoRepository;
+import com.perfulandia.productservice.service.ProductoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el costo de las métricas de Micrometer comparando la aplicación con
+ * las métricas activas (histogramas como en application.properties) y con
+ * todas las métricas desactivadas.
+ *
+ * - buscarPorId: la consulta más barata de un repositorio, medida por
+ *   spring.data.repository.invocations; la diferencia entre ambos valores
+ *   del parámetro es el costo por llamada a la base de datos
+ * - registrarLatencia: una medición de un timer con histograma en el
+ *   registro de Prometheus, el costo que se suma a cada petición HTTP
+ *
+ * Presupuesto: registrarLatencia bajo 1 µs y buscarPorId con métricas a
+ * menos de 5 % del valor sin métricas (las peticiones reales tardan
+ * milisegundos, así que el costo queda muy por debajo del 1 %).
+ *
+ * Se ejecuta con el perfil benchmark: mvn -Pbenchmark verify -DskipTests
+ * -Djmh.opciones="-f 1 -wi 3 -w 1s -i 5 -r 1s MetricasBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricasBenchmark {
+
+    @Param({"true", "false"})
+    private boolean metricas;
+
+    private ConfigurableApplicationContext contexto;
+    private ProductoService productoService;
+    private Timer timer;
+    private long primerId;
+
+    @Setup(Level.Trial)
+    public void levantar() {
+        // El application.properties de test reemplaza al principal: se repiten sus propiedades de métricas
+        String[] propiedadesMetricas = metricas
+                ? new String[]{
+                        "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+                        "management.metrics.distribution.percentiles-histogram.spring.data.repository.invocations=true",
+                        "management.metrics.distribution.percentiles-histogram.hikaricp.connections.acquire=true",
+                        "management.metrics.distribution.minimum-expected-value.http=1ms",
+                        "management.metrics.distribution.maximum-expected-value.http=10s",
+                        "management.metrics.distribution.minimum-expected-value.spring.data.repository.invocations=100us",
+                        "management.metrics.distribution.maximum-expected-value.spring.data.repository.invocations=5s"}
+                : new String[]{"management.metrics.enable.all=false"};
+        contexto = new SpringApplicationBuilder(ProductserviceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.main.banner-mode=off", "logging.level.root=WARN",
+                        // DevTools no aplica aquí y su apagado de H2 choca con el cierre del contexto
+                        "spring.autoconfigure.exclude="
+                                + "org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration")
+                .properties(propiedadesMetricas)
+                .run();
+        productoService = contexto.getBean(ProductoService.class);
+        timer = Timer.builder("http.server.requests")
+                .tags("method", "GET", "uri", "/api/productos/{id}", "status", "200", "outcome", "SUCCESS",
+                        "exception", "none", "error", "none")
+                .register(contexto.getBean(MeterRegistry.class));
+
+        ProductoRepository repositorio = contexto.getBean(ProductoRepository.class);
+        for (int i = 0; i < 100; i++) {
+            Producto producto = repositorio.save(Producto.builder()
+                    .nombre("Perfume " + i).descripcion("Eau de parfum").precio(29.99).stock(10).build());
+            if (i == 0) {
+                primerId = producto.getId();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Producto buscarPorId() {
+        return productoService.bucarPorId(primerId + ThreadLocalRandom.current().nextInt(100));
+    }
+
+    @Benchmark
+    public void registrarLatencia() {
+        timer.record(ThreadLocalRandom.current().nextLong(1_000_000, 50_000_000), TimeUnit.NANOSECONDS);
+    }
+}
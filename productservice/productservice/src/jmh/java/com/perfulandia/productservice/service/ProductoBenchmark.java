@@ -0,0 +1,92 @@
+package com.perfulandia.productservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.perfulandia.productservice.ProductserviceApplication;
+import com.perfulandia.productservice.model.Producto;
+import com.perfulandia.productservice.repository.ProductoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la búsqueda de productos por nombre y la serialización JSON de los
+ * productos con la aplicación levantada sobre la base H2 de los tests y un
+ * catálogo del tamaño indicado (uno de cada cinco productos es "Floral").
+ *
+ * Se ejecuta con el perfil benchmark: mvn -Pbenchmark verify -DskipTests
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductoBenchmark {
+
+    private static final String[] FAMILIAS = {"Floral", "Amaderado", "Cítrico", "Oriental", "Acuático"};
+
+    @Param({"100", "2000"})
+    private int productos;
+
+    private ConfigurableApplicationContext contexto;
+    private ProductoService productoService;
+    private ObjectMapper objectMapper;
+    private Producto producto;
+    private List<Producto> catalogo;
+
+    @Setup(Level.Trial)
+    public void levantar() {
+        contexto = new SpringApplicationBuilder(ProductserviceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.main.banner-mode=off", "logging.level.root=WARN",
+                        // DevTools no aplica aquí y su apagado de H2 choca con el cierre del contexto
+                        "spring.autoconfigure.exclude="
+                                + "org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration")
+                .run();
+        productoService = contexto.getBean(ProductoService.class);
+        objectMapper = contexto.getBean(ObjectMapper.class);
+
+        List<Producto> nuevos = new ArrayList<>();
+        for (int i = 0; i < productos; i++) {
+            nuevos.add(Producto.builder()
+                    .nombre("Perfume " + FAMILIAS[i % FAMILIAS.length] + " " + i)
+                    .descripcion("Eau de parfum de 100 ml con notas de salida, corazón y fondo número " + i)
+                    .precio(19.99 + i % 80)
+                    .stock(i % 40)
+                    .build());
+        }
+        catalogo = contexto.getBean(ProductoRepository.class).saveAll(nuevos);
+        producto = catalogo.get(catalogo.size() / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Producto> buscarProductosPorNombre() {
+        return productoService.buscarProductosPorNombre("floral");
+    }
+
+    @Benchmark
+    public String serializarProducto() throws Exception {
+        return objectMapper.writeValueAsString(producto);
+    }
+
+    @Benchmark
+    public byte[] serializarCatalogo() throws Exception {
+        return objectMapper.writeValueAsBytes(catalogo);
+    }
+}
@@ -2,8 +2,6 @@ package com.perfulandia.productservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.web.client.RestTemplate;
 
 /**
  * Clase principal del microservicio de productos
@@ -16,8 +14,9 @@ import org.springframework.web.client.RestTemplate;
  * Funcionalidades principales:
  * - Configuración automática de Spring Boot
  * - Escaneo de componentes en el paquete com.perfulandia.productservice
- * - Configuración de RestTemplate para comunicación con otros microservicios
+ * - Cliente del microservicio de usuarios (ver ClientesHttpConfig)
  * - Inicio del servidor web embebido
+ * - Hints de la imagen nativa que Spring AOT no genera solo (ProxiesJdbcHints, de perf-runtime)
  * 
  * @author Equipo Perfulandia
  * @version 1.0
@@ -43,19 +42,5 @@ public class ProductserviceApplication {
 		// SpringApplication.run() configura y ejecuta la aplicación
 		SpringApplication.run(ProductserviceApplication.class, args);
 	}
-	
-	/**
-	 * Bean de configuración para RestTemplate
-	 * 
-	 * Este bean permite hacer llamadas HTTP a otros microservicios,
-	 * como el microservicio de usuarios para obtener información
-	 * de clientes.
-	 * 
-	 * @return RestTemplate configurado para uso en la aplicación
-	 */
-	@Bean // Marca este método como un bean de Spring que se puede inyectar en otros componentes
-	public RestTemplate restTemplate() {
-		return new RestTemplate();
-	}
 
 }
@@ -0,0 +1,64 @@
+package com.perfulandia.productservice.config;
+
+import com.perfulandia.clientes.ClienteUsuarios;
+import com.perfulandia.clientes.ConfiguracionCliente;
+import com.perfulandia.clientes.TransporteHttp;
+import com.perfulandia.clientes.model.Usuario;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+
+/**
+ * Configuración de los clientes HTTP hacia los otros microservicios
+ * 
+ * Usa el módulo compartido clientes: un único java.net.http.HttpClient con
+ * pool de conexiones persistentes (keep-alive) y el cliente tipado del
+ * microservicio de usuarios, con caché y agrupamiento de búsquedas.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Configuration // Indica que esta clase declara beans de Spring
+public class ClientesHttpConfig {
+    
+    /**
+     * Cliente HTTP compartido con pool de conexiones
+     * 
+     * @param timeoutConexionMs Tiempo máximo para establecer una conexión
+     * @param http2 true para usar HTTP/2 en lugar de HTTP/1.1
+     * @return HttpClient del JDK reutilizable entre hilos
+     */
+    @Bean // Registra el HttpClient como bean compartido
+    public HttpClient httpClient(@Value("${producto.clientes.timeout-conexion-ms:2000}") long timeoutConexionMs,
+                                 @Value("${producto.clientes.http2:false}") boolean http2) {
+        return TransporteHttp.crearHttpClient(timeoutConexionMs, http2);
+    }
+    
+    /**
+     * Cliente del microservicio de usuarios
+     * 
+     * @param builder Builder de Spring Boot (mide cada llamada en http.client.requests)
+     * @param httpClient Cliente HTTP compartido
+     * @param url URL base del microservicio de usuarios
+     * @param timeoutLecturaMs Tiempo máximo de espera de la respuesta
+     * @param ttlSegundos Tiempo durante el cual un usuario guardado es fresco
+     * @param registro Registro de métricas
+     * @return Cliente tipado con caché y agrupamiento de búsquedas
+     */
+    @Bean // Registra el cliente como bean inyectable en los controladores
+    @RegisterReflectionForBinding(Usuario.class) // El RestClient deserializa Usuario: para la imagen nativa Spring AOT solo registra los tipos de los controladores
+    public ClienteUsuarios clienteUsuarios(RestClient.Builder builder, HttpClient httpClient,
+                                           @Value("${producto.clientes.usuarios.url:http://localhost:8081}") String url,
+                                           @Value("${producto.clientes.timeout-lectura-ms:3000}") long timeoutLecturaMs,
+                                           @Value("${producto.clientes.usuarios.cache.ttl-segundos:60}") long ttlSegundos,
+                                           MeterRegistry registro) {
+        RestClient rest = TransporteHttp.crearRestClient(builder, httpClient, url, timeoutLecturaMs);
+        return new ClienteUsuarios(rest, ConfiguracionCliente.builder().ttlSegundos(ttlSegundos).build(), registro);
+    }
+}
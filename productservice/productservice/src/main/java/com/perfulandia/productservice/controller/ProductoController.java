@@ -1,16 +1,17 @@
 package com.perfulandia.productservice.controller;
+import com.perfulandia.productservice.model.ListaPrecios;
 import com.perfulandia.productservice.model.Usuario;
 import com.perfulandia.productservice.model.Producto;
 import com.perfulandia.productservice.service.ProductoService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestClientException;
 import java.util.List;
 
-//Nuevas importaciones DTO conexión al MS usuario
-import org.springframework.web.client.RestTemplate;
-//Para hacer peticiones HTTP a otros microservicios.
+//Cliente compartido del MS usuario (módulo clientes: caché, lotes y métricas)
+import com.perfulandia.clientes.ClienteUsuarios;
 
 /**
  * Controlador REST para el manejo de productos
@@ -22,6 +23,8 @@ import org.springframework.web.client.RestTemplate;
  * Endpoints disponibles:
  * - GET /api/productos - Obtener todos los productos
  * - GET /api/productos/{id} - Obtener producto por ID
+ * - GET /api/productos/lote?ids=1,2,3 - Obtener varios productos por ID
+ * - GET /api/productos/precios[?ids=1,2,3] - Lista de precios en centavos (con ETag)
  * - POST /api/productos - Crear nuevo producto
  * - PUT /api/productos/{id} - Actualizar producto existente
  * - DELETE /api/productos/{id} - Eliminar producto
@@ -40,10 +43,15 @@ public class ProductoController {
      * Se inyecta automáticamente por Spring usando el constructor
      */
     private final ProductoService servicio;
-    private final RestTemplate restTemplate;
-    public ProductoController(ProductoService servicio,  RestTemplate restTemplate){
+    private final ClienteUsuarios clienteUsuarios;
+    
+    /**
+     * Cantidad máxima de IDs aceptados por el endpoint de lote
+     */
+    private static final int MAXIMO_LOTE = 500;
+    public ProductoController(ProductoService servicio,  ClienteUsuarios clienteUsuarios){
         this.servicio = servicio;
-        this.restTemplate = restTemplate;
+        this.clienteUsuarios = clienteUsuarios;
     }
 
     /**
@@ -83,6 +91,63 @@ public class ProductoController {
     public Producto buscar(@PathVariable long id){
         return servicio.bucarPorId(id);
     }
+    /**
+     * Obtiene varios productos en una sola petición
+     * 
+     * Este endpoint lo utilizan otros microservicios (por ejemplo el
+     * de emails) para resolver muchos productos sin hacer una llamada
+     * HTTP por cada uno. Los IDs inexistentes se omiten del resultado.
+     * 
+     * @param ids Lista de IDs separados por coma
+     * @return ResponseEntity<List<Producto>> con los productos encontrados o error 400 si se piden demasiados
+     */
+    @GetMapping("/lote") // Mapea este método a peticiones GET en la ruta especificada
+    public ResponseEntity<List<Producto>> buscarVarios(@RequestParam List<Long> ids) { // Extrae los IDs del parámetro de consulta
+        if (ids.size() > MAXIMO_LOTE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(servicio.buscarVarios(ids));
+    }
+    
+    /**
+     * Busca productos cuyo nombre contenga el texto indicado (sin distinguir mayúsculas)
+     * 
+     * @param nombre Texto a buscar en el nombre del producto
+     * @return ResponseEntity<List<Producto>> con los productos encontrados o error 400 si el texto está vacío
+     */
+    @GetMapping("/buscar") // Mapea este método a peticiones GET en la ruta especificada
+    public ResponseEntity<List<Producto>> buscarPorNombre(@RequestParam String nombre) { // Extrae el texto del parámetro de consulta
+        if (nombre.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(servicio.buscarProductosPorNombre(nombre));
+    }
+    /**
+     * Obtiene la lista de precios en centavos, completa o de algunos productos
+     * 
+     * El microservicio de carritos descarga la lista completa cada cierto
+     * tiempo para validar precios sin llamar a este servicio por cada item,
+     * y al hacer el checkout consulta solo los productos del carrito. La
+     * respuesta lleva la versión como ETag: si el cliente envía la misma en
+     * If-None-Match se responde 304 sin cuerpo.
+     * 
+     * @param ids IDs de los productos (opcional; sin él se retorna la lista completa)
+     * @param versionCliente Versión que ya tiene el cliente (cabecera If-None-Match)
+     * @return ResponseEntity<ListaPrecios> con los precios, 304 si no cambiaron o 400 si se piden demasiados IDs
+     */
+    @GetMapping("/precios") // Mapea este método a peticiones GET en la ruta especificada
+    public ResponseEntity<ListaPrecios> listaPrecios(
+            @RequestParam(required = false) List<Long> ids, // Extrae los IDs del parámetro de consulta (opcional)
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String versionCliente) { // Extrae la cabecera If-None-Match
+        if (ids != null && ids.size() > MAXIMO_LOTE) {
+            return ResponseEntity.badRequest().build();
+        }
+        ListaPrecios lista = servicio.listaPrecios(ids);
+        if (("\"" + lista.getVersion() + "\"").equals(versionCliente)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(lista.getVersion()).build();
+        }
+        return ResponseEntity.ok().eTag(lista.getVersion()).body(lista);
+    }
     /**
      * Elimina un producto del catálogo
      * 
@@ -99,8 +164,9 @@ public class ProductoController {
     /**
      * Obtiene información de un usuario desde el microservicio de usuarios
      * 
-     * Este endpoint hace una llamada HTTP al microservicio de usuarios
-     * para obtener información de un usuario específico.
+     * Este endpoint consulta al microservicio de usuarios con el cliente
+     * compartido, que guarda los usuarios en caché y junta en una sola
+     * llamada las consultas simultáneas.
      * 
      * @param id ID del usuario a consultar
      * @return ResponseEntity<Usuario> con la información del usuario o error 500 si hay problemas de conexión
@@ -108,19 +174,20 @@ public class ProductoController {
     @GetMapping("/usuario/{id}") // Mapea este método a peticiones GET en la ruta especificada
     public ResponseEntity<Usuario> obtenerUsuario(@PathVariable long id) { // Extrae el valor de la URL y lo convierte a long
         try {
-            Usuario usuario = restTemplate.getForObject("http://localhost:8081/api/usuarios/"+id, Usuario.class);
-            if (usuario != null) {
-                return ResponseEntity.ok(usuario);
-            } else {
-                return ResponseEntity.ok().build();
-            }
+            return clienteUsuarios.buscar(id)
+                    .map(remoto -> ResponseEntity.ok(Usuario.builder()
+                            .id(remoto.getId())
+                            .nombre(remoto.getNombre())
+                            .email(remoto.getCorreo())
+                            .build()))
+                    .orElseGet(() -> ResponseEntity.ok().build());
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     /**
-     * Manejador global de excepciones para RestTemplate
+     * Manejador global de excepciones de las llamadas a otros microservicios
      * 
      * Este método captura las excepciones que ocurren durante
      * las llamadas HTTP a otros microservicios y retorna
@@ -0,0 +1,103 @@
+package com.perfulandia.productservice.controller;
+
+import com.perfulandia.productservice.model.ReservaStock;
+import com.perfulandia.productservice.model.SolicitudReserva;
+import com.perfulandia.productservice.service.ReservaLiberadaException;
+import com.perfulandia.productservice.service.ReservaStockService;
+import com.perfulandia.productservice.service.StockInsuficienteException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Controlador REST para las reservas de stock
+ * 
+ * Lo usan otros microservicios (por ejemplo el checkout del carrito)
+ * para reservar en una sola llamada el stock de todos los productos de
+ * un pedido y devolverlo si el pedido no se completa.
+ * 
+ * Endpoints disponibles:
+ * - POST /api/productos/stock/reservas - Reservar el stock de varias líneas
+ * - POST /api/productos/stock/reservas/{reservaId}/liberar - Devolver el stock de una reserva
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@RestController // Marca esta clase como un controlador REST que devuelve respuestas en formato JSON automáticamente
+@RequestMapping("/api/productos/stock/reservas") // Define la ruta base para todos los endpoints
+@RequiredArgsConstructor // Genera un constructor con los campos final (inyección de dependencias)
+public class ReservaStockController {
+    
+    /**
+     * Cantidad máxima de líneas aceptadas en una reserva
+     */
+    private static final int MAXIMO_LINEAS = 500;
+    
+    /**
+     * Servicio de reservas de stock
+     * Se inyecta automáticamente por Spring usando el constructor
+     */
+    private final ReservaStockService servicio;
+    
+    /**
+     * Reserva el stock de todas las líneas de la solicitud
+     * 
+     * Reenviar la misma solicitud devuelve la reserva ya hecha sin
+     * descontar otra vez.
+     * 
+     * @param solicitud ID de la reserva y líneas a reservar
+     * @return ResponseEntity<ReservaStock> con la reserva, error 400 si la solicitud no es válida
+     *         o error 409 si falta stock o la reserva ya fue liberada
+     */
+    @PostMapping // Mapea este método a peticiones POST en la ruta base
+    public ResponseEntity<?> reservar(@RequestBody SolicitudReserva solicitud) { // Extrae el cuerpo de la petición HTTP y lo convierte a SolicitudReserva
+        if (!solicitud.tieneDatosValidos() || solicitud.getLineas().size() > MAXIMO_LINEAS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(servicio.reservar(solicitud.getReservaId(), solicitud.getLineas()));
+    }
+    
+    /**
+     * Libera una reserva devolviendo sus unidades al stock
+     * 
+     * Es idempotente: liberar dos veces (o liberar una reserva que no
+     * existe) responde 200 sin devolver stock.
+     * 
+     * @param reservaId ID de la reserva
+     * @return ResponseEntity con {"liberada": true} si se devolvió stock en esta llamada
+     */
+    @PostMapping("/{reservaId}/liberar") // Mapea este método a peticiones POST en la ruta especificada
+    public ResponseEntity<Map<String, Boolean>> liberar(@PathVariable String reservaId) { // Extrae el ID de la URL
+        return ResponseEntity.ok(Map.of("liberada", servicio.liberar(reservaId)));
+    }
+    
+    /**
+     * Responde 409 con los productos que no tienen stock suficiente
+     * 
+     * @param e Excepción con los IDs de los productos
+     * @return ResponseEntity con el mensaje y la lista "sinStock"
+     */
+    @ExceptionHandler(StockInsuficienteException.class) // Define qué tipo de excepción maneja este método
+    public ResponseEntity<Map<String, Object>> manejarStockInsuficiente(StockInsuficienteException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", e.getMessage(), "sinStock", e.getProductos()));
+    }
+    
+    /**
+     * Responde 409 si la reserva ya fue liberada o si otra petición con el
+     * mismo ID la está creando en este momento
+     * 
+     * @param e Excepción capturada
+     * @return ResponseEntity con el mensaje de error
+     */
+    @ExceptionHandler({ReservaLiberadaException.class, DataIntegrityViolationException.class}) // Define qué tipos de excepciones maneja este método
+    public ResponseEntity<Map<String, Object>> manejarConflicto(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error",
+                e instanceof ReservaLiberadaException ? e.getMessage() : "La reserva se está procesando"));
+    }
+}
@@ -0,0 +1,22 @@
+package com.perfulandia.productservice.model;
+
+/**
+ * Estados de una reserva de stock
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public enum EstadoReserva {
+    
+    /**
+     * Las unidades de la reserva ya se descontaron del stock
+     */
+    RESERVADA,
+    
+    /**
+     * Las unidades se devolvieron al stock (o la reserva se anuló antes
+     * de llegar); una reserva liberada no se puede volver a reservar
+     */
+    LIBERADA
+}
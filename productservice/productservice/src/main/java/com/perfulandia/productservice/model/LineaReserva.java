@@ -0,0 +1,44 @@
+package com.perfulandia.productservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+/**
+ * Línea de una reserva de stock: un producto y la cantidad reservada
+ * 
+ * Se usa tanto en el cuerpo de la petición de reserva como en la tabla
+ * de líneas de la reserva guardada.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Embeddable // Se guarda como parte de la reserva, en la tabla reserva_stock_lineas
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido por JPA y para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias
+public class LineaReserva {
+    
+    /**
+     * ID del producto reservado
+     */
+    @Column(name = "producto_id", nullable = false) // Especifica detalles de la columna en la base de datos
+    private Long productoId;
+    
+    /**
+     * Cantidad de unidades reservadas (mayor que cero)
+     */
+    @Column(nullable = false) // Especifica que la columna no puede ser null
+    private Integer cantidad;
+    
+    /**
+     * Verifica si la línea tiene datos válidos
+     * 
+     * @return true si tiene producto y una cantidad mayor que cero
+     */
+    public boolean esValida() {
+        return productoId != null && cantidad != null && cantidad > 0;
+    }
+}
@@ -0,0 +1,39 @@
+package com.perfulandia.productservice.model;
+
+import lombok.*;
+
+/**
+ * Lista de precios de productos expuesta a otros microservicios
+ * 
+ * Se envía en columnas (un arreglo de IDs y otro de precios en centavos,
+ * en la misma posición y ordenados por ID) para que quien la replica la
+ * cargue directamente en arreglos de primitivos, sin un objeto por producto.
+ * 
+ * La versión es un resumen del contenido: cambia si se agrega, elimina o
+ * cambia el precio de algún producto, y se usa como ETag de la respuesta.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias
+public class ListaPrecios {
+    
+    /**
+     * Versión del contenido (se usa como ETag)
+     */
+    private String version;
+    
+    /**
+     * IDs de los productos, en orden ascendente
+     */
+    private long[] ids;
+    
+    /**
+     * Precio unitario en centavos de cada producto (misma posición que en ids)
+     */
+    private long[] centavos;
+}
@@ -0,0 +1,59 @@
+package com.perfulandia.productservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reserva de stock hecha por otro microservicio (por ejemplo, el checkout del carrito)
+ * 
+ * El ID lo elige quien reserva y hace idempotentes las operaciones:
+ * repetir una reserva ya hecha no descuenta el stock otra vez, y liberar
+ * una reserva dos veces no lo devuelve dos veces. Liberar una reserva
+ * que todavía no llegó deja la reserva como LIBERADA, de modo que si la
+ * petición de reserva llega tarde se rechaza en lugar de descontar stock
+ * que nadie va a devolver.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Entity // Marca esta clase como una entidad JPA que se mapea a una tabla
+@Table(name = "reservas_stock") // Especifica el nombre de la tabla en la base de datos
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido por JPA)
+@Builder // Implementa el patrón Builder para crear instancias
+public class ReservaStock {
+    
+    /**
+     * Identificador de la reserva, elegido por el microservicio que reserva
+     */
+    @Id // Marca el campo como clave primaria
+    @Column(length = 64) // Especifica detalles de la columna en la base de datos
+    private String id;
+    
+    /**
+     * Estado actual de la reserva
+     */
+    @Enumerated(EnumType.STRING) // Guarda el nombre del estado
+    @Column(nullable = false, length = 20) // Especifica detalles de la columna en la base de datos
+    private EstadoReserva estado;
+    
+    /**
+     * Fecha y hora del último cambio de estado
+     */
+    @Column(nullable = false) // Especifica que la columna no puede ser null
+    private LocalDateTime fecha;
+    
+    /**
+     * Productos y cantidades reservadas
+     */
+    @ElementCollection(fetch = FetchType.EAGER) // Las líneas se leen siempre junto con la reserva
+    @CollectionTable(name = "reserva_stock_lineas", joinColumns = @JoinColumn(name = "reserva_id")) // Tabla de las líneas
+    @Builder.Default // Lista vacía por defecto al usar el builder
+    private List<LineaReserva> lineas = new ArrayList<>();
+}
@@ -0,0 +1,40 @@
+package com.perfulandia.productservice.model;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Cuerpo de la petición de reserva de stock
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias
+public class SolicitudReserva {
+    
+    /**
+     * ID de la reserva (el mismo en cada reintento)
+     */
+    private String reservaId;
+    
+    /**
+     * Productos y cantidades a reservar
+     */
+    private List<LineaReserva> lineas;
+    
+    /**
+     * Verifica si la solicitud tiene datos válidos
+     * 
+     * @return true si tiene ID, al menos una línea y todas las líneas son válidas
+     */
+    public boolean tieneDatosValidos() {
+        return reservaId != null && !reservaId.isBlank() && reservaId.length() <= 64
+                && lineas != null && !lineas.isEmpty()
+                && lineas.stream().allMatch(linea -> linea != null && linea.esValida());
+    }
+}
@@ -0,0 +1,18 @@
+package com.perfulandia.productservice.repository;
+
+/**
+ * Proyección con solo el ID y el precio de un producto
+ * 
+ * La usan las consultas de la lista de precios para leer dos columnas
+ * sin cargar las entidades completas.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public interface PrecioProducto {
+    
+    Long getId();
+    
+    Double getPrecio();
+}
@@ -2,8 +2,14 @@ package com.perfulandia.productservice.repository;
 
 import com.perfulandia.productservice.model.Producto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Repositorio para operaciones de base de datos con la entidad Producto
  * 
@@ -19,6 +25,10 @@ import org.springframework.stereotype.Repository;
  * - count(): Cuenta el total de productos
  * - existsById(Long): Verifica si existe un producto con el ID especificado
  * 
+ * Métodos personalizados:
+ * - descontarStock / reponerStock: Modifican el stock de forma atómica (reservas)
+ * - listarPrecios / buscarPrecios: Leen solo ID y precio (lista de precios)
+ * 
  * Nota: En una implementación completa, se agregarían métodos personalizados
  * como findByNombreContainingIgnoreCase, findByStockGreaterThan, etc.
  * 
@@ -29,6 +39,52 @@ import org.springframework.stereotype.Repository;
 @Repository // Marca esta interfaz como un repositorio de Spring, permitiendo la inyección de dependencias y el manejo de excepciones específicas de persistencia
 public interface ProductoRepository extends JpaRepository<Producto, Long> {
     
+    /**
+     * Descuenta unidades del stock solo si alcanzan
+     * 
+     * La comparación y la resta ocurren en la misma sentencia, así que
+     * dos reservas concurrentes nunca dejan el stock negativo.
+     * 
+     * La consulta generada será equivalente a:
+     * UPDATE productos SET stock = stock - ? WHERE id = ? AND stock >= ?
+     * 
+     * @param id ID del producto
+     * @param cantidad Unidades a descontar
+     * @return 1 si se descontó, 0 si el producto no existe o no tiene stock suficiente
+     */
+    @Modifying // Indica que la consulta modifica datos
+    @Query("UPDATE Producto p SET p.stock = p.stock - :cantidad WHERE p.id = :id AND p.stock >= :cantidad")
+    int descontarStock(@Param("id") Long id, @Param("cantidad") int cantidad);
+    
+    /**
+     * Devuelve unidades al stock (al liberar una reserva)
+     * 
+     * @param id ID del producto
+     * @param cantidad Unidades a devolver
+     * @return Número de filas actualizadas (0 si el producto ya no existe)
+     */
+    @Modifying // Indica que la consulta modifica datos
+    @Query("UPDATE Producto p SET p.stock = p.stock + :cantidad WHERE p.id = :id")
+    int reponerStock(@Param("id") Long id, @Param("cantidad") int cantidad);
+    
+    /**
+     * Lee el ID y el precio de todos los productos con precio, ordenados por ID
+     * 
+     * @return Proyecciones con ID y precio
+     */
+    @Query("SELECT p.id AS id, p.precio AS precio FROM Producto p WHERE p.precio IS NOT NULL ORDER BY p.id")
+    List<PrecioProducto> listarPrecios();
+    
+    /**
+     * Lee el ID y el precio de los productos indicados, ordenados por ID
+     * 
+     * @param ids IDs de los productos (los que no existen se omiten)
+     * @return Proyecciones con ID y precio
+     */
+    @Query("SELECT p.id AS id, p.precio AS precio FROM Producto p "
+            + "WHERE p.id IN :ids AND p.precio IS NOT NULL ORDER BY p.id")
+    List<PrecioProducto> buscarPrecios(@Param("ids") Collection<Long> ids);
+    
     // Métodos personalizados que se pueden agregar en el futuro:
     // List<Producto> findByNombreContainingIgnoreCase(String nombre);
     // List<Producto> findByStockGreaterThan(Integer stock);
@@ -0,0 +1,35 @@
+package com.perfulandia.productservice.repository;
+
+import com.perfulandia.productservice.model.ReservaStock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repositorio para las reservas de stock
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Repository // Marca esta interfaz como un repositorio de Spring, permitiendo la inyección de dependencias y el manejo de excepciones específicas de persistencia
+public interface ReservaStockRepository extends JpaRepository<ReservaStock, String> {
+    
+    /**
+     * Busca una reserva y bloquea su fila hasta el fin de la transacción
+     * 
+     * Serializa las operaciones concurrentes sobre la misma reserva
+     * (por ejemplo, un reintento que llega mientras se libera).
+     * 
+     * @param id ID de la reserva
+     * @return La reserva, o vacío si no existe
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE) // SELECT ... FOR UPDATE
+    @Query("SELECT r FROM ReservaStock r WHERE r.id = :id")
+    Optional<ReservaStock> buscarParaModificar(@Param("id") String id);
+}
@@ -1,10 +1,13 @@
 package com.perfulandia.productservice.service;
 
+import com.perfulandia.productservice.model.ListaPrecios;
 import com.perfulandia.productservice.model.Producto;
+import com.perfulandia.productservice.repository.PrecioProducto;
 import com.perfulandia.productservice.repository.ProductoRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -64,6 +67,47 @@ public class ProductoService {
         return producto.orElse(null);
     }
     
+    /**
+     * Busca varios productos por sus IDs en una sola consulta
+     * 
+     * Este método permite a otros microservicios resolver muchos
+     * productos de una vez en lugar de hacer una petición por cada uno.
+     * Los IDs que no existen simplemente no aparecen en el resultado.
+     * 
+     * @param ids IDs de los productos a buscar
+     * @return Lista de productos encontrados
+     */
+    public List<Producto> buscarVarios(Collection<Long> ids) {
+        return productoRepository.findAllById(ids);
+    }
+    
+    /**
+     * Obtiene la lista de precios de los productos en centavos
+     * 
+     * La usa el microservicio de carritos para mantener una copia local
+     * de los precios (lista completa) y para revalidar los precios de un
+     * carrito en una sola llamada al hacer el checkout (solo sus productos).
+     * Solo se leen las columnas ID y precio.
+     * 
+     * @param ids IDs de los productos, o null para la lista completa
+     * @return Lista de precios ordenada por ID, con la versión de su contenido
+     */
+    public ListaPrecios listaPrecios(Collection<Long> ids) {
+        List<PrecioProducto> filas = ids == null
+                ? productoRepository.listarPrecios()
+                : productoRepository.buscarPrecios(ids);
+        long[] idsPrecios = new long[filas.size()];
+        long[] centavos = new long[filas.size()];
+        long resumen = 1125899906842597L;
+        for (int i = 0; i < filas.size(); i++) {
+            idsPrecios[i] = filas.get(i).getId();
+            centavos[i] = Math.round(filas.get(i).getPrecio() * 100);
+            resumen = 31 * (31 * resumen + idsPrecios[i]) + centavos[i];
+        }
+        String version = filas.size() + "-" + Long.toHexString(resumen);
+        return new ListaPrecios(version, idsPrecios, centavos);
+    }
+    
     /**
      * Guarda un nuevo producto en el catálogo
      * 
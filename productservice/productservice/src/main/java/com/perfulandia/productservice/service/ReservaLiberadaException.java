@@ -0,0 +1,15 @@
+package com.perfulandia.productservice.service;
+
+/**
+ * Excepción lanzada al intentar reservar con el ID de una reserva ya liberada
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class ReservaLiberadaException extends RuntimeException {
+    
+    public ReservaLiberadaException(String reservaId) {
+        super("La reserva " + reservaId + " ya fue liberada");
+    }
+}
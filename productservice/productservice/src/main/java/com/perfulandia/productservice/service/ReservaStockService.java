@@ -0,0 +1,134 @@
+package com.perfulandia.productservice.service;
+
+import com.perfulandia.productservice.model.EstadoReserva;
+import com.perfulandia.productservice.model.LineaReserva;
+import com.perfulandia.productservice.model.ReservaStock;
+import com.perfulandia.productservice.repository.ProductoRepository;
+import com.perfulandia.productservice.repository.ReservaStockRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Servicio de reservas de stock para otros microservicios
+ * 
+ * Una reserva descuenta de una vez el stock de todas sus líneas, o no
+ * descuenta ninguna: si algún producto no alcanza, la transacción
+ * completa se revierte. Cada línea se descuenta con una sola sentencia
+ * condicional (sin leer y luego escribir el producto), en orden de ID de
+ * producto para que dos reservas concurrentes no se bloqueen mutuamente.
+ * 
+ * Las operaciones son idempotentes por ID de reserva, de modo que quien
+ * reserva puede reintentar sin miedo a descontar o devolver dos veces.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Service // Marca esta clase como un servicio de Spring, permitiendo la inyección de dependencias y el escaneo automático de componentes
+@RequiredArgsConstructor // Genera un constructor con los campos final para la inyección de dependencias
+public class ReservaStockService {
+    
+    /**
+     * Repositorio de productos (descuento y reposición de stock)
+     */
+    private final ProductoRepository productoRepository;
+    
+    /**
+     * Repositorio de reservas
+     */
+    private final ReservaStockRepository reservaRepository;
+    
+    /**
+     * Reserva el stock de todas las líneas
+     * 
+     * Si la reserva ya existe y está vigente, se devuelve sin tocar el
+     * stock (reintento). Las líneas repetidas del mismo producto se suman.
+     * 
+     * @param reservaId ID de la reserva elegido por quien reserva
+     * @param lineas Productos y cantidades a reservar
+     * @return La reserva vigente
+     * @throws StockInsuficienteException si algún producto no existe o no tiene stock suficiente
+     * @throws ReservaLiberadaException si la reserva ya fue liberada
+     */
+    @Transactional // Todas las líneas se descuentan o ninguna
+    public ReservaStock reservar(String reservaId, List<LineaReserva> lineas) {
+        Optional<ReservaStock> existente = reservaRepository.buscarParaModificar(reservaId);
+        if (existente.isPresent()) {
+            if (existente.get().getEstado() == EstadoReserva.LIBERADA) {
+                throw new ReservaLiberadaException(reservaId);
+            }
+            return existente.get();
+        }
+        
+        // Ordenadas por producto: todas las reservas toman los bloqueos en el mismo orden
+        Map<Long, Integer> porProducto = new TreeMap<>();
+        for (LineaReserva linea : lineas) {
+            porProducto.merge(linea.getProductoId(), linea.getCantidad(), Integer::sum);
+        }
+        
+        // Primero la reserva: si otra petición con el mismo ID se adelanta, falla aquí
+        List<LineaReserva> agrupadas = new ArrayList<>();
+        porProducto.forEach((productoId, cantidad) -> agrupadas.add(new LineaReserva(productoId, cantidad)));
+        ReservaStock reserva = reservaRepository.saveAndFlush(ReservaStock.builder()
+                .id(reservaId)
+                .estado(EstadoReserva.RESERVADA)
+                .fecha(LocalDateTime.now())
+                .lineas(agrupadas)
+                .build());
+        
+        // Se intentan todas las líneas para informar de una vez todos los productos sin stock
+        List<Long> sinStock = new ArrayList<>();
+        for (LineaReserva linea : agrupadas) {
+            if (productoRepository.descontarStock(linea.getProductoId(), linea.getCantidad()) == 0) {
+                sinStock.add(linea.getProductoId());
+            }
+        }
+        if (!sinStock.isEmpty()) {
+            throw new StockInsuficienteException(sinStock); // Revierte la reserva y los descuentos hechos
+        }
+        return reserva;
+    }
+    
+    /**
+     * Libera una reserva devolviendo sus unidades al stock
+     * 
+     * Liberar una reserva ya liberada no hace nada. Liberar una reserva
+     * que no existe la registra como liberada, para rechazar una petición
+     * de reserva con ese ID que llegue tarde.
+     * 
+     * @param reservaId ID de la reserva
+     * @return true si se devolvió stock, false si no había nada que devolver
+     */
+    @Transactional // La reposición y el cambio de estado se confirman juntos
+    public boolean liberar(String reservaId) {
+        Optional<ReservaStock> existente = reservaRepository.buscarParaModificar(reservaId);
+        if (existente.isEmpty()) {
+            reservaRepository.save(ReservaStock.builder()
+                    .id(reservaId)
+                    .estado(EstadoReserva.LIBERADA)
+                    .fecha(LocalDateTime.now())
+                    .build());
+            return false;
+        }
+        
+        ReservaStock reserva = existente.get();
+        if (reserva.getEstado() == EstadoReserva.LIBERADA) {
+            return false;
+        }
+        for (LineaReserva linea : reserva.getLineas()) {
+            productoRepository.reponerStock(linea.getProductoId(), linea.getCantidad());
+        }
+        reserva.setEstado(EstadoReserva.LIBERADA);
+        reserva.setFecha(LocalDateTime.now());
+        reservaRepository.save(reserva);
+        return true;
+    }
+}
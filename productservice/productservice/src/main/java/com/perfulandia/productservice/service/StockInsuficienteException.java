@@ -0,0 +1,30 @@
+package com.perfulandia.productservice.service;
+
+import java.util.List;
+
+/**
+ * Excepción lanzada cuando una reserva no se puede hacer completa
+ * 
+ * Ocurre si algún producto no existe o no tiene stock suficiente; en ese
+ * caso no se descuenta ninguna línea de la reserva.
+ * 
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class StockInsuficienteException extends RuntimeException {
+    
+    private final List<Long> productos;
+    
+    public StockInsuficienteException(List<Long> productos) {
+        super("Stock insuficiente para los productos: " + productos);
+        this.productos = productos;
+    }
+    
+    /**
+     * IDs de los productos sin stock suficiente (o inexistentes)
+     */
+    public List<Long> getProductos() {
+        return productos;
+    }
+}
@@ -0,0 +1,31 @@
+-- ========================================
+-- ESQUEMA INICIAL DEL MICROSERVICIO PRODUCTOS
+-- ========================================
+-- Tablas tal como las generaba Hibernate antes de usar Flyway.
+-- IF NOT EXISTS permite aplicar la migración sobre una base de datos
+-- donde Hibernate ya creó las tablas (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE IF NOT EXISTS productos (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    nombre VARCHAR(255) NOT NULL,
+    descripcion VARCHAR(255) NOT NULL,
+    precio DOUBLE NOT NULL,
+    stock INT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS reservas_stock (
+    id VARCHAR(64) NOT NULL,
+    estado VARCHAR(20) NOT NULL,
+    fecha DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Las líneas de una reserva se leen siempre por reserva_id junto con la reserva
+CREATE TABLE IF NOT EXISTS reserva_stock_lineas (
+    reserva_id VARCHAR(64) NOT NULL,
+    producto_id BIGINT NOT NULL,
+    cantidad INT NOT NULL,
+    INDEX idx_reserva_stock_lineas_reserva (reserva_id),
+    CONSTRAINT fk_reserva_stock_lineas_reserva FOREIGN KEY (reserva_id) REFERENCES reservas_stock (id)
+);
@@ -0,0 +1,131 @@
+package com.perfulandia.productservice;
+
+import com.perfulandia.productservice.model.EstadoReserva;
+import com.perfulandia.productservice.model.LineaReserva;
+import com.perfulandia.productservice.model.ListaPrecios;
+import com.perfulandia.productservice.model.Producto;
+import com.perfulandia.productservice.model.ReservaStock;
+import com.perfulandia.productservice.model.SolicitudReserva;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de humo por HTTP contra H2, en la JVM y en la imagen nativa
+ * (mvn -PnativeTest test): JSON de las entidades, JPA con colecciones y
+ * enums, proyecciones de Spring Data, proxies JDBC de las trazas y Actuator.
+ */
+@Tag("nativo")
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.endpoints.web.exposure.include=health,prometheus")
+class ImagenNativaTest {
+
+    private static final ParameterizedTypeReference<List<Producto>> LISTA_PRODUCTOS = new ParameterizedTypeReference<>() { };
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    private Producto crear(String nombre, double precio, int stock) {
+        Producto nuevo = Producto.builder().nombre(nombre).descripcion("Eau de parfum").precio(precio).stock(stock).build();
+        ResponseEntity<Producto> respuesta = rest.postForEntity("/api/productos", nuevo, Producto.class);
+        assertEquals(HttpStatus.OK, respuesta.getStatusCode());
+        return respuesta.getBody();
+    }
+
+    @Test
+    @DisplayName("Testing Nativo 1 - Crear un producto y leerlo por ID, en lote y por nombre")
+    void testCrearYBuscar() {
+        // Arrange
+        Producto creado = crear("Nativo Floral", 19990.0, 5);
+        Producto otro = crear("Nativo Cítrico", 14990.0, 3);
+
+        // Act
+        Producto porId = rest.getForObject("/api/productos/" + creado.getId(), Producto.class);
+        ResponseEntity<List<Producto>> lote = rest.exchange("/api/productos/lote?ids=" + creado.getId() + "," + otro.getId() + ",0",
+                HttpMethod.GET, null, LISTA_PRODUCTOS);
+        ResponseEntity<List<Producto>> porNombre = rest.exchange("/api/productos/buscar?nombre=nativo floral",
+                HttpMethod.GET, null, LISTA_PRODUCTOS);
+
+        // Assert
+        assertEquals("Nativo Floral", porId.getNombre());
+        assertEquals(19990.0, porId.getPrecio());
+        assertEquals(2, lote.getBody().size());
+        assertTrue(porNombre.getBody().stream().anyMatch(producto -> producto.getId().equals(creado.getId())));
+    }
+
+    @Test
+    @DisplayName("Testing Nativo 2 - Reservar y liberar stock")
+    void testReservarYLiberar() {
+        // Arrange
+        Producto producto = crear("Nativo Reserva", 9990.0, 4);
+        SolicitudReserva solicitud = SolicitudReserva.builder()
+                .reservaId("nativo-1")
+                .lineas(List.of(LineaReserva.builder().productoId(producto.getId()).cantidad(3).build()))
+                .build();
+
+        // Act
+        ResponseEntity<ReservaStock> reserva = rest.postForEntity("/api/productos/stock/reservas", solicitud, ReservaStock.class);
+        int stockReservado = rest.getForObject("/api/productos/" + producto.getId(), Producto.class).getStock();
+        ResponseEntity<Map> liberada = rest.postForEntity("/api/productos/stock/reservas/nativo-1/liberar", null, Map.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, reserva.getStatusCode());
+        assertEquals(EstadoReserva.RESERVADA, reserva.getBody().getEstado());
+        assertEquals(1, reserva.getBody().getLineas().size());
+        assertEquals(1, stockReservado);
+        assertEquals(true, liberada.getBody().get("liberada"));
+        assertEquals(4, rest.getForObject("/api/productos/" + producto.getId(), Producto.class).getStock());
+    }
+
+    @Test
+    @DisplayName("Testing Nativo 3 - Lista de precios en centavos con ETag")
+    void testListaPrecios() {
+        // Arrange
+        Producto producto = crear("Nativo Precio", 12.5, 1);
+
+        // Act
+        ResponseEntity<ListaPrecios> lista = rest.getForEntity("/api/productos/precios?ids=" + producto.getId(), ListaPrecios.class);
+        HttpHeaders cabeceras = new HttpHeaders();
+        cabeceras.setIfNoneMatch(lista.getHeaders().getETag());
+        ResponseEntity<ListaPrecios> repetida = rest.exchange("/api/productos/precios?ids=" + producto.getId(),
+                HttpMethod.GET, new HttpEntity<>(cabeceras), ListaPrecios.class);
+
+        // Assert
+        assertArrayEquals(new long[]{producto.getId()}, lista.getBody().getIds());
+        assertArrayEquals(new long[]{1250}, lista.getBody().getCentavos());
+        assertEquals(HttpStatus.NOT_MODIFIED, repetida.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Testing Nativo 4 - Actuator expone la salud y las métricas de peticiones y consultas JDBC")
+    void testActuator() {
+        // Arrange
+        crear("Nativo Métricas", 1000.0, 1);
+
+        // Act
+        ResponseEntity<String> salud = rest.getForEntity("/actuator/health", String.class);
+        ResponseEntity<String> metricas = rest.getForEntity("/actuator/prometheus", String.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, salud.getStatusCode());
+        assertTrue(salud.getBody().contains("\"UP\""));
+        assertTrue(metricas.getBody().contains("http_server_requests_seconds_count"));
+        assertTrue(metricas.getBody().contains("jdbc_query_seconds_count"));
+    }
+}
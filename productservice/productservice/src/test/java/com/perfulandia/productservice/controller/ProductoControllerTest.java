@@ -1,9 +1,11 @@
 package com.perfulandia.productservice.controller;
 
+import com.perfulandia.productservice.model.ListaPrecios;
 import com.perfulandia.productservice.model.Producto;
-import com.perfulandia.productservice.model.Usuario;
 import com.perfulandia.productservice.service.ProductoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.perfulandia.clientes.ClienteUsuarios;
+import com.perfulandia.clientes.model.Usuario;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,11 +13,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -23,6 +26,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.hasSize;
 
+// @MockBean no se puede procesar con Spring AOT: esta clase no corre en la imagen nativa (perfil nativeTest)
+@DisabledInAotMode
 @WebMvcTest(ProductoController.class)
 public class ProductoControllerTest {
 
@@ -33,7 +38,7 @@ public class ProductoControllerTest {
     private ProductoService servicio;
 
     @MockBean
-    private RestTemplate restTemplate;
+    private ClienteUsuarios clienteUsuarios;
 
     private final ObjectMapper mapper = new ObjectMapper();
 
@@ -52,7 +57,7 @@ public class ProductoControllerTest {
         usuario = new Usuario();
         usuario.setId(1L);
         usuario.setNombre("Usuario Test");
-        usuario.setEmail("test@example.com");
+        usuario.setCorreo("test@example.com");
     }
 
     @Test
@@ -128,7 +133,7 @@ public class ProductoControllerTest {
     @Test
     @DisplayName("Testing Controller 6 - Obtener usuario")
     void testObtenerUsuario() throws Exception {
-        when(restTemplate.getForObject(anyString(), eq(Usuario.class))).thenReturn(usuario);
+        when(clienteUsuarios.buscar(1L)).thenReturn(Optional.of(usuario));
 
         mockMvc.perform(get("/api/productos/usuario/1"))
                 .andExpect(status().isOk())
@@ -136,28 +141,72 @@ public class ProductoControllerTest {
                 .andExpect(jsonPath("$.nombre").value("Usuario Test"))
                 .andExpect(jsonPath("$.email").value("test@example.com"));
 
-        verify(restTemplate).getForObject("http://localhost:8081/api/usuarios/1", Usuario.class);
+        verify(clienteUsuarios).buscar(1L);
     }
 
     @Test
     @DisplayName("Testing Controller 7 - Obtener usuario que no existe")
     void testObtenerUsuarioNoExiste() throws Exception {
-        when(restTemplate.getForObject(anyString(), eq(Usuario.class))).thenReturn(null);
+        when(clienteUsuarios.buscar(999L)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/productos/usuario/999"))
                 .andExpect(status().isOk())
                 .andExpect(content().string(""));
 
-        verify(restTemplate).getForObject("http://localhost:8081/api/usuarios/999", Usuario.class);
+        verify(clienteUsuarios).buscar(999L);
     }
 
     @Test
-    @DisplayName("Testing Controller 8 - Error en RestTemplate")
-    void testErrorRestTemplate() throws Exception {
-        when(restTemplate.getForObject(anyString(), eq(Usuario.class)))
+    @DisplayName("Testing Controller 8 - Error del microservicio de usuarios")
+    void testErrorClienteUsuarios() throws Exception {
+        when(clienteUsuarios.buscar(anyLong()))
                 .thenThrow(new RuntimeException("Error de conexión"));
 
         mockMvc.perform(get("/api/productos/usuario/1"))
                 .andExpect(status().isInternalServerError());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Testing Controller 9 - Buscar varios productos por ID")
+    void testBuscarLote() throws Exception {
+        when(servicio.buscarVarios(List.of(1L, 7L))).thenReturn(Arrays.asList(producto));
+
+        mockMvc.perform(get("/api/productos/lote").param("ids", "1,7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nombre").value("Perfume Test"));
+
+        verify(servicio).buscarVarios(List.of(1L, 7L));
+    }
+
+    @Test
+    @DisplayName("Testing Controller 10 - Lista de precios con ETag y 304 si no cambió")
+    void testListaPrecios() throws Exception {
+        ListaPrecios lista = new ListaPrecios("2-abc", new long[] {1L, 4L}, new long[] {2999L, 1200L});
+        when(servicio.listaPrecios(null)).thenReturn(lista);
+
+        mockMvc.perform(get("/api/productos/precios"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2-abc\""))
+                .andExpect(jsonPath("$.ids[1]").value(4))
+                .andExpect(jsonPath("$.centavos[0]").value(2999));
+
+        mockMvc.perform(get("/api/productos/precios").header("If-None-Match", "\"2-abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Testing Controller 11 - Buscar productos por nombre")
+    void testBuscarPorNombre() throws Exception {
+        when(servicio.buscarProductosPorNombre("perfume")).thenReturn(Arrays.asList(producto));
+
+        mockMvc.perform(get("/api/productos/buscar").param("nombre", "perfume"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nombre").value("Perfume Test"));
+
+        mockMvc.perform(get("/api/productos/buscar").param("nombre", " "))
+                .andExpect(status().isBadRequest());
+    }
+}
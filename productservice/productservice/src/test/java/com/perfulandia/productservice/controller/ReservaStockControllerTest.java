@@ -0,0 +1,134 @@
+package com.perfulandia.productservice.controller;
+
+import com.perfulandia.productservice.model.Producto;
+import com.perfulandia.productservice.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Prueba las reservas de stock contra la base de datos H2: todo o nada,
+ * idempotencia de los reintentos y liberación.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReservaStockControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    private Long perfume;
+    private Long colonia;
+
+    @BeforeEach
+    void setUp() {
+        perfume = productoRepository.save(new Producto(null, "Perfume Reserva", "Floral", 100.0, 10)).getId();
+        colonia = productoRepository.save(new Producto(null, "Colonia Reserva", "Cítrica", 50.0, 1)).getId();
+    }
+
+    private String solicitud(String reservaId, int cantidadPerfume, int cantidadColonia) {
+        return "{\"reservaId\":\"" + reservaId + "\",\"lineas\":["
+                + "{\"productoId\":" + perfume + ",\"cantidad\":" + cantidadPerfume + "},"
+                + "{\"productoId\":" + colonia + ",\"cantidad\":" + cantidadColonia + "}]}";
+    }
+
+    private int stock(Long id) {
+        return productoRepository.findById(id).orElseThrow().getStock();
+    }
+
+    @Test
+    @DisplayName("Testing Reserva 1 - Reserva todas las líneas y un reintento no descuenta otra vez")
+    void testReservarIdempotente() throws Exception {
+        // Act
+        for (int intento = 0; intento < 2; intento++) {
+            mockMvc.perform(post("/api/productos/stock/reservas")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(solicitud("pedido-1", 3, 1)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value("pedido-1"))
+                    .andExpect(jsonPath("$.estado").value("RESERVADA"))
+                    .andExpect(jsonPath("$.lineas.length()").value(2));
+        }
+
+        // Assert
+        assertEquals(7, stock(perfume));
+        assertEquals(0, stock(colonia));
+    }
+
+    @Test
+    @DisplayName("Testing Reserva 2 - Si falta stock de un producto no se descuenta ninguno")
+    void testReservarSinStock() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/productos/stock/reservas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(solicitud("pedido-2", 3, 2)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.sinStock.length()").value(1))
+                .andExpect(jsonPath("$.sinStock[0]").value(colonia));
+
+        assertEquals(10, stock(perfume));
+        assertEquals(1, stock(colonia));
+
+        // El mismo ID puede reintentarse cuando haya stock
+        mockMvc.perform(post("/api/productos/stock/reservas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(solicitud("pedido-2", 3, 1)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Testing Reserva 3 - Liberar devuelve el stock una sola vez y bloquea reservas tardías")
+    void testLiberar() throws Exception {
+        // Arrange
+        mockMvc.perform(post("/api/productos/stock/reservas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(solicitud("pedido-3", 4, 1)))
+                .andExpect(status().isOk());
+
+        // Act & Assert: la primera liberación devuelve el stock, la segunda no
+        mockMvc.perform(post("/api/productos/stock/reservas/pedido-3/liberar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.liberada").value(true));
+        mockMvc.perform(post("/api/productos/stock/reservas/pedido-3/liberar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.liberada").value(false));
+        assertEquals(10, stock(perfume));
+        assertEquals(1, stock(colonia));
+
+        // Una liberación que llega antes que su reserva la anula
+        mockMvc.perform(post("/api/productos/stock/reservas/pedido-4/liberar"))
+                .andExpect(jsonPath("$.liberada").value(false));
+        mockMvc.perform(post("/api/productos/stock/reservas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(solicitud("pedido-4", 1, 1)))
+                .andExpect(status().isConflict());
+        assertEquals(10, stock(perfume));
+    }
+
+    @Test
+    @DisplayName("Testing Reserva 4 - Rechaza solicitudes sin líneas o con cantidades no positivas")
+    void testReservarInvalida() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/productos/stock/reservas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reservaId\":\"pedido-5\",\"lineas\":[]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/productos/stock/reservas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(solicitud("pedido-5", 0, 1)))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,71 @@
+package com.perfulandia.productservice.migracion;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba las migraciones de Flyway sobre una base H2 en modo MySQL propia,
+ * vacía o con las tablas que creaba Hibernate antes de usar Flyway.
+ */
+public class MigracionesTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migraciones" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Migra con la misma configuración que application.properties
+     */
+    private void migrar() {
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("0").load().migrate();
+    }
+
+    @Test
+    @DisplayName("Testing Migraciones 1 - Crea las tablas con el índice de las líneas por reserva")
+    void testBaseVacia() {
+        // Act
+        migrar();
+
+        // Assert
+        List<String> indices = jdbc.queryForList(
+                "SELECT index_name FROM information_schema.indexes WHERE table_name = 'reserva_stock_lineas'", String.class);
+        assertTrue(indices.contains("idx_reserva_stock_lineas_reserva"), () -> "Índices: " + indices);
+
+        // Una línea de una reserva que no existe se rechaza
+        assertThrows(org.springframework.dao.DataIntegrityViolationException.class, () -> jdbc.update(
+                "INSERT INTO reserva_stock_lineas (reserva_id, producto_id, cantidad) VALUES ('no-existe', 1, 1)"));
+    }
+
+    @Test
+    @DisplayName("Testing Migraciones 2 - Acepta una base creada por Hibernate sin perder datos")
+    void testBaseCreadaPorHibernate() {
+        // Arrange: tablas y datos anteriores a Flyway, sin historial de migraciones
+        jdbc.execute("CREATE TABLE productos (id BIGINT NOT NULL AUTO_INCREMENT, descripcion VARCHAR(255) NOT NULL, "
+                + "nombre VARCHAR(255) NOT NULL, precio FLOAT(53) NOT NULL, stock INTEGER NOT NULL, PRIMARY KEY (id))");
+        jdbc.update("INSERT INTO productos (nombre, descripcion, precio, stock) VALUES ('Perfume', 'Floral', 29.99, 10)");
+
+        // Act
+        migrar();
+
+        // Assert: la base se toma como versión 0, la tabla existente se conserva y se crean las que faltaban
+        assertEquals(1, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"type\" = 'BASELINE'", Integer.class));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM productos", Integer.class));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM reservas_stock", Integer.class));
+    }
+}
@@ -0,0 +1,111 @@
+package com.perfulandia.productservice.repository;
+
+import com.perfulandia.productservice.model.EstadoReserva;
+import com.perfulandia.productservice.model.LineaReserva;
+import com.perfulandia.productservice.model.Producto;
+import com.perfulandia.productservice.model.ReservaStock;
+import com.perfulandia.rendimiento.consultas.PruebaPlanesConsulta;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que las consultas de los repositorios usen los índices de las
+ * migraciones: captura el SQL que genera Hibernate y revisa su plan con
+ * EXPLAIN en H2 (modo MySQL, mismas migraciones que en producción; ver
+ * PruebaPlanesConsulta en perf-runtime).
+ */
+class PlanesConsultaTest extends PruebaPlanesConsulta {
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ReservaStockRepository reservaStockRepository;
+
+    private List<Long> ids;
+
+    @BeforeAll
+    void cargarDatos() {
+        // 200 productos y 50 reservas de dos líneas cada una
+        ids = productoRepository.saveAll(IntStream.range(0, 200)
+                        .mapToObj(i -> Producto.builder()
+                                .nombre("Perfume Plan " + i)
+                                .descripcion("Producto de prueba")
+                                .precio(10.0 + i)
+                                .stock(100)
+                                .build())
+                        .toList())
+                .stream().map(Producto::getId).toList();
+        reservaStockRepository.saveAll(IntStream.range(0, 50)
+                .mapToObj(i -> ReservaStock.builder()
+                        .id("plan-" + i)
+                        .estado(EstadoReserva.RESERVADA)
+                        .fecha(LocalDateTime.now())
+                        .lineas(new ArrayList<>(List.of(new LineaReserva(ids.get(i), 1), new LineaReserva(ids.get(i + 1), 2))))
+                        .build())
+                .toList());
+
+        // Estadísticas de las tablas para el optimizador, como las que InnoDB mantiene solas
+        jdbc.execute("ANALYZE");
+    }
+
+    @Test
+    @DisplayName("Testing Planes 1 - Descontar y reponer stock actualizan por la clave primaria")
+    void testDescontarYReponerStock() {
+        // Act
+        String descontar = sentenciaDe(() -> productoRepository.descontarStock(ids.get(0), 1));
+        String reponer = sentenciaDe(() -> productoRepository.reponerStock(ids.get(0), 1));
+
+        // Assert
+        assertUsaIndice("primary_key", plan(descontar));
+        assertUsaIndice("primary_key", plan(reponer));
+    }
+
+    @Test
+    @DisplayName("Testing Planes 2 - La lista de precios se lee en orden de la clave primaria, sin ordenar")
+    void testListarPrecios() {
+        // Act
+        String sql = sentenciaDe(() -> productoRepository.listarPrecios());
+
+        // Assert: recorre la clave primaria, que ya entrega las filas en el orden pedido
+        String plan = plan(sql);
+        assertUsaIndice("primary_key", plan);
+        assertTrue(plan.contains("index sorted"), () -> "Se esperaba el orden del índice en el plan:\n" + plan);
+    }
+
+    @Test
+    @DisplayName("Testing Planes 3 - Buscar precios y productos por lote de IDs usa la clave primaria")
+    void testBuscarPorLote() {
+        // Arrange
+        List<Long> lote = ids.subList(10, 14);
+
+        // Act
+        String precios = sentenciaDe(() -> productoRepository.buscarPrecios(lote));
+        String productos = sentenciaDe(() -> productoRepository.findAllById(lote));
+
+        // Assert
+        assertUsaIndice("primary_key", plan(precios));
+        assertUsaIndice("primary_key", plan(productos));
+    }
+
+    @Test
+    @DisplayName("Testing Planes 4 - Bloquear una reserva y leer sus líneas usa la clave primaria y idx_reserva_stock_lineas_reserva")
+    void testBuscarReservaParaModificar() {
+        // Act
+        List<String> sql = sentenciasDe(() -> reservaStockRepository.buscarParaModificar("plan-3"));
+
+        // Assert: una sentencia para la reserva (con bloqueo) y otra para sus líneas
+        assertEquals(2, sql.size(), () -> "Sentencias: " + sql);
+        assertUsaIndice("primary_key", plan(sql.get(0)));
+        assertUsaIndice("idx_reserva_stock_lineas_reserva", plan(sql.get(1)));
+    }
+}
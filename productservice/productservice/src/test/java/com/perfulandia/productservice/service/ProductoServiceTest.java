@@ -1,6 +1,8 @@
 package com.perfulandia.productservice.service;
 
+import com.perfulandia.productservice.model.ListaPrecios;
 import com.perfulandia.productservice.model.Producto;
+import com.perfulandia.productservice.repository.PrecioProducto;
 import com.perfulandia.productservice.repository.ProductoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -152,4 +154,37 @@ public class ProductoServiceTest {
         assertNotNull(result);
         verify(repo).save(productoMinimo);
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Testing Service 8 - Lista de precios en centavos con versión según el contenido")
+    void testListaPrecios() {
+        // Arrange
+        when(repo.listarPrecios()).thenReturn(List.of(precio(1L, 29.99), precio(4L, 10.005)));
+        when(repo.buscarPrecios(List.of(4L))).thenReturn(List.of(precio(4L, 12.0)));
+
+        // Act
+        ListaPrecios completa = service.listaPrecios(null);
+        ListaPrecios parcial = service.listaPrecios(List.of(4L));
+
+        // Assert
+        assertArrayEquals(new long[] {1L, 4L}, completa.getIds());
+        assertArrayEquals(new long[] {2999L, 1001L}, completa.getCentavos());
+        assertEquals(completa.getVersion(), service.listaPrecios(null).getVersion());
+        assertArrayEquals(new long[] {1200L}, parcial.getCentavos());
+        assertNotEquals(completa.getVersion(), parcial.getVersion());
+    }
+
+    private static PrecioProducto precio(Long id, Double precio) {
+        return new PrecioProducto() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Double getPrecio() {
+                return precio;
+            }
+        };
+    }
+}
@@ -0,0 +1,246 @@
+package com.perfulandia.pruebacarga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carga de trabajo: sesiones de compra de usuarios virtuales
+ *
+ * Antes de la carga registra los usuarios y crea el catálogo. Luego cada
+ * usuario virtual repite sesiones como las de un cliente real hasta que
+ * termina el tiempo:
+ * 1. Recorre el catálogo (GET /api/productos) y abre dos productos
+ * 2. Busca por nombre (GET /api/productos/buscar)
+ * 3. Abre su carrito y agrega entre 1 y 4 productos
+ * 4. Mira el carrito (GET .../activo/vista) y hace el checkout, que
+ *    reserva el stock y envía el email de confirmación
+ *
+ * Cada usuario virtual usa solo sus propios usuarios, por lo que dos
+ * sesiones nunca comparten un carrito.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class CargaTrabajo {
+
+    private static final String[] FAMILIAS = {"Floral", "Amaderado", "Cítrico", "Oriental", "Acuático"};
+    private static final String[] MARCAS = {"Aurora", "Brisa", "Cedro", "Duna", "Estela", "Fénix"};
+
+    private final ConfiguracionCarga configuracion;
+    private final HttpClient cliente;
+    private final ObjectMapper objectMapper;
+    private final RegistroLatencias registro;
+    private final String usuarios;
+    private final String productos;
+    private final String carritos;
+
+    private final List<Long> usuarioIds = new ArrayList<>();
+    private final List<JsonNode> catalogo = new ArrayList<>();
+    private final AtomicLong pedidos = new AtomicLong();
+    private final AtomicLong sesionesMedidas = new AtomicLong();
+
+    public CargaTrabajo(ConfiguracionCarga configuracion, HttpClient cliente, ObjectMapper objectMapper,
+                        RegistroLatencias registro, String usuarios, String productos, String carritos) {
+        this.configuracion = configuracion;
+        this.cliente = cliente;
+        this.objectMapper = objectMapper;
+        this.registro = registro;
+        this.usuarios = usuarios;
+        this.productos = productos;
+        this.carritos = carritos;
+    }
+
+    /**
+     * Registra los usuarios y crea el catálogo con stock suficiente para toda la corrida
+     */
+    public void poblar() throws IOException, InterruptedException {
+        for (int i = 0; i < configuracion.getUsuarios(); i++) {
+            JsonNode usuario = enviarJson(usuarios + "/api/usuarios", Map.of(
+                    "nombre", "Cliente " + i,
+                    "correo", "cliente" + i + "@perfulandia.test",
+                    "rol", "USUARIO"));
+            usuarioIds.add(usuario.get("id").asLong());
+        }
+        for (int i = 0; i < configuracion.getProductos(); i++) {
+            String nombre = MARCAS[i % MARCAS.length] + " " + FAMILIAS[i % FAMILIAS.length] + " " + i;
+            catalogo.add(enviarJson(productos + "/api/productos", Map.of(
+                    "nombre", nombre,
+                    "descripcion", "Eau de parfum de 100 ml, línea " + FAMILIAS[i % FAMILIAS.length],
+                    "precio", 9.99 + (i % 90),
+                    "stock", 1_000_000)));
+        }
+    }
+
+    /**
+     * Ejecuta el calentamiento y la ventana medida con todos los usuarios virtuales
+     *
+     * @throws IllegalStateException si hay más usuarios virtuales que usuarios registrados
+     */
+    public void ejecutar() throws InterruptedException {
+        int virtuales = configuracion.getUsuariosVirtuales();
+        if (virtuales > usuarioIds.size()) {
+            throw new IllegalStateException("Se necesitan al menos tantos usuarios como usuarios virtuales");
+        }
+        long inicio = System.nanoTime();
+        long finCalentamiento = inicio + TimeUnit.SECONDS.toNanos(configuracion.getCalentamientoSeg());
+        long fin = finCalentamiento + TimeUnit.SECONDS.toNanos(configuracion.getDuracionSeg());
+
+        ExecutorService hilos = Executors.newFixedThreadPool(virtuales);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int v = 0; v < virtuales; v++) {
+            // El usuario virtual v usa los usuarios v, v + virtuales, v + 2 * virtuales...
+            List<Long> propios = new ArrayList<>();
+            for (int i = v; i < usuarioIds.size(); i += virtuales) {
+                propios.add(usuarioIds.get(i));
+            }
+            tareas.add(hilos.submit(() -> {
+                for (int sesion = 0; System.nanoTime() < fin; sesion++) {
+                    sesionCompra(propios.get(sesion % propios.size()));
+                }
+                return null;
+            }));
+        }
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(Math.max(0, finCalentamiento - System.nanoTime())));
+        registro.iniciarMedicion();
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(Math.max(0, fin - System.nanoTime())));
+        registro.terminarMedicion();
+        hilos.shutdown();
+        for (Future<?> tarea : tareas) {
+            try {
+                tarea.get(60, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException("Un usuario virtual falló", e);
+            }
+        }
+    }
+
+    /**
+     * Checkouts exitosos de toda la corrida (cada uno envía un email)
+     */
+    public long getPedidos() {
+        return pedidos.get();
+    }
+
+    /**
+     * Sesiones terminadas con checkout exitoso dentro de la ventana medida
+     */
+    public long getSesionesMedidas() {
+        return sesionesMedidas.get();
+    }
+
+    /**
+     * Una sesión de compra completa; se abandona en el primer error
+     */
+    private void sesionCompra(long usuarioId) throws InterruptedException {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        boolean medida = registro.isMidiendo();
+
+        if (llamar("GET /api/productos", get(productos + "/api/productos")) == null) {
+            return;
+        }
+        for (int i = 0; i < 2; i++) {
+            JsonNode producto = catalogo.get(azar.nextInt(catalogo.size()));
+            if (llamar("GET /api/productos/{id}", get(productos + "/api/productos/" + producto.get("id").asLong())) == null) {
+                return;
+            }
+        }
+        String familia = URLEncoder.encode(FAMILIAS[azar.nextInt(FAMILIAS.length)].toLowerCase(), StandardCharsets.UTF_8);
+        if (llamar("GET /api/productos/buscar", get(productos + "/api/productos/buscar?nombre=" + familia)) == null) {
+            return;
+        }
+
+        JsonNode carrito = llamar("POST /api/carrito/usuario/{usuarioId}",
+                post(carritos + "/api/carrito/usuario/" + usuarioId));
+        if (carrito == null) {
+            return;
+        }
+        long carritoId = carrito.get("id").asLong();
+        int items = azar.nextInt(1, 5);
+        for (int i = 0; i < items; i++) {
+            JsonNode producto = catalogo.get(azar.nextInt(catalogo.size()));
+            String url = carritos + "/api/carrito/" + carritoId + "/items?productoId=" + producto.get("id").asLong()
+                    + "&cantidad=" + azar.nextInt(1, 3) + "&precioUnitario=" + producto.get("precio").asDouble();
+            if (llamar("POST /api/carrito/{carritoId}/items", post(url)) == null) {
+                return;
+            }
+        }
+        if (llamar("GET /api/carrito/usuario/{usuarioId}/activo/vista",
+                get(carritos + "/api/carrito/usuario/" + usuarioId + "/activo/vista")) == null) {
+            return;
+        }
+        if (llamar("POST /api/carrito/{carritoId}/checkout", post(carritos + "/api/carrito/" + carritoId + "/checkout")) != null) {
+            pedidos.incrementAndGet();
+            if (medida && registro.isMidiendo()) {
+                sesionesMedidas.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Envía una petición, registra su latencia y retorna el cuerpo JSON
+     *
+     * @return Cuerpo de la respuesta (vacío si no tiene) o null si falló
+     */
+    private JsonNode llamar(String endpoint, HttpRequest peticion) throws InterruptedException {
+        if (configuracion.getPausaMs() > 0) {
+            Thread.sleep(configuracion.getPausaMs());
+        }
+        long inicio = System.nanoTime();
+        try {
+            HttpResponse<byte[]> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofByteArray());
+            long nanos = System.nanoTime() - inicio;
+            boolean exitosa = respuesta.statusCode() / 100 == 2;
+            registro.registrar(endpoint, nanos, exitosa);
+            if (!exitosa) {
+                return null;
+            }
+            return respuesta.body().length == 0 ? objectMapper.nullNode() : objectMapper.readTree(respuesta.body());
+        } catch (IOException e) {
+            registro.registrar(endpoint, System.nanoTime() - inicio, false);
+            return null;
+        }
+    }
+
+    private JsonNode enviarJson(String url, Map<String, Object> cuerpo) throws IOException, InterruptedException {
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(cuerpo)))
+                .build();
+        HttpResponse<byte[]> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofByteArray());
+        if (respuesta.statusCode() != 200) {
+            throw new IllegalStateException("POST " + url + " respondió " + respuesta.statusCode());
+        }
+        return objectMapper.readTree(respuesta.body());
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(10)).GET().build();
+    }
+
+    private static HttpRequest post(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(10))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+}
@@ -0,0 +1,295 @@
+package com.perfulandia.pruebacarga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Comparación de los microservicios de usuarios y productos en la JVM y como imagen nativa
+ *
+ * Para cada servicio y modo mide el arranque (tiempo hasta la primera
+ * respuesta 200 y memoria residente en ese momento, mediana de
+ * carga.arranque.repeticiones) y luego, en otro arranque, el throughput
+ * y los percentiles de una carga de lecturas sin pausa (por ID, en lote
+ * y, en productos, la lista de precios) con carga.usuarios-virtuales
+ * hilos, además de la memoria residente al terminar:
+ *
+ * - jvm: el build del perfil produccion (Spring AOT y archivo CDS), el
+ *   mejor arranque en la JVM, como lo inicia arrancar-produccion.sh.
+ * - nativo: el ejecutable del perfil native, con H2 dentro de la imagen
+ *   (mvn -Pnative,h2 native:compile). Requiere GraalVM: JAVA_HOME (o el
+ *   Maven de carga.maven) debe apuntar a un JDK de GraalVM con native-image.
+ *
+ * La carga se calienta carga.calentamiento-seg antes de medir: el
+ * ejecutable nativo no tiene JIT, así que la JVM suele alcanzarlo o
+ * superarlo en throughput una vez compilado el código más usado.
+ *
+ * Uso (desde este directorio):
+ * mvn compile exec:java -Dexec.mainClass=com.perfulandia.pruebacarga.ComparacionNativa
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class ComparacionNativa {
+
+    /**
+     * Servicios que tienen perfil native
+     */
+    private static final List<String> SERVICIOS = List.of("usuarioservice", "productservice");
+
+    /**
+     * IDs de cada consulta en lote y de la lista de precios
+     */
+    private static final int IDS_POR_LOTE = 10;
+
+    public static void main(String[] args) throws Exception {
+        new ComparacionNativa().ejecutar(ConfiguracionCarga.desdePropiedades());
+    }
+
+    /**
+     * Construye los servicios en los dos modos, los mide y guarda el reporte
+     *
+     * @param configuracion Parámetros de la corrida
+     * @return Resultados de la comparación
+     */
+    public ReporteNativo ejecutar(ConfiguracionCarga configuracion) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT);
+        HttpClient cliente = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        Path logs = configuracion.getSalidaNativo().toAbsolutePath().getParent().resolve("nativo");
+        Files.createDirectories(logs);
+
+        List<ServicioLocal> servicios = PruebaCarga.servicios(configuracion).stream()
+                .filter(servicio -> SERVICIOS.contains(servicio.getNombre()))
+                .toList();
+        Thread apagado = new Thread(() -> detener(servicios));
+        Runtime.getRuntime().addShutdownHook(apagado);
+        try {
+            for (ServicioLocal servicio : servicios) {
+                System.out.println("Compilando " + servicio.getNombre() + " (perfil produccion y ejecutable nativo)...");
+                servicio.preparar(configuracion, logs);
+                servicio.construirProduccion(configuracion, logs);
+                servicio.construirNativo(configuracion, logs);
+            }
+            List<ResultadoNativo> resultados = new ArrayList<>();
+            for (ServicioLocal servicio : servicios) {
+                System.out.println("Creando el archivo CDS de " + servicio.getNombre() + "...");
+                servicio.entrenarCds(configuracion, logs);
+                resultados.add(medir(servicio, "jvm", () -> servicio.iniciarProduccionCds(configuracion, logs),
+                        configuracion, cliente, objectMapper));
+                resultados.add(medir(servicio, "nativo", () -> servicio.iniciarNativo(configuracion, logs),
+                        configuracion, cliente, objectMapper));
+            }
+
+            ReporteNativo reporte = ReporteNativo.builder()
+                    .fecha(LocalDateTime.now())
+                    .opcionesJvm(configuracion.getOpcionesJvm())
+                    .repeticiones(configuracion.getRepeticionesArranque())
+                    .usuariosVirtuales(configuracion.getUsuariosVirtuales())
+                    .calentamientoSeg(configuracion.getCalentamientoSeg())
+                    .duracionSeg(configuracion.getDuracionSeg())
+                    .resultados(resultados)
+                    .build();
+            imprimir(reporte);
+            objectMapper.writeValue(configuracion.getSalidaNativo().toFile(), reporte);
+            System.out.println("Resultados guardados en " + configuracion.getSalidaNativo().toAbsolutePath());
+            return reporte;
+        } finally {
+            detener(servicios);
+            Runtime.getRuntime().removeShutdownHook(apagado);
+        }
+    }
+
+    /**
+     * Inicia el proceso del servicio en un modo (sin esperar a que esté listo)
+     */
+    private interface Inicio {
+        void iniciar() throws IOException;
+    }
+
+    /**
+     * Mide los arranques de un servicio en un modo y luego su throughput con carga
+     */
+    private ResultadoNativo medir(ServicioLocal servicio, String modo, Inicio inicio, ConfiguracionCarga configuracion,
+                                  HttpClient cliente, ObjectMapper objectMapper) throws Exception {
+        List<Long> tiempos = new ArrayList<>();
+        List<Long> memorias = new ArrayList<>();
+        for (int i = 0; i < configuracion.getRepeticionesArranque(); i++) {
+            inicio.iniciar();
+            MedicionArranque.arrancar(servicio, cliente, configuracion, tiempos, memorias);
+        }
+
+        System.out.printf("Carga de %s (%s): %d usuarios virtuales, %d s de calentamiento y %d s medidos%n",
+                servicio.getNombre(), modo, configuracion.getUsuariosVirtuales(),
+                configuracion.getCalentamientoSeg(), configuracion.getDuracionSeg());
+        inicio.iniciar();
+        try {
+            servicio.esperarListo(cliente, configuracion.getArranqueSeg());
+            List<Long> ids = poblar(servicio, configuracion, cliente, objectMapper);
+            RegistroLatencias registro = new RegistroLatencias();
+            cargar(servicio, ids, configuracion, cliente, registro);
+            long memoriaCarga = servicio.memoriaResidenteKb();
+
+            List<ResultadoEndpoint> endpoints = registro.resultados();
+            return ResultadoNativo.builder()
+                    .servicio(servicio.getNombre())
+                    .modo(modo)
+                    .primeraPeticionMs(MedicionArranque.mediana(tiempos))
+                    .memoriaArranqueMb(MedicionArranque.megabytes(memorias))
+                    .memoriaCargaMb(MedicionArranque.megabytes(List.of(memoriaCarga)))
+                    .throughput(Math.round(endpoints.stream().mapToDouble(ResultadoEndpoint::getThroughput).sum() * 10) / 10.0)
+                    .endpoints(endpoints)
+                    .build();
+        } finally {
+            servicio.detener();
+        }
+    }
+
+    /**
+     * Crea los usuarios o los productos que lee la carga
+     *
+     * @return IDs creados
+     */
+    private static List<Long> poblar(ServicioLocal servicio, ConfiguracionCarga configuracion, HttpClient cliente,
+                                     ObjectMapper objectMapper) throws IOException, InterruptedException {
+        boolean usuarios = esUsuarios(servicio);
+        int cantidad = usuarios ? configuracion.getUsuarios() : configuracion.getProductos();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            Map<String, Object> cuerpo = usuarios
+                    ? Map.of("nombre", "Cliente " + i, "correo", "cliente" + i + "@perfulandia.test", "rol", "USUARIO")
+                    : Map.of("nombre", "Perfume " + i, "descripcion", "Eau de parfum de 100 ml", "precio", 9.99 + (i % 90), "stock", 1000);
+            HttpRequest peticion = HttpRequest.newBuilder(URI.create(servicio.url() + ruta(servicio)))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(cuerpo)))
+                    .build();
+            HttpResponse<byte[]> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofByteArray());
+            if (respuesta.statusCode() != 200) {
+                throw new IllegalStateException("POST " + peticion.uri() + " respondió " + respuesta.statusCode());
+            }
+            JsonNode creado = objectMapper.readTree(respuesta.body());
+            ids.add(creado.get("id").asLong());
+        }
+        return ids;
+    }
+
+    /**
+     * Ejecuta el calentamiento y la ventana medida con todos los usuarios virtuales
+     */
+    private static void cargar(ServicioLocal servicio, List<Long> ids, ConfiguracionCarga configuracion,
+                               HttpClient cliente, RegistroLatencias registro) throws InterruptedException {
+        long finCalentamiento = System.nanoTime() + TimeUnit.SECONDS.toNanos(configuracion.getCalentamientoSeg());
+        long fin = finCalentamiento + TimeUnit.SECONDS.toNanos(configuracion.getDuracionSeg());
+        String base = servicio.url() + ruta(servicio);
+
+        ExecutorService hilos = Executors.newFixedThreadPool(configuracion.getUsuariosVirtuales());
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int v = 0; v < configuracion.getUsuariosVirtuales(); v++) {
+            tareas.add(hilos.submit(() -> {
+                ThreadLocalRandom azar = ThreadLocalRandom.current();
+                while (System.nanoTime() < fin) {
+                    String lote = azar.ints(IDS_POR_LOTE, 0, ids.size())
+                            .mapToObj(i -> String.valueOf(ids.get(i)))
+                            .collect(Collectors.joining(","));
+                    llamar(cliente, registro, "GET " + ruta(servicio) + "/{id}", base + "/" + ids.get(azar.nextInt(ids.size())));
+                    llamar(cliente, registro, "GET " + ruta(servicio) + "/lote", base + "/lote?ids=" + lote);
+                    if (!esUsuarios(servicio)) {
+                        llamar(cliente, registro, "GET /api/productos/precios", base + "/precios?ids=" + lote);
+                    }
+                }
+                return null;
+            }));
+        }
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(Math.max(0, finCalentamiento - System.nanoTime())));
+        registro.iniciarMedicion();
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(Math.max(0, fin - System.nanoTime())));
+        registro.terminarMedicion();
+        hilos.shutdown();
+        for (Future<?> tarea : tareas) {
+            try {
+                tarea.get(60, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException("Un usuario virtual falló", e);
+            }
+        }
+    }
+
+    /**
+     * Envía un GET y registra su latencia (error si no responde 2xx)
+     */
+    private static void llamar(HttpClient cliente, RegistroLatencias registro, String endpoint, String url)
+            throws InterruptedException {
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(10)).GET().build();
+        long inicio = System.nanoTime();
+        try {
+            int estado = cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+            registro.registrar(endpoint, System.nanoTime() - inicio, estado / 100 == 2);
+        } catch (IOException e) {
+            registro.registrar(endpoint, System.nanoTime() - inicio, false);
+        }
+    }
+
+    private static boolean esUsuarios(ServicioLocal servicio) {
+        return servicio.getNombre().equals("usuarioservice");
+    }
+
+    private static String ruta(ServicioLocal servicio) {
+        return esUsuarios(servicio) ? "/api/usuarios" : "/api/productos";
+    }
+
+    private static void imprimir(ReporteNativo reporte) {
+        System.out.printf("%n%-16s %-7s %13s %11s %11s %9s%n",
+                "Servicio", "Modo", "1ª petición ms", "MB arranque", "MB carga", "Pet/s");
+        for (ResultadoNativo resultado : reporte.getResultados()) {
+            System.out.printf("%-16s %-7s %13.0f %11s %11s %9.1f%n", resultado.getServicio(), resultado.getModo(),
+                    resultado.getPrimeraPeticionMs(), MedicionArranque.memoria(resultado.getMemoriaArranqueMb()),
+                    MedicionArranque.memoria(resultado.getMemoriaCargaMb()), resultado.getThroughput());
+        }
+        System.out.printf("%n%-16s %-7s %-28s %10s %7s %9s %9s %9s%n",
+                "Servicio", "Modo", "Endpoint", "Peticiones", "Errores", "Pet/s", "p50 ms", "p99 ms");
+        for (ResultadoNativo resultado : reporte.getResultados()) {
+            for (ResultadoEndpoint endpoint : resultado.getEndpoints()) {
+                System.out.printf("%-16s %-7s %-28s %10d %7d %9.1f %9.2f %9.2f%n", resultado.getServicio(),
+                        resultado.getModo(), endpoint.getEndpoint(), endpoint.getPeticiones(), endpoint.getErrores(),
+                        endpoint.getThroughput(), endpoint.getP50Ms(), endpoint.getP99Ms());
+            }
+        }
+        System.out.println();
+    }
+
+    private static void detener(List<ServicioLocal> servicios) {
+        for (ServicioLocal servicio : servicios) {
+            try {
+                servicio.detener();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.perfulandia.pruebacarga;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.nio.file.Path;
+
+/**
+ * Parámetros de la prueba de carga
+ *
+ * Se leen de propiedades del sistema (-Dcarga.xxx=valor) con valores por
+ * defecto pensados para una corrida corta en un equipo de desarrollo.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Value // Genera getters, equals, hashCode y toString para una clase inmutable
+@Builder // Implementa el patrón Builder para crear instancias
+public class ConfiguracionCarga {
+
+    /**
+     * Directorio raíz del repositorio (donde están los cuatro microservicios)
+     */
+    Path raiz;
+
+    /**
+     * Comando de Maven usado para compilar los servicios y obtener su classpath
+     */
+    String maven;
+
+    /**
+     * Si es true, Maven se ejecuta sin conexión (-o)
+     */
+    boolean offline;
+
+    /**
+     * Opciones de la JVM de cada servicio (el ejecutable nativo acepta las de memoria, como -Xmx)
+     */
+    String opcionesJvm;
+
+    /**
+     * Puerto base: usuarios en base+1, productos en base+2, emails en base+3 y carritos en base+4
+     */
+    int puertoBase;
+
+    /**
+     * Puerto del servidor SMTP local
+     */
+    int puertoSmtp;
+
+    /**
+     * Plazo para que cada servicio responda después de iniciarlo
+     */
+    int arranqueSeg;
+
+    /**
+     * Usuarios virtuales (hilos) que ejecutan sesiones de compra en paralelo
+     */
+    int usuariosVirtuales;
+
+    /**
+     * Segundos de carga que se descartan antes de medir (JIT, cachés, pools)
+     */
+    int calentamientoSeg;
+
+    /**
+     * Segundos de carga medidos
+     */
+    int duracionSeg;
+
+    /**
+     * Pausa entre peticiones de una sesión (tiempo de lectura del usuario)
+     */
+    int pausaMs;
+
+    /**
+     * Usuarios registrados antes de la carga
+     */
+    int usuarios;
+
+    /**
+     * Productos del catálogo creados antes de la carga
+     */
+    int productos;
+
+    /**
+     * Latencia p99 máxima aceptada para cualquier endpoint (0 = sin límite)
+     */
+    double umbralP99Ms;
+
+    /**
+     * Fracción máxima de peticiones con error aceptada (por ejemplo 0.01)
+     */
+    double umbralErrores;
+
+    /**
+     * Resultados de una corrida anterior con los que se compara el p99 (opcional)
+     */
+    Path lineaBase;
+
+    /**
+     * Aumento relativo del p99 aceptado respecto de la línea base (por ejemplo 0.25)
+     */
+    double tolerancia;
+
+    /**
+     * Archivo donde se guardan los resultados en JSON
+     */
+    Path salida;
+
+    /**
+     * Arranques medidos de cada servicio en cada modo (ver MedicionArranque)
+     */
+    int repeticionesArranque;
+
+    /**
+     * Archivo donde se guardan los resultados de la medición de arranque en JSON
+     */
+    Path salidaArranque;
+
+    /**
+     * Archivo donde se guardan los resultados de la comparación con la imagen nativa en JSON
+     */
+    Path salidaNativo;
+
+    /**
+     * Lee la configuración de las propiedades del sistema
+     *
+     * @return Configuración con los valores indicados o los por defecto
+     */
+    public static ConfiguracionCarga desdePropiedades() {
+        String lineaBase = System.getProperty("carga.linea-base", "");
+        return ConfiguracionCarga.builder()
+                .raiz(Path.of(System.getProperty("carga.raiz", "..")).toAbsolutePath().normalize())
+                .maven(System.getProperty("carga.maven", "mvn"))
+                .offline(Boolean.getBoolean("carga.offline"))
+                .opcionesJvm(System.getProperty("carga.jvm", "-Xmx512m"))
+                .puertoBase(Integer.getInteger("carga.puerto-base", 18080))
+                .puertoSmtp(Integer.getInteger("carga.puerto-smtp", 13025))
+                .arranqueSeg(Integer.getInteger("carga.arranque-seg", 180))
+                .usuariosVirtuales(Integer.getInteger("carga.usuarios-virtuales", 8))
+                .calentamientoSeg(Integer.getInteger("carga.calentamiento-seg", 10))
+                .duracionSeg(Integer.getInteger("carga.duracion-seg", 30))
+                .pausaMs(Integer.getInteger("carga.pausa-ms", 0))
+                .usuarios(Integer.getInteger("carga.usuarios", 200))
+                .productos(Integer.getInteger("carga.productos", 300))
+                .umbralP99Ms(Double.parseDouble(System.getProperty("carga.umbral.p99-ms", "0")))
+                .umbralErrores(Double.parseDouble(System.getProperty("carga.umbral.errores", "0.01")))
+                .lineaBase(lineaBase.isBlank() ? null : Path.of(lineaBase))
+                .tolerancia(Double.parseDouble(System.getProperty("carga.tolerancia", "0.25")))
+                .salida(Path.of(System.getProperty("carga.salida", "target/carga-resultados.json")))
+                .repeticionesArranque(Integer.getInteger("carga.arranque.repeticiones", 3))
+                .salidaArranque(Path.of(System.getProperty("carga.arranque.salida", "target/arranque-resultados.json")))
+                .salidaNativo(Path.of(System.getProperty("carga.nativo.salida", "target/nativo-resultados.json")))
+                .build();
+    }
+}
@@ -0,0 +1,185 @@
+package com.perfulandia.pruebacarga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Medición del arranque de los cuatro microservicios antes y después del build de producción
+ *
+ * Para cada servicio mide el tiempo desde que se inicia el proceso hasta
+ * la primera respuesta 200 y la memoria residente (RSS) en ese momento:
+ *
+ * - Antes: como lo inicia la prueba de carga (target/classes y el
+ *   classpath de Maven, con DevTools en el classpath), sin AOT ni CDS.
+ * - Después: el build del perfil produccion (mvn -Pproduccion package),
+ *   con el contexto procesado por Spring AOT y un archivo CDS creado por
+ *   un arranque de entrenamiento con los mismos argumentos, igual que
+ *   arrancar-produccion.sh.
+ *
+ * Los servicios se inician de a uno, para que no compitan por la CPU,
+ * sobre H2 como en la prueba de carga. Cada modo se repite
+ * carga.arranque.repeticiones veces y se reporta la mediana.
+ *
+ * Uso (desde este directorio):
+ * mvn compile exec:java -Dexec.mainClass=com.perfulandia.pruebacarga.MedicionArranque
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class MedicionArranque {
+
+    public static void main(String[] args) throws Exception {
+        new MedicionArranque().ejecutar(ConfiguracionCarga.desdePropiedades());
+    }
+
+    /**
+     * Construye los servicios, mide sus arranques y guarda el reporte
+     *
+     * @param configuracion Parámetros de la corrida
+     * @return Resultados de la medición
+     */
+    public ReporteArranque ejecutar(ConfiguracionCarga configuracion) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT);
+        HttpClient cliente = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        Path logs = configuracion.getSalidaArranque().toAbsolutePath().getParent().resolve("arranque");
+        Files.createDirectories(logs);
+
+        List<ServicioLocal> servicios = PruebaCarga.servicios(configuracion);
+        Thread apagado = new Thread(() -> detener(servicios));
+        Runtime.getRuntime().addShutdownHook(apagado);
+        try {
+            for (ServicioLocal servicio : servicios) {
+                System.out.println("Compilando " + servicio.getNombre() + " (con y sin el perfil produccion)...");
+                servicio.preparar(configuracion, logs);
+                servicio.construirProduccion(configuracion, logs);
+            }
+            List<ResultadoArranque> resultados = new ArrayList<>();
+            for (ServicioLocal servicio : servicios) {
+                resultados.add(medir(servicio, configuracion, cliente, logs));
+            }
+
+            ReporteArranque reporte = ReporteArranque.builder()
+                    .fecha(LocalDateTime.now())
+                    .opcionesJvm(configuracion.getOpcionesJvm())
+                    .repeticiones(configuracion.getRepeticionesArranque())
+                    .servicios(resultados)
+                    .build();
+            imprimir(reporte);
+            objectMapper.writeValue(configuracion.getSalidaArranque().toFile(), reporte);
+            System.out.println("Resultados guardados en " + configuracion.getSalidaArranque().toAbsolutePath());
+            return reporte;
+        } finally {
+            detener(servicios);
+            Runtime.getRuntime().removeShutdownHook(apagado);
+        }
+    }
+
+    /**
+     * Mide los arranques de un servicio en los dos modos
+     */
+    private ResultadoArranque medir(ServicioLocal servicio, ConfiguracionCarga configuracion,
+                                    HttpClient cliente, Path logs) throws Exception {
+        List<Long> tiemposAntes = new ArrayList<>();
+        List<Long> memoriasAntes = new ArrayList<>();
+        for (int i = 0; i < configuracion.getRepeticionesArranque(); i++) {
+            servicio.iniciar(configuracion, logs);
+            arrancar(servicio, cliente, configuracion, tiemposAntes, memoriasAntes);
+        }
+
+        System.out.println("Creando el archivo CDS de " + servicio.getNombre() + "...");
+        servicio.entrenarCds(configuracion, logs);
+
+        List<Long> tiemposDespues = new ArrayList<>();
+        List<Long> memoriasDespues = new ArrayList<>();
+        for (int i = 0; i < configuracion.getRepeticionesArranque(); i++) {
+            servicio.iniciarProduccionCds(configuracion, logs);
+            arrancar(servicio, cliente, configuracion, tiemposDespues, memoriasDespues);
+        }
+
+        ResultadoArranque resultado = ResultadoArranque.builder()
+                .servicio(servicio.getNombre())
+                .primeraPeticionAntesMs(mediana(tiemposAntes))
+                .primeraPeticionDespuesMs(mediana(tiemposDespues))
+                .memoriaAntesMb(megabytes(memoriasAntes))
+                .memoriaDespuesMb(megabytes(memoriasDespues))
+                .build();
+        System.out.printf("%s: %.0f ms -> %.0f ms%n", servicio.getNombre(),
+                resultado.getPrimeraPeticionAntesMs(), resultado.getPrimeraPeticionDespuesMs());
+        return resultado;
+    }
+
+    /**
+     * Espera la primera respuesta del servicio recién iniciado, anota tiempo y memoria y lo detiene
+     */
+    static void arrancar(ServicioLocal servicio, HttpClient cliente, ConfiguracionCarga configuracion,
+                        List<Long> tiemposMs, List<Long> memoriasKb) throws Exception {
+        try {
+            tiemposMs.add(servicio.esperarListo(cliente, configuracion.getArranqueSeg()));
+            memoriasKb.add(servicio.memoriaResidenteKb());
+        } finally {
+            servicio.detener();
+        }
+    }
+
+    /**
+     * Mediana de los valores (el promedio de los dos centrales si la cantidad es par)
+     */
+    static double mediana(List<Long> valores) {
+        List<Long> ordenados = valores.stream().sorted().toList();
+        int medio = ordenados.size() / 2;
+        return ordenados.size() % 2 == 1
+                ? ordenados.get(medio)
+                : (ordenados.get(medio - 1) + ordenados.get(medio)) / 2.0;
+    }
+
+    /**
+     * Mediana en MB de memorias en KB, o -1 si alguna no se pudo leer
+     */
+    static double megabytes(List<Long> memoriasKb) {
+        if (memoriasKb.contains(-1L)) {
+            return -1;
+        }
+        return Math.round(mediana(memoriasKb) / 1024 * 10) / 10.0;
+    }
+
+    private static void imprimir(ReporteArranque reporte) {
+        System.out.printf("%n%-16s %12s %12s %8s %11s %11s%n",
+                "Servicio", "Antes ms", "Después ms", "Cambio", "Antes MB", "Después MB");
+        for (ResultadoArranque resultado : reporte.getServicios()) {
+            System.out.printf("%-16s %12.0f %12.0f %7.0f%% %11s %11s%n", resultado.getServicio(),
+                    resultado.getPrimeraPeticionAntesMs(), resultado.getPrimeraPeticionDespuesMs(),
+                    (resultado.getPrimeraPeticionDespuesMs() / resultado.getPrimeraPeticionAntesMs() - 1) * 100,
+                    memoria(resultado.getMemoriaAntesMb()), memoria(resultado.getMemoriaDespuesMb()));
+        }
+        System.out.println();
+    }
+
+    static String memoria(double megabytes) {
+        return megabytes < 0 ? "n/d" : String.format("%.1f", megabytes);
+    }
+
+    private static void detener(List<ServicioLocal> servicios) {
+        for (ServicioLocal servicio : servicios) {
+            try {
+                servicio.detener();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
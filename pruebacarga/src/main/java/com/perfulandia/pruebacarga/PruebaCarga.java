@@ -0,0 +1,267 @@
+package com.perfulandia.pruebacarga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Prueba de carga de extremo a extremo de los cuatro microservicios
+ *
+ * Levanta usuarios, productos, emails y carritos como procesos locales
+ * sobre bases H2 en memoria en modo MySQL (las mismas migraciones que en
+ * producción) y un servidor SMTP en este proceso en lugar de Gmail, por
+ * lo que funciona sin red ni MySQL. Luego genera sesiones de compra (ver
+ * CargaTrabajo), reporta throughput y percentiles por endpoint y guarda
+ * los resultados en JSON.
+ *
+ * Sirve como control de regresión: termina con error si la tasa de
+ * errores o el p99 de algún endpoint superan los umbrales, si el p99
+ * empeoró respecto de una corrida anterior (carga.linea-base) o si no
+ * llegaron todos los emails de confirmación.
+ *
+ * Uso (desde este directorio): mvn compile exec:java [-Dcarga.duracion-seg=60 ...]
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class PruebaCarga {
+
+    /**
+     * Mínimo aumento absoluto del p99 que se considera regresión (evita falsos positivos en endpoints de 1 ms)
+     */
+    private static final double MINIMO_REGRESION_MS = 2.0;
+
+    /**
+     * Espera máxima para que lleguen los emails después de la carga
+     */
+    private static final Duration ESPERA_EMAILS = Duration.ofSeconds(60);
+
+    public static void main(String[] args) throws Exception {
+        ConfiguracionCarga configuracion = ConfiguracionCarga.desdePropiedades();
+        ReporteCarga reporte = new PruebaCarga().ejecutar(configuracion);
+        List<String> problemas = verificar(configuracion, reporte);
+        if (!problemas.isEmpty()) {
+            throw new IllegalStateException("La prueba de carga no pasó:\n- " + String.join("\n- ", problemas));
+        }
+        System.out.println("La prueba de carga pasó");
+    }
+
+    /**
+     * Levanta los servicios, ejecuta la carga y guarda el reporte
+     *
+     * @param configuracion Parámetros de la corrida
+     * @return Resultados de la corrida
+     */
+    public ReporteCarga ejecutar(ConfiguracionCarga configuracion) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT);
+        HttpClient cliente = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        Path logs = configuracion.getSalida().toAbsolutePath().getParent().resolve("carga");
+        Files.createDirectories(logs);
+
+        GreenMail smtp = new GreenMail(new ServerSetup(configuracion.getPuertoSmtp(), "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+        List<ServicioLocal> servicios = servicios(configuracion);
+        Thread apagado = new Thread(() -> detener(servicios, smtp));
+        Runtime.getRuntime().addShutdownHook(apagado);
+        try {
+            smtp.start();
+            for (ServicioLocal servicio : servicios) {
+                System.out.println("Compilando " + servicio.getNombre() + "...");
+                servicio.preparar(configuracion, logs);
+            }
+            for (ServicioLocal servicio : servicios) {
+                servicio.iniciar(configuracion, logs);
+            }
+            for (ServicioLocal servicio : servicios) {
+                servicio.esperarListo(cliente, configuracion.getArranqueSeg());
+                System.out.println(servicio.getNombre() + " listo en " + servicio.url());
+            }
+
+            RegistroLatencias registro = new RegistroLatencias();
+            CargaTrabajo carga = new CargaTrabajo(configuracion, cliente, objectMapper, registro,
+                    servicios.get(0).url(), servicios.get(1).url(), servicios.get(3).url());
+            carga.poblar();
+            System.out.printf("Carga: %d usuarios virtuales, %d s de calentamiento y %d s medidos%n",
+                    configuracion.getUsuariosVirtuales(), configuracion.getCalentamientoSeg(), configuracion.getDuracionSeg());
+            carga.ejecutar();
+
+            // Los emails salen de la cola del servicio de emails después de responder el checkout
+            long limite = System.nanoTime() + ESPERA_EMAILS.toNanos();
+            while (smtp.getReceivedMessages().length < carga.getPedidos() && System.nanoTime() < limite) {
+                Thread.sleep(200);
+            }
+
+            ReporteCarga reporte = ReporteCarga.builder()
+                    .fecha(LocalDateTime.now())
+                    .usuariosVirtuales(configuracion.getUsuariosVirtuales())
+                    .duracionSeg(Math.round(registro.duracionSeg() * 10) / 10.0)
+                    .sesiones(carga.getSesionesMedidas())
+                    .pedidos(carga.getPedidos())
+                    .emailsRecibidos(smtp.getReceivedMessages().length)
+                    .endpoints(registro.resultados())
+                    .build();
+            imprimir(reporte);
+            objectMapper.writeValue(configuracion.getSalida().toFile(), reporte);
+            System.out.println("Resultados guardados en " + configuracion.getSalida().toAbsolutePath());
+            return reporte;
+        } finally {
+            detener(servicios, smtp);
+            Runtime.getRuntime().removeShutdownHook(apagado);
+        }
+    }
+
+    /**
+     * Servicios en orden de inicio: usuarios, productos, emails y carritos
+     */
+    static List<ServicioLocal> servicios(ConfiguracionCarga configuracion) {
+        Path raiz = configuracion.getRaiz();
+        int base = configuracion.getPuertoBase();
+        String usuarios = "http://localhost:" + (base + 1);
+        String productos = "http://localhost:" + (base + 2);
+        String emails = "http://localhost:" + (base + 3);
+        int smtp = configuracion.getPuertoSmtp();
+
+        ServicioLocal usuarioservice = new ServicioLocal("usuarioservice", raiz.resolve("usuarioservice/usuarioservice"),
+                "com.perfulandia.usuarioservice.UsuarioserviceApplication", base + 1, "/api/usuarios/lote?ids=0",
+                conBase(h2("usuarios"), List.of("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")));
+        ServicioLocal productservice = new ServicioLocal("productservice", raiz.resolve("productservice/productservice"),
+                "com.perfulandia.productservice.ProductserviceApplication", base + 2, "/api/productos/lote?ids=0",
+                conBase(h2("productos"), List.of("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")));
+        ServicioLocal emailservice = new ServicioLocal("emailservice", raiz.resolve("emailservice/emailservice"),
+                "com.perfulandia.emailservice.EmailserviceApplication", base + 3, "/api/email/status",
+                conBase(List.of(), List.of(
+                        "--spring.mail.host=127.0.0.1",
+                        "--spring.mail.port=" + smtp,
+                        "--spring.mail.username=",
+                        "--spring.mail.password=",
+                        "--spring.mail.properties.mail.smtp.auth=false",
+                        "--spring.mail.properties.mail.smtp.starttls.enable=false",
+                        "--spring.mail.properties.mail.smtp.socketFactory.port=" + smtp,
+                        "--email.clientes.usuarios.url=" + usuarios,
+                        "--email.clientes.productos.url=" + productos,
+                        // Los límites por remitente y dominio son los de Gmail, no los de la prueba
+                        "--email.limite.remitente.tasa=1000000",
+                        "--email.limite.remitente.rafaga=1000000",
+                        "--email.limite.dominio.tasa=1000000",
+                        "--email.limite.dominio.rafaga=1000000")));
+        ServicioLocal carritoservice = new ServicioLocal("carritoservice", raiz.resolve("carritoservice"),
+                "com.perfulandia.carritoservice.CarritoserviceApplication", base + 4, "/api/carrito/admin/concurrencia",
+                conBase(h2("carritos"), List.of(
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--carrito.clientes.productos.url=" + productos,
+                        "--carrito.clientes.email.url=" + emails,
+                        "--carrito.expiracion.intervalo-seg=0")));
+        return List.of(usuarioservice, productservice, emailservice, carritoservice);
+    }
+
+    /**
+     * Propiedades de una base H2 en memoria en modo MySQL
+     */
+    private static List<String> h2(String nombre) {
+        return List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + nombre + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=");
+    }
+
+    /**
+     * Agrega las propiedades comunes: sin SQL en la consola y log solo de advertencias
+     */
+    private static List<String> conBase(List<String> baseDatos, List<String> propias) {
+        List<String> argumentos = new ArrayList<>(baseDatos);
+        argumentos.addAll(propias);
+        argumentos.add("--spring.jpa.show-sql=false");
+        argumentos.add("--logging.level.root=WARN");
+        return argumentos;
+    }
+
+    /**
+     * Compara el reporte con los umbrales y la línea base
+     *
+     * @return Problemas encontrados (vacía si la corrida pasó)
+     */
+    static List<String> verificar(ConfiguracionCarga configuracion, ReporteCarga reporte) throws IOException {
+        List<String> problemas = new ArrayList<>();
+        if (reporte.getSesiones() == 0) {
+            problemas.add("ninguna sesión de compra terminó con checkout en la ventana medida");
+        }
+        if (reporte.getEmailsRecibidos() < reporte.getPedidos()) {
+            problemas.add("llegaron " + reporte.getEmailsRecibidos() + " emails de " + reporte.getPedidos() + " pedidos");
+        }
+        for (ResultadoEndpoint resultado : reporte.getEndpoints()) {
+            if (resultado.tasaErrores() > configuracion.getUmbralErrores()) {
+                problemas.add(String.format("%s: %.2f%% de errores (máximo %.2f%%)", resultado.getEndpoint(),
+                        resultado.tasaErrores() * 100, configuracion.getUmbralErrores() * 100));
+            }
+            if (configuracion.getUmbralP99Ms() > 0 && resultado.getP99Ms() > configuracion.getUmbralP99Ms()) {
+                problemas.add(String.format("%s: p99 de %.2f ms (máximo %.2f ms)", resultado.getEndpoint(),
+                        resultado.getP99Ms(), configuracion.getUmbralP99Ms()));
+            }
+        }
+        if (configuracion.getLineaBase() != null) {
+            ReporteCarga base = new ObjectMapper().registerModule(new JavaTimeModule())
+                    .readValue(configuracion.getLineaBase().toFile(), ReporteCarga.class);
+            Map<String, ResultadoEndpoint> anteriores = base.getEndpoints().stream()
+                    .collect(Collectors.toMap(ResultadoEndpoint::getEndpoint, Function.identity()));
+            for (ResultadoEndpoint resultado : reporte.getEndpoints()) {
+                ResultadoEndpoint anterior = anteriores.get(resultado.getEndpoint());
+                if (anterior != null && esRegresion(anterior.getP99Ms(), resultado.getP99Ms(), configuracion.getTolerancia())) {
+                    problemas.add(String.format("%s: p99 subió de %.2f ms a %.2f ms", resultado.getEndpoint(),
+                            anterior.getP99Ms(), resultado.getP99Ms()));
+                }
+            }
+        }
+        return problemas;
+    }
+
+    /**
+     * Indica si el p99 empeoró más que la tolerancia y más que el mínimo absoluto
+     */
+    static boolean esRegresion(double anteriorMs, double actualMs, double tolerancia) {
+        return actualMs > anteriorMs * (1 + tolerancia) && actualMs - anteriorMs >= MINIMO_REGRESION_MS;
+    }
+
+    private static void imprimir(ReporteCarga reporte) {
+        System.out.printf("%n%-52s %9s %7s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Peticiones", "Errores", "Pet/s", "p50 ms", "p90 ms", "p99 ms", "Máx ms");
+        for (ResultadoEndpoint resultado : reporte.getEndpoints()) {
+            System.out.printf("%-52s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", resultado.getEndpoint(),
+                    resultado.getPeticiones(), resultado.getErrores(), resultado.getThroughput(), resultado.getP50Ms(),
+                    resultado.getP90Ms(), resultado.getP99Ms(), resultado.getMaximoMs());
+        }
+        System.out.printf("%nSesiones completas: %d en %.1f s (%.1f por segundo); pedidos: %d; emails recibidos: %d%n%n",
+                reporte.getSesiones(), reporte.getDuracionSeg(), reporte.getSesiones() / Math.max(reporte.getDuracionSeg(), 0.1),
+                reporte.getPedidos(), reporte.getEmailsRecibidos());
+    }
+
+    private static void detener(List<ServicioLocal> servicios, GreenMail smtp) {
+        for (ServicioLocal servicio : servicios) {
+            try {
+                servicio.detener();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        smtp.stop();
+    }
+}
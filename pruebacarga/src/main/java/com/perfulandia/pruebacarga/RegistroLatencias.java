@@ -0,0 +1,140 @@
+package com.perfulandia.pruebacarga;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registra la latencia y el resultado de cada petición, por endpoint
+ *
+ * Guarda todas las muestras de la ventana medida (unos pocos MB para una
+ * corrida de minutos) para calcular percentiles exactos: la prueba se usa
+ * para comparar corridas y un histograma con buckets agregaría un error
+ * del mismo orden que las regresiones que se buscan. Las muestras
+ * registradas antes de llamar a iniciarMedicion se descartan.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class RegistroLatencias {
+
+    private final Map<String, Muestras> porEndpoint = new ConcurrentHashMap<>();
+    private volatile boolean midiendo;
+    private volatile long inicioNanos;
+    private volatile long finNanos;
+
+    /**
+     * Comienza la ventana medida (termina el calentamiento)
+     */
+    public void iniciarMedicion() {
+        inicioNanos = System.nanoTime();
+        midiendo = true;
+    }
+
+    /**
+     * Termina la ventana medida; las muestras posteriores se descartan
+     */
+    public void terminarMedicion() {
+        finNanos = System.nanoTime();
+        midiendo = false;
+    }
+
+    /**
+     * Indica si se está dentro de la ventana medida
+     */
+    public boolean isMidiendo() {
+        return midiendo;
+    }
+
+    /**
+     * Registra una petición
+     *
+     * @param endpoint Método y ruta con variables (por ejemplo "GET /api/productos/{id}")
+     * @param nanos Latencia de la petición
+     * @param exitosa false si respondió con error o no respondió
+     */
+    public void registrar(String endpoint, long nanos, boolean exitosa) {
+        if (midiendo) {
+            porEndpoint.computeIfAbsent(endpoint, clave -> new Muestras()).agregar(nanos, exitosa);
+        }
+    }
+
+    /**
+     * Duración de la ventana medida en segundos
+     */
+    public double duracionSeg() {
+        long fin = midiendo ? System.nanoTime() : finNanos;
+        return (fin - inicioNanos) / 1e9;
+    }
+
+    /**
+     * Calcula el resultado de cada endpoint, ordenados por nombre
+     *
+     * @return Peticiones, errores, throughput y percentiles de cada endpoint
+     */
+    public List<ResultadoEndpoint> resultados() {
+        double segundos = Math.max(duracionSeg(), 1e-9);
+        List<ResultadoEndpoint> resultados = new ArrayList<>();
+        porEndpoint.forEach((endpoint, muestras) -> resultados.add(muestras.resultado(endpoint, segundos)));
+        resultados.sort((a, b) -> a.getEndpoint().compareTo(b.getEndpoint()));
+        return resultados;
+    }
+
+    /**
+     * Percentil por rango más cercano de latencias ya ordenadas
+     *
+     * @param ordenadas Latencias en nanosegundos, ordenadas de menor a mayor
+     * @param percentil Valor entre 0 y 100
+     * @return Latencia en milisegundos, 0 si no hay muestras
+     */
+    static double percentilMs(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int rango = (int) Math.ceil(ordenadas.length * percentil / 100.0);
+        return aMs(ordenadas[Math.min(ordenadas.length, Math.max(1, rango)) - 1]);
+    }
+
+    private static double aMs(long nanos) {
+        return Math.round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1) * 100) / 100.0;
+    }
+
+    /**
+     * Muestras de un endpoint (arreglo que crece al doble)
+     */
+    private static final class Muestras {
+
+        private long[] latencias = new long[1024];
+        private int cantidad;
+        private long errores;
+
+        synchronized void agregar(long nanos, boolean exitosa) {
+            if (cantidad == latencias.length) {
+                latencias = Arrays.copyOf(latencias, cantidad * 2);
+            }
+            latencias[cantidad++] = nanos;
+            if (!exitosa) {
+                errores++;
+            }
+        }
+
+        synchronized ResultadoEndpoint resultado(String endpoint, double segundos) {
+            long[] ordenadas = Arrays.copyOf(latencias, cantidad);
+            Arrays.sort(ordenadas);
+            return ResultadoEndpoint.builder()
+                    .endpoint(endpoint)
+                    .peticiones(cantidad)
+                    .errores(errores)
+                    .throughput(Math.round(cantidad / segundos * 10) / 10.0)
+                    .p50Ms(percentilMs(ordenadas, 50))
+                    .p90Ms(percentilMs(ordenadas, 90))
+                    .p99Ms(percentilMs(ordenadas, 99))
+                    .maximoMs(percentilMs(ordenadas, 100))
+                    .build();
+        }
+    }
+}
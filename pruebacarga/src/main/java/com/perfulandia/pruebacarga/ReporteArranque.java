@@ -0,0 +1,43 @@
+package com.perfulandia.pruebacarga;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resultados de una medición de arranque de los microservicios
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias
+public class ReporteArranque {
+
+    /**
+     * Momento en que terminó la medición
+     */
+    private LocalDateTime fecha;
+
+    /**
+     * Opciones de la JVM de cada arranque
+     */
+    private String opcionesJvm;
+
+    /**
+     * Arranques medidos de cada servicio en cada modo
+     */
+    private int repeticiones;
+
+    /**
+     * Resultado por servicio
+     */
+    private List<ResultadoArranque> servicios;
+}
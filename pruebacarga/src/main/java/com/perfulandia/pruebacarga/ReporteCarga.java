@@ -0,0 +1,61 @@
+package com.perfulandia.pruebacarga;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resultados de una corrida de la prueba de carga
+ *
+ * Se guarda en JSON para compararlo con corridas anteriores (ver
+ * carga.linea-base).
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias
+public class ReporteCarga {
+
+    /**
+     * Momento en que terminó la corrida
+     */
+    private LocalDateTime fecha;
+
+    /**
+     * Usuarios virtuales que generaron la carga
+     */
+    private int usuariosVirtuales;
+
+    /**
+     * Duración real de la ventana medida en segundos
+     */
+    private double duracionSeg;
+
+    /**
+     * Sesiones de compra completas (con checkout exitoso) en la ventana medida
+     */
+    private long sesiones;
+
+    /**
+     * Checkouts exitosos de toda la corrida, incluido el calentamiento
+     */
+    private long pedidos;
+
+    /**
+     * Emails de confirmación recibidos por el servidor SMTP local
+     */
+    private long emailsRecibidos;
+
+    /**
+     * Resultado por endpoint
+     */
+    private List<ResultadoEndpoint> endpoints;
+}
@@ -0,0 +1,54 @@
+package com.perfulandia.pruebacarga;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resultados de una comparación entre la JVM y la imagen nativa
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias
+public class ReporteNativo {
+
+    /**
+     * Momento en que terminó la comparación
+     */
+    private LocalDateTime fecha;
+
+    /**
+     * Opciones de la JVM (y de memoria del ejecutable nativo) de cada arranque
+     */
+    private String opcionesJvm;
+
+    /**
+     * Arranques medidos de cada servicio en cada modo
+     */
+    private int repeticiones;
+
+    /**
+     * Hilos que envían peticiones sin pausa durante la carga
+     */
+    private int usuariosVirtuales;
+
+    /**
+     * Segundos de carga descartados antes de medir y segundos medidos
+     */
+    private int calentamientoSeg;
+    private int duracionSeg;
+
+    /**
+     * Resultado por servicio y modo
+     */
+    private List<ResultadoNativo> resultados;
+}
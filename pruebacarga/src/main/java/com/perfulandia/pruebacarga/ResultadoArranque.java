@@ -0,0 +1,42 @@
+package com.perfulandia.pruebacarga;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Arranque de un microservicio antes y después del build de producción
+ *
+ * Antes: como lo inicia la prueba de carga (target/classes y el classpath
+ * de Maven, con DevTools). Después: el JAR del perfil produccion con el
+ * contexto procesado por Spring AOT y el archivo CDS. Cada valor es la
+ * mediana de las repeticiones.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias
+public class ResultadoArranque {
+
+    /**
+     * Nombre del servicio
+     */
+    private String servicio;
+
+    /**
+     * Milisegundos desde que se inicia el proceso hasta la primera respuesta 200
+     */
+    private double primeraPeticionAntesMs;
+    private double primeraPeticionDespuesMs;
+
+    /**
+     * Memoria residente (RSS) al responder la primera petición, en MB (-1 si no se pudo leer)
+     */
+    private double memoriaAntesMb;
+    private double memoriaDespuesMb;
+}
@@ -0,0 +1,57 @@
+package com.perfulandia.pruebacarga;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de un endpoint durante la ventana medida
+ *
+ * Las latencias se miden desde el envío de la petición hasta recibir
+ * la respuesta completa, en milisegundos.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias
+public class ResultadoEndpoint {
+
+    /**
+     * Método y ruta con variables, por ejemplo "GET /api/productos/{id}"
+     */
+    private String endpoint;
+
+    /**
+     * Peticiones medidas
+     */
+    private long peticiones;
+
+    /**
+     * Peticiones con error (estado distinto de 2xx o sin respuesta)
+     */
+    private long errores;
+
+    /**
+     * Peticiones por segundo
+     */
+    private double throughput;
+
+    private double p50Ms;
+    private double p90Ms;
+    private double p99Ms;
+    private double maximoMs;
+
+    /**
+     * Fracción de peticiones con error
+     *
+     * @return Valor entre 0 y 1 (0 si no hubo peticiones)
+     */
+    public double tasaErrores() {
+        return peticiones == 0 ? 0 : (double) errores / peticiones;
+    }
+}
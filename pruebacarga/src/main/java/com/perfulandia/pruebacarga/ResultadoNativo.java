@@ -0,0 +1,62 @@
+package com.perfulandia.pruebacarga;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Arranque, memoria y throughput de un microservicio en un modo de ejecución
+ *
+ * Los modos son "jvm" (el JAR del perfil produccion con Spring AOT y el
+ * archivo CDS, como lo inicia arrancar-produccion.sh) y "nativo" (el
+ * ejecutable del perfil native). El arranque y su memoria son la mediana
+ * de las repeticiones; la carga se mide en un arranque aparte.
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+@Data // Genera automáticamente getters, setters, toString, equals y hashCode
+@AllArgsConstructor // Genera constructor con todos los parámetros
+@NoArgsConstructor // Genera constructor sin parámetros (requerido para deserialización JSON)
+@Builder // Implementa el patrón Builder para crear instancias
+public class ResultadoNativo {
+
+    /**
+     * Nombre del servicio
+     */
+    private String servicio;
+
+    /**
+     * Modo de ejecución: "jvm" o "nativo"
+     */
+    private String modo;
+
+    /**
+     * Milisegundos desde que se inicia el proceso hasta la primera respuesta 200
+     */
+    private double primeraPeticionMs;
+
+    /**
+     * Memoria residente (RSS) al responder la primera petición, en MB (-1 si no se pudo leer)
+     */
+    private double memoriaArranqueMb;
+
+    /**
+     * Memoria residente (RSS) al terminar la ventana medida de la carga, en MB (-1 si no se pudo leer)
+     */
+    private double memoriaCargaMb;
+
+    /**
+     * Peticiones por segundo de todos los endpoints en la ventana medida
+     */
+    private double throughput;
+
+    /**
+     * Resultado de cada endpoint de la carga
+     */
+    private List<ResultadoEndpoint> endpoints;
+}
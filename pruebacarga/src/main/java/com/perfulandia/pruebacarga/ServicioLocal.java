@@ -0,0 +1,340 @@
+package com.perfulandia.pruebacarga;
+
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Un microservicio ejecutado como proceso local para la prueba de carga
+ *
+ * Compila el servicio y obtiene su classpath con Maven (incluidas las
+ * dependencias de test, donde está H2), y lo inicia con java -cp y los
+ * argumentos que reemplazan MySQL, Gmail y las URLs de los otros
+ * servicios. La salida del proceso va a un archivo de log.
+ *
+ * También puede iniciarlo desde el build del perfil produccion (JAR con
+ * el contexto procesado por Spring AOT y sus dependencias en lib/),
+ * con o sin archivo CDS, para medir el arranque (ver MedicionArranque),
+ * o como ejecutable nativo de GraalVM (ver ComparacionNativa).
+ *
+ * @author Equipo Perfulandia
+ * @version 1.0
+ * @since 2025-06-30
+ */
+public class ServicioLocal {
+
+    /**
+     * Archivo CDS de las mediciones, relativo al directorio del servicio
+     */
+    private static final String ARCHIVO_CDS = "target/produccion/carga.jsa";
+
+    @Getter // Genera el getter del nombre
+    private final String nombre;
+
+    private final Path directorio;
+    private final String clasePrincipal;
+
+    @Getter // Genera el getter del puerto
+    private final int puerto;
+
+    private final String rutaSalud;
+    private final List<String> argumentos;
+    private Process proceso;
+    private Path log;
+
+    /**
+     * Momento (System.nanoTime) en que se inició el proceso
+     */
+    private long inicio;
+
+    /**
+     * @param nombre Nombre del servicio (también el del archivo de log)
+     * @param directorio Directorio con el pom.xml del servicio
+     * @param clasePrincipal Clase con el método main de Spring Boot
+     * @param puerto Puerto HTTP en que escuchará
+     * @param rutaSalud Ruta GET que responde 200 cuando el servicio está listo
+     * @param argumentos Propiedades de Spring que reemplazan las de application.properties
+     */
+    public ServicioLocal(String nombre, Path directorio, String clasePrincipal, int puerto,
+                         String rutaSalud, List<String> argumentos) {
+        this.nombre = nombre;
+        this.directorio = directorio;
+        this.clasePrincipal = clasePrincipal;
+        this.puerto = puerto;
+        this.rutaSalud = rutaSalud;
+        this.argumentos = argumentos;
+    }
+
+    /**
+     * URL base del servicio, por ejemplo http://localhost:18082
+     */
+    public String url() {
+        return "http://localhost:" + puerto;
+    }
+
+    /**
+     * Compila el servicio y escribe su classpath en target/classpath-carga.txt
+     *
+     * @param configuracion Comando de Maven y modo sin conexión
+     * @param logs Directorio donde se guarda la salida de Maven
+     * @throws IllegalStateException si Maven falla
+     */
+    public void preparar(ConfiguracionCarga configuracion, Path logs) throws IOException, InterruptedException {
+        maven(configuracion, logs.resolve(nombre + "-maven.log"), List.of("compile", "dependency:build-classpath",
+                "-Dmdep.includeScope=test", "-Dmdep.outputFile=target/classpath-carga.txt"));
+    }
+
+    /**
+     * Construye el servicio con el perfil produccion en target/produccion
+     *
+     * El archivo CDS del build se omite: lo crea entrenar con los mismos
+     * argumentos con que se mide el servicio.
+     *
+     * @param configuracion Comando de Maven y modo sin conexión
+     * @param logs Directorio donde se guarda la salida de Maven
+     * @throws IllegalStateException si Maven falla
+     */
+    public void construirProduccion(ConfiguracionCarga configuracion, Path logs) throws IOException, InterruptedException {
+        maven(configuracion, logs.resolve(nombre + "-produccion-maven.log"),
+                List.of("package", "-Pproduccion", "-DskipTests", "-Dcds.omitir=true"));
+    }
+
+    /**
+     * Compila el ejecutable nativo del servicio (perfil native, con H2) en target/
+     *
+     * @param configuracion Comando de Maven y modo sin conexión
+     * @param logs Directorio donde se guarda la salida de Maven
+     * @throws IllegalStateException si Maven falla (por ejemplo, sin GraalVM)
+     */
+    public void construirNativo(ConfiguracionCarga configuracion, Path logs) throws IOException, InterruptedException {
+        maven(configuracion, logs.resolve(nombre + "-nativo-maven.log"),
+                List.of("-Pnative,h2", "-DskipTests", "native:compile"));
+    }
+
+    private void maven(ConfiguracionCarga configuracion, Path salida, List<String> objetivos)
+            throws IOException, InterruptedException {
+        List<String> comando = new ArrayList<>(List.of(configuracion.getMaven(), "-B", "-q"));
+        if (configuracion.isOffline()) {
+            comando.add("-o");
+        }
+        comando.addAll(List.of("-f", directorio.resolve("pom.xml").toString()));
+        comando.addAll(objetivos);
+        Process maven = new ProcessBuilder(comando)
+                .directory(directorio.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(salida.toFile())
+                .start();
+        if (maven.waitFor() != 0) {
+            throw new IllegalStateException("Maven falló al preparar " + nombre + ":\n" + ultimasLineas(salida));
+        }
+    }
+
+    /**
+     * Inicia el proceso del servicio (sin esperar a que esté listo)
+     *
+     * @param configuracion Opciones de la JVM
+     * @param logs Directorio donde se guarda la salida del servicio
+     */
+    public void iniciar(ConfiguracionCarga configuracion, Path logs) throws IOException {
+        String classpath = directorio.resolve("target/classes") + File.pathSeparator + classpathMaven();
+        List<String> opciones = new ArrayList<>(opcionesJvm(configuracion));
+        // DevTools queda en el classpath de test: sin esto reiniciaría el contexto con otro class loader
+        opciones.add("-Dspring.devtools.restart.enabled=false");
+        lanzar(comandoJava(opciones, classpath), logs.resolve(nombre + ".log"));
+    }
+
+    /**
+     * Inicia el servicio desde el build de producción (ver construirProduccion)
+     *
+     * Usa el contexto procesado por Spring AOT. H2 no es parte del build,
+     * así que se agrega al final del classpath: el JAR y lib/ quedan
+     * primero, como los registra el archivo CDS.
+     *
+     * @param configuracion Opciones de la JVM
+     * @param logs Directorio donde se guarda la salida del servicio
+     * @param opcionesCds Opciones para crear o usar el archivo CDS (vacía para no usarlo)
+     */
+    public void iniciarProduccion(ConfiguracionCarga configuracion, Path logs, List<String> opcionesCds) throws IOException {
+        List<String> classpath = new ArrayList<>();
+        try (Stream<Path> archivos = Files.list(directorio.resolve("target/produccion"))) {
+            archivos.filter(archivo -> archivo.getFileName().toString().endsWith("-produccion.jar"))
+                    .forEach(archivo -> classpath.add(archivo.toString()));
+        }
+        Arrays.stream(classpathMaven().split(File.pathSeparator))
+                .filter(ruta -> Path.of(ruta).getFileName().toString().startsWith("h2-"))
+                .forEach(classpath::add);
+        List<String> opciones = new ArrayList<>(opcionesJvm(configuracion));
+        opciones.add("-Dspring.aot.enabled=true");
+        opciones.addAll(opcionesCds);
+        lanzar(comandoJava(opciones, String.join(File.pathSeparator, classpath)), logs.resolve(nombre + "-produccion.log"));
+    }
+
+    /**
+     * Crea el archivo CDS del build de producción con un arranque de entrenamiento
+     *
+     * Usa los mismos argumentos con que se inicia el servicio y termina
+     * apenas se crea el contexto, como arrancar-produccion.sh.
+     *
+     * @param configuracion Opciones de la JVM y plazo del arranque
+     * @param logs Directorio donde se guarda la salida del servicio
+     * @throws IllegalStateException si el entrenamiento falla o no termina a tiempo
+     */
+    public void entrenarCds(ConfiguracionCarga configuracion, Path logs) throws IOException, InterruptedException {
+        iniciarProduccion(configuracion, logs,
+                List.of("-XX:ArchiveClassesAtExit=" + ARCHIVO_CDS, "-Dspring.context.exit=onRefresh"));
+        esperarFin(configuracion.getArranqueSeg());
+    }
+
+    /**
+     * Inicia el servicio desde el build de producción usando el archivo CDS de entrenarCds
+     *
+     * @param configuracion Opciones de la JVM
+     * @param logs Directorio donde se guarda la salida del servicio
+     */
+    public void iniciarProduccionCds(ConfiguracionCarga configuracion, Path logs) throws IOException {
+        iniciarProduccion(configuracion, logs, List.of("-XX:SharedArchiveFile=" + ARCHIVO_CDS));
+    }
+
+    /**
+     * Inicia el ejecutable nativo de construirNativo (sin JVM)
+     *
+     * Las opciones de la JVM se pasan al ejecutable, que acepta las de
+     * memoria (por ejemplo -Xmx512m). H2 ya está dentro de la imagen.
+     *
+     * @param configuracion Opciones de memoria
+     * @param logs Directorio donde se guarda la salida del servicio
+     */
+    public void iniciarNativo(ConfiguracionCarga configuracion, Path logs) throws IOException {
+        List<String> comando = new ArrayList<>();
+        comando.add(directorio.resolve("target").resolve(nombre).toString());
+        comando.addAll(opcionesJvm(configuracion));
+        lanzar(comando, logs.resolve(nombre + "-nativo.log"));
+    }
+
+    private List<String> comandoJava(List<String> opciones, String classpath) {
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(opciones);
+        comando.addAll(List.of("-cp", classpath, clasePrincipal));
+        return comando;
+    }
+
+    /**
+     * Inicia el proceso con el comando indicado más el puerto y los argumentos del servicio
+     */
+    private void lanzar(List<String> ejecutable, Path archivoLog) throws IOException {
+        List<String> comando = new ArrayList<>(ejecutable);
+        comando.add("--server.port=" + puerto);
+        comando.addAll(argumentos);
+        log = archivoLog;
+        inicio = System.nanoTime();
+        proceso = new ProcessBuilder(comando)
+                .directory(directorio.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private String classpathMaven() throws IOException {
+        return Files.readString(directorio.resolve("target/classpath-carga.txt")).trim();
+    }
+
+    private static List<String> opcionesJvm(ConfiguracionCarga configuracion) {
+        return Arrays.asList(configuracion.getOpcionesJvm().trim().split("\\s+"));
+    }
+
+    /**
+     * Espera a que el servicio responda 200 en su ruta de salud
+     *
+     * @param cliente Cliente HTTP
+     * @param plazoSeg Segundos máximos de espera
+     * @return Milisegundos desde que se inició el proceso hasta la primera respuesta 200
+     * @throws IllegalStateException si el proceso termina o no responde a tiempo
+     */
+    public long esperarListo(HttpClient cliente, int plazoSeg) throws IOException, InterruptedException {
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(url() + rutaSalud))
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build();
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(plazoSeg);
+        while (System.nanoTime() < limite) {
+            if (!proceso.isAlive()) {
+                throw new IllegalStateException(nombre + " terminó al iniciar:\n" + ultimasLineas(log));
+            }
+            try {
+                if (cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+                }
+            } catch (IOException e) {
+                // Todavía no escucha en el puerto
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException(nombre + " no respondió en " + plazoSeg + " s:\n" + ultimasLineas(log));
+    }
+
+    /**
+     * Espera a que el proceso termine solo (por ejemplo un arranque de entrenamiento)
+     *
+     * @param plazoSeg Segundos máximos de espera
+     * @throws IllegalStateException si no termina a tiempo o termina con error
+     */
+    public void esperarFin(int plazoSeg) throws IOException, InterruptedException {
+        if (!proceso.waitFor(plazoSeg, TimeUnit.SECONDS)) {
+            detener();
+            throw new IllegalStateException(nombre + " no terminó en " + plazoSeg + " s:\n" + ultimasLineas(log));
+        }
+        if (proceso.exitValue() != 0) {
+            throw new IllegalStateException(nombre + " terminó con código " + proceso.exitValue() + ":\n" + ultimasLineas(log));
+        }
+    }
+
+    /**
+     * Memoria residente (RSS) del proceso, leída de /proc (solo Linux)
+     *
+     * @return Kilobytes de memoria residente, o -1 si no se puede leer
+     */
+    public long memoriaResidenteKb() {
+        try {
+            for (String linea : Files.readAllLines(Path.of("/proc", String.valueOf(proceso.pid()), "status"))) {
+                if (linea.startsWith("VmRSS:")) {
+                    return Long.parseLong(linea.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Sin /proc (otro sistema operativo) o el proceso ya terminó
+        }
+        return -1;
+    }
+
+    /**
+     * Detiene el proceso (primero con SIGTERM y, si no termina, a la fuerza)
+     */
+    public void detener() throws InterruptedException {
+        if (proceso != null && proceso.isAlive()) {
+            proceso.destroy();
+            if (!proceso.waitFor(15, TimeUnit.SECONDS)) {
+                proceso.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static String ultimasLineas(Path archivo) throws IOException {
+        List<String> lineas = Files.readAllLines(archivo, StandardCharsets.UTF_8);
+        return String.join("\n", lineas.subList(Math.max(0, lineas.size() - 40), lineas.size()));
+    }
+}
@@ -0,0 +1,57 @@
+package com.perfulandia.pruebacarga;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba el cálculo de resultados de la prueba de carga sin levantar servicios.
+ */
+class RegistroLatenciasTest {
+
+    @Test
+    @DisplayName("Testing Carga 1 - Percentiles exactos por endpoint y descarte del calentamiento")
+    void testPercentiles() {
+        // Arrange
+        RegistroLatencias registro = new RegistroLatencias();
+        registro.registrar("GET /api/productos", TimeUnit.SECONDS.toNanos(5), true);
+
+        // Act: 100 peticiones de 1 a 100 ms, la última con error
+        registro.iniciarMedicion();
+        for (int ms = 1; ms <= 100; ms++) {
+            registro.registrar("GET /api/productos", TimeUnit.MILLISECONDS.toNanos(ms), ms < 100);
+        }
+        registro.registrar("GET /api/productos/{id}", TimeUnit.MICROSECONDS.toNanos(1500), true);
+        registro.terminarMedicion();
+        registro.registrar("GET /api/productos", TimeUnit.SECONDS.toNanos(5), true);
+
+        // Assert: las muestras fuera de la ventana no cuentan
+        List<ResultadoEndpoint> resultados = registro.resultados();
+        assertEquals(2, resultados.size());
+        ResultadoEndpoint catalogo = resultados.get(0);
+        assertEquals("GET /api/productos", catalogo.getEndpoint());
+        assertEquals(100, catalogo.getPeticiones());
+        assertEquals(1, catalogo.getErrores());
+        assertEquals(50.0, catalogo.getP50Ms());
+        assertEquals(90.0, catalogo.getP90Ms());
+        assertEquals(99.0, catalogo.getP99Ms());
+        assertEquals(100.0, catalogo.getMaximoMs());
+        assertEquals(0.01, catalogo.tasaErrores());
+        assertEquals(1.5, resultados.get(1).getP99Ms());
+    }
+
+    @Test
+    @DisplayName("Testing Carga 2 - El control de regresión exige superar la tolerancia y un mínimo absoluto")
+    void testRegresion() {
+        // Assert
+        assertTrue(PruebaCarga.esRegresion(20.0, 30.0, 0.25));
+        assertFalse(PruebaCarga.esRegresion(20.0, 24.0, 0.25));
+        // 1 ms a 1,9 ms supera el 25% pero no el mínimo de 2 ms
+        assertFalse(PruebaCarga.esRegresion(1.0, 1.9, 0.25));
+        assertEquals(0.0, RegistroLatencias.percentilMs(new long[0], 99));
+    }
+}
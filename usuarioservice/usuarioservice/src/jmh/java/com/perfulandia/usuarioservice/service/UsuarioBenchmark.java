@@ -0,0 +1,96 @@
+package com.perfulandia.usuarioservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.perfulandia.usuarioservice.UsuarioserviceApplication;
+import com.perfulandia.usuarioservice.model.Usuario;
+import com.perfulandia.usuarioservice.repository.UsuarioRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la búsqueda de usuarios por correo (uno que existe, a mitad de la
+ * tabla, y uno que no) y la serialización JSON de los usuarios con la
+ * aplicación levantada sobre la base H2 de los tests.
+ *
+ * Se ejecuta con el perfil benchmark: mvn -Pbenchmark verify -DskipTests
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UsuarioBenchmark {
+
+    private static final String[] ROLES = {"USUARIO", "USUARIO", "USUARIO", "GERENTE", "ADMIN"};
+
+    @Param({"100", "5000"})
+    private int usuarios;
+
+    private ConfigurableApplicationContext contexto;
+    private UsuarioService usuarioService;
+    private ObjectMapper objectMapper;
+    private Usuario usuario;
+    private List<Usuario> registrados;
+
+    @Setup(Level.Trial)
+    public void levantar() {
+        contexto = new SpringApplicationBuilder(UsuarioserviceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.main.banner-mode=off", "logging.level.root=WARN",
+                        // DevTools no aplica aquí y su apagado de H2 choca con el cierre del contexto
+                        "spring.autoconfigure.exclude="
+                                + "org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration")
+                .run();
+        usuarioService = contexto.getBean(UsuarioService.class);
+        objectMapper = contexto.getBean(ObjectMapper.class);
+
+        List<Usuario> nuevos = new ArrayList<>();
+        for (int i = 0; i < usuarios; i++) {
+            nuevos.add(Usuario.builder()
+                    .nombre("Cliente " + i)
+                    .correo("cliente" + i + "@perfulandia.cl")
+                    .rol(ROLES[i % ROLES.length])
+                    .build());
+        }
+        registrados = contexto.getBean(UsuarioRepository.class).saveAll(nuevos);
+        usuario = registrados.get(registrados.size() / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Usuario buscarPorCorreo() {
+        return usuarioService.buscarPorCorreo(usuario.getCorreo());
+    }
+
+    @Benchmark
+    public Usuario buscarPorCorreoInexistente() {
+        return usuarioService.buscarPorCorreo("nadie@perfulandia.cl");
+    }
+
+    @Benchmark
+    public String serializarUsuario() throws Exception {
+        return objectMapper.writeValueAsString(usuario);
+    }
+
+    @Benchmark
+    public byte[] serializarUsuarios() throws Exception {
+        return objectMapper.writeValueAsBytes(registrados);
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * - Escaneo de componentes en el paquete com.perfulandia.usuarioservice
  * - Configuración automática de JPA y la base de datos
  * - Inicio del servidor web embebido
+ * - Hints de la imagen nativa que Spring AOT no genera solo (ProxiesJdbcHints, de perf-runtime)
  * 
  * @author Equipo Perfulandia
  * @version 1.0
@@ -18,6 +18,7 @@ import java.util.List;
  * Endpoints disponibles:
  * - GET /api/usuarios - Obtener todos los usuarios
  * - GET /api/usuarios/{id} - Obtener usuario por ID
+ * - GET /api/usuarios/lote?ids=1,2,3 - Obtener varios usuarios por ID
  * - POST /api/usuarios - Crear nuevo usuario
  * - PUT /api/usuarios/{id} - Actualizar usuario existente
  * - DELETE /api/usuarios/{id} - Eliminar usuario
@@ -38,6 +39,11 @@ public class UsuarioController {
      */
     private final UsuarioService usuarioService;
     
+    /**
+     * Cantidad máxima de IDs aceptados por el endpoint de lote
+     */
+    private static final int MAXIMO_LOTE = 500;
+    
     /**
      * Obtiene todos los usuarios registrados
      * 
@@ -83,6 +89,30 @@ public class UsuarioController {
         }
     }
     
+    /**
+     * Obtiene varios usuarios en una sola petición
+     * 
+     * Este endpoint lo utilizan otros microservicios (por ejemplo el
+     * de emails) para resolver muchos usuarios sin hacer una llamada
+     * HTTP por cada uno. Los IDs inexistentes se omiten del resultado.
+     * 
+     * @param ids Lista de IDs separados por coma
+     * @return ResponseEntity<List<Usuario>> con los usuarios encontrados o error 400 si se piden demasiados
+     */
+    @GetMapping("/lote") // Mapea este método a peticiones GET en la ruta especificada
+    public ResponseEntity<List<Usuario>> obtenerUsuariosPorIds(@RequestParam List<Long> ids) { // Extrae los IDs del parámetro de consulta
+        try {
+            // Limitar el tamaño del lote para acotar el tamaño de la consulta
+            if (ids.size() > MAXIMO_LOTE) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(usuarioService.buscarVarios(ids));
+        } catch (Exception e) {
+            // Manejar errores y retornar HTTP 500
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     /**
      * Crea un nuevo usuario en el sistema
      * 
@@ -4,6 +4,9 @@ import com.perfulandia.usuarioservice.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repositorio para operaciones de base de datos con la entidad Usuario
  * 
@@ -19,8 +22,9 @@ import org.springframework.stereotype.Repository;
  * - count(): Cuenta el total de usuarios
  * - existsById(Long): Verifica si existe un usuario con el ID especificado
  * 
- * Nota: En una implementación completa, se agregarían métodos personalizados
- * como findByCorreo, findByRol, findByNombreContainingIgnoreCase, etc.
+ * Métodos personalizados:
+ * - findFirstByCorreoOrderByIdAsc: Busca por correo (índice idx_usuario_correo)
+ * - findByRol: Lista los usuarios de un rol (índice idx_usuario_rol)
  * 
  * @author Equipo Perfulandia
  * @version 1.0
@@ -29,9 +33,32 @@ import org.springframework.stereotype.Repository;
 @Repository // Marca esta interfaz como un repositorio de Spring, permitiendo la inyección de dependencias y el manejo de excepciones específicas de persistencia
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     
+    /**
+     * Busca el usuario con el correo indicado
+     * 
+     * El correo no es único en la tabla: si se repite, devuelve el
+     * usuario registrado primero.
+     * 
+     * La consulta generada será equivalente a:
+     * SELECT * FROM usuario WHERE correo = ? ORDER BY id LIMIT 1
+     * 
+     * @param correo Correo electrónico exacto
+     * @return El usuario, o vacío si ninguno tiene ese correo
+     */
+    Optional<Usuario> findFirstByCorreoOrderByIdAsc(String correo);
+    
+    /**
+     * Lista los usuarios de un rol
+     * 
+     * La consulta generada será equivalente a:
+     * SELECT * FROM usuario WHERE rol = ?
+     * 
+     * @param rol Rol exacto (ADMIN, GERENTE, USUARIO)
+     * @return Usuarios con ese rol
+     */
+    List<Usuario> findByRol(String rol);
+    
     // Métodos personalizados que se pueden agregar en el futuro:
-    // Usuario findByCorreo(String correo);
-    // List<Usuario> findByRol(String rol);
     // List<Usuario> findByNombreContainingIgnoreCase(String nombre);
     // boolean existsByCorreo(String correo);
     
@@ -5,6 +5,7 @@ import com.perfulandia.usuarioservice.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -77,6 +78,20 @@ public class UsuarioService {
         return usuario.orElse(null);
     }
     
+    /**
+     * Busca varios usuarios por sus IDs en una sola consulta
+     * 
+     * Este método permite a otros microservicios resolver muchos
+     * usuarios de una vez en lugar de hacer una petición por cada uno.
+     * Los IDs que no existen simplemente no aparecen en el resultado.
+     * 
+     * @param ids IDs de los usuarios a buscar
+     * @return Lista de usuarios encontrados
+     */
+    public List<Usuario> buscarVarios(Collection<Long> ids) {
+        return repo.findAllById(ids);
+    }
+    
     /**
      * Elimina un usuario del sistema
      * 
@@ -121,11 +136,8 @@ public class UsuarioService {
      * @return Lista de usuarios con el rol especificado
      */
     public List<Usuario> buscarPorRol(String rol) {
-        // Implementación básica usando findAll y filtrado en memoria
-        // En una implementación real, se agregaría un método al repositorio
-        return repo.findAll().stream()
-                .filter(u -> rol.equals(u.getRol()))
-                .toList();
+        // La base de datos filtra con el índice idx_usuario_rol; no se leen todos los usuarios
+        return repo.findByRol(rol);
     }
     
     /**
@@ -138,11 +150,7 @@ public class UsuarioService {
      * @return Usuario encontrado o null si no existe
      */
     public Usuario buscarPorCorreo(String correo) {
-        // Implementación básica usando findAll y filtrado en memoria
-        // En una implementación real, se agregaría un método al repositorio
-        return repo.findAll().stream()
-                .filter(u -> correo.equals(u.getCorreo()))
-                .findFirst()
-                .orElse(null);
+        // La base de datos filtra con el índice idx_usuario_correo; no se leen todos los usuarios
+        return repo.findFirstByCorreoOrderByIdAsc(correo).orElse(null);
     }
 }
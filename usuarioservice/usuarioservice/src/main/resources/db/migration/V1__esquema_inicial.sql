@@ -0,0 +1,14 @@
+-- ========================================
+-- ESQUEMA INICIAL DEL MICROSERVICIO USUARIOS
+-- ========================================
+-- Tabla tal como la generaba Hibernate antes de usar Flyway.
+-- IF NOT EXISTS permite aplicar la migración sobre una base de datos
+-- donde Hibernate ya creó la tabla (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE IF NOT EXISTS usuario (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    nombre VARCHAR(255),
+    correo VARCHAR(255),
+    rol VARCHAR(255),
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,11 @@
+-- ========================================
+-- ÍNDICES DE BÚSQUEDA DE USUARIOS
+-- ========================================
+-- 1. Índice por correo: buscar un usuario por correo es una sola búsqueda
+--    en el índice en lugar de leer la tabla completa.
+--    No es único: las filas existentes pueden tener correos repetidos y la
+--    API no rechaza un correo ya registrado.
+-- 2. Índice por rol: listar los usuarios de un rol lee solo sus filas.
+
+CREATE INDEX idx_usuario_correo ON usuario (correo);
+CREATE INDEX idx_usuario_rol ON usuario (rol);
@@ -0,0 +1,101 @@
+package com.perfulandia.usuarioservice;
+
+import com.perfulandia.usuarioservice.model.Usuario;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de humo por HTTP contra H2, en la JVM y en la imagen nativa
+ * (mvn -PnativeTest test): JSON de la entidad, JPA, proxies JDBC de las
+ * trazas y Actuator.
+ */
+@Tag("nativo")
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.endpoints.web.exposure.include=health,prometheus")
+class ImagenNativaTest {
+
+    private static final ParameterizedTypeReference<List<Usuario>> LISTA_USUARIOS = new ParameterizedTypeReference<>() { };
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    private Usuario crear(String nombre, String correo) {
+        Usuario nuevo = Usuario.builder().nombre(nombre).correo(correo).rol("USUARIO").build();
+        ResponseEntity<Usuario> respuesta = rest.postForEntity("/api/usuarios", nuevo, Usuario.class);
+        assertEquals(HttpStatus.OK, respuesta.getStatusCode());
+        return respuesta.getBody();
+    }
+
+    @Test
+    @DisplayName("Testing Nativo 1 - Crear un usuario y leerlo por ID y en lote")
+    void testCrearYBuscar() {
+        // Arrange
+        Usuario creado = crear("Nativo Uno", "nativo.uno@perfulandia.test");
+        Usuario otro = crear("Nativo Dos", "nativo.dos@perfulandia.test");
+
+        // Act
+        ResponseEntity<Usuario> porId = rest.getForEntity("/api/usuarios/" + creado.getId(), Usuario.class);
+        ResponseEntity<List<Usuario>> lote = rest.exchange("/api/usuarios/lote?ids=" + creado.getId() + "," + otro.getId() + ",0",
+                HttpMethod.GET, null, LISTA_USUARIOS);
+
+        // Assert
+        assertTrue(creado.getId() > 0);
+        assertEquals(HttpStatus.OK, porId.getStatusCode());
+        assertEquals("Nativo Uno", porId.getBody().getNombre());
+        assertEquals("nativo.uno@perfulandia.test", porId.getBody().getCorreo());
+        assertEquals(2, lote.getBody().size());
+    }
+
+    @Test
+    @DisplayName("Testing Nativo 2 - Actualizar, buscar por nombre y eliminar un usuario")
+    void testActualizarYEliminar() {
+        // Arrange
+        Usuario creado = crear("Nativo Tres", "nativo.tres@perfulandia.test");
+        creado.setNombre("Nativo Actualizado");
+
+        // Act
+        ResponseEntity<Usuario> actualizado = rest.exchange("/api/usuarios/" + creado.getId(), HttpMethod.PUT,
+                new HttpEntity<>(creado), Usuario.class);
+        ResponseEntity<List<Usuario>> encontrados = rest.exchange("/api/usuarios/buscar/Actualizado",
+                HttpMethod.GET, null, LISTA_USUARIOS);
+        ResponseEntity<Void> eliminado = rest.exchange("/api/usuarios/" + creado.getId(), HttpMethod.DELETE, null, Void.class);
+
+        // Assert
+        assertEquals("Nativo Actualizado", actualizado.getBody().getNombre());
+        assertTrue(encontrados.getBody().stream().anyMatch(usuario -> usuario.getId() == creado.getId()));
+        assertEquals(HttpStatus.NO_CONTENT, eliminado.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, rest.getForEntity("/api/usuarios/" + creado.getId(), Usuario.class).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Testing Nativo 3 - Actuator expone la salud y las métricas de peticiones y consultas JDBC")
+    void testActuator() {
+        // Arrange
+        crear("Nativo Cuatro", "nativo.cuatro@perfulandia.test");
+
+        // Act
+        ResponseEntity<String> salud = rest.getForEntity("/actuator/health", String.class);
+        ResponseEntity<String> metricas = rest.getForEntity("/actuator/prometheus", String.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, salud.getStatusCode());
+        assertTrue(salud.getBody().contains("\"UP\""));
+        assertTrue(metricas.getBody().contains("http_server_requests_seconds_count"));
+        assertTrue(metricas.getBody().contains("jdbc_query_seconds_count"));
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
@@ -21,6 +22,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.hasSize;
 
+// @MockBean no se puede procesar con Spring AOT: esta clase no corre en la imagen nativa (perfil nativeTest)
+@DisabledInAotMode
 @WebMvcTest(UsuarioController.class)
 public class UsuarioControllerTest {
 
@@ -176,4 +179,17 @@ public class UsuarioControllerTest {
 
         verify(service).guardar(any(Usuario.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Testing Controller 9 - Buscar varios usuarios por ID")
+    void testBuscarLote() throws Exception {
+        when(service.buscarVarios(List.of(1L, 2L))).thenReturn(Arrays.asList(usuario));
+
+        mockMvc.perform(get("/api/usuarios/lote").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].correo").value("test@example.com"));
+
+        verify(service).buscarVarios(List.of(1L, 2L));
+    }
+}
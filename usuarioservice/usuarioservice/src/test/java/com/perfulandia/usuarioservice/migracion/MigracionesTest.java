@@ -0,0 +1,69 @@
+package com.perfulandia.usuarioservice.migracion;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba las migraciones de Flyway sobre una base H2 en modo MySQL propia,
+ * vacía o con la tabla que creaba Hibernate antes de usar Flyway.
+ */
+public class MigracionesTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migraciones" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Migra con la misma configuración que application.properties
+     */
+    private void migrar() {
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("0").load().migrate();
+    }
+
+    private List<String> indices() {
+        return jdbc.queryForList("SELECT index_name FROM information_schema.indexes WHERE table_name = 'usuario'",
+                String.class);
+    }
+
+    @Test
+    @DisplayName("Testing Migraciones 1 - Crea la tabla de usuarios con sus índices")
+    void testBaseVacia() {
+        // Act
+        migrar();
+
+        // Assert
+        assertTrue(indices().containsAll(List.of("idx_usuario_correo", "idx_usuario_rol")), () -> "Índices: " + indices());
+    }
+
+    @Test
+    @DisplayName("Testing Migraciones 2 - Agrega los índices a una base creada por Hibernate sin perder datos")
+    void testBaseCreadaPorHibernate() {
+        // Arrange: tabla y datos anteriores a Flyway, sin historial de migraciones
+        jdbc.execute("CREATE TABLE usuario (id BIGINT NOT NULL AUTO_INCREMENT, correo VARCHAR(255), "
+                + "nombre VARCHAR(255), rol VARCHAR(255), PRIMARY KEY (id))");
+        jdbc.update("INSERT INTO usuario (nombre, correo, rol) VALUES ('Ana', 'ana@perfulandia.cl', 'ADMIN'), "
+                + "('Ana Repetida', 'ana@perfulandia.cl', 'USUARIO')");
+
+        // Act
+        migrar();
+
+        // Assert: los correos repetidos no impiden la migración
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM usuario", Integer.class));
+        assertTrue(indices().containsAll(List.of("idx_usuario_correo", "idx_usuario_rol")), () -> "Índices: " + indices());
+    }
+}
@@ -0,0 +1,76 @@
+package com.perfulandia.usuarioservice.repository;
+
+import com.perfulandia.usuarioservice.model.Usuario;
+import com.perfulandia.rendimiento.consultas.PruebaPlanesConsulta;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que las consultas del repositorio usen los índices de las
+ * migraciones: captura el SQL que genera Hibernate y revisa su plan con
+ * EXPLAIN en H2 (modo MySQL, mismas migraciones que en producción; ver
+ * PruebaPlanesConsulta en perf-runtime).
+ */
+class PlanesConsultaTest extends PruebaPlanesConsulta {
+
+    @Autowired
+    private UsuarioRepository repo;
+
+    private Long usuarioId;
+
+    @BeforeAll
+    void cargarDatos() {
+        String[] roles = {"ADMIN", "GERENTE", "USUARIO", "USUARIO", "USUARIO"};
+        List<Usuario> usuarios = repo.saveAll(IntStream.range(0, 200)
+                .mapToObj(i -> Usuario.builder()
+                        .nombre("Usuario Plan " + i)
+                        .correo("plan" + i + "@perfulandia.cl")
+                        .rol(roles[i % roles.length])
+                        .build())
+                .toList());
+
+        // Estadísticas de las tablas para el optimizador, como las que InnoDB mantiene solas
+        jdbc.execute("ANALYZE");
+
+        usuarioId = usuarios.get(7).getId();
+    }
+
+    @Test
+    @DisplayName("Testing Planes 1 - Buscar por correo usa el índice idx_usuario_correo")
+    void testBuscarPorCorreo() {
+        // Act
+        String sql = sentenciaDe(() -> repo.findFirstByCorreoOrderByIdAsc("plan7@perfulandia.cl"));
+
+        // Assert
+        assertUsaIndice("idx_usuario_correo", plan(sql));
+    }
+
+    @Test
+    @DisplayName("Testing Planes 2 - Buscar por rol usa el índice idx_usuario_rol")
+    void testBuscarPorRol() {
+        // Act
+        String sql = sentenciaDe(() -> repo.findByRol("GERENTE"));
+
+        // Assert
+        assertUsaIndice("idx_usuario_rol", plan(sql));
+    }
+
+    @Test
+    @DisplayName("Testing Planes 3 - Buscar por ID y por lote de IDs usa la clave primaria")
+    void testBuscarPorId() {
+        // Act
+        String porId = sentenciaDe(() -> repo.findById(usuarioId));
+        String porLote = sentenciaDe(() -> repo.findAllById(List.of(usuarioId, usuarioId + 1)));
+
+        // Assert
+        assertUsaIndice("primary_key", plan(porId));
+        assertUsaIndice("primary_key", plan(porLote));
+    }
+}
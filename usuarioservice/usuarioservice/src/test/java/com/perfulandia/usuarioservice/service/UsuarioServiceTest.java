@@ -200,4 +200,36 @@ public class UsuarioServiceTest {
         assertEquals(usuario2, result.get(1));
         verify(repo).findAll();
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Testing Service 10 - Buscar por rol consulta el repositorio")
+    void testBuscarPorRol() {
+        // Arrange
+        when(repo.findByRol("ADMIN")).thenReturn(List.of(usuario));
+
+        // Act
+        List<Usuario> result = service.buscarPorRol("ADMIN");
+
+        // Assert
+        assertEquals(List.of(usuario), result);
+        verify(repo).findByRol("ADMIN");
+        verify(repo, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Testing Service 11 - Buscar por correo consulta el repositorio")
+    void testBuscarPorCorreo() {
+        // Arrange
+        when(repo.findFirstByCorreoOrderByIdAsc("test@example.com")).thenReturn(Optional.of(usuario));
+        when(repo.findFirstByCorreoOrderByIdAsc("nadie@example.com")).thenReturn(Optional.empty());
+
+        // Act
+        Usuario encontrado = service.buscarPorCorreo("test@example.com");
+        Usuario inexistente = service.buscarPorCorreo("nadie@example.com");
+
+        // Assert
+        assertEquals(usuario, encontrado);
+        assertNull(inexistente);
+        verify(repo, never()).findAll();
+    }
+}
\ No newline at end of file